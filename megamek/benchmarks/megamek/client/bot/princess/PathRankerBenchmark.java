@@ -0,0 +1,92 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import megamek.common.BenchmarkGame;
+import megamek.common.Entity;
+import megamek.common.IGame;
+import megamek.common.MovePath;
+import megamek.common.MovePath.MoveStepType;
+import megamek.common.logging.LogLevel;
+import megamek.common.pathfinder.ShortestPathFinder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Princess ranking the paths of one unit, the way she does when she moves it.
+ * The bot is not connected; it plays the benchmark game as its first side.
+ *
+ * @author The MegaMek Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathRankerBenchmark {
+
+    private Princess princess;
+    private Entity entity;
+    private List<MovePath> paths;
+
+    @Setup
+    public void setUp() throws Exception {
+        princess = new Princess("Benchmark", "localhost", 0, LogLevel.ERROR); //$NON-NLS-1$ //$NON-NLS-2$
+        BenchmarkGame game = new BenchmarkGame(princess.getGame());
+        game.getGame().setPhase(IGame.Phase.PHASE_MOVEMENT);
+        princess.setLocalPlayerNumber(game.getPlayer(0).getId());
+        princess.initialize();
+        entity = game.getUnit(0, 1);
+
+        ShortestPathFinder spf = ShortestPathFinder.newInstanceOfOneToAll(
+                entity.getRunMP(), MoveStepType.FORWARDS, game.getGame());
+        spf.run(new MovePath(game.getGame(), entity));
+        paths = new ArrayList<MovePath>(spf.getAllComputedPathsUncategorized());
+    }
+
+    @TearDown
+    public void tearDown() {
+        princess.die();
+    }
+
+    @Benchmark
+    public List<RankedPath> rankPaths() {
+        BasicPathRanker ranker = princess.getPathRanker();
+        IGame game = princess.getGame();
+        ranker.initUnitTurn(entity, game);
+        double fallTolerance = princess.getBehaviorSettings()
+                .getFallShameIndex() / 10d;
+        int startingHomeDistance = ranker.distanceToHomeEdge(
+                entity.getPosition(), princess.getBehaviorSettings()
+                        .getHomeEdge(), entity, game);
+        return ranker.rankPaths(paths, game, entity.getMaxWeaponRange(),
+                fallTolerance, startingHomeDistance,
+                princess.getEnemyEntities(), princess.getFriendEntities());
+    }
+}
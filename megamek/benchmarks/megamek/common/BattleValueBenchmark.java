@@ -0,0 +1,84 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import megamek.common.loaders.EntityLoadingException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The battle values and costs of every unit in the unit cache, totalled the
+ * way the lobby does every time it redraws its unit list and player
+ * summaries, worked out from scratch and from the per entity value cache.
+ *
+ * @author The MegaMek Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleValueBenchmark {
+
+    private List<Entity> entities;
+
+    @Setup
+    public void setUp() {
+        MechSummary[] units = MechSummaryCache.getInstance(true).getAllMechs();
+        entities = new ArrayList<Entity>(units.length);
+        for (MechSummary unit : units) {
+            try {
+                entities.add(new MechFileParser(unit.getSourceFile(),
+                        unit.getEntryName()).getEntity());
+            } catch (EntityLoadingException e) {
+                System.out.println("Could not load " + unit.getName() + ": " //$NON-NLS-1$ //$NON-NLS-2$
+                        + e.getMessage());
+            }
+        }
+    }
+
+    @Benchmark
+    public long uncached() {
+        long total = 0;
+        for (Entity entity : entities) {
+            total += entity.calculateBattleValue();
+            total += (long) entity.getCost(false);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long cached() {
+        long total = 0;
+        for (Entity entity : entities) {
+            total += entity.getCachedBattleValue();
+            total += (long) entity.getCachedCost(false);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.io.File;
+
+import megamek.common.loaders.EntityLoadingException;
+
+/**
+ * The game the benchmarks play with: a forested board from the data directory
+ * and a lance on each side, close enough to shoot at each other. The
+ * benchmarks run from the MegaMek directory, like the game itself.
+ *
+ * @author The MegaMek Team
+ */
+public class BenchmarkGame {
+
+    public static final String BOARD = "data/boards/heavyforest1.board"; //$NON-NLS-1$
+
+    /**
+     * The units of each side; the Raven carries an ECM suite
+     */
+    public static final String[] UNITS = {
+            "data/mechfiles/mechs/3039u/Atlas AS7-D.mtf", //$NON-NLS-1$
+            "data/mechfiles/mechs/3039u/Centurion CN9-A.mtf", //$NON-NLS-1$
+            "data/mechfiles/mechs/3039u/Locust LCT-1V.mtf", //$NON-NLS-1$
+            "data/mechfiles/mechs/3050U/Raven RVN-3L.mtf" }; //$NON-NLS-1$
+
+    private final IGame game;
+    private final IPlayer[] players = new IPlayer[2];
+
+    /**
+     * Sets up a new game.
+     */
+    public BenchmarkGame() throws EntityLoadingException {
+        this(new Game());
+    }
+
+    /**
+     * Sets up an empty game, such as the one a client keeps.
+     */
+    public BenchmarkGame(IGame game) throws EntityLoadingException {
+        this.game = game;
+        game.getOptions().initialize();
+        game.setBoard(loadBoard());
+        for (int side = 0; side < players.length; side++) {
+            players[side] = new Player(side, "Side " + side); //$NON-NLS-1$
+            players[side].setTeam(side + 1);
+            game.addPlayer(side, players[side]);
+        }
+        int id = 0;
+        for (int side = 0; side < players.length; side++) {
+            for (int i = 0; i < UNITS.length; i++) {
+                Entity entity = loadUnit(UNITS[i]);
+                entity.setId(id++);
+                entity.setOwner(players[side]);
+                // two lines of units facing each other across the board
+                entity.setPosition(new Coords(3 + (3 * i), (side == 0) ? 3
+                        : 12));
+                entity.setFacing((side == 0) ? 3 : 0);
+                entity.setDeployed(true);
+                game.addEntity(entity);
+            }
+        }
+        game.setPhase(IGame.Phase.PHASE_FIRING);
+    }
+
+    public IGame getGame() {
+        return game;
+    }
+
+    public IPlayer getPlayer(int side) {
+        return players[side];
+    }
+
+    /**
+     * @return the unit of a side, in the order of {@link #UNITS}
+     */
+    public Entity getUnit(int side, int index) {
+        return game.getEntity((side * UNITS.length) + index);
+    }
+
+    public static IBoard loadBoard() {
+        IBoard board = new Board();
+        board.load(new File(BOARD));
+        return board;
+    }
+
+    public static Entity loadUnit(String file) throws EntityLoadingException {
+        return new MechFileParser(new File(file)).getEntity();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Line of sight between every unit of one side and every unit of the other,
+ * through the woods of the benchmark board.
+ *
+ * @author The MegaMek Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LosEffectsBenchmark {
+
+    private BenchmarkGame game;
+
+    @Setup
+    public void setUp() throws Exception {
+        game = new BenchmarkGame();
+    }
+
+    @Benchmark
+    public void calculateLos(Blackhole blackhole) {
+        for (int i = 0; i < BenchmarkGame.UNITS.length; i++) {
+            Entity attacker = game.getUnit(0, i);
+            for (int j = 0; j < BenchmarkGame.UNITS.length; j++) {
+                blackhole.consume(LosEffects.calculateLos(game.getGame(),
+                        attacker.getId(), game.getUnit(1, j)));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.actions;
+
+import java.util.concurrent.TimeUnit;
+
+import megamek.common.BenchmarkGame;
+import megamek.common.Entity;
+import megamek.common.Mounted;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The to-hit numbers of every weapon of one side against the unit across
+ * from it, as the firing display and the bots work them out.
+ *
+ * @author The MegaMek Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeaponAttackActionBenchmark {
+
+    private BenchmarkGame game;
+
+    @Setup
+    public void setUp() throws Exception {
+        game = new BenchmarkGame();
+    }
+
+    @Benchmark
+    public void toHit(Blackhole blackhole) {
+        for (int i = 0; i < BenchmarkGame.UNITS.length; i++) {
+            Entity attacker = game.getUnit(0, i);
+            Entity target = game.getUnit(1, i);
+            for (Mounted weapon : attacker.getWeaponList()) {
+                blackhole.consume(WeaponAttackAction.toHit(game.getGame(),
+                        attacker.getId(), target,
+                        attacker.getEquipmentNum(weapon), false));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.event;
+
+import java.util.concurrent.TimeUnit;
+
+import megamek.common.BenchmarkGame;
+import megamek.common.Entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Entity changes going through the event bus, one for every unit of the game,
+ * to a few handlers listening for them and for entity events in general, the
+ * way displays and bots follow a game. The game's own entity change events
+ * aren't bus events, so this uses bus events of the same shape.
+ *
+ * @author The MegaMek Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    public static class EntityEvent extends MMEvent {
+        private final Entity entity;
+
+        EntityEvent(Entity entity) {
+            this.entity = entity;
+        }
+
+        public Entity getEntity() {
+            return entity;
+        }
+    }
+
+    public static class EntityChangeEvent extends EntityEvent {
+        EntityChangeEvent(Entity entity) {
+            super(entity);
+        }
+    }
+
+    public static class Handler {
+        private final Blackhole blackhole;
+
+        Handler(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe(priority = 1)
+        public void entityChanged(EntityChangeEvent event) {
+            blackhole.consume(event.getEntity().getPosition());
+        }
+
+        @Subscribe
+        public void entityEvent(EntityEvent event) {
+            blackhole.consume(event.getEntity().getId());
+        }
+    }
+
+    private static final int HANDLERS = 4;
+
+    private EventBus bus;
+    private EntityChangeEvent[] events;
+
+    @Setup
+    public void setUp(Blackhole blackhole) throws Exception {
+        BenchmarkGame game = new BenchmarkGame();
+        bus = new EventBus();
+        for (int i = 0; i < HANDLERS; i++) {
+            bus.register(new Handler(blackhole));
+        }
+        events = new EntityChangeEvent[game.getGame().getNoOfEntities()];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new EntityChangeEvent(game.getGame().getEntity(i));
+        }
+    }
+
+    @Benchmark
+    public void triggerEntityChanges() {
+        for (EntityChangeEvent event : events) {
+            bus.trigger(event);
+        }
+    }
+}
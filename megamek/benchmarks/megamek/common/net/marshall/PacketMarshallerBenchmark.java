@@ -0,0 +1,88 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.net.marshall;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import megamek.common.BenchmarkGame;
+import megamek.common.IGame;
+import megamek.common.net.Packet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Marshalling the packet the server sends all entities in, with and without
+ * the compression connections use.
+ *
+ * @author The MegaMek Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketMarshallerBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean compressed;
+
+    private PacketMarshaller marshaller;
+    private Packet packet;
+    private byte[] data;
+
+    @Setup
+    public void setUp() throws Exception {
+        marshaller = PacketMarshallerFactory.getInstance().getMarshaller(
+                PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING);
+        IGame game = new BenchmarkGame().getGame();
+        packet = new Packet(Packet.COMMAND_SENDING_ENTITIES, new Object[] {
+                game.getEntitiesVector(), game.getOutOfGameEntitiesVector() });
+        data = marshall();
+    }
+
+    @Benchmark
+    public byte[] marshall() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutputStream out = compressed ? new GZIPOutputStream(bos) : bos;
+        marshaller.marshall(packet, out);
+        out.close();
+        return bos.toByteArray();
+    }
+
+    @Benchmark
+    public Packet unmarshall() throws Exception {
+        InputStream in = new ByteArrayInputStream(data);
+        if (compressed) {
+            in = new GZIPInputStream(in);
+        }
+        return marshaller.unmarshall(in);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.pathfinder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import megamek.common.BenchmarkGame;
+import megamek.common.Entity;
+import megamek.common.IGame;
+import megamek.common.MovePath;
+import megamek.common.MovePath.MoveStepType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The path searches the bots make for each unit they move, for a slow and a
+ * fast unit of the benchmark game.
+ *
+ * @author The MegaMek Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathFinderBenchmark {
+
+    /**
+     * The unit to move: the Atlas or the Locust
+     */
+    @Param({ "0", "2" })
+    public int unit;
+
+    private BenchmarkGame game;
+    private Entity entity;
+
+    @Setup
+    public void setUp() throws Exception {
+        game = new BenchmarkGame();
+        game.getGame().setPhase(IGame.Phase.PHASE_MOVEMENT);
+        entity = game.getUnit(0, unit);
+    }
+
+    @Benchmark
+    public Collection<MovePath> shortestPaths() {
+        ShortestPathFinder spf = ShortestPathFinder.newInstanceOfOneToAll(
+                entity.getRunMP(), MoveStepType.FORWARDS, game.getGame());
+        spf.run(new MovePath(game.getGame(), entity));
+        return spf.getAllComputedPathsUncategorized();
+    }
+
+    @Benchmark
+    public List<MovePath> longestPaths() {
+        LongestPathFinder lpf = LongestPathFinder.newInstanceOfLongestPath(
+                entity.getRunMP(), MoveStepType.FORWARDS, game.getGame());
+        lpf.run(new MovePath(game.getGame(), entity));
+        return lpf.getLongestComputedPaths();
+    }
+}
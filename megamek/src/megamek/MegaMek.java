@@ -705,7 +705,7 @@ public class MegaMek {
                                 unit.getSourceFile(), unit.getEntryName())
                                 .getEntity();
                         
-                        BattleForceElement bfe = new BattleForceElement(entity);
+                        BattleForceElement bfe = entity.getBattleForceElement();
                         bfe.writeCsv(w);
                     }
                     w.close();
@@ -746,7 +746,7 @@ public class MegaMek {
                                 unit.getSourceFile(), unit.getEntryName())
                                 .getEntity();
                         
-                        AlphaStrikeElement ase = new AlphaStrikeElement(entity);
+                        AlphaStrikeElement ase = entity.getAlphaStrikeElement();
                         ase.writeCsv(w);
                    }
                     w.close();
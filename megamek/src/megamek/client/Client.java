@@ -53,6 +53,7 @@ import megamek.client.commands.ShowEntityCommand;
 import megamek.client.commands.ShowTileCommand;
 import megamek.client.ui.IClientCommandHandler;
 import megamek.common.Board;
+import megamek.common.BoardDelta;
 import megamek.common.BoardDimensions;
 import megamek.common.Building;
 import megamek.common.Building.DemolitionCharge;
@@ -1291,6 +1292,9 @@ public class Client implements IClientCommandHandler {
             List<IHex> hexes = new ArrayList<IHex>((Set<IHex>) c.getObject(1));
             game.getBoard().setHexes(coords, hexes);
             break;
+        case Packet.COMMAND_BOARD_DELTA:
+            game.getBoard().applyDelta((BoardDelta) c.getObject(0));
+            break;
         case Packet.COMMAND_BLDG_UPDATE:
             receiveBuildingUpdate(c);
             break;
@@ -323,13 +323,13 @@ public class RandomNameGenerator implements Serializable {
 
             Vector<String> ethnicities = factionLast.get(chosenFaction);
             if ((null != ethnicities) && (ethnicities.size() > 0)) {
-                String eLast = ethnicities.get(Compute.randomInt(ethnicities
+                String eLast = ethnicities.get(Compute.randomInt(Compute.RandomStream.CLIENT, ethnicities
                         .size()));
                 // ok now we need to decide on a first name list
                 ethnicities = factionFirst.get(chosenFaction).get(eLast);
                 if ((null != ethnicities) && (ethnicities.size() > 0)) {
                     String eFirst = ethnicities.get(Compute
-                            .randomInt(ethnicities.size()));
+                            .randomInt(Compute.RandomStream.CLIENT, ethnicities.size()));
                     // ok now we can get the first and last name vectors
                     if (isClan) {
                         eFirst = eLast;
@@ -341,9 +341,9 @@ public class RandomNameGenerator implements Serializable {
                     Vector<String> lnames = last.get(eLast);
                     if ((null != fnames) && (null != lnames)
                             && (fnames.size() > 0) && (lnames.size() > 0)) {
-                        String first = fnames.get(Compute.randomInt(fnames
+                        String first = fnames.get(Compute.randomInt(Compute.RandomStream.CLIENT, fnames
                                 .size()));
-                        String last = lnames.get(Compute.randomInt(lnames
+                        String last = lnames.get(Compute.randomInt(Compute.RandomStream.CLIENT, lnames
                                 .size()));
                         if (isClan) {
                             return first;
@@ -385,7 +385,7 @@ public class RandomNameGenerator implements Serializable {
      * @return true if female
      */
     public boolean isFemale() {
-        return Compute.randomInt(100) < percentFemale;
+        return Compute.randomInt(Compute.RandomStream.CLIENT, 100) < percentFemale;
     }
 
     public static void initialize() {
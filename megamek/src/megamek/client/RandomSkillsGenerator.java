@@ -236,7 +236,7 @@ public class RandomSkillsGenerator implements Serializable {
                 lbonus += 4;
             }
 
-            int lvlroll = Compute.d6(2) + lbonus;
+            int lvlroll = Compute.d6(Compute.RandomStream.CLIENT, 2) + lbonus;
 
             // restate level based on roll
             if (lvlroll < 6) {
@@ -263,8 +263,8 @@ public class RandomSkillsGenerator implements Serializable {
             bonus++;
         }
 
-        int gunroll = Compute.d6(1) + bonus;
-        int pilotroll = Compute.d6(1) + bonus;
+        int gunroll = Compute.d6(Compute.RandomStream.CLIENT, 1) + bonus;
+        int pilotroll = Compute.d6(Compute.RandomStream.CLIENT, 1) + bonus;
 
         int glevel = 0;
         int plevel = 0;
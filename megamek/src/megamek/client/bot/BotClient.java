@@ -26,6 +26,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Vector;
 
 import javax.swing.JFrame;
@@ -75,14 +76,12 @@ import megamek.common.event.GameReportEvent;
 import megamek.common.event.GameTurnChangeEvent;
 import megamek.common.net.Packet;
 import megamek.common.options.OptionsConstants;
-import megamek.common.pathfinder.AbstractPathFinder;
-import megamek.common.pathfinder.ShortestPathFinder;
+import megamek.common.pathfinder.DistanceField;
 import megamek.common.preference.PreferenceManager;
 import megamek.common.util.StringUtil;
 
 public abstract class BotClient extends Client {
 
-    private static final HexHasPathToCenterCache hexHasPathToCenterCache = new HexHasPathToCenterCache();
 
     // a frame, to show stuff in
     public JFrame frame;
@@ -94,6 +93,12 @@ public abstract class BotClient extends Client {
      */
     private ClientGUI clientgui = null;
 
+    /**
+     * This bot's random numbers, seeded every round as
+     * {@link Compute#getBotSeed(int, int)} says
+     */
+    private final Random random = new Random();
+
     public class CalculateBotTurn implements Runnable {
         public void run() {
             calculateMyTurn();
@@ -101,6 +106,13 @@ public abstract class BotClient extends Client {
         }
     }
 
+    /**
+     * @return the random numbers this bot makes its decisions with
+     */
+    public Random getRandom() {
+        return random;
+    }
+
     public BotClient(String playerName, String host, int port) {
         super(playerName, host, port);
         game.addGameListener(new GameListenerAdapter() {
@@ -254,6 +266,15 @@ public abstract class BotClient extends Client {
     public void changePhase(IGame.Phase phase) {
         super.changePhase(phase);
 
+        // the first phase of a round that is sent to the clients
+        if (phase == IGame.Phase.PHASE_INITIATIVE_REPORT) {
+            long seed = Compute.getBotSeed(getLocalPlayerNumber(),
+                    game.getRoundCount());
+            if (seed != 0) {
+                random.setSeed(seed);
+            }
+        }
+
         try {
             switch (phase) {
                 case PHASE_LOUNGE:
@@ -279,7 +300,7 @@ public abstract class BotClient extends Client {
                         die();
                     }
 
-                    if (Compute.randomInt(4) == 1) {
+                    if (Compute.randomInt(Compute.RandomStream.CLIENT, 4) == 1) {
                         String message = getRandomBotMessage();
                         if (message != null) {
                             sendChat(message);
@@ -320,8 +341,6 @@ public abstract class BotClient extends Client {
     }
 
     private void runEndGame() {
-        hexHasPathToCenterCache.clearCache();
-
         // Make a list of the player's living units.
         ArrayList<Entity> living = game.getPlayerEntities(getLocalPlayer(), false);
 
@@ -365,7 +384,7 @@ public abstract class BotClient extends Client {
                 unMoved.add(e);
             }
         }
-        return unMoved.get(Compute.randomInt(unMoved.size()));
+        return unMoved.get(random.nextInt(unMoved.size()));
     }
 
     private synchronized void calculateMyTurn() {
@@ -755,7 +774,7 @@ public abstract class BotClient extends Client {
             }
 
             // Make sure I'm not stuck in a dead-end.
-            if (!hasPathToCenter(deployed_ent, board)) {
+            if (!hasPathToCenter(deployed_ent)) {
                 coord.fitness -= 100;
             }
         }
@@ -772,50 +791,17 @@ public abstract class BotClient extends Client {
     }
 
     // ToDo: Change this to 'hasSafePathToCenter' to account for buildings, lava and similar hazards.
-    // ToDo: This will require a new PathFinder.
-    private boolean hasPathToCenter(Entity entity, IBoard board) {
+    private boolean hasPathToCenter(Entity entity) {
         // Flying units can always reach the center of the board.
         if (entity instanceof Aero || entity instanceof VTOL) {
             return true;
         }
 
-        // Don't take too long.
-        final int timeLimit = PreferenceManager.getClientPreferences()
-                                               .getMaxPathfinderTime();
-
-        final Coords boardCenter = board.getCenter();
-
-        // Start the path assuming forward movement, but if the unit is
-        // jump-capable, use jump movement.
-        MovePath pathToCenter = new MovePath(game, entity);
-        MovePath.MoveStepType type = MovePath.MoveStepType.FORWARDS;
-        if (entity.getOriginalJumpMP() > 0) {
-            type = MovePath.MoveStepType.START_JUMP;
-        }
-
-        // Check the cache to see if we've already tested this hex for this
-        // movement mode.
-        HexHasPathToCenterCache.Key key =
-                new HexHasPathToCenterCache.Key(entity.getPosition()
-                                                      .toFriendlyString(),
-                                                entity.getMovementMode());
-        Boolean hasPath = hexHasPathToCenterCache.hasPathToCenter(key);
-        if (hasPath != null) {
-            return hasPath;
-        }
-
-        // Find the shortest path.
-        ShortestPathFinder shortestPathFinder =
-                ShortestPathFinder.newInstanceOfAStar(boardCenter, type, game);
-        AbstractPathFinder.StopConditionTimeout<MovePath> timeoutCondition =
-                new AbstractPathFinder.StopConditionTimeout<>(timeLimit);
-        shortestPathFinder.addStopCondition(timeoutCondition);
-        shortestPathFinder.run(pathToCenter.clone());
-
-        // Base return on if a path was found or not and cache the result.
-        hasPath = shortestPathFinder.getComputedPath(boardCenter) != null;
-        hexHasPathToCenterCache.addMember(key, hasPath);
-        return hasPath;
+        // If the unit is jump-capable, it can jump over obstacles.  The field
+        // is shared by all units that move like this one, so it is only
+        // searched once for all the hexes they could deploy to.
+        DistanceField toCenter = DistanceField.toCenter(entity, entity.getOriginalJumpMP() > 0);
+        return toCenter.isReachable(entity.getPosition());
     }
 
     private double potentialBuildingDamage(int x, int y, Entity entity) {
@@ -928,7 +914,7 @@ public abstract class BotClient extends Client {
                             // heat), consider shutting
                             // off the armor
 
-                            trigger_range = 13 + Compute.randomInt(7);
+                            trigger_range = 13 + random.nextInt(7);
                             if (check_ent.heat > trigger_range) {
                                 new_stealth = 0;
                             } else {
@@ -947,11 +933,11 @@ public abstract class BotClient extends Client {
                                 for (Entity test_ent : game.getEntitiesVector()) {
                                     if (check_ent.isEnemyOf(test_ent)) {
                                         total_bv += test_ent
-                                                .calculateBattleValue();
+                                                .getCachedBattleValue();
                                         if (test_ent.isVisibleToEnemy()) {
                                             known_count++;
                                             known_bv += test_ent
-                                                    .calculateBattleValue();
+                                                    .getCachedBattleValue();
                                             known_range += Compute
                                                     .effectiveDistance(game,
                                                                        check_ent, test_ent);
@@ -967,8 +953,8 @@ public abstract class BotClient extends Client {
                                     || (known_bv < (total_bv / 2))) {
                                     new_stealth = 1;
                                 } else {
-                                    if ((known_range / known_count) <= (5 + Compute
-                                            .randomInt(5))) {
+                                    if ((known_range / known_count) <= (5 + random
+                                            .nextInt(5))) {
                                         new_stealth = 0;
                                     } else {
                                         new_stealth = 1;
@@ -995,7 +981,7 @@ public abstract class BotClient extends Client {
             BufferedReader dis = new BufferedReader(new InputStreamReader(fis));
             while (dis.ready()) {
                 message = dis.readLine();
-                if (Compute.randomInt(10) == 1) {
+                if (Compute.randomInt(Compute.RandomStream.CLIENT, 10) == 1) {
                     break;
                 }
             }
@@ -284,14 +284,15 @@ public class CEntity {
     public void characterize() {
         entity = tb.getGame().getEntity(entity.getId());
         current = new MoveOption(tb.getGame(), this);
-        bv = entity.calculateBattleValue();
+        bv = entity.getCachedBattleValue();
 
         // Make a guess as to whether MASC should be turned on or off
         // TODO: Link this to a Bot configuration file
         runMP = entity.getRunMP();
         if (entity instanceof Mech) {
             if (((Mech) entity).hasMASC()) {
-                if (((Mech) entity).getMASCTarget() <= (5 + Compute.randomInt(6))) {
+                if (((Mech) entity).getMASCTarget() <= (5 + tb.getRandom()
+                        .nextInt(6))) {
                     masc_threat = false;
                 } else {
                     masc_threat = true;
@@ -18,7 +18,6 @@ import java.util.Iterator;
 
 import megamek.client.bot.ga.Chromosome;
 import megamek.client.bot.ga.GA;
-import megamek.common.Compute;
 import megamek.common.Entity;
 import megamek.common.IGame;
 import megamek.common.Mech;
@@ -43,7 +42,8 @@ public class GAAttack extends GA {
     public GAAttack(TestBot tb, CEntity attacker,
             ArrayList<ArrayList<AttackOption>> attack, int population,
             int generations, boolean isEnemy) {
-        super(attack.size() + 1, population, .7, .05, generations, .4);
+        super(attack.size() + 1, population, .7, .05, generations, .4,
+                tb.getRandom());
         this.attack = attack;
         this.attacker = attacker;
         game = tb.getGame();
@@ -310,8 +310,7 @@ public class GAAttack extends GA {
         if (c1.genes.length < 1) {
             return;
         }
-        int r1 = (c1.genes.length > 2) ? Compute.randomInt(c1.genes.length - 1)
-                : 0;
+        int r1 = (c1.genes.length > 2) ? random.nextInt(c1.genes.length - 1) : 0;
         CEntity target = null;
         boolean done = false;
         if ((r1 % 2) == 1) {
@@ -334,10 +333,10 @@ public class GAAttack extends GA {
         }
         if (target == null) { // then not shooting, so shoot something
             if ((attack.size() > r1) && (r1 > 1)) {
-                c1.genes[r1] = Compute.randomInt(attack.get(r1).size() - 1);
+                c1.genes[r1] = random.nextInt(attack.get(r1).size() - 1);
             } else {
                 // TODO : Is this the correct action to take?
-                c1.genes[r1] = Compute.randomInt(attack.get(0).size() - 1);
+                c1.genes[r1] = random.nextInt(attack.get(0).size() - 1);
             }
             AttackOption a = attack.get(r1).get(c1.genes[r1]);
             if (a.target != null) {
@@ -375,7 +374,7 @@ public class GAAttack extends GA {
         for (int i = 1; i < populationDim; i++) {
             Chromosome cv = chromosomes[i];
             for (int iGene = 0; iGene < (chromosomeDim - 1); iGene++) {
-                cv.genes[iGene] = Compute.randomInt(attack.get(iGene).size());
+                cv.genes[iGene] = random.nextInt(attack.get(iGene).size());
                 if (i <= attack.size()) {
                     if ((iGene + 1) == i) {
                         cv.genes[iGene] = 0; // fire
@@ -385,7 +384,7 @@ public class GAAttack extends GA {
                 }
             }
             cv.genes[chromosomeDim - 1] = valid_target_indexes.get(
-                    Compute.randomInt(valid_target_indexes.size())).intValue();
+                    random.nextInt(valid_target_indexes.size())).intValue();
             chromosomes[i].fitness = getFitness(i);
         }
     }
@@ -19,7 +19,6 @@ import java.util.Iterator;
 
 import megamek.client.bot.ga.Chromosome;
 import megamek.client.bot.ga.GA;
-import megamek.common.Compute;
 import megamek.common.Entity;
 
 public class GALance extends GA {
@@ -30,7 +29,8 @@ public class GALance extends GA {
 
     public GALance(TestBot tb, ArrayList<MoveOption[]> moves, int population,
             int generations) {
-        super(moves.size(), population, .7, .05, generations, .5);
+        super(moves.size(), population, .7, .05, generations, .5,
+                tb.getRandom());
         System.gc();
         System.out.println("Generated move lance with population=" + population
                 + " and generations=" + generations);
@@ -48,8 +48,8 @@ public class GALance extends GA {
             }
             for (int i = 1; i < populationDim; i++) {
                 for (int iGene = 0; iGene < chromosomeDim; iGene++) {
-                    (this.chromosomes[i]).genes[iGene] = Compute
-                            .randomInt(moves.get(iGene).length);
+                    (this.chromosomes[i]).genes[iGene] = random
+                            .nextInt(moves.get(iGene).length);
                 }
                 this.chromosomes[i].fitness = getFitness(i);
             }
@@ -266,17 +266,16 @@ public class GALance extends GA {
         if (c1.genes.length < 1) {
             return;
         }
-        int r1 = (c1.genes.length > 2) ? Compute.randomInt(c1.genes.length - 1)
-                : 0;
+        int r1 = (c1.genes.length > 2) ? random.nextInt(c1.genes.length - 1) : 0;
         if (r1 % 2 == 1) {
-            c1.genes[r1] = Compute.randomInt(this.moves.get(r1).length);
+            c1.genes[r1] = random.nextInt(this.moves.get(r1).length);
             return;
         }
         for (int i = 1; i < c1.genes.length; i++) {
             int iGene = (i + r1 - 1) % (c1.genes.length - 1);
             if (this.moves.get(iGene).length > 1) {
-                c1.genes[iGene] = Compute
-                        .randomInt(this.moves.get(iGene).length);
+                c1.genes[iGene] = random
+                        .nextInt(this.moves.get(iGene).length);
                 return;
             }
         }
@@ -865,8 +865,8 @@ public class TestBot extends BotClient {
                         if (enemy_move_array.size() < compare) {
                             to_check.add(enemy_move_array.get(k));
                         } else {
-                            int value = Compute.randomInt(enemy_move_array
-                                                                  .size());
+                            int value = getRandom().nextInt(
+                                    enemy_move_array.size());
                             if ((value % 2) == 1) {
                                 to_check.add(enemy_move_array.get(value));
                             } else {
@@ -1682,7 +1682,7 @@ public class TestBot extends BotClient {
                     // good turn, keep up the work, but randomize to reduce
                     // predictability
                     if ((friend_sum - foe_sum) >= ((.9 * unit_values) - enemy_values)) {
-                        if (Compute.randomInt(2) == 1) {
+                        if (getRandom().nextInt(2) == 1) {
                             centity.strategy.target += .3;
                         }
                         // lost that turn, but still in the fight, just get a
@@ -1998,10 +1998,9 @@ public class TestBot extends BotClient {
     protected void deployMinefields(Vector<Minefield> deployedMinefields,
                                     int number, int type) {
         for (int i = 0; i < number; i++) {
-            Coords coords = new Coords(Compute.randomInt(game.getBoard()
-                                                             .getWidth()),
-                                       Compute.randomInt(game.getBoard().getHeight())
-            );
+            Coords coords = new Coords(getRandom().nextInt(
+                    game.getBoard().getWidth()),
+                    getRandom().nextInt(game.getBoard().getHeight()));
 
             if (game.containsMinefield(coords)) {
                 Minefield mf = game.getMinefields(coords).get(0);
@@ -2552,7 +2551,7 @@ public class TestBot extends BotClient {
                         // If the location is at least close to being breached
                         // or the target is immobile
 
-                        if (values[temp_index] <= Compute.randomInt(5)) {
+                        if (values[temp_index] <= getRandom().nextInt(5)) {
                             aimed_attack.setAimedLocation(best_loc);
                         } else {
                             aimed_attack
@@ -15,6 +15,7 @@
 package megamek.client.bot.ga;
 
 import java.util.Arrays;
+import java.util.Random;
 
 public abstract class GA {
     final double mutationProb; // probability of a mutation occuring during
@@ -32,6 +33,8 @@ public abstract class GA {
     double[] genAvgDeviation; // statistics--average deviation of current
     double[] genAvgFitness; // statistics--average fitness of current
     protected final int best;
+    /** the random numbers of the bot that evolves this */
+    final protected Random random;
 
     abstract protected void initPopulation();
 
@@ -45,7 +48,8 @@ public abstract class GA {
 
     public GA(int chromosomeDim, int populationDim, double crossoverProb,
             double randomSelectionChance, int maxGenerations,
-            double mutationProb) {
+            double mutationProb, Random random) {
+        this.random = random;
         this.randomSelectionChance = randomSelectionChance;
         this.chromosomeDim = chromosomeDim;
         this.populationDim = populationDim;
@@ -71,11 +75,14 @@ public abstract class GA {
     }
 
     int getRandom(int upperBound) {
-        return (int) (Math.random() * upperBound);
+        if (upperBound <= 0) {
+            return 0;
+        }
+        return random.nextInt(upperBound);
     }
 
     double getRandom(double upperBound) {
-        return Math.random() * upperBound;
+        return random.nextDouble() * upperBound;
     }
 
     protected boolean shouldDoExhaustive() {
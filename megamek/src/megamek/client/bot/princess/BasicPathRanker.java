@@ -317,7 +317,8 @@ public class BasicPathRanker extends PathRanker {
         FiringPlan myFiringPlan;
         if (path.getEntity() instanceof Aero) {
             myFiringPlan = getFireControl().guessFullAirToGroundPlan(path.getEntity(), enemy,
-                                                                     new EntityState(enemy), path, game, false);
+                                                                     getGameSnapshot(game).getState(enemy), path,
+                                                                     game, false);
         } else {
             myFiringPlan = getFireControl().guessBestFiringPlanWithTwists(path.getEntity(),
                                                                           new EntityState(path), enemy, null, game);
@@ -426,7 +427,9 @@ public class BasicPathRanker extends PathRanker {
     // If I need to flee the board, I want to get closer to my home edge.
     private double calculateSelfPreservationMod(Entity movingUnit, MovePath path, IGame game, StringBuilder formula) {
         if (getOwner().getFallBack() || movingUnit.isCrippled()) {
-            int newDistanceToHome = distanceToHomeEdge(path.getFinalCoords(), getOwner().getHomeEdge(), game);
+            // In MP; a path from which the unit can't get home at all costs far more than any that can.
+            int newDistanceToHome = distanceToHomeEdge(path.getFinalCoords(), getOwner().getHomeEdge(), movingUnit,
+                                                       game);
             double selfPreservation = getOwner().getBehaviorSettings().getSelfPreservationValue();
             double selfPreservationMod = newDistanceToHome * selfPreservation;
             formula.append(" - selfPreservationMod [").append(LOG_DECIMAL.format(selfPreservationMod))
@@ -463,6 +466,7 @@ public class BasicPathRanker extends PathRanker {
 
             // Copy the path to avoid inadvertent changes.
             MovePath pathCopy = path.clone();
+            GameSnapshot afterMove = getGameSnapshot(game).withMove(pathCopy);
 
             // Worry about failed piloting rolls (weighted by Fall Shame).
             double successProbability = getMovePathSuccessProbability(pathCopy, formula);
@@ -519,15 +523,15 @@ public class BasicPathRanker extends PathRanker {
                     continue; // Skip targets not actually on the board.
                 }
                 FiringPlan myFiringPlan = fireControl.guessBestFiringPlanWithTwists(path.getEntity(),
-                                                                                    new EntityState(path), target,
-                                                                                    null, game);
+                                                                                    afterMove.getState(movingUnit),
+                                                                                    target, null, game);
                 double myDamagePotential = myFiringPlan.getUtility();
                 if (myDamagePotential > maximumDamageDone) {
                     maximumDamageDone = myDamagePotential;
                 }
                 if (path.getEntity() instanceof Mech) {
                     PhysicalInfo myKick = new PhysicalInfo(
-                            path.getEntity(), new EntityState(path), target, null,
+                            path.getEntity(), afterMove.getState(movingUnit), target, null,
                             PhysicalAttackType.RIGHT_KICK, game, getOwner(), true);
                     double expectedKickDamage = myKick.getExpectedDamageOnHit() * myKick.getProbabilityToHit();
                     if (expectedKickDamage > maximumPhysicalDamage) {
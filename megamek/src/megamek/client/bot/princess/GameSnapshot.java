@@ -0,0 +1,202 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.IGame;
+import megamek.common.MovePath;
+import megamek.common.Targetable;
+
+/**
+ * The state of a game as the bot imagines it, for looking ahead: where the
+ * units would be, how hot they would run and how much damage they would
+ * have taken.
+ * <p>
+ * A snapshot of the game itself holds nothing but the game; it works out the
+ * {@link EntityState} of a unit the first time it is asked for it and keeps
+ * it. A fork of a snapshot changes one thing, such as the move of one unit
+ * or some damage, and shares everything else with the snapshot it came
+ * from, so it costs one small object. Snapshots never change, so forks can
+ * be made and read by several threads at once.
+ * <p>
+ * The units and the board themselves are never copied or changed. A snapshot
+ * of the game is only valid as long as {@link #isCurrent()}.
+ *
+ * @author The MegaMek Team
+ */
+public final class GameSnapshot {
+
+    private final IGame game;
+    private final GameSnapshot parent;
+
+    // Of the snapshot of the game only
+    private final long entitiesChangeStamp;
+    private final long boardChangeStamp;
+    private final int round;
+    private final IGame.Phase phase;
+    private final Map<Integer, EntityState> currentStates;
+
+    // Of a fork only: the unit it changes and how
+    private final int entityId;
+    private final MovePath move;
+    private volatile EntityState state;
+    private final double damage;
+
+    /**
+     * Takes a snapshot of the game as it is now.
+     */
+    public GameSnapshot(IGame game) {
+        this.game = game;
+        parent = null;
+        entitiesChangeStamp = game.getEntitiesChangeStamp();
+        boardChangeStamp = (game.getBoard() == null) ? 0 : game.getBoard()
+                .getChangeStamp();
+        round = game.getRoundCount();
+        phase = game.getPhase();
+        currentStates = new ConcurrentHashMap<Integer, EntityState>();
+        entityId = Entity.NONE;
+        move = null;
+        damage = 0;
+    }
+
+    private GameSnapshot(GameSnapshot parent, int entityId, MovePath move,
+            EntityState state, double damage) {
+        game = parent.game;
+        this.parent = parent;
+        entitiesChangeStamp = 0;
+        boardChangeStamp = 0;
+        round = 0;
+        phase = null;
+        currentStates = null;
+        this.entityId = entityId;
+        this.move = move;
+        this.state = state;
+        this.damage = damage;
+    }
+
+    public IGame getGame() {
+        return game;
+    }
+
+    /**
+     * @return the snapshot of the game all forks of this one come from
+     */
+    public GameSnapshot getRoot() {
+        GameSnapshot snapshot = this;
+        while (snapshot.parent != null) {
+            snapshot = snapshot.parent;
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return true if no unit has been added, replaced or removed and the
+     *         board hasn't changed since the snapshot of the game was taken,
+     *         in the same phase of the same round
+     */
+    public boolean isCurrent() {
+        GameSnapshot root = getRoot();
+        return (root.entitiesChangeStamp == game.getEntitiesChangeStamp())
+                && (root.boardChangeStamp == ((game.getBoard() == null) ? 0
+                        : game.getBoard().getChangeStamp()))
+                && (root.round == game.getRoundCount())
+                && (root.phase == game.getPhase());
+    }
+
+    /**
+     * @return a fork in which the unit has made the move
+     */
+    public GameSnapshot withMove(MovePath move) {
+        return new GameSnapshot(this, move.getEntity().getId(), move, null, 0);
+    }
+
+    /**
+     * @return a fork in which the unit is in the state
+     */
+    public GameSnapshot withState(Entity entity, EntityState state) {
+        return new GameSnapshot(this, entity.getId(), null, state, 0);
+    }
+
+    /**
+     * @return a fork in which the unit has taken more damage
+     */
+    public GameSnapshot withDamage(Entity entity, double damage) {
+        return new GameSnapshot(this, entity.getId(), null, null, damage);
+    }
+
+    /**
+     * @return the state the target is in here, which must not be changed
+     */
+    public EntityState getState(Targetable target) {
+        if (!(target instanceof Entity)) {
+            return new EntityState(target);
+        }
+        Entity entity = (Entity) target;
+        GameSnapshot snapshot = this;
+        while (snapshot.parent != null) {
+            if (snapshot.entityId == entity.getId()) {
+                EntityState result = snapshot.getChangedState();
+                if (result != null) {
+                    return result;
+                }
+            }
+            snapshot = snapshot.parent;
+        }
+        EntityState result = snapshot.currentStates.get(entity.getId());
+        if (result == null) {
+            result = new EntityState(entity);
+            snapshot.currentStates.put(entity.getId(), result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the state a fork puts its unit in, or <code>null</code> if it
+     *         doesn't change its state
+     */
+    private EntityState getChangedState() {
+        EntityState result = state;
+        if ((result == null) && (move != null)) {
+            // worked out when needed, many forks are never asked
+            result = new EntityState(move);
+            state = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return where the target is here
+     */
+    public Coords getPosition(Targetable target) {
+        return getState(target).getPosition();
+    }
+
+    /**
+     * @return the damage the unit has taken in this and the snapshots it was
+     *         forked from, on top of the damage it has in the game
+     */
+    public double getExpectedDamage(Entity entity) {
+        double result = 0;
+        for (GameSnapshot snapshot = this; snapshot.parent != null; snapshot = snapshot.parent) {
+            if (snapshot.entityId == entity.getId()) {
+                result += snapshot.damage;
+            }
+        }
+        return result;
+    }
+}
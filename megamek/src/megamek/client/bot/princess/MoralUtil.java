@@ -16,7 +16,6 @@
 
 package megamek.client.bot.princess;
 
-import megamek.common.Compute;
 import megamek.common.Entity;
 import megamek.common.IGame;
 import megamek.common.IPlayer;
@@ -28,6 +27,7 @@ import megamek.common.logging.Logger;
 import java.text.DecimalFormat;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -45,9 +45,11 @@ public class MoralUtil implements IMoralUtil {
     private final Set<Integer> BROKEN_UNITS = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
 
     private final Logger logger;
+    private final Random random;
 
-    public MoralUtil(Logger logger) {
+    public MoralUtil(Logger logger, Random random) {
         this.logger = logger;
+        this.random = random;
     }
 
     @Override
@@ -150,10 +152,10 @@ public class MoralUtil implements IMoralUtil {
     }
 
     /**
-     * @return The result of a 2d6 roll from {@link Compute#d6(int)}
+     * @return The result of a 2d6 roll with the bot's own random numbers.
      */
     protected int rollDice() {
-        return Compute.d6(2);
+        return random.nextInt(6) + random.nextInt(6) + 2;
     }
 
     private int calcBvRatioMod(IPlayer player, IGame game, StringBuilder logMsg) {
@@ -172,9 +174,9 @@ public class MoralUtil implements IMoralUtil {
             // If this is an enemy unit add it's BV to the enemy BV total, otherwise add it to the friendly BV total
             // so long as it's not broken and still on the board.
             if (entity.getOwner().isEnemyOf(player)) {
-                enemyBv += entity.calculateBattleValue();
+                enemyBv += entity.getCachedBattleValue();
             } else if (!BROKEN_UNITS.contains(entity.getId())) {
-                friendlyBv += entity.calculateBattleValue();
+                friendlyBv += entity.getCachedBattleValue();
             }
         }
 
@@ -25,6 +25,7 @@ import java.util.List;
 import megamek.client.ui.SharedUtility;
 import megamek.common.Aero;
 import megamek.common.Infantry;
+import megamek.common.Board;
 import megamek.common.Building;
 import megamek.common.Compute;
 import megamek.common.Coords;
@@ -37,16 +38,32 @@ import megamek.common.Targetable;
 import megamek.common.annotations.Nullable;
 import megamek.common.logging.LogLevel;
 import megamek.common.options.OptionsConstants;
+import megamek.common.pathfinder.DistanceField;
 import megamek.common.util.StringUtil;
 
 public abstract class PathRanker {
 
     private Princess owner;
+    private volatile GameSnapshot gameSnapshot;
 
     public PathRanker(Princess princess) {
         owner = princess;
     }
 
+    /**
+     * @return a snapshot of the game the paths are ranked in, shared by all
+     *         paths until the game changes
+     */
+    GameSnapshot getGameSnapshot(IGame game) {
+        GameSnapshot snapshot = gameSnapshot;
+        if ((snapshot == null) || (snapshot.getGame() != game)
+                || !snapshot.isCurrent()) {
+            snapshot = new GameSnapshot(game);
+            gameSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
     /**
      * Gives the "utility" of a path; a number representing how good it is.
      * Rankers that extend this class should override this function
@@ -54,7 +71,7 @@ public abstract class PathRanker {
     RankedPath rankPath(MovePath path, IGame game) {
         double fallTolerance = getOwner().getBehaviorSettings().getFallShameIndex() / 10d;
         Entity me = path.getEntity();
-        int homeDistance = distanceToHomeEdge(me.getPosition(), getOwner().getHomeEdge(), game);
+        int homeDistance = distanceToHomeEdge(me.getPosition(), getOwner().getHomeEdge(), me, game);
         int maxWeaponRange = me.getMaxWeaponRange();
         List<Entity> enemies = getOwner().getEnemyEntities();
         List<Entity> friends = getOwner().getFriendEntities();
@@ -146,8 +163,10 @@ public abstract class PathRanker {
             try {
                 Coords finalCoords = path.getFinalCoords();
 
-                // If fleeing, skip any paths that don't get me closer to home.
-                if (fleeing && (distanceToHomeEdge(finalCoords, homeEdge, game) >= startingHomeDistance)) {
+                // If fleeing, skip any paths that don't get me closer to home.  When there is no way home from
+                // here, any path may find one.
+                if (fleeing && (startingHomeDistance != DistanceField.UNREACHABLE)
+                    && (distanceToHomeEdge(finalCoords, homeEdge, mover, game) >= startingHomeDistance)) {
                     logLevel = LogLevel.INFO;
                     msg.append("\n\tINVALID: Running away in wrong direction.");
                     continue;
@@ -336,6 +355,38 @@ public abstract class PathRanker {
         }
     }
 
+    /**
+     * Returns the MP the unit needs to reach its home edge from the given position, taken from the board's
+     * {@link DistanceField} for units that move like it.  Without a home edge on the board or a board to work on,
+     * it falls back to the distance in hexes given by {@link #distanceToHomeEdge(Coords, HomeEdge, IGame)} for every
+     * position, so the values of one unit's turn are always in the same unit.
+     *
+     * @param position Final coordinates of the proposed move.
+     * @param homeEdge Unit's home edge.
+     * @param entity   The unit that is moving.
+     * @param game     The {@link IGame} currently in play.
+     * @return The distance to the unit's home edge, or {@link DistanceField#UNREACHABLE} if the unit can't get there
+     * from the position.
+     */
+    public int distanceToHomeEdge(Coords position, HomeEdge homeEdge, Entity entity, IGame game) {
+        int edge;
+        if (HomeEdge.NORTH.equals(homeEdge)) {
+            edge = Board.START_N;
+        } else if (HomeEdge.SOUTH.equals(homeEdge)) {
+            edge = Board.START_S;
+        } else if (HomeEdge.WEST.equals(homeEdge)) {
+            edge = Board.START_W;
+        } else if (HomeEdge.EAST.equals(homeEdge)) {
+            edge = Board.START_E;
+        } else {
+            return distanceToHomeEdge(position, homeEdge, game);
+        }
+        if ((entity == null) || (entity.getGame() == null) || (entity.getGame().getBoard() != game.getBoard())) {
+            return distanceToHomeEdge(position, homeEdge, game);
+        }
+        return DistanceField.toEdge(entity, edge).getCost(position);
+    }
+
     private String validRange(Coords finalCoords, Targetable target, int startingTargetDistance, int maxRange,
                               boolean inRange) {
         if (target == null) {
@@ -33,6 +33,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import megamek.client.bot.princess.BotGeometry.CoordFacingCombo;
 import megamek.common.Aero;
 import megamek.common.Board;
+import megamek.common.BoardDelta;
 import megamek.common.Building;
 import megamek.common.ComputeECM;
 import megamek.common.Coords;
@@ -216,6 +217,9 @@ public class Precognition implements Runnable {
                         (Set<IHex>) c.getObject(1));
                 getGame().getBoard().setHexes(coords, hexes);
                 break;
+            case Packet.COMMAND_BOARD_DELTA:
+                getGame().getBoard().applyDelta((BoardDelta) c.getObject(0));
+                break;
             case Packet.COMMAND_BLDG_UPDATE:
                 receiveBuildingUpdate(c);
                 break;
@@ -86,7 +86,7 @@ public class Princess extends BotClient {
     private boolean fallBack = false;
     protected ChatProcessor chatProcessor = new ChatProcessor();
     private boolean fleeBoard = false;
-    private IMoralUtil moralUtil = new MoralUtil(logger);
+    private IMoralUtil moralUtil = new MoralUtil(logger, getRandom());
     private final Set<Integer> attackedWhileFleeing =
             Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
     private final Set<Integer> myFleeingEntities = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
@@ -690,7 +690,7 @@ public class Princess extends BotClient {
         if (!entity.canFlee()) {
             return false;
         }
-        if (getPathRanker().distanceToHomeEdge(entity.getPosition(), getHomeEdge(), getGame()) > 0) {
+        if (getPathRanker().distanceToHomeEdge(entity.getPosition(), getHomeEdge(), entity, getGame()) > 0) {
             return false;
         }
         //noinspection RedundantIfStatement
@@ -867,7 +867,7 @@ public class Princess extends BotClient {
             double fallTolerance = getBehaviorSettings().getFallShameIndex() / 10d;
             int startingHomeDistance = getPathRanker().distanceToHomeEdge(entity.getPosition(),
                                                                           getBehaviorSettings().getHomeEdge(),
-                                                                          getGame());
+                                                                          entity, getGame());
             List<RankedPath> rankedpaths = rankPaths(paths, entity.getMaxWeaponRange(), fallTolerance,
                                                      startingHomeDistance, getEnemyEntities(),
                                                      getFriendEntities());
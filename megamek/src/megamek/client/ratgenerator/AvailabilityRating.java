@@ -95,6 +95,28 @@ public class AvailabilityRating {
 		}
 	}
 
+	/**
+	 * Creates a record from the values of an availability code that has already been parsed.
+	 *
+	 * @param unit The chassis or model key
+	 * @param era The year that this availability code applies to.
+	 * @param faction The faction key
+	 * @param ratings The equipment ratings the record is limited to, or null for all
+	 * @param availability How common the unit is, from 0 to 10
+	 * @param ratingAdjustment 1 for +, -1 for - and 0 for no adjustment
+	 * @param startYear The year the unit becomes available within the era
+	 */
+	AvailabilityRating(String unit, int era, String faction, String ratings,
+			int availability, int ratingAdjustment, int startYear) {
+		unitName = unit;
+		this.era = era;
+		this.faction = faction;
+		this.ratings = ratings;
+		this.availability = availability;
+		this.ratingAdjustment = ratingAdjustment;
+		this.startYear = startYear;
+	}
+
 	public String getFaction() {
 		return faction;
 	}
@@ -437,110 +437,137 @@ public class FactionRecord {
 	
 	public static FactionRecord createFromXml(Node node) {
 		FactionRecord retVal = new FactionRecord();
-		retVal.key = node.getAttributes().getNamedItem("key").getTextContent();
-		retVal.name = node.getAttributes().getNamedItem("name").getTextContent();
-		if (node.getAttributes().getNamedItem("minor") != null) {
-			retVal.minor = Boolean.parseBoolean(node.getAttributes().getNamedItem("minor").getTextContent());
-		} else {
-			retVal.minor = false;
-		}
-		if (node.getAttributes().getNamedItem("clan") != null) {
-			retVal.clan = Boolean.parseBoolean(node.getAttributes().getNamedItem("clan").getTextContent());
-		} else {
-			retVal.clan = false;
-		}
-		if (node.getAttributes().getNamedItem("periphery") != null) {
-			retVal.periphery = Boolean.parseBoolean(node.getAttributes().getNamedItem("periphery").getTextContent());
-		} else {
-			retVal.periphery = false;
-		}
+		retVal.setBaseValues(node.getAttributes().getNamedItem("key").getTextContent(),
+				node.getAttributes().getNamedItem("name").getTextContent(),
+				getAttribute(node, "minor"), getAttribute(node, "clan"),
+				getAttribute(node, "periphery"));
 		for (int i = 0; i < node.getChildNodes().getLength(); i++) {
 			Node wn = node.getChildNodes().item(i);
-			if (wn.getNodeName().equalsIgnoreCase("nameChange")) {
-				retVal.altNames.put(Integer.parseInt(wn.getAttributes().getNamedItem("year").getTextContent()),
-						wn.getTextContent());
-			} else if (wn.getNodeName().equalsIgnoreCase("years")) {
-				try {
-					retVal.setYears(wn.getTextContent());
-				} catch (ParseException ex) {
-					System.err.println(ex.getMessage());
-				}
-			} else if (wn.getNodeName().equalsIgnoreCase("ratingLevels")) {
-				retVal.setRatings(wn.getTextContent());
-			} else if (wn.getNodeName().equalsIgnoreCase("parentFaction")) {
-				retVal.setParentFactions(wn.getTextContent());
-			}
+			retVal.addValue(wn.getNodeName(), getAttribute(wn, "year"), wn.getTextContent());
 		}
 		return retVal;
 	}
 
+	/**
+	 * @return the text of the named attribute, or null if the node does not have it
+	 */
+	static String getAttribute(Node node, String name) {
+		if ((node.getAttributes() == null) || (node.getAttributes().getNamedItem(name) == null)) {
+			return null;
+		}
+		return node.getAttributes().getNamedItem(name).getTextContent();
+	}
+
+	/**
+	 * Sets the values given as attributes of the faction element in factions.xml.
+	 * The flags are false unless given.
+	 */
+	void setBaseValues(String key, String name, String minor, String clan, String periphery) {
+		this.key = key;
+		this.name = name;
+		this.minor = (minor != null) && Boolean.parseBoolean(minor);
+		this.clan = (clan != null) && Boolean.parseBoolean(clan);
+		this.periphery = (periphery != null) && Boolean.parseBoolean(periphery);
+	}
+
+	/**
+	 * Sets a value given by a child of the faction element in factions.xml.
+	 *
+	 * @param element - the name of the child element
+	 * @param year - the year attribute, if any
+	 * @param text - the text content of the element
+	 */
+	void addValue(String element, String year, String text) {
+		if (element.equalsIgnoreCase("nameChange")) {
+			altNames.put(Integer.parseInt(year), text);
+		} else if (element.equalsIgnoreCase("years")) {
+			try {
+				setYears(text);
+			} catch (ParseException ex) {
+				System.err.println(ex.getMessage());
+			}
+		} else if (element.equalsIgnoreCase("ratingLevels")) {
+			setRatings(text);
+		} else if (element.equalsIgnoreCase("parentFaction")) {
+			setParentFactions(text);
+		}
+	}
+
 	public void loadEra(Node node, int era) {
 		for (int i = 0; i < node.getChildNodes().getLength(); i++) {
 			Node wn = node.getChildNodes().item(i);
-			switch(wn.getNodeName()) {
-			case "pctOmni":
-				if (wn.getAttributes().getNamedItem("unitType") != null
-						&& wn.getAttributes().getNamedItem("unitType").getTextContent().equalsIgnoreCase("Aero")) {
-					setPctTech(TechCategory.OMNI_AERO, era, wn.getTextContent());
-				} else {
-					setPctTech(TechCategory.OMNI, era, wn.getTextContent());
-				}
-				break;
-			case "pctClan":
-				if (wn.getAttributes().getNamedItem("unitType") != null
-						&& wn.getAttributes().getNamedItem("unitType").getTextContent().equalsIgnoreCase("Aero")) {
-					setPctTech(TechCategory.CLAN_AERO, era, wn.getTextContent());
-				} else if (wn.getAttributes().getNamedItem("unitType") != null
-							&& wn.getAttributes().getNamedItem("unitType").getTextContent().equalsIgnoreCase("Vehicle")) {
-					setPctTech(TechCategory.CLAN_VEE, era, wn.getTextContent());
-				} else {
-					setPctTech(TechCategory.CLAN, era, wn.getTextContent());
-				}
-				break;
-			case "pctSL":
-				if (wn.getAttributes().getNamedItem("unitType") != null
-						&& wn.getAttributes().getNamedItem("unitType").getTextContent().equalsIgnoreCase("Aero")) {
-					setPctTech(TechCategory.IS_ADVANCED_AERO, era, wn.getTextContent());
-				} else if (wn.getAttributes().getNamedItem("unitType") != null
-							&& wn.getAttributes().getNamedItem("unitType").getTextContent().equalsIgnoreCase("Vehicle")) {
-					setPctTech(TechCategory.IS_ADVANCED_VEE, era, wn.getTextContent());
-				} else {
-					setPctTech(TechCategory.IS_ADVANCED, era, wn.getTextContent());
-				}
-				break;
-			case "omniMargin":
-				omniMargin.put(era, Integer.parseInt(wn.getTextContent()));
-				break;
-			case "techMargin":
-				techMargin.put(era, Integer.parseInt(wn.getTextContent()));
-				break;
-			case "upgradeMargin":
-				upgradeMargin.put(era, Integer.parseInt(wn.getTextContent()));
-				break;
-			case "salvage":
-				pctSalvage.put(era,
-						Integer.parseInt(wn.getAttributes().getNamedItem("pct").getTextContent()));
-				salvage.put(era, new HashMap<String,Integer>());
-				String [] fields = wn.getTextContent().trim().split(",");
-				for (String field : fields) {
-					if (field.length() > 0) {
-						String[] subfields = field.split(":");
-						if (subfields.length == 2) {
-							salvage.get(era).put(subfields[0], Integer.parseInt(subfields[1]));
-						}
+			loadEraValue(era, wn.getNodeName(), getAttribute(wn, "unitType"),
+					getAttribute(wn, "pct"), wn.getTextContent());
+		}
+	}
+
+	/**
+	 * Sets a value given by a child of the faction element in an era file.
+	 *
+	 * @param era - the era being loaded
+	 * @param element - the name of the child element
+	 * @param unitType - the unitType attribute, if any
+	 * @param pct - the pct attribute, if any
+	 * @param text - the text content of the element
+	 */
+	void loadEraValue(int era, String element, String unitType, String pct, String text) {
+		switch(element) {
+		case "pctOmni":
+			if (unitType != null && unitType.equalsIgnoreCase("Aero")) {
+				setPctTech(TechCategory.OMNI_AERO, era, text);
+			} else {
+				setPctTech(TechCategory.OMNI, era, text);
+			}
+			break;
+		case "pctClan":
+			if (unitType != null && unitType.equalsIgnoreCase("Aero")) {
+				setPctTech(TechCategory.CLAN_AERO, era, text);
+			} else if (unitType != null && unitType.equalsIgnoreCase("Vehicle")) {
+				setPctTech(TechCategory.CLAN_VEE, era, text);
+			} else {
+				setPctTech(TechCategory.CLAN, era, text);
+			}
+			break;
+		case "pctSL":
+			if (unitType != null && unitType.equalsIgnoreCase("Aero")) {
+				setPctTech(TechCategory.IS_ADVANCED_AERO, era, text);
+			} else if (unitType != null && unitType.equalsIgnoreCase("Vehicle")) {
+				setPctTech(TechCategory.IS_ADVANCED_VEE, era, text);
+			} else {
+				setPctTech(TechCategory.IS_ADVANCED, era, text);
+			}
+			break;
+		case "omniMargin":
+			omniMargin.put(era, Integer.parseInt(text));
+			break;
+		case "techMargin":
+			techMargin.put(era, Integer.parseInt(text));
+			break;
+		case "upgradeMargin":
+			upgradeMargin.put(era, Integer.parseInt(text));
+			break;
+		case "salvage":
+			pctSalvage.put(era, Integer.parseInt(pct));
+			salvage.put(era, new HashMap<String,Integer>());
+			String [] fields = text.trim().split(",");
+			for (String field : fields) {
+				if (field.length() > 0) {
+					String[] subfields = field.split(":");
+					if (subfields.length == 2) {
+						salvage.get(era).put(subfields[0], Integer.parseInt(subfields[1]));
 					}
-				}				
-				break;
-			case "weightDistribution":
-				try {
-					int unitType = ModelRecord.parseUnitType(wn.getAttributes().getNamedItem("unitType").getTextContent());
-					setWeightDistribution(era, unitType, wn.getTextContent());
-				} catch (Exception ex) {
-					System.err.println("RATGenerator: error parsing weight distributions for " + key
-							+ ", " + era);
 				}
-				break;
+			}				
+			break;
+		case "weightDistribution":
+			try {
+				int ut = ModelRecord.parseUnitType(unitType);
+				setWeightDistribution(era, ut, text);
+			} catch (Exception ex) {
+				System.err.println("RATGenerator: error parsing weight distributions for " + key
+						+ ", " + era);
 			}
+			break;
 		}
 	}
 	
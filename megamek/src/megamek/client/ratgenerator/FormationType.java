@@ -330,7 +330,7 @@ public class FormationType {
         List<String> infModeAttemptOrder = new ArrayList<>();
         while (!veeMap.isEmpty()) {
             int total = veeMap.values().stream().mapToInt(Integer::intValue).sum();
-            int r = Compute.randomInt(total);
+            int r = Compute.randomInt(Compute.RandomStream.CLIENT, total);
             String mode = "Tracked";
             for (String m : veeMap.keySet()) {
                 if (r < veeMap.get(m)) {
@@ -345,7 +345,7 @@ public class FormationType {
         }
         while (!infMap.isEmpty()) {
             int total = infMap.values().stream().mapToInt(Integer::intValue).sum();
-            int r = Compute.randomInt(total);
+            int r = Compute.randomInt(Compute.RandomStream.CLIENT, total);
             String mode = "Leg";
             for (String m : infMap.keySet()) {
                 if (r < infMap.get(m)) {
@@ -507,7 +507,7 @@ public class FormationType {
 	        final int POS_C3MM = 2;
 	        final int POS_C3_NUM = 3;
 	        while (combinations.size() > 0) {
-	        	int index = Compute.randomInt(combinations.size());
+	        	int index = Compute.randomInt(Compute.RandomStream.CLIENT, combinations.size());
 	        	Map<Integer,Integer> baseCombo = combinations.get(index);
 	
 	        	int[] networkGroups = new int[POS_C3_NUM];
@@ -527,7 +527,7 @@ public class FormationType {
 	        	}
 	        	while (networkGroupings.size() > 0) {
 	        		list.clear();
-	        		int networkIndex = Compute.randomInt(networkGroupings.size());
+	        		int networkIndex = Compute.randomInt(Compute.RandomStream.CLIENT, networkGroupings.size());
 	        		Map<Integer,Integer> combo = networkGroupings.get(networkIndex);
 	
 	        		int[] unitsPerGroup = new int[params.size()];
@@ -538,7 +538,7 @@ public class FormationType {
 	        				otherCriteria.size() + POS_C3_NUM);
 	        		while (unitTypeGroupings.size() > 0) {
 	        			list.clear();
-	        			int utIndex = Compute.randomInt(unitTypeGroupings.size());
+	        			int utIndex = Compute.randomInt(Compute.RandomStream.CLIENT, unitTypeGroupings.size());
 	        			combo = unitTypeGroupings.get(utIndex);
 	
 	        			if (groupingCriteria != null
@@ -557,7 +557,7 @@ public class FormationType {
 	    					List<List<Map<Integer,Integer>>> groups = findMatchedGroups(groupedUnits);
 	
 	    					while (groups.size() > 0) {
-	    						int gIndex = Compute.randomInt(groups.size());
+	    						int gIndex = Compute.randomInt(Compute.RandomStream.CLIENT, groups.size());
 	    						list.clear();
     							List<MechSummary> found = new ArrayList<>();
 	    						Map<Integer,Integer> workingCombo = new HashMap<>(combo);
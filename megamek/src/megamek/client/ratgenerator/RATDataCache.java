@@ -0,0 +1,465 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.ratgenerator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * The RAT generator data from factions.xml and the era files, compiled into a compact form
+ * that loads much faster than the XML. All strings are kept once in a string table and
+ * referred to by index; the factions and each era are flat int arrays that are read back
+ * with a {@link Reader} in the order they were written.
+ * <p>
+ * The XML files remain the source of truth. The compiled data is saved next to them and
+ * compiled again whenever one of the XML files is newer or the set of eras has changed.
+ *
+ * @author The MegaMek Team
+ */
+class RATDataCache {
+
+	static final String FILENAME = "ratgen.cache"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0x52415447; // "RATG"
+	private static final int VERSION = 2;
+
+	/** The string id for a missing attribute or element */
+	static final int NONE = -1;
+
+	private final List<String> strings = new ArrayList<>();
+	private final Map<String, Integer> stringIds = new HashMap<>();
+	private int[] factions = new int[0];
+	private final TreeMap<Integer, int[]> eras = new TreeMap<>();
+
+	/**
+	 * Loads the compiled data from the given directory if it is up to date, otherwise
+	 * compiles the XML files in it and tries to save the result for the next time.
+	 *
+	 * @param dir - the forcegenerator directory
+	 * @return - the compiled data
+	 */
+	static RATDataCache load(File dir) {
+		File cacheFile = new File(dir, FILENAME);
+		if (isUpToDate(dir, cacheFile)) {
+			try (InputStream in = new BufferedInputStream(new FileInputStream(cacheFile))) {
+				RATDataCache data = read(in);
+				if (data.eras.keySet().equals(eraFiles(dir))) {
+					return data;
+				}
+			} catch (IOException ex) {
+				System.err.println("Unable to read RAT generator cache: " + ex.getMessage()); //$NON-NLS-1$
+			}
+		}
+		RATDataCache data = compile(dir);
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(cacheFile))) {
+			data.write(out);
+		} catch (IOException ex) {
+			System.err.println("Unable to save RAT generator cache: " + ex.getMessage()); //$NON-NLS-1$
+		}
+		return data;
+	}
+
+	/**
+	 * @return - true if the cache file exists and is newer than all the XML files
+	 */
+	private static boolean isUpToDate(File dir, File cacheFile) {
+		if (!cacheFile.exists()) {
+			return false;
+		}
+		for (File f : sourceFiles(dir)) {
+			if (f.lastModified() > cacheFile.lastModified()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return - factions.xml and the era files in the directory
+	 */
+	private static List<File> sourceFiles(File dir) {
+		List<File> retVal = new ArrayList<>();
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File f : files) {
+				if (f.getName().matches("\\d+\\.xml") || f.getName().equals("factions.xml")) {
+					retVal.add(f);
+				}
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * @return - the eras for which the directory has a file
+	 */
+	private static Set<Integer> eraFiles(File dir) {
+		Set<Integer> retVal = new TreeSet<>();
+		for (File f : sourceFiles(dir)) {
+			if (f.getName().matches("\\d+\\.xml")) {
+				retVal.add(Integer.parseInt(f.getName().replace(".xml", "")));
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Parses factions.xml and all era files in the directory.
+	 */
+	static RATDataCache compile(File dir) {
+		RATDataCache data = new RATDataCache();
+		Element factions = parse(new File(dir, "factions.xml"));
+		if (factions != null) {
+			data.compileFactions(factions);
+		} else {
+			System.err.println("Unable to read RAT generator factions file"); //$NON-NLS-1$
+		}
+		for (File f : sourceFiles(dir)) {
+			if (f.getName().matches("\\d+\\.xml")) {
+				int era = Integer.parseInt(f.getName().replace(".xml", ""));
+				Element element = parse(f);
+				if (element != null) {
+					data.eras.put(era, data.compileEra(element, era));
+				} else {
+					System.err.println("Unable to read RAT generator file for era " + era); //$NON-NLS-1$
+				}
+			}
+		}
+		return data;
+	}
+
+	private static Element parse(File file) {
+		try (InputStream fis = new FileInputStream(file)) {
+			DocumentBuilder db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+			Document xmlDoc = db.parse(fis);
+			Element element = xmlDoc.getDocumentElement();
+			element.normalize();
+			return element;
+		} catch (Exception ex) {
+			System.err.println(ex.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @return - the era years for which data is available
+	 */
+	Iterable<Integer> getEras() {
+		return eras.keySet();
+	}
+
+	/**
+	 * @return - a reader for the faction records, which yields the number of factions and
+	 *         then, for each, the key, name, minor, clan and periphery attributes and the
+	 *         number of values followed by element, year and text of each value.
+	 */
+	Reader readFactions() {
+		return new Reader(factions);
+	}
+
+	/**
+	 * @return - a reader for the given era, or null if there is no data for it. See
+	 *         {@link #compileEra(Element, int)} for the layout.
+	 */
+	Reader readEra(int era) {
+		int[] data = eras.get(era);
+		return (data == null) ? null : new Reader(data);
+	}
+
+	private void compileFactions(Element element) {
+		IntList out = new IntList();
+		List<Node> nodes = children(element, "faction");
+		out.add(nodes.size());
+		for (Node wn : nodes) {
+			out.add(id(FactionRecord.getAttribute(wn, "key")));
+			out.add(id(FactionRecord.getAttribute(wn, "name")));
+			out.add(id(FactionRecord.getAttribute(wn, "minor")));
+			out.add(id(FactionRecord.getAttribute(wn, "clan")));
+			out.add(id(FactionRecord.getAttribute(wn, "periphery")));
+			List<Node> values = children(wn, null);
+			out.add(values.size());
+			for (Node value : values) {
+				out.add(id(value.getNodeName()));
+				out.add(id(FactionRecord.getAttribute(value, "year")));
+				out.add(id(value.getTextContent()));
+			}
+		}
+		factions = out.toArray();
+	}
+
+	/**
+	 * Compiles an era file. The layout is the number of factions and for each the key and the
+	 * number of values followed by element, unitType, pct and text of each value; then the
+	 * number of chassis and for each the name, unitType and omni attributes, the availability
+	 * and the number of models followed by name, unitRole, mechanized, the number of roles
+	 * elements followed by the text of each, deployedWith and availability of each model. Availability is NONE if the element is missing, otherwise
+	 * the number of codes followed by faction, ratings, availability, rating adjustment and
+	 * start year of each.
+	 */
+	private int[] compileEra(Element element, int era) {
+		IntList out = new IntList();
+		List<Node> factionNodes = new ArrayList<>();
+		List<Node> chassisNodes = new ArrayList<>();
+		for (Node mainNode : children(element, null)) {
+			if (mainNode.getNodeName().equalsIgnoreCase("factions")) {
+				factionNodes.addAll(children(mainNode, "faction"));
+			} else if (mainNode.getNodeName().equalsIgnoreCase("units")) {
+				chassisNodes.addAll(children(mainNode, "chassis"));
+			}
+		}
+		out.add(factionNodes.size());
+		for (Node wn : factionNodes) {
+			out.add(id(FactionRecord.getAttribute(wn, "key")));
+			List<Node> values = children(wn, null);
+			out.add(values.size());
+			for (Node value : values) {
+				out.add(id(value.getNodeName()));
+				out.add(id(FactionRecord.getAttribute(value, "unitType")));
+				out.add(id(FactionRecord.getAttribute(value, "pct")));
+				out.add(id(value.getTextContent()));
+			}
+		}
+		out.add(chassisNodes.size());
+		for (Node wn : chassisNodes) {
+			out.add(id(FactionRecord.getAttribute(wn, "name")));
+			out.add(id(FactionRecord.getAttribute(wn, "unitType")));
+			out.add(id(FactionRecord.getAttribute(wn, "omni")));
+			List<Node> models = children(wn, "model");
+			compileAvailability(out, wn, FactionRecord.getAttribute(wn, "name"), era);
+			out.add(models.size());
+			for (Node model : models) {
+				out.add(id(FactionRecord.getAttribute(model, "name")));
+				out.add(id(FactionRecord.getAttribute(model, "unitRole")));
+				out.add(id(FactionRecord.getAttribute(model, "mechanized")));
+				List<Node> roles = children(model, "roles");
+				out.add(roles.size());
+				for (Node role : roles) {
+					out.add(id(role.getTextContent().trim()));
+				}
+				out.add(id(childText(model, "deployedWith")));
+				compileAvailability(out, model, FactionRecord.getAttribute(model, "name"), era);
+			}
+		}
+		return out.toArray();
+	}
+
+	private void compileAvailability(IntList out, Node node, String unit, int era) {
+		String text = childText(node, "availability");
+		if (text == null) {
+			out.add(NONE);
+			return;
+		}
+		String[] codes = text.split(",");
+		out.add(codes.length);
+		for (String code : codes) {
+			AvailabilityRating ar = new AvailabilityRating(unit, era, code);
+			out.add(id(ar.getFaction()));
+			out.add(id(ar.getRatings()));
+			out.add(ar.getAvailability());
+			out.add(ar.getRatingAdjustment());
+			out.add(ar.getStartYear());
+		}
+	}
+
+	/**
+	 * @return - the trimmed text of the last child with the given name, or null if there is none
+	 */
+	private static String childText(Node node, String name) {
+		String retVal = null;
+		for (Node wn : children(node, name)) {
+			retVal = wn.getTextContent().trim();
+		}
+		return retVal;
+	}
+
+	/**
+	 * @return - the child elements with the given name, or all child elements if name is null
+	 */
+	private static List<Node> children(Node node, String name) {
+		List<Node> retVal = new ArrayList<>();
+		NodeList nl = node.getChildNodes();
+		for (int i = 0; i < nl.getLength(); i++) {
+			Node wn = nl.item(i);
+			if ((wn.getNodeType() == Node.ELEMENT_NODE)
+					&& ((name == null) || wn.getNodeName().equalsIgnoreCase(name))) {
+				retVal.add(wn);
+			}
+		}
+		return retVal;
+	}
+
+	private int id(String str) {
+		if (str == null) {
+			return NONE;
+		}
+		Integer retVal = stringIds.get(str);
+		if (retVal == null) {
+			retVal = strings.size();
+			strings.add(str);
+			stringIds.put(str, retVal);
+		}
+		return retVal;
+	}
+
+	void write(OutputStream os) throws IOException {
+		DataOutputStream out = new DataOutputStream(os);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(strings.size());
+		for (String str : strings) {
+			// writeUTF can't take strings over 64KB
+			byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		writeInts(out, factions);
+		out.writeInt(eras.size());
+		for (Map.Entry<Integer, int[]> era : eras.entrySet()) {
+			out.writeInt(era.getKey());
+			writeInts(out, era.getValue());
+		}
+		out.flush();
+	}
+
+	static RATDataCache read(InputStream is) throws IOException {
+		DataInputStream in = new DataInputStream(is);
+		if ((in.readInt() != MAGIC) || (in.readInt() != VERSION)) {
+			throw new IOException("Unknown RAT generator cache version"); //$NON-NLS-1$
+		}
+		RATDataCache data = new RATDataCache();
+		int numStrings = in.readInt();
+		for (int i = 0; i < numStrings; i++) {
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			data.strings.add(new String(bytes, StandardCharsets.UTF_8));
+		}
+		data.factions = readInts(in);
+		int numEras = in.readInt();
+		for (int i = 0; i < numEras; i++) {
+			int era = in.readInt();
+			data.eras.put(era, readInts(in));
+		}
+		return data;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof RATDataCache)) {
+			return false;
+		}
+		RATDataCache other = (RATDataCache) obj;
+		if (!strings.equals(other.strings) || !Arrays.equals(factions, other.factions)
+				|| !eras.keySet().equals(other.eras.keySet())) {
+			return false;
+		}
+		for (Map.Entry<Integer, int[]> era : eras.entrySet()) {
+			if (!Arrays.equals(era.getValue(), other.eras.get(era.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(strings, Arrays.hashCode(factions), eras.keySet());
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int[] retVal = new int[in.readInt()];
+		for (int i = 0; i < retVal.length; i++) {
+			retVal[i] = in.readInt();
+		}
+		return retVal;
+	}
+
+	/**
+	 * Reads the values of a compiled section in the order they were written.
+	 */
+	class Reader {
+		private final int[] data;
+		private int pos = 0;
+
+		private Reader(int[] data) {
+			this.data = data;
+		}
+
+		int nextInt() {
+			return data[pos++];
+		}
+
+		/**
+		 * @return - the string for the next id, or null if it was missing
+		 */
+		String nextString() {
+			int id = data[pos++];
+			return (id == NONE) ? null : strings.get(id);
+		}
+	}
+
+	/**
+	 * A growable array of ints
+	 */
+	private static class IntList {
+		private int[] values = new int[1024];
+		private int size = 0;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+}
@@ -15,34 +15,24 @@ package megamek.client.ratgenerator;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
 import megamek.common.Configuration;
 import megamek.common.EntityMovementMode;
 import megamek.common.MechSummary;
 import megamek.common.MechSummaryCache;
 import megamek.common.UnitRole;
 import megamek.common.UnitType;
-import megamek.common.util.MegaMekFile;
 
 /**
  * Generates a random assignment table (RAT) dynamically based on a variety of criteria,
@@ -63,6 +53,8 @@ public class RATGenerator {
 			new HashMap<>();
 
 	private TreeSet<Integer> eraSet = new TreeSet<Integer>();
+	/* The factions and eras compiled from the XML files */
+	private RATDataCache data;
 
 	private static RATGenerator rg = null;
     private static boolean interrupted = false;
@@ -703,6 +695,7 @@ public class RATGenerator {
         chassisIndex = null;
         modelIndex = null;
         eraSet = null;
+        data = null;
         initialized = false;
         initializing = false;
     }
@@ -719,12 +712,11 @@ public class RATGenerator {
             }
         }
         
+        data = RATDataCache.load(Configuration.forceGeneratorDir());
         loadFactions();
         
-		for (File f : Configuration.forceGeneratorDir().listFiles()) {
-			if (f.getName().matches("\\d+\\.xml")) {
-				eraSet.add(Integer.parseInt(f.getName().replace(".xml", "")));
-			}
+		for (int era : data.getEras()) {
+			eraSet.add(era);
 		}
 
         if (!interrupted) {
@@ -755,40 +747,25 @@ public class RATGenerator {
 	}
 	
 	private void loadFactions() {
-		File file = new MegaMekFile(Configuration.forceGeneratorDir(), "factions.xml").getFile();
-		FileInputStream fis = null;
-		try {
-			fis = new FileInputStream(file);
-		} catch (FileNotFoundException e) {
-			System.err.println("Unable to read RAT generator factions file"); //$NON-NLS-1$
-			return;
-		}
-
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		Document xmlDoc = null;
-
-		try {
-			DocumentBuilder db = dbf.newDocumentBuilder();
-			xmlDoc = db.parse(fis);
-		} catch (Exception ex) {
-			System.err.println(ex.getMessage());
-		}
-
-		Element element = xmlDoc.getDocumentElement();
-		NodeList nl = element.getChildNodes();
-
-		element.normalize();
-
-		for (int x = 0; x < nl.getLength(); x++) {
-			Node wn = nl.item(x);
-			if (wn.getNodeName().equalsIgnoreCase("faction")) {
-				if (wn.getAttributes().getNamedItem("key") != null) {
-					FactionRecord rec = FactionRecord.createFromXml(wn);
-					factions.put(rec.getKey(), rec);
-				} else {
-					System.err.println("Faction key not found in " + file.getPath());
-				}
-			}			
+		RATDataCache.Reader in = data.readFactions();
+		int numFactions = in.nextInt();
+		for (int i = 0; i < numFactions; i++) {
+			String key = in.nextString();
+			String name = in.nextString();
+			String minor = in.nextString();
+			String clan = in.nextString();
+			String periphery = in.nextString();
+			FactionRecord rec = new FactionRecord();
+			rec.setBaseValues(key, name, minor, clan, periphery);
+			int numValues = in.nextInt();
+			for (int j = 0; j < numValues; j++) {
+				rec.addValue(in.nextString(), in.nextString(), in.nextString());
+			}
+			if (key != null) {
+				factions.put(rec.getKey(), rec);
+			} else {
+				System.err.println("Faction key not found in factions.xml");
+			}
 		}
 	}
 	
@@ -798,70 +775,48 @@ public class RATGenerator {
 		}
 		chassisIndex.put(era, new HashMap<String,HashMap<String,AvailabilityRating>>());
 		modelIndex.put(era, new HashMap<String,HashMap<String,AvailabilityRating>>());
-		File file = new MegaMekFile(Configuration.forceGeneratorDir(), era + ".xml").getFile();
-		FileInputStream fis = null;
-		try {
-			fis = new FileInputStream(file);
-		} catch (FileNotFoundException e) {
+		RATDataCache.Reader in = data.readEra(era);
+		if (in == null) {
 			System.err.println("Unable to read RAT generator file for era " + era); //$NON-NLS-1$
 			return;
 		}
 
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		Document xmlDoc = null;
-
-		try {
-			DocumentBuilder db = dbf.newDocumentBuilder();
-			xmlDoc = db.parse(fis);
-		} catch (Exception ex) {
-			System.err.println(ex.getMessage());
-		}
-
-		Element element = xmlDoc.getDocumentElement();
-		NodeList nl = element.getChildNodes();
-
-		element.normalize();
-
-		for (int x = 0; x < nl.getLength(); x++) {
-			Node mainNode = nl.item(x);
-			if (mainNode.getNodeName().equalsIgnoreCase("factions")) {
-				for (int i = 0; i < mainNode.getChildNodes().getLength(); i++) {
-					Node wn = mainNode.getChildNodes().item(i);
-					if (wn.getNodeName().equalsIgnoreCase("faction")) {
-						String fKey = wn.getAttributes().getNamedItem("key").getTextContent();
-						if (fKey != null) {
-							FactionRecord rec = factions.get(fKey);
-							if (rec != null) {
-								rec.loadEra(wn, era);
-							} else {
-								System.err.println("Faction " + fKey + " not found in "
-										+ file.getPath());
-							}
-						} else {
-							System.err.println("Faction key not found in " + file.getPath());
-						}
-					}
-				}
-			} else if (mainNode.getNodeName().equalsIgnoreCase("units")) {
-				for (int i = 0; i < mainNode.getChildNodes().getLength(); i++) {
-					Node wn = mainNode.getChildNodes().item(i);
-					if (wn.getNodeName().equalsIgnoreCase("chassis")) {
-						parseChassisNode(era, wn);
-					}
+		int numFactions = in.nextInt();
+		for (int i = 0; i < numFactions; i++) {
+			String fKey = in.nextString();
+			FactionRecord rec = (fKey == null) ? null : factions.get(fKey);
+			if (fKey == null) {
+				System.err.println("Faction key not found in " + era + ".xml");
+			} else if (rec == null) {
+				System.err.println("Faction " + fKey + " not found in " + era + ".xml");
+			}
+			int numValues = in.nextInt();
+			for (int j = 0; j < numValues; j++) {
+				String element = in.nextString();
+				String unitType = in.nextString();
+				String pct = in.nextString();
+				String text = in.nextString();
+				if (rec != null) {
+					rec.loadEraValue(era, element, unitType, pct, text);
 				}
 			}
 		}
+		int numChassis = in.nextInt();
+		for (int i = 0; i < numChassis; i++) {
+			loadChassis(era, in);
+		}
 		notifyListenersEraLoaded();
 	}
 
-	private void parseChassisNode(int era, Node wn) {
+	private void loadChassis(int era, RATDataCache.Reader in) {
+		String chassisName = in.nextString();
+		String unitType = in.nextString();
+		String omniCode = in.nextString();
 		boolean omni = false;
-		String chassisName = wn.getAttributes().getNamedItem("name").getTextContent();
-		String unitType = wn.getAttributes().getNamedItem("unitType").getTextContent();
 		String chassisKey = chassisName + "[" + unitType + "]";
-		if (wn.getAttributes().getNamedItem("omni") != null) {
+		if (omniCode != null) {
 			omni = true;
-			if (wn.getAttributes().getNamedItem("omni").getTextContent().equalsIgnoreCase("IS")) {
+			if (omniCode.equalsIgnoreCase("IS")) {
 				chassisKey += "ISOmni";
 			} else {
 				chassisKey += "ClanOmni";
@@ -875,25 +830,28 @@ public class RATGenerator {
 			cr.setClan(chassisKey.endsWith("ClanOmni"));
 			chassis.put(chassisKey, cr);
 		}
-		for (int j = 0; j < wn.getChildNodes().getLength(); j++) {
-			Node wn2 = wn.getChildNodes().item(j);
-			if (wn2.getNodeName().equalsIgnoreCase("availability")) {
-				chassisIndex.get(era).put(chassisKey,
-						new HashMap<String, AvailabilityRating>());
-				String [] codes = wn2.getTextContent().trim().split(",");
-				for (String code : codes) {
-					AvailabilityRating ar = new AvailabilityRating(chassisKey, era, code);
-					cr.getIncludedFactions().add(code.split(":")[0]);
-					chassisIndex.get(era).get(chassisKey).put(ar.getFactionCode(), ar);
-				}
-			} else if (wn2.getNodeName().equalsIgnoreCase("model")) {
-				parseModelNode(era, cr, wn2);
-			}
+		HashMap<String, AvailabilityRating> availability = loadAvailability(era, chassisKey,
+				cr.getIncludedFactions(), in);
+		if (availability != null) {
+			chassisIndex.get(era).put(chassisKey, availability);
+		}
+		int numModels = in.nextInt();
+		for (int j = 0; j < numModels; j++) {
+			loadModel(era, cr, in);
 		}
 	}
 	
-	private void parseModelNode(int era, ChassisRecord cr, Node wn) {
-		String modelKey = (cr.getChassis() + " " + wn.getAttributes().getNamedItem("name").getTextContent()).trim();
+	private void loadModel(int era, ChassisRecord cr, RATDataCache.Reader in) {
+		String name = in.nextString();
+		String unitRole = in.nextString();
+		String mechanized = in.nextString();
+		List<String> roles = new ArrayList<>();
+		int numRoles = in.nextInt();
+		for (int i = 0; i < numRoles; i++) {
+			roles.add(in.nextString());
+		}
+		String deployedWith = in.nextString();
+		String modelKey = (cr.getChassis() + " " + name).trim();
 		boolean newEntry = false;
 		ModelRecord mr = models.get(modelKey);
 		if (mr == null) {
@@ -906,34 +864,58 @@ public class RATGenerator {
 			}
 			if (mr == null) {
 				System.err.println("RATGenerator: " + cr.getChassis() + " "
-						+ wn.getAttributes().getNamedItem("name").getTextContent() + " not found.");
+						+ name + " not found.");
+				// skip the availability
+				loadAvailability(era, modelKey, new HashSet<>(), in);
 				return;
 			}
 		}
 		cr.addModel(mr);
-        if (wn.getAttributes().getNamedItem("unitRole") != null) {
-            mr.setUnitRole(UnitRole.parseRole(wn.getAttributes().getNamedItem("unitRole").getTextContent()));
+        if (unitRole != null) {
+            mr.setUnitRole(UnitRole.parseRole(unitRole));
         }
-        if (wn.getAttributes().getNamedItem("mechanized") != null) {
-            mr.setMechanizedBA(Boolean.parseBoolean(wn.getAttributes().getNamedItem("mechanized").getTextContent()));
+        if (mechanized != null) {
+            mr.setMechanizedBA(Boolean.parseBoolean(mechanized));
         }
-		
-		for (int k = 0; k < wn.getChildNodes().getLength(); k++) {
-			Node wn2 = wn.getChildNodes().item(k);
-			if (wn2.getNodeName().equalsIgnoreCase("roles") && newEntry) {
-				mr.addRoles(wn2.getTextContent().trim());
-			} else if (wn2.getNodeName().equalsIgnoreCase("deployedWith") && newEntry) {
-				mr.setRequiredUnits(wn2.getTextContent().trim());            							
-			} else if (wn2.getNodeName().equalsIgnoreCase("availability")) {
-				modelIndex.get(era).put(mr.getKey(), new HashMap<String, AvailabilityRating>());
-				String [] codes = wn2.getTextContent().trim().split(",");
-				for (String code : codes) {
-					AvailabilityRating ar = new AvailabilityRating(mr.getKey(), era, code);
-					mr.getIncludedFactions().add(code.split(":")[0]);
-					modelIndex.get(era).get(mr.getKey()).put(ar.getFactionCode(), ar);
-				}
-			} 
-		}		
+		if (newEntry) {
+			for (String role : roles) {
+				mr.addRoles(role);
+			}
+		}
+		if ((deployedWith != null) && newEntry) {
+			mr.setRequiredUnits(deployedWith);
+		}
+		HashMap<String, AvailabilityRating> availability = loadAvailability(era, mr.getKey(),
+				mr.getIncludedFactions(), in);
+		if (availability != null) {
+			modelIndex.get(era).put(mr.getKey(), availability);
+		}
+	}
+
+	/**
+	 * Reads the availability codes of a chassis or model.
+	 *
+	 * @param era - the era being loaded
+	 * @param unit - the chassis or model key
+	 * @param includedFactions - the unit's set of factions, to which the factions of the codes are added
+	 * @param in - the compiled era data
+	 * @return - the availability ratings by faction code, or null if the unit has none in this era
+	 */
+	private HashMap<String, AvailabilityRating> loadAvailability(int era, String unit,
+			Set<String> includedFactions, RATDataCache.Reader in) {
+		int numCodes = in.nextInt();
+		if (numCodes == RATDataCache.NONE) {
+			return null;
+		}
+		HashMap<String, AvailabilityRating> retVal = new HashMap<>();
+		for (int k = 0; k < numCodes; k++) {
+			AvailabilityRating ar = new AvailabilityRating(unit, era, in.nextString(),
+					in.nextString(), in.nextInt(), in.nextInt(), in.nextInt());
+			includedFactions.add((ar.getRatings() == null) ? ar.getFaction()
+					: ar.getFaction() + "!" + ar.getRatings());
+			retVal.put(ar.getFactionCode(), ar);
+		}
+		return retVal;
 	}
 
     public synchronized void registerListener(ActionListener l){
@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,7 +43,9 @@ public class UnitTable {
 
     private static final int CACHE_SIZE = 32;
 
-    private static LinkedHashMap<Parameters,UnitTable> cache =
+    /* Only the lookups hold the lock, not generating a table; when the cache is full, the
+     * least recently used tables are dropped first. */
+    private static final Map<Parameters,UnitTable> cache = Collections.synchronizedMap(
             new LinkedHashMap<Parameters, UnitTable>(CACHE_SIZE, 0.75f, true) {
 
         private static final long serialVersionUID = -8016095510116134800L;
@@ -51,7 +54,7 @@ public class UnitTable {
         protected boolean removeEldestEntry(Map.Entry<Parameters, UnitTable> entry) {
             return size() >= CACHE_SIZE;
         }
-    };
+    });
 
     /**
      * Checks the cache for a previously generated table meeting the criteria. If none is
@@ -102,14 +105,19 @@ public class UnitTable {
      * @param params - the parameters to use in generating the table.
      * @return a generated table matching the parameters
      */
-    public static synchronized UnitTable findTable(Parameters params) {
+    public static UnitTable findTable(Parameters params) {
         Objects.requireNonNull(params);
         UnitTable retVal = cache.get(params);
         if (retVal == null) {
             retVal = new UnitTable(params);
             if (retVal.hasUnits()) {
                 //Use a copy of the params for the cache key to prevent changing it.
-                cache.put((Parameters)params.copy(), retVal);
+                Parameters key = params.copy();
+                UnitTable previous = cache.putIfAbsent(key, retVal);
+                if (previous != null) {
+                    // Another thread generated the same table first
+                    return previous;
+                }
             }
         }
         return retVal;
@@ -121,6 +129,8 @@ public class UnitTable {
 
     int salvageTotal;
     int unitTotal;
+    private WeightedSampler unitSampler;
+    private volatile WeightedSampler salvageSampler;
     /* Filtering can reduce the total weight of the units. Calculate the salvage pct when
      * creating the table to maintain the same proportion. */
     int salvagePct;
@@ -156,6 +166,8 @@ public class UnitTable {
                 salvagePct = salvageTotal * 100 / (salvageTotal + unitTotal);
             }
         }
+        unitSampler = new WeightedSampler(unitTable);
+        salvageSampler = new WeightedSampler(salvageTable);
     }
 
     /**
@@ -247,32 +259,32 @@ public class UnitTable {
      * @return - the selected unit, or null if no units pass the filter.
      */
     public MechSummary generateUnit(UnitFilter filter) {
-        int roll = Compute.randomInt(100);
+        return generateUnit(filter, new HashMap<>());
+    }
+
+    /**
+     * Selects a unit, using the samplers for the filtered entries of this and the salvage tables
+     * that have already been built for the filter.
+     *
+     * @param filter - the function that determines which units are permitted; if null, no filter is applied.
+     * @param filtered - the samplers built for the filter so far, by table
+     * @return - the selected unit, or null if no units pass the filter.
+     */
+    private MechSummary generateUnit(UnitFilter filter, Map<UnitTable, WeightedSampler> filtered) {
+        int roll = Compute.randomInt(Compute.RandomStream.CLIENT, 100);
         if (roll < salvagePct) {
-            MechSummary ms = generateSalvage(filter);
+            MechSummary ms = generateSalvage(filter, filtered);
             if (ms != null) {
                 return ms;
             }
         }
-        List<TableEntry> useUnitList = unitTable;
-        int unitMapSize = unitTotal;
+        WeightedSampler sampler = unitSampler;
         if (filter != null) {
-            useUnitList = unitTable.stream().filter(te -> filter.include(te.getUnitEntry()))
-                    .collect(Collectors.toList());
-            unitMapSize = useUnitList.stream().mapToInt(te -> te.weight).sum();
-        }
-
-        if (unitMapSize > 0) {
-            roll = Compute.randomInt(unitMapSize);
-            for (TableEntry te : useUnitList) {
-                if (roll < te.weight) {
-                    return te.getUnitEntry();
-                }
-                roll -= te.weight;
-            }
+            sampler = filtered.computeIfAbsent(this, t -> new WeightedSampler(unitTable.stream()
+                    .filter(te -> filter.include(te.getUnitEntry())).collect(Collectors.toList())));
         }
-        assert(unitMapSize == 0);
-        return null;
+        TableEntry te = sampler.sample();
+        return (te == null) ? null : te.getUnitEntry();
     }
 
     /**
@@ -286,7 +298,8 @@ public class UnitTable {
     }
 
     /**
-     * Selects a number of units from the table with a filter.
+     * Selects a number of units from the table with a filter. The filter is applied once to
+     * this table and to each salvage table that comes up, rather than on every roll.
      *
      * @param num - the number of units to be generated.
      * @param filter - the function that determines which units are permitted; if null, no filter is applied.
@@ -294,8 +307,9 @@ public class UnitTable {
      */
     public ArrayList<MechSummary> generateUnits(int num, UnitFilter filter) {
         ArrayList<MechSummary> retVal = new ArrayList<>();
+        Map<UnitTable, WeightedSampler> filtered = new HashMap<>();
         for (int i = 0; i < num; i++) {
-            MechSummary ms = generateUnit(filter);
+            MechSummary ms = generateUnit(filter, filtered);
             if (ms != null) {
                 retVal.add(ms);
             }
@@ -310,35 +324,107 @@ public class UnitTable {
      * This continues until either a unit is generated or there are no remaining entries.
      *
      * @param filter - passed to generateUnit() in the generated table.
+     * @param filtered - the samplers built for the filter so far, by table
      * @return - a unit generated from another faction, or null if none of the factions in
      * 	       the salvage list contain any units that meet the parameters.
      */
-    private MechSummary generateSalvage(UnitFilter filter) {
-        while (salvageTotal > 0) {
-            int roll = Compute.randomInt(salvageTotal);
-            TableEntry salvageEntry = null;
-            for (TableEntry te : salvageTable) {
-                if (roll < te.weight) {
-                    salvageEntry = te;
-                    break;
+    private MechSummary generateSalvage(UnitFilter filter, Map<UnitTable, WeightedSampler> filtered) {
+        TableEntry salvageEntry;
+        while ((salvageEntry = salvageSampler.sample()) != null) {
+            UnitTable salvage = UnitTable.findTable(salvageEntry.getSalvageFaction(),
+                    key.getUnitType(), key.getYear() - 5, key.getRating(),
+                    key.getWeightClasses(), key.getNetworkMask(), key.getMovementModes(),
+                    key.getRoles(), key.getRoleStrictness(), key.getFaction());
+            if (salvage.hasUnits()) {
+                return salvage.generateUnit(filter, filtered);
+            } else {
+                synchronized (this) {
+                    if (salvageTable.remove(salvageEntry)) {
+                        salvageTotal -= salvageEntry.weight;
+                        salvageSampler = new WeightedSampler(salvageTable);
+                    }
                 }
-                roll -= te.weight;
             }
-            if (salvageEntry != null) {
-                UnitTable salvage = UnitTable.findTable(salvageEntry.getSalvageFaction(),
-                        key.getUnitType(), key.getYear() - 5, key.getRating(),
-                        key.getWeightClasses(), key.getNetworkMask(), key.getMovementModes(),
-                        key.getRoles(), key.getRoleStrictness(), key.getFaction());
-                if (salvage.hasUnits()) {
-                    return salvage.generateUnit(filter);
+        }
+        assert(salvageTable.isEmpty() && salvageTotal == 0);
+        return null;
+    }
+
+    /**
+     * Picks table entries in proportion to their weights in constant time, using an alias
+     * table built with Vose's method. Each entry gets a column whose height is the total weight;
+     * the column is filled up to the entry's share and the rest is given to a single alias entry.
+     * All arithmetic is done in integers, so the odds are exactly those of the weights.
+     */
+    static final class WeightedSampler {
+        private final List<TableEntry> entries;
+        private final int total;
+        private final long[] threshold;
+        private final int[] alias;
+
+        WeightedSampler(List<TableEntry> entries) {
+            this.entries = new ArrayList<>(entries);
+            int n = this.entries.size();
+            total = this.entries.stream().mapToInt(te -> te.weight).sum();
+            threshold = new long[n];
+            alias = new int[n];
+            if (total <= 0) {
+                return;
+            }
+            long[] scaled = new long[n];
+            List<Integer> small = new ArrayList<>();
+            List<Integer> large = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                scaled[i] = (long)this.entries.get(i).weight * n;
+                if (scaled[i] < total) {
+                    small.add(i);
                 } else {
-                    salvageTotal -= salvageEntry.weight;
-                    salvageTable.remove(salvageEntry);
+                    large.add(i);
                 }
             }
+            while (!small.isEmpty() && !large.isEmpty()) {
+                int less = small.remove(small.size() - 1);
+                int more = large.get(large.size() - 1);
+                threshold[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] -= total - scaled[less];
+                if (scaled[more] < total) {
+                    large.remove(large.size() - 1);
+                    small.add(more);
+                }
+            }
+            // Whatever is left fills its column exactly
+            for (int i : large) {
+                threshold[i] = total;
+            }
+            for (int i : small) {
+                threshold[i] = total;
+            }
+        }
+
+        /**
+         * @return - a randomly selected entry, or null if there are no entries with any weight
+         */
+        TableEntry sample() {
+            if (total <= 0) {
+                return null;
+            }
+            return entries.get(pick(Compute.randomInt(Compute.RandomStream.CLIENT, entries.size()),
+                    Compute.randomInt(Compute.RandomStream.CLIENT, total)));
+        }
+
+        /**
+         * @param column - the column, between 0 and the number of entries
+         * @param roll - the height within the column, between 0 and the total weight
+         * @return - the index of the entry selected by the roll
+         */
+        int pick(int column, long roll) {
+            return (roll < threshold[column]) ? column : alias[column];
+        }
+
+        int getTotal() {
+            return total;
         }
-        assert(salvageTable.isEmpty() && salvageTotal == 0);
-        return null;
     }
 
     /* A tuple that contains either a salvage or a faction entry along with its relative weight.
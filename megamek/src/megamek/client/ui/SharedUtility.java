@@ -609,7 +609,7 @@ public class SharedUtility {
                     break;
                 }
                 if (a.isRandomMove()) {
-                    int roll = Compute.d6(1);
+                    int roll = Compute.d6(Compute.RandomStream.CLIENT, 1);
                     switch (roll) {
                     case 1:
                         md.addStep(MoveStepType.TURN_LEFT);
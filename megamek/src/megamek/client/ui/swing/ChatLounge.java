@@ -1939,7 +1939,7 @@ public class ChatLounge extends AbstractPhaseDisplay
                     + Messages.getString("ChatLounge.pquirk") : ""); //$NON-NLS-1$ //$NON-NLS-2$
             String negQuirks = (negQuirkCount > 0 ? " <" + negQuirkCount //$NON-NLS-1$
                     + Messages.getString("ChatLounge.nquirk") : ""); //$NON-NLS-1$
-            Integer battleValue = new Integer(entity.calculateBattleValue());
+            Integer battleValue = new Integer(entity.getCachedBattleValue());
             String hidden = ((entity.isHidden()) ? Messages.getString("ChatLounge.hidden") : ""); //$NON-NLS-1$
             String offBoard = ((entity.isOffBoard()) ? Messages.getString("ChatLounge.deploysOffBoard") : ""); //$NON-NLS-1$ //$NON-NLS-2$
             String deployRound = ((entity.getDeployRound() > 0) ? Messages.getString("ChatLounge.deploysAfterRound") //$NON-NLS-1$
@@ -3091,8 +3091,8 @@ public class ChatLounge extends AbstractPhaseDisplay
             double ton = 0;
             for (Entity entity : clientgui.getClient().getEntitiesVector()) {
                 if (entity.getOwner().equals(player)) {
-                    bv += entity.calculateBattleValue();
-                    cost += entity.getCost(false);
+                    bv += entity.getCachedBattleValue();
+                    cost += entity.getCachedCost(false);
                     ton += entity.getWeight();
                 }
             }
@@ -3291,7 +3291,7 @@ public class ChatLounge extends AbstractPhaseDisplay
                     && clientgui.getClient().getGame().getOptions().booleanOption(OptionsConstants.BASE_BLIND_DROP);
             String value = "";
             if (col == COL_BV) {
-                value += entity.calculateBattleValue();
+                value += entity.getCachedBattleValue();
             } else if (col == COL_PLAYER) {
                 if (compact) {
                     value += entity.getOwner().getName();
@@ -31,8 +31,11 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.StreamTokenizer;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.Vector;
@@ -70,12 +73,21 @@ public class HexTileset {
     private ArrayList<HexEntry> supers = new ArrayList<HexEntry>();
     private ArrayList<HexEntry> ortho = new ArrayList<HexEntry>();
     private Set<String> themes = new TreeSet<String>();
-    private ImageCache<IHex, Image> hexToImageCache = 
-        new ImageCache<IHex, Image>();
-    private ImageCache<IHex, List<Image>> hexToImageListCache = 
-        new ImageCache<IHex, List<Image>>();
-    private ImageCache<IHex, List<Image>> orthoListCache = 
-        new ImageCache<IHex, List<Image>>();
+    private ImageCache<IHex, Image> hexToImageCache = newCache("bases"); //$NON-NLS-1$
+    private ImageCache<IHex, List<Image>> hexToImageListCache =
+        newCache("supers"); //$NON-NLS-1$
+    private ImageCache<IHex, List<Image>> orthoListCache =
+        newCache("orthos"); //$NON-NLS-1$
+
+    /** The entries matched to each terrain signature */
+    private ImageCache<String, Match> matchCache = newCache("matches"); //$NON-NLS-1$
+
+    /** Indices of the entries, built when the first hex is matched */
+    private EntryIndex baseIndex;
+    private EntryIndex superIndex;
+    private EntryIndex orthoIndex;
+    /** Index of the first base entry that contains metal content */
+    private int firstMetalBase;
 
     /**
      * Creates new HexTileset
@@ -99,10 +111,21 @@ public class HexTileset {
      * match can be any value, and the first, best image is used.
      */
     public synchronized Object[] assignMatch(IHex hex, Component comp) {
-        IHex hexCopy = hex.duplicate();
-        List<Image> ortho = orthoFor(hexCopy, comp);
-        List<Image> supers = supersFor(hexCopy, comp);
-        Image base = baseFor(hexCopy, comp);
+        String signature = getTerrainSignature(hex);
+        Match match = matchCache.get(signature);
+        if (match == null) {
+            buildIndices();
+            IHex hexCopy = hex.duplicate();
+            List<HexEntry> orthoEntries = orthoFor(hexCopy);
+            List<HexEntry> superEntries = supersFor(hexCopy);
+            HexEntry baseEntry = baseFor(hexCopy);
+            match = new Match(orthoEntries, superEntries, baseEntry);
+            matchCache.put(signature, match);
+        }
+        int seed = (hex.getCoords() == null) ? 0 : hex.getCoords().hashCode();
+        List<Image> ortho = imagesFor(match.ortho, comp, seed);
+        List<Image> supers = imagesFor(match.supers, comp, seed);
+        Image base = imageFor(match.base, comp, seed);
         Object[] pair = new Object[] { base, supers, ortho };
         hexToImageCache.put(hex, base);
         hexToImageListCache.put(hex, supers);
@@ -140,83 +163,123 @@ public class HexTileset {
     }
 
     /**
-     * Returns a list of orthographic images to be tiled above the hex. As noted
+     * Returns everything the matching looks at: the level, the theme and the
+     * terrains of the hex. Hexes with the same signature match the same
+     * tileset entries.
+     */
+    private static String getTerrainSignature(IHex hex) {
+        StringBuilder signature = new StringBuilder();
+        signature.append(hex.getLevel()).append('|').append(hex.getTheme());
+        for (int type : hex.getTerrainTypes()) {
+            ITerrain terrain = hex.getTerrain(type);
+            signature.append('|').append(type).append(':')
+                    .append(terrain.getLevel()).append(':')
+                    .append(terrain.getExits());
+        }
+        return signature.toString();
+    }
+
+    private static Image imageFor(HexEntry entry, Component comp, int seed) {
+        Image img = entry.getImage(comp, seed);
+        if (img == null) {
+            img = ImageUtil.createAcceleratedImage(HEX_W, HEX_H);
+        }
+        return img;
+    }
+
+    private static List<Image> imagesFor(List<HexEntry> entries,
+            Component comp, int seed) {
+        List<Image> images = new ArrayList<Image>(entries.size());
+        for (HexEntry entry : entries) {
+            images.add(imageFor(entry, comp, seed));
+        }
+        return images;
+    }
+
+    /**
+     * Indexes the tileset entries after they have been loaded.
+     */
+    private void buildIndices() {
+        if (baseIndex == null) {
+            baseIndex = new EntryIndex(bases);
+            superIndex = new EntryIndex(supers);
+            orthoIndex = new EntryIndex(ortho);
+            firstMetalBase = bases.size();
+            for (int i = 0; i < bases.size(); i++) {
+                if (bases.get(i).getHex().containsTerrain(
+                        Terrains.METAL_CONTENT)) {
+                    firstMetalBase = i;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the orthographic entries to be tiled above the hex. As noted
      * above, all matches must be 1.0, and if such a match is achieved, all
      * terrain elements from the tileset hex are removed from the hex. Thus you
      * want to pass a copy of the original to this function.
      */
-    private List<Image> orthoFor(IHex hex, Component comp) {
-        ArrayList<Image> matches = new ArrayList<Image>();
+    private List<HexEntry> orthoFor(IHex hex) {
+        ArrayList<HexEntry> matches = new ArrayList<HexEntry>();
 
         // find orthographic image matches
-        for (Iterator<HexEntry> i = ortho.iterator(); i.hasNext();) {
-            HexEntry entry = i.next();
+        for (HexEntry entry : orthoIndex.candidates(hex)) {
             if (orthoMatch(hex, entry.getHex()) >= 1.0) {
-                Image img = entry.getImage(comp, hex.getCoords().hashCode());
-                if (img != null) {
-                    matches.add(img);
-                } else {
-                    matches.add(ImageUtil.createAcceleratedImage(HEX_W, HEX_H));
-                }
-                // remove involved terrain from consideration
-                int terrTypes[] = entry.getHex().getTerrainTypes();
-                for (int j = 0; j < terrTypes.length; j++) {
-                    if (entry.getHex().containsTerrain(terrTypes[j])) {
-                        hex.removeTerrain(terrTypes[j]);
-                    }
-                }
+                matches.add(entry);
+                removeTerrains(hex, entry);
             }
         }
         return matches;
     }
 
     /**
-     * Returns a list of images to be superimposed on the hex. As noted above,
-     * all matches must be 1.0, and if such a match is achieved, all terrain
+     * Returns the entries to be superimposed on the hex. As noted above, all
+     * matches must be 1.0, and if such a match is achieved, all terrain
      * elements from the tileset hex are removed from the hex. Thus you want to
      * pass a copy of the original to this function.
      */
-    private List<Image> supersFor(IHex hex, Component comp) {
-        ArrayList<Image> matches = new ArrayList<Image>();
+    private List<HexEntry> supersFor(IHex hex) {
+        ArrayList<HexEntry> matches = new ArrayList<HexEntry>();
 
         // find superimposed image matches
-        for (Iterator<HexEntry> i = supers.iterator(); i.hasNext();) {
-            HexEntry entry = i.next();
+        for (HexEntry entry : superIndex.candidates(hex)) {
             if (superMatch(hex, entry.getHex()) >= 1.0) {
-                Image img = entry.getImage(comp, hex.getCoords().hashCode());
-                if (img != null) {
-                    matches.add(img);
-                } else {
-                    matches.add(ImageUtil.createAcceleratedImage(HEX_W, HEX_H));
-                }
-                // remove involved terrain from consideration
-                int terrTypes[] = entry.getHex().getTerrainTypes();
-                for (int j = 0; j < terrTypes.length; j++) {
-                    if (entry.getHex().containsTerrain(terrTypes[j])) {
-                        hex.removeTerrain(terrTypes[j]);
-                    }
-                }
+                matches.add(entry);
+                removeTerrains(hex, entry);
             }
         }
         return matches;
     }
 
     /**
-     * Returns the best matching base image for this hex. This works best if any
-     * terrain with a "super" image is removed.
+     * Removes the terrain involved in a match from further consideration.
+     */
+    private static void removeTerrains(IHex hex, HexEntry entry) {
+        int terrTypes[] = entry.getHex().getTerrainTypes();
+        for (int j = 0; j < terrTypes.length; j++) {
+            if (entry.getHex().containsTerrain(terrTypes[j])) {
+                hex.removeTerrain(terrTypes[j]);
+            }
+        }
+    }
+
+    /**
+     * Returns the best matching base entry for this hex. This works best if
+     * any terrain with a "super" image is removed.
+     * <p/>
+     * Only entries that share a terrain with the hex, or have none, can score
+     * above zero. If none of them does, the first entry is the best match.
      */
-    private Image baseFor(IHex hex, Component comp) {
+    private HexEntry baseFor(IHex hex) {
         HexEntry bestMatch = null;
-        double match = -1;
+        double match = 0;
 
         // match a base image to the hex
-        Iterator<HexEntry> iter = bases.iterator();
-
-        while (iter.hasNext()) {
-            HexEntry entry = iter.next();
-
+        for (HexEntry entry : baseIndex.candidates(hex)) {
             // Metal deposits don't count for visual
-            if (entry.getHex().containsTerrain(Terrains.METAL_CONTENT)) {
+            if (entry.getIndex() >= firstMetalBase) {
                 hex.removeTerrain(Terrains.METAL_CONTENT);
             }
 
@@ -233,11 +296,10 @@ public class HexTileset {
             }
         }
 
-        Image img = bestMatch.getImage(comp, hex.getCoords().hashCode());
-        if (img == null) {
-            img = ImageUtil.createAcceleratedImage(HEX_W, HEX_H);
+        if (bestMatch == null) {
+            bestMatch = bases.get(0);
         }
-        return img;
+        return bestMatch;
     }
 
     // perfect match
@@ -288,15 +350,15 @@ public class HexTileset {
                 // add to list
                 if (bas) {
                     bases.add(new HexEntry(new Hex(elevation, terrain, theme),
-                            imageName));
+                            imageName, bases.size()));
                 }
                 if (sup) {
                     supers.add(new HexEntry(new Hex(elevation, terrain, theme),
-                            imageName));
+                            imageName, supers.size()));
                 }
                 if (ort) {
                     ortho.add(new HexEntry(new Hex(elevation, terrain, theme),
-                            imageName));
+                            imageName, ortho.size()));
                 }
             } else if ((st.ttype == StreamTokenizer.TT_WORD) &&
                     st.sval.equals("include")) {
@@ -313,6 +375,10 @@ public class HexTileset {
         }
         r.close();
         themes.add(TRANSPARENT_THEME);
+        synchronized (this) {
+            baseIndex = null;
+            matchCache.clear();
+        }
         long endTime = System.currentTimeMillis();
 
         System.out
@@ -387,9 +453,30 @@ public class HexTileset {
     }
 
     public synchronized void reset() {
-        hexToImageCache = new ImageCache<IHex, Image>();
-        hexToImageListCache = new ImageCache<IHex, List<Image>>();
-        orthoListCache = new ImageCache<IHex, List<Image>>();
+        hexToImageCache = newCache("bases"); //$NON-NLS-1$
+        hexToImageListCache = newCache("supers"); //$NON-NLS-1$
+        orthoListCache = newCache("orthos"); //$NON-NLS-1$
+    }
+
+    /**
+     * The images of the matches belong to the tileset and are shared by many
+     * hexes, so these caches are only limited by their number of entries.
+     */
+    private static <K, V> ImageCache<K, V> newCache(String name) {
+        return new ImageCache<K, V>(name, ImageCache.MAX_SIZE,
+                ImageCache.NO_BYTE_LIMIT, value -> 0);
+    }
+
+    /**
+     * @return a summary of the size and hit rate of the match caches
+     */
+    public synchronized List<String> getCacheStats() {
+        List<String> stats = new ArrayList<String>();
+        stats.add(hexToImageCache.getStats());
+        stats.add(hexToImageListCache.getStats());
+        stats.add(orthoListCache.getStats());
+        stats.add(matchCache.getStats());
+        return stats;
     }
 
     /**
@@ -553,21 +640,94 @@ public class HexTileset {
         return elevation * terrain * theme;
     }
 
+    /**
+     * The tileset entries matched to a hex.
+     */
+    private static class Match {
+        final List<HexEntry> ortho;
+        final List<HexEntry> supers;
+        final HexEntry base;
+
+        Match(List<HexEntry> ortho, List<HexEntry> supers, HexEntry base) {
+            this.ortho = ortho;
+            this.supers = supers;
+            this.base = base;
+        }
+    }
+
+    /**
+     * Indexes tileset entries by the terrain types they contain. An entry
+     * can only match a hex that shares one of its terrains, unless it has no
+     * terrain at all.
+     */
+    private static class EntryIndex {
+        private final List<HexEntry> entries;
+        private final Map<Integer, BitSet> byTerrain = new HashMap<Integer, BitSet>();
+        private final BitSet noTerrain = new BitSet();
+
+        EntryIndex(List<HexEntry> entries) {
+            this.entries = entries;
+            for (int i = 0; i < entries.size(); i++) {
+                int[] types = entries.get(i).getHex().getTerrainTypes();
+                if (types.length == 0) {
+                    noTerrain.set(i);
+                }
+                for (int type : types) {
+                    BitSet indices = byTerrain.get(type);
+                    if (indices == null) {
+                        indices = new BitSet();
+                        byTerrain.put(type, indices);
+                    }
+                    indices.set(i);
+                }
+            }
+        }
+
+        /**
+         * @return the entries that may match the hex, in tileset order
+         */
+        List<HexEntry> candidates(IHex hex) {
+            BitSet found = (BitSet) noTerrain.clone();
+            for (int type : hex.getTerrainTypes()) {
+                BitSet indices = byTerrain.get(type);
+                if (indices != null) {
+                    found.or(indices);
+                }
+            }
+            List<HexEntry> candidates = new ArrayList<HexEntry>(
+                    found.cardinality());
+            for (int i = found.nextSetBit(0); i >= 0; i = found
+                    .nextSetBit(i + 1)) {
+                candidates.add(entries.get(i));
+            }
+            return candidates;
+        }
+    }
+
     private class HexEntry {
         private IHex hex;
         private Image image;
         private Vector<Image> images;
         private Vector<String> filenames;
+        private final int index;
 
-        public HexEntry(IHex hex, String imageFile) {
+        public HexEntry(IHex hex, String imageFile, int index) {
             this.hex = hex;
             filenames = StringUtil.splitString(imageFile, ";"); //$NON-NLS-1$
+            this.index = index;
         }
 
         public IHex getHex() {
             return hex;
         }
 
+        /**
+         * @return the position of this entry in the tileset
+         */
+        public int getIndex() {
+            return index;
+        }
+
         public Image getImage() {
             return image;
         }
@@ -15,8 +15,6 @@
  */
 package megamek.client.ui.swing;
 
-import static megamek.common.Compute.d6;
-
 import java.awt.Cursor;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
@@ -370,7 +368,7 @@ public class MegaMekGUI implements IMegaMekGUI {
         }
 
         // kick off a RNG check
-        d6();
+        Compute.d6(Compute.RandomStream.CLIENT, 1);
         // start server
         try {
             server = new Server(hd.serverPass, hd.port, hd.register,
@@ -459,7 +457,7 @@ public class MegaMekGUI implements IMegaMekGUI {
         }
 
         // kick off a RNG check
-        d6();
+        Compute.d6(Compute.RandomStream.CLIENT, 1);
         // start server
         try {
             server = new Server(hd.serverPass, hd.port, hd.register,
@@ -643,7 +641,7 @@ public class MegaMekGUI implements IMegaMekGUI {
         }
 
         // kick off a RNG check
-        Compute.d6();
+        Compute.d6(Compute.RandomStream.CLIENT, 1);
 
         // start server
         try {
@@ -51,10 +51,13 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StreamTokenizer;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Vector;
+import java.util.Set;
 
 import javax.swing.JDialog;
 import javax.swing.JPanel;
@@ -147,7 +150,6 @@ public class MiniMap extends JPanel {
     private int heightBufer;
     private int unitSize = 6;// variable which define size of triangle for
     // unit representation
-    private Vector<int[]> roadHexIndexes = new Vector<int[]>();
     private int zoom = GUIPreferences.getInstance().getMinimapZoom();
     private int[] fontSize = {6, 8, 10, 12, 14, 16};
     private int[] hexSide = {3, 5, 6, 8, 10, 12};
@@ -168,9 +170,18 @@ public class MiniMap extends JPanel {
 
     private ClientGUI clientgui = null;
 
-    boolean dirtyMap = true;
-    boolean[][] dirty;
+    /** The whole terrain layer needs to be painted again */
+    volatile boolean dirtyMap = true;
+    /** Hexes that changed since the terrain layer was last painted */
+    private final Set<Coords> dirtyHexes = new HashSet<Coords>();
+    /**
+     * The terrain, roads and heights of the board. Units, attacks and other
+     * things that change often are painted over a copy of it.
+     */
     private Image terrainBuffer;
+    /** The deployment hexes of {@link #deploymentDir} on the current board */
+    private List<Coords> deploymentHexes = null;
+    private int deploymentDir;
     
     // Here come the Strat Ops / NATO unit symbols
     Map<Coords, Integer> multiUnits = new HashMap<Coords, Integer>();
@@ -535,13 +546,93 @@ public class MiniMap extends JPanel {
         cr.close();
     }
 
-    private void clean() {
-        dirtyMap = false;
-        for (int i = 0; i < dirty.length; i++) {
-            for (int j = 0; j < dirty[i].length; j++) {
-                dirty[i][j] = false;
+    /**
+     * Marks a hex whose terrain layer needs to be painted again.
+     */
+    private void markDirty(Coords c) {
+        synchronized (dirtyHexes) {
+            dirtyHexes.add(c);
+        }
+    }
+
+    /**
+     * Paints the terrain layer: the whole board if it is dirty, otherwise only
+     * the hexes that changed. The roads and heights of the neighbours of a
+     * changed hex are painted again as well, as they reach over the shared
+     * border.
+     */
+    private void updateTerrainBuffer() {
+        Graphics gg = terrainBuffer.getGraphics();
+        // Activate AA
+        if (GUIPreferences.getInstance().getAntiAliasing()) {
+            ((Graphics2D)gg).setRenderingHint(
+                    RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+        List<Coords> changed;
+        synchronized (dirtyHexes) {
+            changed = new ArrayList<Coords>(dirtyHexes);
+            dirtyHexes.clear();
+        }
+        if (dirtyMap) {
+            dirtyMap = false;
+            for (int j = 0; j < m_board.getWidth(); j++) {
+                for (int k = 0; k < m_board.getHeight(); k++) {
+                    IHex h = m_board.getHex(j, k);
+                    gg.setColor(terrainColor(h, j, k));
+                    paintCoord(gg, j, k, true);
+                }
+            }
+            for (int j = 0; j < m_board.getWidth(); j++) {
+                for (int k = 0; k < m_board.getHeight(); k++) {
+                    IHex h = m_board.getHex(j, k);
+                    paintRoads(gg, h, j, k);
+                    paintHeight(gg, h, j, k);
+                }
+            }
+        } else if (!changed.isEmpty()) {
+            Set<Coords> neighbourhood = new HashSet<Coords>();
+            for (Coords c : changed) {
+                IHex h = m_board.getHex(c);
+                if (h == null) {
+                    continue;
+                }
+                gg.setColor(terrainColor(h, c.getX(), c.getY()));
+                paintCoord(gg, c.getX(), c.getY(), true);
+                neighbourhood.add(c);
+                for (int dir = 0; dir < 6; dir++) {
+                    neighbourhood.add(c.translated(dir));
+                }
+            }
+            for (Coords c : neighbourhood) {
+                IHex h = m_board.getHex(c);
+                if (h != null) {
+                    paintRoads(gg, h, c.getX(), c.getY());
+                    paintHeight(gg, h, c.getX(), c.getY());
+                }
+            }
+        }
+        gg.dispose();
+    }
+
+    /**
+     * @return the hexes of the given deployment zone; they are only looked up
+     *         again when the zone or the board changes
+     */
+    private List<Coords> getDeploymentHexes(int dir) {
+        if ((deploymentHexes == null) || (deploymentDir != dir)) {
+            deploymentHexes = new ArrayList<Coords>();
+            deploymentDir = dir;
+            for (int j = 0; j < m_board.getWidth(); j++) {
+                for (int k = 0; k < m_board.getHeight(); k++) {
+                    Coords c = new Coords(j, k);
+                    if (m_board.isLegalDeployment(c, dir)) {
+                        deploymentHexes.add(c);
+                    }
+                }
             }
         }
+        return deploymentHexes;
     }
 
     void initializeMap() {
@@ -565,8 +656,8 @@ public class MiniMap extends JPanel {
         requiredHeight = (((2 * m_board.getHeight()) + 1)
                           * currentHexSideByCos30) + (2 * margin) + buttonHeight;
 
-        dirty = new boolean[(m_board.getWidth() / 10) + 1][(m_board.getHeight() / 10) + 1];
         dirtyMap = true;
+        deploymentHexes = null;
         
         unitSize = unitSizes[zoom];
 
@@ -712,24 +803,7 @@ public class MiniMap extends JPanel {
         // g.fillRect(0, 0, getSize().width, getSize().height);
         g.setColor(oldColor);
         if (!minimized) {
-            roadHexIndexes.removeAllElements();
-            Graphics gg = terrainBuffer.getGraphics();
-            // Activate AA
-            if (GUIPreferences.getInstance().getAntiAliasing()) {
-                ((Graphics2D)gg).setRenderingHint(
-                        RenderingHints.KEY_ANTIALIASING,
-                        RenderingHints.VALUE_ANTIALIAS_ON);
-            }
-            for (int j = 0; j < m_board.getWidth(); j++) {
-                for (int k = 0; k < m_board.getHeight(); k++) {
-                    IHex h = m_board.getHex(j, k);
-                    if (dirtyMap || dirty[j / 10][k / 10]) {
-                        gg.setColor(terrainColor(h, j, k));
-                        paintCoord(gg, j, k, true);
-                    }
-                    addRoadElements(h, j, k);
-                }
-            }
+            updateTerrainBuffer();
             // draw backbuffer
             g.drawImage(terrainBuffer, 0, 0, this);
 
@@ -740,18 +814,6 @@ public class MiniMap extends JPanel {
                 paintSingleCoordBorder(g, secondLOS.getX(), secondLOS.getY(), Color.red);
             }
 
-            if (!roadHexIndexes.isEmpty()) {
-                paintRoads(g);
-            }
-
-            if (SHOW_NO_HEIGHT != heightDisplayMode) {
-                for (int j = 0; j < m_board.getWidth(); j++) {
-                    for (int k = 0; k < m_board.getHeight(); k++) {
-                        IHex h = m_board.getHex(j, k);
-                        paintHeight(g, h, j, k);
-                    }
-                }
-            }
 
             // draw Drop Zone
             if ((null != m_client) && (null != m_game)) { // sanity check!
@@ -771,14 +833,9 @@ public class MiniMap extends JPanel {
                             dir = m_client.getLocalPlayer().getStartingPos();
                         }
 
-                        for (int j = 0; j < m_board.getWidth(); j++) {
-                            for (int k = 0; k < m_board.getHeight(); k++) {
-                                if (m_board.isLegalDeployment(
-                                        new Coords(j, k), dir)) {
-                                    paintSingleCoordBorder(g, j, k,
-                                                           Color.yellow);
-                                }
-                            }
+                        for (Coords c : getDeploymentHexes(dir)) {
+                            paintSingleCoordBorder(g, c.getX(), c.getY(),
+                                                   Color.yellow);
                         }
                     }
                 }
@@ -803,7 +860,6 @@ public class MiniMap extends JPanel {
                     paintUnit(g, e);
                 }
             }
-            clean();
         }
 
         if ((m_client != null) && (m_client.getArtilleryAutoHit() != null)) {
@@ -1405,126 +1461,116 @@ public class MiniMap extends JPanel {
         g2.setStroke(svStroke);
     }
 
-    private void paintRoads(Graphics g) {
-        int exits = 0;
-        int baseX, baseY, x, y;
-        int[] xPoints = new int[4];
-        int[] yPoints = new int[4];
-        Color oldColor = g.getColor();
-        g.setColor(m_terrainColors[Terrains.ROAD]);
-        for (Enumeration<int[]> iter = roadHexIndexes.elements(); iter
-                .hasMoreElements(); ) {
-            int[] hex = iter.nextElement();
-            x = hex[0];
-            y = hex[1];
-            baseX = (x * (hexSide[zoom] + hexSideBySin30[zoom])) + leftMargin
-                    + hexSide[zoom];
-            baseY = (((2 * y) + 1 + (x % 2)) * hexSideByCos30[zoom]) + topMargin;
-            exits = hex[2];
-            // Is there a North exit?
-            if (0 != (exits & 0x0001)) {
-                xPoints[0] = baseX - halfRoadWidth[zoom];
-                yPoints[0] = baseY;
-                xPoints[1] = baseX - halfRoadWidth[zoom];
-                yPoints[1] = baseY - hexSideByCos30[zoom];
-                xPoints[2] = baseX + halfRoadWidth[zoom];
-                yPoints[2] = baseY - hexSideByCos30[zoom];
-                xPoints[3] = baseX + halfRoadWidth[zoom];
-                yPoints[3] = baseY;
-                g.drawPolygon(xPoints, yPoints, 4);
-                g.fillPolygon(xPoints, yPoints, 4);
-            }
-            // Is there a North-East exit?
-            if (0 != (exits & 0x0002)) {
-                xPoints[0] = baseX - halfRoadWidthBySin30[zoom];
-                yPoints[0] = baseY - halfRoadWidthByCos30[zoom];
-                xPoints[1] = Math.round((baseX + ((3 * hexSide[zoom]) / 4))
-                                        - halfRoadWidthBySin30[zoom]);
-                yPoints[1] = Math.round(baseY - (hexSideByCos30[zoom] / 2)
-                                        - halfRoadWidthByCos30[zoom]);
-                xPoints[2] = xPoints[1] + (2 * halfRoadWidthBySin30[zoom]);
-                yPoints[2] = yPoints[1] + (2 * halfRoadWidthByCos30[zoom]);
-                xPoints[3] = baseX + halfRoadWidthBySin30[zoom];
-                yPoints[3] = baseY + halfRoadWidthByCos30[zoom];
-                g.drawPolygon(xPoints, yPoints, 4);
-                g.fillPolygon(xPoints, yPoints, 4);
-            }
-            // Is there a South-East exit?
-            if (0 != (exits & 0x0004)) {
-                xPoints[0] = baseX + halfRoadWidthBySin30[zoom];
-                yPoints[0] = baseY - halfRoadWidthByCos30[zoom];
-                xPoints[1] = Math.round(baseX + ((3 * hexSide[zoom]) / 4)
-                                        + halfRoadWidthBySin30[zoom]);
-                yPoints[1] = Math.round((baseY + (hexSideByCos30[zoom] / 2))
-                                        - halfRoadWidthByCos30[zoom]);
-                xPoints[2] = xPoints[1] - (2 * halfRoadWidthBySin30[zoom]);
-                yPoints[2] = yPoints[1] + (2 * halfRoadWidthByCos30[zoom]);
-                xPoints[3] = baseX - halfRoadWidthBySin30[zoom];
-                yPoints[3] = baseY + halfRoadWidthByCos30[zoom];
-                g.drawPolygon(xPoints, yPoints, 4);
-                g.fillPolygon(xPoints, yPoints, 4);
-            }
-            // Is there a South exit?
-            if (0 != (exits & 0x0008)) {
-                xPoints[0] = baseX + halfRoadWidth[zoom];
-                yPoints[0] = baseY;
-                xPoints[1] = baseX + halfRoadWidth[zoom];
-                yPoints[1] = baseY + hexSideByCos30[zoom];
-                xPoints[2] = baseX - halfRoadWidth[zoom];
-                yPoints[2] = baseY + hexSideByCos30[zoom];
-                xPoints[3] = baseX - halfRoadWidth[zoom];
-                yPoints[3] = baseY;
-                g.drawPolygon(xPoints, yPoints, 4);
-                g.fillPolygon(xPoints, yPoints, 4);
-            }
-            // Is there a South-West exit?
-            if (0 != (exits & 0x0010)) {
-                xPoints[0] = baseX + halfRoadWidthBySin30[zoom];
-                yPoints[0] = baseY + halfRoadWidthByCos30[zoom];
-                xPoints[1] = Math.round((baseX - ((3 * hexSide[zoom]) / 4))
-                                        + halfRoadWidthBySin30[zoom]);
-                yPoints[1] = Math.round(baseY + (hexSideByCos30[zoom] / 2)
-                                        + halfRoadWidthByCos30[zoom]);
-                xPoints[2] = xPoints[1] - (2 * halfRoadWidthBySin30[zoom]);
-                yPoints[2] = yPoints[1] - (2 * halfRoadWidthByCos30[zoom]);
-                xPoints[3] = baseX - halfRoadWidthBySin30[zoom];
-                yPoints[3] = baseY - halfRoadWidthByCos30[zoom];
-                g.drawPolygon(xPoints, yPoints, 4);
-                g.fillPolygon(xPoints, yPoints, 4);
-            }
-            // Is there a North-West exit?
-            if (0 != (exits & 0x0020)) {
-                xPoints[0] = baseX - halfRoadWidthBySin30[zoom];
-                yPoints[0] = baseY + halfRoadWidthByCos30[zoom];
-                xPoints[1] = Math.round(baseX - ((3 * hexSide[zoom]) / 4)
-                                        - halfRoadWidthBySin30[zoom]);
-                yPoints[1] = Math.round((baseY - (hexSideByCos30[zoom] / 2))
-                                        + halfRoadWidthByCos30[zoom]);
-                xPoints[2] = xPoints[1] + (2 * halfRoadWidthBySin30[zoom]);
-                yPoints[2] = yPoints[1] - (2 * halfRoadWidthByCos30[zoom]);
-                xPoints[3] = baseX + halfRoadWidthBySin30[zoom];
-                yPoints[3] = baseY - halfRoadWidthByCos30[zoom];
-                g.drawPolygon(xPoints, yPoints, 4);
-                g.fillPolygon(xPoints, yPoints, 4);
-            }
-
-        }
-        g.setColor(oldColor);
-    }
-
     /**
-     * check if hex contains roadelements and if it does, add to roadHexIndexes
+     * Paints the roads and bridges of a hex
      */
-    private void addRoadElements(IHex x, int boardX, int boardY) {
+    private void paintRoads(Graphics g, IHex h, int x, int y) {
         final int[] roadTypes = new int[]{Terrains.ROAD, Terrains.BRIDGE};
         for (int j : roadTypes) {
-            if ((x.getTerrain(j) != null) && (m_terrainColors[j] != null)) {
-                int[] roadHex = {boardX, boardY, x.getTerrain(j).getExits()};
-                roadHexIndexes.addElement(roadHex);
+            if ((h.getTerrain(j) != null) && (m_terrainColors[j] != null)) {
+                paintRoad(g, x, y, h.getTerrain(j).getExits());
             }
         }
     }
 
+    private void paintRoad(Graphics g, int x, int y, int exits) {
+        int baseX, baseY;
+        int[] xPoints = new int[4];
+        int[] yPoints = new int[4];
+        Color oldColor = g.getColor();
+        g.setColor(m_terrainColors[Terrains.ROAD]);
+        baseX = (x * (hexSide[zoom] + hexSideBySin30[zoom])) + leftMargin
+                + hexSide[zoom];
+        baseY = (((2 * y) + 1 + (x % 2)) * hexSideByCos30[zoom]) + topMargin;
+        // Is there a North exit?
+        if (0 != (exits & 0x0001)) {
+            xPoints[0] = baseX - halfRoadWidth[zoom];
+            yPoints[0] = baseY;
+            xPoints[1] = baseX - halfRoadWidth[zoom];
+            yPoints[1] = baseY - hexSideByCos30[zoom];
+            xPoints[2] = baseX + halfRoadWidth[zoom];
+            yPoints[2] = baseY - hexSideByCos30[zoom];
+            xPoints[3] = baseX + halfRoadWidth[zoom];
+            yPoints[3] = baseY;
+            g.drawPolygon(xPoints, yPoints, 4);
+            g.fillPolygon(xPoints, yPoints, 4);
+        }
+        // Is there a North-East exit?
+        if (0 != (exits & 0x0002)) {
+            xPoints[0] = baseX - halfRoadWidthBySin30[zoom];
+            yPoints[0] = baseY - halfRoadWidthByCos30[zoom];
+            xPoints[1] = Math.round((baseX + ((3 * hexSide[zoom]) / 4))
+                                    - halfRoadWidthBySin30[zoom]);
+            yPoints[1] = Math.round(baseY - (hexSideByCos30[zoom] / 2)
+                                    - halfRoadWidthByCos30[zoom]);
+            xPoints[2] = xPoints[1] + (2 * halfRoadWidthBySin30[zoom]);
+            yPoints[2] = yPoints[1] + (2 * halfRoadWidthByCos30[zoom]);
+            xPoints[3] = baseX + halfRoadWidthBySin30[zoom];
+            yPoints[3] = baseY + halfRoadWidthByCos30[zoom];
+            g.drawPolygon(xPoints, yPoints, 4);
+            g.fillPolygon(xPoints, yPoints, 4);
+        }
+        // Is there a South-East exit?
+        if (0 != (exits & 0x0004)) {
+            xPoints[0] = baseX + halfRoadWidthBySin30[zoom];
+            yPoints[0] = baseY - halfRoadWidthByCos30[zoom];
+            xPoints[1] = Math.round(baseX + ((3 * hexSide[zoom]) / 4)
+                                    + halfRoadWidthBySin30[zoom]);
+            yPoints[1] = Math.round((baseY + (hexSideByCos30[zoom] / 2))
+                                    - halfRoadWidthByCos30[zoom]);
+            xPoints[2] = xPoints[1] - (2 * halfRoadWidthBySin30[zoom]);
+            yPoints[2] = yPoints[1] + (2 * halfRoadWidthByCos30[zoom]);
+            xPoints[3] = baseX - halfRoadWidthBySin30[zoom];
+            yPoints[3] = baseY + halfRoadWidthByCos30[zoom];
+            g.drawPolygon(xPoints, yPoints, 4);
+            g.fillPolygon(xPoints, yPoints, 4);
+        }
+        // Is there a South exit?
+        if (0 != (exits & 0x0008)) {
+            xPoints[0] = baseX + halfRoadWidth[zoom];
+            yPoints[0] = baseY;
+            xPoints[1] = baseX + halfRoadWidth[zoom];
+            yPoints[1] = baseY + hexSideByCos30[zoom];
+            xPoints[2] = baseX - halfRoadWidth[zoom];
+            yPoints[2] = baseY + hexSideByCos30[zoom];
+            xPoints[3] = baseX - halfRoadWidth[zoom];
+            yPoints[3] = baseY;
+            g.drawPolygon(xPoints, yPoints, 4);
+            g.fillPolygon(xPoints, yPoints, 4);
+        }
+        // Is there a South-West exit?
+        if (0 != (exits & 0x0010)) {
+            xPoints[0] = baseX + halfRoadWidthBySin30[zoom];
+            yPoints[0] = baseY + halfRoadWidthByCos30[zoom];
+            xPoints[1] = Math.round((baseX - ((3 * hexSide[zoom]) / 4))
+                                    + halfRoadWidthBySin30[zoom]);
+            yPoints[1] = Math.round(baseY + (hexSideByCos30[zoom] / 2)
+                                    + halfRoadWidthByCos30[zoom]);
+            xPoints[2] = xPoints[1] - (2 * halfRoadWidthBySin30[zoom]);
+            yPoints[2] = yPoints[1] - (2 * halfRoadWidthByCos30[zoom]);
+            xPoints[3] = baseX - halfRoadWidthBySin30[zoom];
+            yPoints[3] = baseY - halfRoadWidthByCos30[zoom];
+            g.drawPolygon(xPoints, yPoints, 4);
+            g.fillPolygon(xPoints, yPoints, 4);
+        }
+        // Is there a North-West exit?
+        if (0 != (exits & 0x0020)) {
+            xPoints[0] = baseX - halfRoadWidthBySin30[zoom];
+            yPoints[0] = baseY + halfRoadWidthByCos30[zoom];
+            xPoints[1] = Math.round(baseX - ((3 * hexSide[zoom]) / 4)
+                                    - halfRoadWidthBySin30[zoom]);
+            yPoints[1] = Math.round((baseY - (hexSideByCos30[zoom] / 2))
+                                    + halfRoadWidthByCos30[zoom]);
+            xPoints[2] = xPoints[1] + (2 * halfRoadWidthBySin30[zoom]);
+            yPoints[2] = yPoints[1] - (2 * halfRoadWidthByCos30[zoom]);
+            xPoints[3] = baseX + halfRoadWidthBySin30[zoom];
+            yPoints[3] = baseY - halfRoadWidthByCos30[zoom];
+            g.drawPolygon(xPoints, yPoints, 4);
+            g.fillPolygon(xPoints, yPoints, 4);
+        }
+        g.setColor(oldColor);
+    }
+
     private Color terrainColor(IHex x, int boardX, int boardY) {
         Color terrColor = m_terrainColors[0];
         if (x.getLevel() < 0) {
@@ -1752,28 +1798,42 @@ public class MiniMap extends JPanel {
 
         @Override
         public void boardChangedHex(BoardEvent b) {
-            if (dirty == null) {
-                dirtyMap = true;
+            /*
+             * this must be tolerant since it might be called without
+             * notifying us of the boardsize first
+             */
+            if (m_board.contains(b.getCoords())) {
+                markDirty(b.getCoords());
             } else {
-                /*
-                 * this must be tolerant since it might be called without
-                 * notifying us of the boardsize first
-                 */
-                int x = b.getCoords().getX();
-                int y = b.getCoords().getY();
-                if ((x >= dirty.length) || (y >= dirty[x].length)) {
+                dirtyMap = true;
+            }
+            drawMap();
+        }
+
+        @Override
+        public void boardChangedHexes(BoardEvent b) {
+            for (Coords c : b.getChangedCoords()) {
+                if (m_board.contains(c)) {
+                    markDirty(c);
+                } else {
                     dirtyMap = true;
-                    return;
                 }
-                dirty[x / 10][y / 10] = true;
             }
+            drawMap();
+        }
 
+        @Override
+        public void boardChangedAllHexes(BoardEvent b) {
+            dirtyMap = true;
+            drawMap();
         }
     };
 
     protected GameListener gameListener = new GameListenerAdapter() {
         @Override
         public void gamePhaseChange(GamePhaseChangeEvent e) {
+            // the deployment zones may have changed in the lounge
+            deploymentHexes = null;
             drawMap();
         }
 
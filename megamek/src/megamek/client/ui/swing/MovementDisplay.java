@@ -3550,7 +3550,7 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
             dumpBombsDialog.getChoices();
             // first make a control roll
             PilotingRollData psr = ce().getBasePilotingRoll(overallMoveType);
-            int ctrlroll = Compute.d6(2);
+            int ctrlroll = Compute.d6(Compute.RandomStream.CLIENT, 2);
             Report r = new Report(9500);
             r.subject = ce().getId();
             r.add(ce().getDisplayName());
@@ -308,6 +308,13 @@ public class TilesetManager implements IPreferenceChangeListener, ITilesetManage
         return hexTileset.getThemes();
     }
 
+    /**
+     * @return a summary of the size and hit rate of the hex tileset caches
+     */
+    public List<String> getCacheStats() {
+        return hexTileset.getCacheStats();
+    }
+
     /**
      * Hexes affected by ECM will have a shaded static effect drawn on them.
      * This method will check the cache for a suitable static image for a given
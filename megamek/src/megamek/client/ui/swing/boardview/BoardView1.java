@@ -58,6 +58,7 @@ import java.awt.image.ImageProducer;
 import java.awt.image.Kernel;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -368,10 +369,38 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
     // Initial scale factor for sprites and map
     float scale = 1.00f;
-    private ImageCache<Integer, Image> scaledImageCache =
-            new ImageCache<Integer, Image>();
+    /** Byte budget of the scaled images of each zoom level */
+    private static final long SCALED_IMAGE_BUDGET = 32L * 1024 * 1024;
+    /** Byte budget of the shadow masks */
+    private static final long SHADOW_IMAGE_BUDGET = 16L * 1024 * 1024;
+    /** Byte budget of the composited hex images */
+    private static final long HEX_IMAGE_BUDGET = 128L * 1024 * 1024;
+    /** Byte budget of the hex images shared by hexes that look the same */
+    private static final long SHARED_HEX_IMAGE_BUDGET = 64L * 1024 * 1024;
+    /** Byte budget of the cached tiles of the static board layer */
+    private static final long LAYER_TILE_BUDGET = 64L * 1024 * 1024;
+    /** Width and height of the tiles of the static board layer */
+    private static final int LAYER_TILE_SIZE = 256;
+
+    /** Period of the redraw timer while something is animating */
+    private static final long ANIMATION_PERIOD = 20;
+    /**
+     * Period of the redraw timer while nothing is animating, so displayables
+     * can still keep track of their idle time
+     */
+    private static final long IDLE_PERIOD = 1000;
+
+    /**
+     * The scaled images of each zoom level. Only the caches of the current
+     * and the neighbouring zoom levels are kept, so zooming in and out again
+     * doesn't scale everything again.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private ImageCache<Integer, Image>[] scaledImageCaches =
+            new ImageCache[ZOOM_FACTORS.length];
     private ImageCache<Integer, BufferedImage> shadowImageCache =
-            new ImageCache<Integer, BufferedImage>();
+            new ImageCache<Integer, BufferedImage>("shadows", //$NON-NLS-1$
+                    ImageCache.MAX_SIZE, SHADOW_IMAGE_BUDGET);
 
     private Set<Integer> animatedImages = new HashSet<Integer>();
 
@@ -422,6 +451,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
     // reference to our timertask for redraw
     private TimerTask ourTask = null;
+    private long redrawPeriod;
+    private boolean redrawStopped = false;
 
     BufferedImage bvBgImage = null;
     boolean bvBgShouldTile = false;
@@ -462,6 +493,24 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     * Cache that stores hex images for different coords
     */
     ImageCache<Coords, HexImageCacheEntry> hexImageCache;
+
+    /**
+     * Cache of hex images that can be shared by all hexes with the same
+     * visual signature, see {@link #getHexImageSignature}
+     */
+    private ImageCache<List<Object>, BufferedImage> sharedHexImageCache;
+
+    /**
+     * Tiles of the static board layer, that is the hexes, wrecks and
+     * deployment borders, keyed by their position in tiles. Only used without
+     * isometric rendering, where nothing is drawn in between the hexes.
+     */
+    private ImageCache<Point, BufferedImage> layerTiles =
+            new ImageCache<Point, BufferedImage>("board tiles", //$NON-NLS-1$
+                    ImageCache.MAX_SIZE, LAYER_TILE_BUDGET);
+
+    /** The id, position and secondary position of each wreck sprite */
+    private List<Object> wreckKeys = new ArrayList<Object>();
     
     
     /**
@@ -499,14 +548,20 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         this.game = game;
         this.clientgui = clientgui;
 
-        hexImageCache = new ImageCache<Coords, HexImageCacheEntry>();
+        hexImageCache = new ImageCache<Coords, HexImageCacheEntry>(
+                "hexes", ImageCache.MAX_SIZE, HEX_IMAGE_BUDGET, //$NON-NLS-1$
+                entry -> entry.shared ? 0
+                        : ImageCache.estimateBytes(entry.hexImage));
+        sharedHexImageCache = new ImageCache<List<Object>, BufferedImage>(
+                "shared hexes", ImageCache.MAX_SIZE, //$NON-NLS-1$
+                SHARED_HEX_IMAGE_BUDGET);
 
         tileManager = new TilesetManager(this);
         ToolTipManager.sharedInstance().registerComponent(this);
 
         game.addGameListener(gameListener);
         game.getBoard().addBoardListener(this);
-        ourTask = scheduleRedrawTimer();// call only once
+        scheduleRedrawTimer(ANIMATION_PERIOD);
         clearSprites();
         addMouseListener(this);
         addMouseWheelListener(new MouseWheelListener() {
@@ -1007,6 +1062,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                         for (Sprite s: isometricWreckSprites) {
                             s.prepare();
                         }
+                        clearLayerTiles();
                     }
 
                 });
@@ -1028,10 +1084,18 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     protected final RedrawWorker redrawWorker = new RedrawWorker();
 
     /**
-     * this should only be called once!! this will cause a timer to schedule
-     * constant screen updates every 20 milliseconds!
+     * Schedules the redraw worker to run with the given period, replacing the
+     * current schedule. The redraw worker drops back to the idle period by
+     * itself once nothing is animating anymore.
      */
-    protected TimerTask scheduleRedrawTimer() {
+    protected synchronized void scheduleRedrawTimer(long period) {
+        if (redrawStopped
+                || ((ourTask != null) && (redrawPeriod == period))) {
+            return;
+        }
+        if (ourTask != null) {
+            ourTask.cancel();
+        }
         final TimerTask redraw = new TimerTask() {
             @Override
             public void run() {
@@ -1045,8 +1109,34 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                 }
             }
         };
-        TimerSingleton.getInstance().schedule(redraw, 20, 20);
-        return redraw;
+        TimerSingleton.getInstance().schedule(redraw, period, period);
+        ourTask = redraw;
+        redrawPeriod = period;
+    }
+
+    /**
+     * Redraws the board at full frame rate until nothing is animating
+     * anymore. Call this when units start moving, the board starts scrolling
+     * or a displayable starts sliding.
+     */
+    public void startAnimation() {
+        scheduleRedrawTimer(ANIMATION_PERIOD);
+    }
+
+    /**
+     * @return true if units are moving, the board is scrolling or a
+     *         displayable is sliding
+     */
+    private boolean isAnimating() {
+        if (isSoftCentering || !movingUnits.isEmpty()) {
+            return true;
+        }
+        for (IDisplayable disp : displayables) {
+            if (disp.isSliding()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     protected void scheduleRedraw() {
@@ -1072,6 +1162,11 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             for (Sprite s: isometricWreckSprites) {
                 s.prepare();
             }
+            clearLayerTiles();
+        }
+        if (e.getName().equals(GUIPreferences.SHOW_WRECKS)) {
+            clearLayerTiles();
+            repaint();
         }
     }
 
@@ -1142,6 +1237,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         if (!movePath.isEmpty()) {
             MovingUnit m = new MovingUnit(entity, movePath);
             movingUnits.add(m);
+            startAnimation();
 
             GhostEntitySprite ghostSprite = new GhostEntitySprite(this, entity);
             ghostEntitySprites.add(ghostSprite);
@@ -1236,12 +1332,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             updateShadowMap();
         }
 
-        drawHexes(g, g.getClipBounds());
-
-        // draw wrecks
-        if (guip.getShowWrecks() && !useIsometric()) {
-            drawSprites(g, wreckSprites);
-        }
+        // hexes, wrecks and deployment borders
+        drawStaticLayer(g, g.getClipBounds());
         
         // Field of Fire
         if (!useIsometric()
@@ -1269,12 +1361,6 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         drawSprite(g, firstLOSSprite);
         drawSprite(g, secondLOSSprite);
 
-        // draw deployment indicators.
-        // For Isometric rendering, this is done during drawHexes
-        if ((en_Deployer != null) && !useIsometric()) {
-            drawDeployment(g);
-        }
-        
         if ((game.getPhase() == IGame.Phase.PHASE_SET_ARTYAUTOHITHEXES)
                 && (showAllDeployment)) {
             drawAllDeployment(g);
@@ -1371,6 +1457,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             g.setFont(fpsFont);
             g.setColor(Color.YELLOW);
             g.drawString(s, -getX() + 5, -getY() + 20);
+            drawCacheStats(g, -getX() + 5, -getY() + 40);
         }
     }
     
@@ -2314,14 +2401,107 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         return (BufferedImage) entireBoard;
     }
 
-    private void drawHexes(Graphics g, Rectangle view) {
-        drawHexes(g, view, false);
+    private boolean drawHexes(Graphics g, Rectangle view) {
+        return drawHexes(g, view, false);
+    }
+
+    /**
+     * Draws the parts of the board that rarely change: the hexes, the wrecks
+     * and the deployment borders. Without isometric rendering they are drawn
+     * from cached tiles, which are discarded along with the hex images they
+     * contain.
+     */
+    private void drawStaticLayer(Graphics g, Rectangle view) {
+        if (useIsometric() || !animatedImages.isEmpty()) {
+            drawHexes(g, view);
+            drawStaticSprites(g);
+            return;
+        }
+        int minX = Math.floorDiv(view.x, LAYER_TILE_SIZE);
+        int minY = Math.floorDiv(view.y, LAYER_TILE_SIZE);
+        int maxX = Math.floorDiv(view.x + view.width - 1, LAYER_TILE_SIZE);
+        int maxY = Math.floorDiv(view.y + view.height - 1, LAYER_TILE_SIZE);
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                Point key = new Point(x, y);
+                BufferedImage tile = layerTiles.get(key);
+                if (tile == null) {
+                    tile = drawLayerTile(key);
+                }
+                g.drawImage(tile, x * LAYER_TILE_SIZE, y * LAYER_TILE_SIZE,
+                        this);
+            }
+        }
+    }
+
+    /**
+     * Draws one tile of the static board layer, and caches it unless some
+     * hex images weren't ready yet.
+     */
+    private BufferedImage drawLayerTile(Point key) {
+        BufferedImage tile = new BufferedImage(LAYER_TILE_SIZE,
+                LAYER_TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = tile.createGraphics();
+        if (GUIPreferences.getInstance().getAntiAliasing()) {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+        g.translate(-key.x * LAYER_TILE_SIZE, -key.y * LAYER_TILE_SIZE);
+        g.setClip(key.x * LAYER_TILE_SIZE, key.y * LAYER_TILE_SIZE,
+                LAYER_TILE_SIZE, LAYER_TILE_SIZE);
+        boolean complete = drawHexes(g, g.getClipBounds());
+        drawStaticSprites(g);
+        g.dispose();
+        if (complete) {
+            layerTiles.put(key, tile);
+        }
+        return tile;
+    }
+
+    /**
+     * Draws the wrecks and the deployment borders. For isometric rendering,
+     * this is done during drawHexes.
+     */
+    private void drawStaticSprites(Graphics g) {
+        if (useIsometric()) {
+            return;
+        }
+        if (GUIPreferences.getInstance().getShowWrecks()) {
+            drawSprites(g, wreckSprites);
+        }
+        if (en_Deployer != null) {
+            drawDeployment(g);
+        }
+    }
+
+    /**
+     * Discards all tiles of the static board layer.
+     */
+    private void clearLayerTiles() {
+        layerTiles.clear();
+    }
+
+    /**
+     * Discards the tiles of the static board layer that show the given hex.
+     */
+    private void clearLayerTiles(Coords c) {
+        Rectangle bounds = new Rectangle(getHexLocation(c), hex_size);
+        int minX = Math.floorDiv(bounds.x, LAYER_TILE_SIZE);
+        int minY = Math.floorDiv(bounds.y, LAYER_TILE_SIZE);
+        int maxX = Math.floorDiv(bounds.x + bounds.width, LAYER_TILE_SIZE);
+        int maxY = Math.floorDiv(bounds.y + bounds.height, LAYER_TILE_SIZE);
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                layerTiles.remove(new Point(x, y));
+            }
+        }
     }
 
     /**
      * Redraws all hexes in the specified rectangle
      */
-    private void drawHexes(Graphics g, Rectangle view, boolean saveBoardImage) {
+    private boolean drawHexes(Graphics g, Rectangle view, boolean saveBoardImage) {
+        boolean complete = true;
         // only update visible hexes
         int drawX = (int) (view.x / (HEX_WC * scale)) - 1;
         int drawY = (int) (view.y / (HEX_H * scale)) - 1;
@@ -2385,20 +2565,23 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             for (int i = 0; i < drawHeight; i++) {
                 for (int j = 0; j < drawWidth; j++) {
                     Coords c = new Coords(j + drawX, i + drawY);
-                    drawHex(c, g, saveBoardImage);
+                    complete &= drawHex(c, g, saveBoardImage);
                 }
             }
         }
+        return complete;
     }
 
     /**
      * Draws a hex onto the board buffer. This assumes that drawRect is current,
      * and does not check if the hex is visible.
+     *
+     * @return false if the hex image wasn't ready or shouldn't be cached
      */
-    private void drawHex(Coords c, Graphics boardGraph,
+    private boolean drawHex(Coords c, Graphics boardGraph,
                          boolean saveBoardImage) {
         if (!game.getBoard().contains(c)) {
-            return;
+            return true;
         }
 
         final GUIPreferences guip = GUIPreferences.getInstance();
@@ -2409,7 +2592,10 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         HexImageCacheEntry cacheEntry = hexImageCache.get(c);
         if ((cacheEntry != null) && !cacheEntry.needsUpdating) {
             boardGraph.drawImage(cacheEntry.hexImage, hexLoc.x, hexLoc.y, this);
-            return;
+            if (cacheEntry.shared) {
+                drawHexCoords(c, hexLoc, boardGraph);
+            }
+            return true;
         }
 
         int level = hex.getLevel();
@@ -2470,9 +2656,29 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         // If the base image isn't ready, we should signal a repaint and stop
         if ((imgWidth < 0) || (imgHeight < 0)) {
             repaint();
-            return;
+            return false;
         }
-        
+
+        List<Image> supers = tileManager.supersFor(hex);
+        List<Image> orthos = tileManager.orthoFor(hex);
+
+        // Hexes that look the same share one image
+        List<Object> signature = null;
+        if ((boardBgHexImg == null) && standardTile && !dontCache) {
+            signature = getHexImageSignature(c, hex, baseImage, supers,
+                    orthos, saveBoardImage);
+        }
+        if (signature != null) {
+            BufferedImage sharedImage = sharedHexImageCache.get(signature);
+            if (sharedImage != null) {
+                cacheEntry = new HexImageCacheEntry(sharedImage, true);
+                hexImageCache.put(c, cacheEntry);
+                boardGraph.drawImage(sharedImage, hexLoc.x, hexLoc.y, this);
+                drawHexCoords(c, hexLoc, boardGraph);
+                return true;
+            }
+        }
+
         BufferedImage hexImage = new BufferedImage(imgWidth, imgHeight,
                 BufferedImage.TYPE_INT_ARGB);
 
@@ -2532,7 +2738,6 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         // have to be drawn before the shadow map, otherwise the supers are
         // drawn after.  Unfortunately I dont think the supers images
         // themselves can be checked for roads.
-        List<Image> supers = tileManager.supersFor(hex);
         boolean supersUnderShadow = false;
         if (hex.containsTerrain(Terrains.ROAD) ||
                 hex.containsTerrain(Terrains.WATER)) {
@@ -2596,7 +2801,6 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         }
 
         // Orthos (bridges)
-        List<Image> orthos = tileManager.orthoFor(hex);
         if (orthos != null) {
             for (Image image : orthos) {
                 if (animatedImages.contains(image.hashCode())) {
@@ -2696,12 +2900,13 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             e.printStackTrace();
             drawCenteredString("Loading Error", 0, 0
                     + (int) (50 * scale), font_note, g);
-            return;
+            return false;
         }
 
-        // write hex coordinate unless deactivated or scale factor too small
+        // write hex coordinate unless deactivated or scale factor too small;
+        // shared images get them drawn on top
         if (guip.getBoolean(GUIPreferences.ADVANCED_SHOW_COORDS)
-                && (scale >= 0.5)) {
+                && (scale >= 0.5) && (signature == null)) {
             drawCenteredString(c.getBoardNum(), 0, 0
                     + (int) (12 * scale), font_hexnum, g);
         }
@@ -2846,11 +3051,98 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             }
         }        
 
-        cacheEntry = new HexImageCacheEntry(hexImage);
+        cacheEntry = new HexImageCacheEntry(hexImage, signature != null);
+        if (signature != null) {
+            sharedHexImageCache.put(signature, hexImage);
+        }
         if (!dontCache) {
             hexImageCache.put(c, cacheEntry);
         }
         boardGraph.drawImage(cacheEntry.hexImage, hexLoc.x, hexLoc.y, this);
+        if (cacheEntry.shared) {
+            drawHexCoords(c, hexLoc, boardGraph);
+        }
+        return !dontCache;
+    }
+
+    /**
+     * Returns the visual signature of a hex image: everything that goes into
+     * drawing it, apart from its coordinates. Hexes with equal signatures
+     * look the same and can share one image. Returns null if the image
+     * depends on the position of the hex, e.g. because of the shadow map,
+     * ECM shading, special hex displays or field of view shading.
+     */
+    private List<Object> getHexImageSignature(Coords c, IHex hex,
+            Image baseImage, List<Image> supers, List<Image> orthos,
+            boolean saveBoardImage) {
+        GUIPreferences guip = GUIPreferences.getInstance();
+        if ((guip.getBoolean(GUIPreferences.SHADOWMAP) && (shadowMap != null))
+                || ((ecmHexes != null) && ecmHexes.containsKey(c))
+                || ((eccmHexes != null) && eccmHexes.containsKey(c))
+                || ((ecmCenters != null) && ecmCenters.containsKey(c))
+                || ((eccmCenters != null) && eccmCenters.containsKey(c))
+                || fovHighlightingAndDarkening.isActive(saveBoardImage)) {
+            return null;
+        }
+        Collection<SpecialHexDisplay> shdList = game.getBoard()
+                .getSpecialHexDisplay(c);
+        if ((shdList != null) && !shdList.isEmpty()) {
+            return null;
+        }
+        for (List<Image> images : Arrays.asList(supers, orthos)) {
+            if (images != null) {
+                for (Image image : images) {
+                    if (animatedImages.contains(image.hashCode())) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        List<Object> signature = new ArrayList<Object>();
+        signature.add(hex.getTheme());
+        signature.add(baseImage);
+        signature.add(supers);
+        signature.add(orthos);
+        for (int type : hex.getTerrainTypes()) {
+            signature.add(hex.getTerrain(type).toString());
+        }
+        signature.add(hex.getLevel());
+        // elevation lines and shadows depend on the neighbours
+        for (int dir : allDirections) {
+            IHex adjHex = game.getBoard().getHexInDir(c, dir);
+            signature.add((adjHex == null) ? null : adjHex.getLevel());
+            signature.add((adjHex == null) ? null : adjHex.floor());
+        }
+        signature.add(scale);
+        signature.add(useIsometric());
+        signature.add(game.getPlanetaryConditions().getLight());
+        signature.add(game.isPositionIlluminated(c));
+        if (guip.getShowMapsheets()) {
+            // only the sheet edges are drawn
+            int sheetX = c.getX() % 16;
+            int sheetY = c.getY() % 17;
+            signature.add((sheetX == 0) || (sheetX == 15) ? sheetX : -1);
+            signature.add((sheetY == 0) || (sheetY == 16) ? sheetY : -1);
+            signature.add(c.getX() % 2);
+        }
+        return signature;
+    }
+
+    /**
+     * Writes the hex coordinates onto a shared hex image on the board, unless
+     * deactivated or the scale factor is too small.
+     */
+    private void drawHexCoords(Coords c, Point hexLoc, Graphics boardGraph) {
+        GUIPreferences guip = GUIPreferences.getInstance();
+        if (!guip.getBoolean(GUIPreferences.ADVANCED_SHOW_COORDS)
+                || (scale < 0.5)) {
+            return;
+        }
+        boardGraph.setColor(game.getBoard().inSpace() ? Color.LIGHT_GRAY
+                : guip.getMapTextColor());
+        drawCenteredString(c.getBoardNum(), hexLoc.x, hexLoc.y
+                + (int) (12 * scale), font_hexnum, boardGraph);
     }
 
     /**
@@ -3561,6 +3853,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         ArrayList<WreckSprite> newWrecks = new ArrayList<>();
         ArrayList<IsometricWreckSprite> newIsometricWrecks = new ArrayList<>();
 
+        List<Object> newWreckKeys = new ArrayList<>();
+
         Enumeration<Entity> e = game.getWreckedEntities();
         while (e.hasMoreElements()) {
             Entity entity = e.nextElement();
@@ -3572,6 +3866,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                     newWrecks.add(ws);
                     iws = new IsometricWreckSprite(this, entity, -1);
                     newIsometricWrecks.add(iws);
+                    newWreckKeys.add(Arrays.asList(entity.getId(),
+                            entity.getPosition(), -1));
                 } else {
                     for (int secondaryPos : entity.getSecondaryPositions()
                             .keySet()) {
@@ -3580,6 +3876,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                         iws = new IsometricWreckSprite(this, entity,
                                 secondaryPos);
                         newIsometricWrecks.add(iws);
+                        newWreckKeys.add(Arrays.asList(entity.getId(),
+                                entity.getPosition(), secondaryPos));
                     }
                 }
             }
@@ -3647,6 +3945,11 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
         wreckSprites = newWrecks;
         isometricWreckSprites = newIsometricWrecks;
+        // the wrecks are part of the static board layer
+        if (!newWreckKeys.equals(wreckKeys)) {
+            wreckKeys = newWreckKeys;
+            clearLayerTiles();
+        }
 
         // Update ECM list, to ensure that Sprites are updated with ECM info
         updateEcmList();
@@ -3724,6 +4027,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
             waitTimer = 0;
             isSoftCentering = true; 
+            startAnimation();
         
         } else {
             // no soft centering:
@@ -4149,6 +4453,9 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
      * player is set to null, no hexes will be marked.
      */
     public void markDeploymentHexesFor(Entity ce) {
+        if (ce != en_Deployer) {
+            clearLayerTiles();
+        }
         en_Deployer = ce;
         repaint(100);
     }
@@ -4585,6 +4892,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                     "AdvancedMoveStepDelay")) {
 
                 ArrayList<MovingUnit> spent = new ArrayList<MovingUnit>();
+                Rectangle dirty = getMovingSpriteBounds();
+                boolean repaintAll = false;
 
                 for (MovingUnit move : movingUnits) {
                     movingSomething = true;
@@ -4594,6 +4903,9 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                         UnitLocation loc = move.path.get(0);
 
                         if (ge != null) {
+                            // the first step removes the unit's own sprite
+                            repaintAll |= !movingEntitySpriteIds
+                                    .containsKey(move.entity.getId());
                             redrawMovingEntity(move.entity, loc.getCoords(),
                                     loc.getFacing(), loc.getElevation());
                         }
@@ -4612,6 +4924,17 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                 }
                 moveWait = 0;
 
+                Rectangle moved = getMovingSpriteBounds();
+                if (repaintAll || !spent.isEmpty() || (dirty == null)
+                        || (moved == null)) {
+                    repaint();
+                } else {
+                    // Only repaint where the moving units were and are now
+                    dirty.add(moved);
+                    dirty.translate(HEX_W, HEX_H);
+                    repaint(dirty);
+                }
+
                 if (movingUnits.size() == 0) {
                     movingEntitySpriteIds.clear();
                     movingEntitySprites.clear();
@@ -4624,6 +4947,22 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         return movingSomething;
     }
 
+    /**
+     * @return the area covered by the sprites of the moving units, or null if
+     *         there are none
+     */
+    private Rectangle getMovingSpriteBounds() {
+        Rectangle bounds = null;
+        for (MovingEntitySprite sprite : movingEntitySprites) {
+            if (bounds == null) {
+                bounds = new Rectangle(sprite.getBounds());
+            } else {
+                bounds.add(sprite.getBounds());
+            }
+        }
+        return bounds;
+    }
+
     //
     // MouseListener
     //
@@ -4973,6 +5312,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     public void boardNewBoard(BoardEvent b) {
         updateBoard();
         clearHexImageCache();
+        fovHighlightingAndDarkening.boardChanged();
     }
 
     /*
@@ -4983,10 +5323,12 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
      */
     public synchronized void boardChangedHex(BoardEvent b) {
         hexImageCache.remove(b.getCoords());
+        clearLayerTiles(b.getCoords());
         IHex hex = game.getBoard().getHex(b.getCoords());
         tileManager.clearHex(hex);
         tileManager.waitForHex(hex);
         clearShadowMap();
+        fovHighlightingAndDarkening.boardChanged();
         // Maybe have to set the hexes' theme.  Null clientgui implies board editor - don't mess with theme
         if ((selectedTheme != null) && (clientgui != null)) {
             if (selectedTheme.equals("(No Theme)") && (hex.getTheme() != null) && !hex.getTheme().equals("")) {
@@ -5000,6 +5342,44 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         repaint();
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * megamek.common.BoardListener#boardChangedHexes(megamek.common.BoardEvent)
+     */
+    public synchronized void boardChangedHexes(BoardEvent b) {
+        Set<Coords> changed = b.getChangedCoords();
+        List<IHex> hexes = new ArrayList<IHex>(changed.size());
+        for (Coords c : changed) {
+            IHex hex = game.getBoard().getHex(c);
+            if (hex == null) {
+                continue;
+            }
+            hexImageCache.remove(c);
+            clearLayerTiles(c);
+            // The theme goes straight into the hex; setting the hex again, as
+            // boardChangedHex does, would send another event for it
+            if ((selectedTheme != null) && (clientgui != null)) {
+                if (selectedTheme.equals("(No Theme)")) {
+                    if ((hex.getTheme() != null) && !hex.getTheme().equals("")) {
+                        hex.setTheme("");
+                    }
+                } else if (!selectedTheme.equals(hex.getTheme())) {
+                    hex.setTheme(selectedTheme);
+                }
+            }
+            tileManager.clearHex(hex);
+            hexes.add(hex);
+        }
+        for (IHex hex : hexes) {
+            tileManager.waitForHex(hex);
+        }
+        clearShadowMap();
+        fovHighlightingAndDarkening.boardChanged();
+        repaint();
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -5010,6 +5390,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         clearHexImageCache();
         tileManager.loadAllHexes();
         clearShadowMap();
+        fovHighlightingAndDarkening.boardChanged();
         repaint();
     }
 
@@ -5115,6 +5496,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         @Override
         public void gameBoardChanged(GameBoardChangeEvent e) {
             clearHexImageCache();
+            fovHighlightingAndDarkening.boardChanged();
             boardChanged();
         }
 
@@ -5195,13 +5577,16 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                         redraw = redraw || disp.slide();
                     }
                 }
-                redraw = redraw || doMoveUnits(currentTime - lastTime);
+                // moving units repaint the hexes they move through
+                doMoveUnits(currentTime - lastTime);
                 if (redraw) {
                     repaint();
                 }
                 centerOnHexSoftStep(currentTime - lastTime);
             }
             lastTime = currentTime;
+            scheduleRedrawTimer(isShowing() && isAnimating()
+                    ? ANIMATION_PERIOD : IDLE_PERIOD);
         }
     }
 
@@ -5989,6 +6374,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
      * refresh the IDisplayables
      */
     public void refreshDisplayables() {
+        startAnimation();
         repaint();
     }
     
@@ -6062,7 +6448,11 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
         hex_size = new Dimension((int) (HEX_W * scale), (int) (HEX_H * scale));
 
-        scaledImageCache = new ImageCache<Integer, Image>();
+        for (int i = 0; i < scaledImageCaches.length; i++) {
+            if (Math.abs(i - zoomIndex) > 1) {
+                scaledImageCaches[i] = null;
+            }
+        }
 
         cursorSprite.prepare();
         highlightSprite.prepare();
@@ -6111,6 +6501,38 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         }
     }
 
+    /**
+     * @return the cache of scaled images of the current zoom level
+     */
+    private ImageCache<Integer, Image> getScaledImageCache() {
+        ImageCache<Integer, Image> cache = scaledImageCaches[zoomIndex];
+        if (cache == null) {
+            cache = new ImageCache<Integer, Image>("scaled " //$NON-NLS-1$
+                    + ZOOM_FACTORS[zoomIndex], ImageCache.MAX_SIZE,
+                    SCALED_IMAGE_BUDGET);
+            scaledImageCaches[zoomIndex] = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * Draws the size and hit rate of the image caches below the frame time.
+     */
+    private void drawCacheStats(Graphics g, int x, int y) {
+        List<String> lines = new ArrayList<String>();
+        lines.add(hexImageCache.getStats());
+        lines.add(sharedHexImageCache.getStats());
+        lines.add(getScaledImageCache().getStats());
+        lines.add(shadowImageCache.getStats());
+        lines.add(layerTiles.getStats());
+        lines.addAll(tileManager.getCacheStats());
+        g.setFont(FONT_10);
+        for (String line : lines) {
+            g.drawString(line, x, y);
+            y += 14;
+        }
+    }
+
     /**
      * Return a scaled version of the input.  If the useCache flag is set, the
      * scaled image will be stored in an image cache for later retrieval.
@@ -6132,7 +6554,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         Image scaled;
         if (useCache) {
             // Check the cache
-            scaled = scaledImageCache.get(base.hashCode());
+            scaled = getScaledImageCache().get(base.hashCode());
         } else {
             scaled = null;
         }
@@ -6169,7 +6591,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             tracker.removeImage(scaled);
             // Cache the image if the flag is set
             if (useCache) {
-                scaledImageCache.put(base.hashCode(), scaled);
+                getScaledImageCache().put(base.hashCode(), scaled);
             }
         }
         return scaled;
@@ -6228,7 +6650,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         return mask;
     }
     
-    public void die() {
+    public synchronized void die() {
+        redrawStopped = true;
         ourTask.cancel();
         fovHighlightingAndDarkening.die();
     }
@@ -6267,6 +6690,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
     public void clearHexImageCache() {
         hexImageCache.clear();
+        sharedHexImageCache.clear();
+        clearLayerTiles();
     }
 
     /**
@@ -6276,6 +6701,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     public void clearHexImageCache(Set<Coords> coords) {
         for (Coords c : coords) {
             hexImageCache.remove(c);
+            clearLayerTiles(c);
         }
     }
 
@@ -6290,7 +6716,9 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                 GUIPreferences.FOV_HIGHLIGHT);
         if ((game.getPhase() == Phase.PHASE_MOVEMENT)
                 && (darken || highlight)) {
-            clearHexImageCache();
+            // the shared images are never shaded
+            hexImageCache.clear();
+            clearLayerTiles();
         }
     }
 
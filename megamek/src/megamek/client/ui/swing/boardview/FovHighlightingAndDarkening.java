@@ -3,11 +3,24 @@ package megamek.client.ui.swing.boardview;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
 
 import megamek.client.ui.swing.GUIPreferences;
 import megamek.common.Compute;
@@ -70,9 +83,36 @@ class FovHighlightingAndDarkening {
     public void die() {
         gs.removePreferenceChangeListener(ringsChangeListner);
         this.boardView1.game.removeGameListener(cacheGameListner);
+        worker.shutdownNow();
     };
 
 
+    /**
+     * @return true if {@link #draw(Graphics, Coords, int, int, boolean)} may
+     *         darken or highlight hexes, that is if a hex or entity is
+     *         selected and darkening or highlighting is turned on during the
+     *         movement phase
+     */
+    boolean isActive(boolean saveBoardImage) {
+        Coords src = getSource();
+        if ((src == null) || !this.boardView1.game.getBoard().contains(src)
+                || saveBoardImage) {
+            return false;
+        }
+        return (gs.getBoolean(GUIPreferences.FOV_HIGHLIGHT)
+                || gs.getBoolean(GUIPreferences.FOV_DARKEN))
+                && (this.boardView1.game.getPhase() == Phase.PHASE_MOVEMENT);
+    }
+
+    private Coords getSource() {
+        if (this.boardView1.selected != null) {
+            return this.boardView1.selected;
+        } else if (this.boardView1.selectedEntity != null) {
+            return this.boardView1.selectedEntity.getPosition();
+        }
+        return null;
+    }
+
     /**
      * Checks if options for darkening and highlighting are turned on and the
      * respectively: If there is no LOS from curently selected hex/entity, then
@@ -94,15 +134,8 @@ class FovHighlightingAndDarkening {
     boolean draw(Graphics boardGraph, Coords c, int drawX, int drawY,
             boolean saveBoardImage) {
 
-        Coords src;
+        Coords src = getSource();
         boolean hasLoS = true;
-        if (this.boardView1.selected != null) {
-            src = this.boardView1.selected;
-        } else if (this.boardView1.selectedEntity != null) {
-            src = this.boardView1.selectedEntity.getPosition();
-        } else {
-            src = null;
-        }
 
 
         //if there is no source we have nothing to do.
@@ -174,6 +207,10 @@ class FovHighlightingAndDarkening {
                         pad, lw);
             } else if (dist < max_dist) {
                 LosEffects los = getCachedLosEffects(src, c);
+                if (los == null) {
+                    // still being calculated
+                    return true;
+                }
                 if (null != this.boardView1.selectedEntity) {
                     if (doubleBlindOn) { // Visual Range only matters in DB
                         visualRange = Compute.getVisualRange(
@@ -235,52 +272,265 @@ class FovHighlightingAndDarkening {
         return hasLoS;
     }
 
+    /** Hexes farther away than this from the source are never shaded */
+    private static final int MAX_FOV_DISTANCE = 60;
+    /** Number of sources whose LOS results are kept */
+    private static final int CACHED_SOURCES = 8;
+    /** The worker publishes its results every time it has this many */
+    private static final int PUBLISH_BATCH = 64;
+
     List<ECMInfo> cachedAllECMInfo = null;
-    Entity cachedSelectedEntity = null;
-    StepSprite cachedStepSprite = null;
-    Coords cachedSrc = null;
-    boolean cacheGameChanged = true;
-    Map<Coords, LosEffects> losCache = new HashMap<>();
-
-    private void clearCache() {
-        losCache = new HashMap<>();
+    volatile boolean cacheGameChanged = true;
+
+    /**
+     * Counts changes to the board and to the positions of units, which
+     * invalidate all cached LOS results
+     */
+    private final AtomicLong version = new AtomicLong();
+    private List<Object> entityPositions;
+
+    /** The LOS results of the last few sources, most recently used last */
+    private final Map<FovKey, Map<Coords, LosEffects>> losCaches =
+            new LinkedHashMap<FovKey, Map<Coords, LosEffects>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<FovKey, Map<Coords, LosEffects>> eldest) {
+                    return size() > CACHED_SOURCES;
+                }
+            };
+    private FovKey cachedKey = null;
+    private Map<Coords, LosEffects> losCache = new ConcurrentHashMap<>();
+
+    private final ExecutorService worker = Executors
+            .newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "FOV Worker"); //$NON-NLS-1$
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    private Future<?> job = null;
+
+    /**
+     * Identifies the LOS results of one source: its position and height, and
+     * the version of the board and unit positions.
+     */
+    private static final class FovKey {
+        private final Coords src;
+        private final int attackHeight;
+        private final int attackAbsHeight;
+        private final long version;
+
+        FovKey(Coords src, LosEffects.AttackInfo ai, long version) {
+            this.src = src;
+            attackHeight = ai.attackHeight;
+            attackAbsHeight = ai.attackAbsHeight;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FovKey)) {
+                return false;
+            }
+            FovKey other = (FovKey) obj;
+            return src.equals(other.src)
+                    && (attackHeight == other.attackHeight)
+                    && (attackAbsHeight == other.attackAbsHeight)
+                    && (version == other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(src, attackHeight, attackAbsHeight, version);
+        }
     }
 
     GameListener cacheGameListner;
 
     /**
-     * Checks for los effects, preferably from cache, if not getLosEffects
-     * is invoked and it's return value is cached.
-     * If enviroment has changed between calls to this method the cache is
-     * cleared.
+     * Marks all cached LOS results as outdated because the board changed.
+     */
+    void boardChanged() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Checks for los effects, preferably from cache. The LOS from a source to
+     * the hexes around it is calculated in the background, starting with the
+     * visible hexes. Returns null while the LOS to dest is still pending; the
+     * hex is redrawn once it is known.
      */
     private LosEffects getCachedLosEffects(Coords src, Coords dest) {
-        ArrayList<StepSprite> pathSprites = boardView1.pathSprites;
-        StepSprite lastStepSprite = pathSprites.size() > 0 ? pathSprites
-                .get(pathSprites.size() - 1) : null;
-        // lets check if cache should be cleared
-        if ((cachedSelectedEntity != this.boardView1.selectedEntity)
-                || (cachedStepSprite != lastStepSprite)
-                || (!src.equals(cachedSrc)) || (cacheGameChanged)) {
-            clearCache();
-            cachedSelectedEntity = this.boardView1.selectedEntity;
-            cachedStepSprite = lastStepSprite;
-            cachedSrc = src;
+        if (cacheGameChanged) {
+            // the results stay valid over turn changes unless units moved
             cacheGameChanged = false;
+            List<Object> positions = getEntityPositions();
+            if (!positions.equals(entityPositions)) {
+                entityPositions = positions;
+                version.incrementAndGet();
+            }
+            cachedAllECMInfo = null;
+        }
+        if (cachedAllECMInfo == null) {
             cachedAllECMInfo = ComputeECM
                     .computeAllEntitiesECMInfo(boardView1.game
                             .getEntitiesVector());
         }
 
+        LosEffects.AttackInfo attacker = getAttackInfo(src);
+        FovKey key = new FovKey(src, attacker, version.get());
+        if (!key.equals(cachedKey)) {
+            cachedKey = key;
+            losCache = losCaches.get(key);
+            if (losCache == null) {
+                losCache = new ConcurrentHashMap<>();
+                losCaches.put(key, losCache);
+            }
+            startWorker(attacker);
+        }
+
         LosEffects los = losCache.get(dest);
-        if (los == null) {
-            los = this.boardView1.fovHighlightingAndDarkening.getLosEffects(
-                    src, dest);
+        if ((los == null) && ((job == null) || job.isDone())) {
+            // the worker skipped this hex
+            los = getLosEffects(attacker, dest);
             losCache.put(dest, los);
         }
         return los;
     }
 
+    /**
+     * @return the id, position, elevation and height of every unit, which
+     *         determine the LOS to the hexes they are in
+     */
+    private List<Object> getEntityPositions() {
+        List<Object> positions = new ArrayList<>();
+        for (Entity entity : boardView1.game.getEntitiesVector()) {
+            positions.add(entity.getId());
+            positions.add(entity.getPosition());
+            positions.add(entity.getElevation());
+            positions.add(entity.getHeight());
+        }
+        return positions;
+    }
+
+    /**
+     * Calculates the LOS from the source to all hexes around it in the
+     * background, cancelling any calculation for a previous source. Visible
+     * hexes go first, then the others in order of distance.
+     */
+    private void startWorker(final LosEffects.AttackInfo attacker) {
+        if (job != null) {
+            job.cancel(true);
+        }
+        final Map<Coords, LosEffects> results = losCache;
+        final List<Coords> order = getFovOrder(attacker.attackPos);
+        final IBoard board = boardView1.game.getBoard();
+        final long boardStamp = board.getChangeStamp();
+        job = worker.submit(new Runnable() {
+            @Override
+            public void run() {
+                List<Coords> batch = new ArrayList<>();
+                for (Coords dest : order) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    if (results.containsKey(dest)) {
+                        continue;
+                    }
+                    LosEffects los;
+                    try {
+                        los = getLosEffects(attacker, dest);
+                    } catch (RuntimeException e) {
+                        // the hex is calculated when it is drawn
+                        System.err.println("Could not calculate the LOS from " //$NON-NLS-1$
+                                + attacker.attackPos + " to " + dest); //$NON-NLS-1$
+                        e.printStackTrace();
+                        continue;
+                    }
+                    if (board.getChangeStamp() != boardStamp) {
+                        // the board changed while the LOS was calculated; the
+                        // results for the new board go into a new cache
+                        return;
+                    }
+                    results.put(dest, los);
+                    batch.add(dest);
+                    if (batch.size() >= PUBLISH_BATCH) {
+                        publish(results, batch);
+                        batch = new ArrayList<>();
+                    }
+                }
+                publish(results, batch);
+            }
+        });
+    }
+
+    /**
+     * Redraws the hexes whose LOS is now known, unless the source changed in
+     * the meantime.
+     */
+    private void publish(final Map<Coords, LosEffects> results,
+            final List<Coords> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                if (results == losCache) {
+                    boardView1.clearHexImageCache(new HashSet<>(batch));
+                    boardView1.repaint();
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the hexes within range of the source, visible ones first and
+     *         otherwise by distance
+     */
+    private List<Coords> getFovOrder(final Coords src) {
+        IBoard board = boardView1.game.getBoard();
+        Rectangle view = boardView1.getVisibleRect();
+        Coords topLeft = boardView1.getCoordsAt(new Point(view.x, view.y));
+        Coords bottomRight = boardView1.getCoordsAt(new Point(view.x
+                + view.width, view.y + view.height));
+        final Rectangle visible = new Rectangle(topLeft.getX(),
+                topLeft.getY(), bottomRight.getX() - topLeft.getX(),
+                bottomRight.getY() - topLeft.getY());
+
+        List<Coords> order = new ArrayList<>();
+        int minX = Math.max(0, src.getX() - MAX_FOV_DISTANCE);
+        int maxX = Math.min(board.getWidth() - 1, src.getX()
+                + MAX_FOV_DISTANCE);
+        int minY = Math.max(0, src.getY() - MAX_FOV_DISTANCE);
+        int maxY = Math.min(board.getHeight() - 1, src.getY()
+                + MAX_FOV_DISTANCE);
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                Coords c = new Coords(x, y);
+                if (src.distance(c) < MAX_FOV_DISTANCE) {
+                    order.add(c);
+                }
+            }
+        }
+        Collections.sort(order, new Comparator<Coords>() {
+            @Override
+            public int compare(Coords c1, Coords c2) {
+                boolean visible1 = visible.contains(c1.getX(), c1.getY());
+                boolean visible2 = visible.contains(c2.getX(), c2.getY());
+                if (visible1 != visible2) {
+                    return visible1 ? -1 : 1;
+                }
+                return Integer.compare(src.distance(c1), src.distance(c2));
+            }
+        });
+        return order;
+    }
+
     /**Parses the properties of rings received from GUIPreferencess.
      *
      */
@@ -331,31 +581,18 @@ class FovHighlightingAndDarkening {
     }
 
     /**
-     * Calculate the LosEffects between the given Coords. Unit height for
-     * the source hex is determined by the selectedEntity if present
-     * otherwise the GUIPreference 'mechInFirst' is used. If pathSprites are
-     * not empty then elevation from last step is used for attacker
-     * elevation, also it is assumed that last step's position is equal to
-     * src.
-     * Unit height for the destination hex is determined by the tallest unit
-     * present in that hex. If no units are present, the GUIPreference
-     * 'mechInSecond' is used.
+     * Determines the position and height of the attacker for the LOS from
+     * the given source. Unit height for the source hex is determined by the
+     * selectedEntity if present otherwise the GUIPreference 'mechInFirst' is
+     * used. If pathSprites are not empty then elevation from last step is
+     * used for attacker elevation, also it is assumed that last step's
+     * position is equal to src.
      */
-    private LosEffects getLosEffects(Coords src, Coords dest) {
-        /*
-         * The getCachedLos method depends that this method uses only
-         * information from src, dest, game, selectedEntity and the last
-         * stepSprite from path Sprites. If this behavior changes, please
-         * change
-         * getCachedLos method accordingly.
-         */
+    private LosEffects.AttackInfo getAttackInfo(Coords src) {
         GUIPreferences guip = GUIPreferences.getInstance();
-        IBoard board = this.boardView1.game.getBoard();
-        IHex srcHex = board.getHex(src);
-        IHex dstHex = board.getHex(dest);
+        IHex srcHex = this.boardView1.game.getBoard().getHex(src);
         LosEffects.AttackInfo ai = new LosEffects.AttackInfo();
         ai.attackPos = src;
-        ai.targetPos = dest;
         // First, we check for a selected unit and use its height. If
         // there's
         // no selected unit we use the mechInFirst GUIPref.
@@ -379,6 +616,27 @@ class FovHighlightingAndDarkening {
             ai.attackHeight = guip.getMechInFirst() ? 1 : 0;
             ai.attackAbsHeight = srcHex.surface() + ai.attackHeight;
         }
+        return ai;
+    }
+
+    /**
+     * Calculate the LosEffects from the attacker to the given Coords.
+     * Unit height for the destination hex is determined by the tallest unit
+     * present in that hex. If no units are present, the GUIPreference
+     * 'mechInSecond' is used.
+     * <p>
+     * This runs on the FOV worker, so it may only use the attacker, dest and
+     * the game.
+     */
+    private LosEffects getLosEffects(LosEffects.AttackInfo attacker,
+            Coords dest) {
+        GUIPreferences guip = GUIPreferences.getInstance();
+        IHex dstHex = this.boardView1.game.getBoard().getHex(dest);
+        LosEffects.AttackInfo ai = new LosEffects.AttackInfo();
+        ai.attackPos = attacker.attackPos;
+        ai.attackHeight = attacker.attackHeight;
+        ai.attackAbsHeight = attacker.attackAbsHeight;
+        ai.targetPos = dest;
         // First, we take the tallest unit in the destination hex, if no
         // units
         // are present we use the mechInSecond GUIPref.
@@ -397,8 +655,4 @@ class FovHighlightingAndDarkening {
         }
         return LosEffects.calculateLos(this.boardView1.game, ai);
     }
-
-
-
-
 }
\ No newline at end of file
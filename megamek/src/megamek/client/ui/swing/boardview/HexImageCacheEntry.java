@@ -12,10 +12,21 @@ public class HexImageCacheEntry {
     public Image hexImage;
     
     public boolean needsUpdating;
+
+    /**
+     * True if the image is shared with other hexes that look the same, in
+     * which case the hex coordinates are drawn on top of it
+     */
+    public final boolean shared;
     
     HexImageCacheEntry(Image h) {
+        this(h, false);
+    }
+
+    HexImageCacheEntry(Image h, boolean shared) {
         hexImage = h;
         needsUpdating = false;
+        this.shared = shared;
     }
 
 }
@@ -15,41 +15,110 @@
 
 package megamek.client.ui.swing.util;
 
-import java.util.Hashtable;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
 
 /**
- * An ImageCache that keeps a Hashtable of mapped keys and values.
- * 
+ * An ImageCache that keeps mapped keys and values up to a maximum number of
+ * entries and, optionally, a maximum number of bytes taken up by the cached
+ * images. When a limit is exceeded, entries are evicted in second chance
+ * order: the oldest entry goes, unless it has been used since it was last
+ * looked at, in which case it is moved to the back of the line.
+ * <p>
+ * The cache counts hits, misses and evictions for display in the FPS overlay.
+ *
  * @author Arlith
  */
 public class ImageCache<K, V> {
-    
+
     /**
      * Default maximum size
      */
     public static int MAX_SIZE = 20000;
-    
 
     /**
-     * The cache of Key/Value pairs.
+     * Byte budget of caches that are only limited by their number of entries
      */
-    private Hashtable<K, V> cache;
-        
+    public static final long NO_BYTE_LIMIT = Long.MAX_VALUE;
+
+    /**
+     * A cached value, its size and whether it has been used since the
+     * eviction last looked at it.
+     */
+    private static class Entry<V> {
+        final V value;
+        final long bytes;
+        boolean referenced;
+
+        Entry(V value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * The cache of Key/Value pairs, oldest first.
+     */
+    private LinkedHashMap<K, Entry<V>> cache;
+
+    private final String name;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ToLongFunction<? super V> sizer;
+
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
     /**
      * Create a cache with the default maximum size.
      */
     public ImageCache() {
-        cache = new Hashtable<K, V>(MAX_SIZE * 5 / 4, .75f);
+        this(MAX_SIZE);
     }
 
-    
+
     public ImageCache(int max) {
-        cache = new Hashtable<K, V>(max * 5 / 4, .75f);
+        this("images", max, NO_BYTE_LIMIT); //$NON-NLS-1$
     }
 
     /**
-     * Adds a new key/value pair into the cache.
-     * 
+     * Create a cache that estimates the size of images and lists of images.
+     *
+     * @param name       the name shown with the statistics
+     * @param maxEntries the maximum number of entries
+     * @param maxBytes   the maximum number of bytes taken by the images
+     */
+    public ImageCache(String name, int maxEntries, long maxBytes) {
+        this(name, maxEntries, maxBytes, ImageCache::estimateBytes);
+    }
+
+    /**
+     * @param name       the name shown with the statistics
+     * @param maxEntries the maximum number of entries
+     * @param maxBytes   the maximum number of bytes taken by the values
+     * @param sizer      estimates the number of bytes a value takes
+     */
+    public ImageCache(String name, int maxEntries, long maxBytes,
+            ToLongFunction<? super V> sizer) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.sizer = sizer;
+        cache = new LinkedHashMap<K, Entry<V>>(Math.min(maxEntries, 1024));
+    }
+
+    /**
+     * Adds a new key/value pair into the cache, evicting older entries if
+     * the cache grows beyond its limits.
+     *
      * @param key
      * @param value
      * @return
@@ -57,28 +126,128 @@ public class ImageCache<K, V> {
     public synchronized V put(K key, V value) {
         if ((key == null) || (value == null))
             return null;
-      
-        cache.put(key, value);
+
+        Entry<V> entry = new Entry<V>(value, Math.max(0,
+                sizer.applyAsLong(value)));
+        Entry<V> old = cache.remove(key);
+        if (old != null) {
+            bytes -= old.bytes;
+        }
+        cache.put(key, entry);
+        bytes += entry.bytes;
+        evict();
         return value;
     }
 
     public synchronized V get(K key) {
-        if (!cache.containsKey(key))
+        Entry<V> entry = cache.get(key);
+        if (entry == null) {
+            misses++;
             return null;
-
-        return cache.get(key);
+        }
+        hits++;
+        entry.referenced = true;
+        return entry.value;
     }
 
-    public void remove(Object key) {
-        cache.remove(key);
+    public synchronized void remove(Object key) {
+        Entry<V> entry = cache.remove(key);
+        if (entry != null) {
+            bytes -= entry.bytes;
+        }
     }
-    
-    public int size(){
+
+    public synchronized int size(){
         return cache.size();
     }
-    
-    public void clear() {
+
+    public synchronized void clear() {
         cache.clear();
+        bytes = 0;
     }
-    
+
+    /**
+     * Evicts entries until the cache is within its limits again. Entries that
+     * have been used since the last pass get a second chance at the back of
+     * the line, so each entry is looked at no more than twice.
+     */
+    private void evict() {
+        while (((cache.size() > maxEntries) || (bytes > maxBytes))
+                && (cache.size() > 1)) {
+            Iterator<Map.Entry<K, Entry<V>>> iter = cache.entrySet()
+                    .iterator();
+            Map.Entry<K, Entry<V>> eldest = iter.next();
+            iter.remove();
+            Entry<V> entry = eldest.getValue();
+            if (entry.referenced) {
+                entry.referenced = false;
+                cache.put(eldest.getKey(), entry);
+            } else {
+                bytes -= entry.bytes;
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * @return the estimated number of bytes taken by the cached values
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * @return a one line summary of the cache size and hit rate
+     */
+    public synchronized String getStats() {
+        long lookups = hits + misses;
+        return String.format("%s: %d, %.1f MB, %d%% hits, %d evicted", //$NON-NLS-1$
+                name, cache.size(), bytes / (1024d * 1024d),
+                (lookups == 0) ? 0 : (hits * 100) / lookups, evictions);
+    }
+
+    /**
+     * Estimates the number of bytes taken by an image, or by all images in a
+     * collection. Other values count as nothing.
+     */
+    public static long estimateBytes(Object value) {
+        if (value instanceof BufferedImage) {
+            DataBuffer buffer = ((BufferedImage) value).getRaster()
+                    .getDataBuffer();
+            return (long) buffer.getSize() * buffer.getNumBanks()
+                    * (DataBuffer.getDataTypeSize(buffer.getDataType()) / 8);
+        }
+        if (value instanceof Image) {
+            Image image = (Image) value;
+            return 4L * Math.max(0, image.getWidth(null))
+                    * Math.max(0, image.getHeight(null));
+        }
+        if (value instanceof Collection) {
+            long total = 0;
+            for (Object element : (Collection<?>) value) {
+                total += estimateBytes(element);
+            }
+            return total;
+        }
+        return 0;
+    }
+
 }
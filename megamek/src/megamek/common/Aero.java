@@ -479,7 +479,7 @@ public class Aero extends Entity {
 
     public void autoSetCapArmor() {
         double divisor = 10.0;
-        if((null != game) && game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_AERO_SANITY)) {
+        if((null != game) && game.getOptions().getSnapshot().isAeroSanity()) {
             divisor = 1.0;
         }
         capitalArmor_orig = (int) Math.round(getTotalOArmor() / divisor);
@@ -488,7 +488,7 @@ public class Aero extends Entity {
 
     public void autoSetFatalThresh() {
         int baseThresh = 2;
-        if((null != game) && game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_AERO_SANITY)) {
+        if((null != game) && game.getOptions().getSnapshot().isAeroSanity()) {
             baseThresh = 20;
         }
         fatalThresh = Math.max(baseThresh, (int) Math.ceil(capitalArmor / 4.0));
@@ -501,6 +501,7 @@ public class Aero extends Entity {
 
     public void setSI(int si) {
         structIntegrity = si;
+        invalidateCachedValues();
     }
 
     public int getSensorHits() {
@@ -2636,7 +2637,7 @@ public class Aero extends Entity {
 
     public int getThresh(int loc) {
         if(isCapitalFighter()) {
-            if((null != game) && game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_AERO_SANITY)) {
+            if((null != game) && game.getOptions().getSnapshot().isAeroSanity()) {
                 if (game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_VARIABLE_DAMAGE_THRESH)) {
                     return (int)Math.round(getCapArmor() / 40.0)+1;
                 } else {
@@ -3670,7 +3671,7 @@ public class Aero extends Entity {
      */
     @Override
     public int getECMRange() {
-        if (!game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM) || !game.getBoard().inSpace()) {
+        if (!game.getOptions().getSnapshot().isStratOpsEcm() || !game.getBoard().inSpace()) {
             return super.getECMRange();
         }
         return Math.min(super.getECMRange(), 0);
@@ -3681,7 +3682,7 @@ public class Aero extends Entity {
      */
     @Override
     public double getECCMStrength() {
-        if (!game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM) || !game.getBoard().inSpace()) {
+        if (!game.getOptions().getSnapshot().isStratOpsEcm() || !game.getBoard().inSpace()) {
             return super.getECCMStrength();
         }
         if (hasActiveECCM()) {
@@ -38,11 +38,14 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
 
 import megamek.common.Building.BasementType;
 import megamek.common.event.BoardEvent;
 import megamek.common.event.BoardListener;
+import megamek.common.util.ChangeStamp;
 import megamek.common.util.MegaMekFile;
 
 public class Board implements Serializable, IBoard {
@@ -124,6 +127,27 @@ public class Board implements Serializable, IBoard {
 
     protected transient Vector<BoardListener> boardListeners = new Vector<BoardListener>();
 
+    /**
+     * Summary of the terrain that can interfere with LOS, built on first use
+     */
+    private transient BoardLosIndex losIndex;
+
+    /**
+     * Stamp of the last board event, see {@link #getChangeStamp()}
+     */
+    private transient volatile long changeStamp;
+
+    /**
+     * Version of the last {@link BoardDelta} of this board
+     */
+    private long deltaVersion;
+
+    /**
+     * The hexes that changed while a delta is applied, which get one event
+     * when it is done; <code>null</code> when no delta is being applied.
+     */
+    private transient Set<Coords> changedHexes;
+
     /**
      * Record the infernos placed on the board.
      */
@@ -242,6 +266,7 @@ public class Board implements Serializable, IBoard {
         this.width = width;
         this.height = height;
         this.data = data;
+        losIndex = null;
 
         initializeAll(errBuff);
         processBoardEvent(new BoardEvent(this, null, BoardEvent.BOARD_NEW_BOARD));
@@ -477,7 +502,9 @@ public class Board implements Serializable, IBoard {
             IHex other = getHexInDir(x, y, i);
             hex.setExits(other, i, roadsAutoExit);
         }
-        if (event) {
+        if (event && (changedHexes != null)) {
+            changedHexes.add(new Coords(x, y));
+        } else if (event) {
             processBoardEvent(new BoardEvent(this, new Coords(x, y), BoardEvent.BOARD_CHANGED_HEX));
         }
     }
@@ -1439,7 +1466,77 @@ public class Board implements Serializable, IBoard {
         }
     }
 
+    /**
+     * @return the LOS index of this board, see {@link BoardLosIndex}
+     */
+    BoardLosIndex getLosIndex() {
+        if (losIndex == null) {
+            losIndex = new BoardLosIndex(this);
+        }
+        return losIndex;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see megamek.common.IBoard#getChangeStamp()
+     */
+    public long getChangeStamp() {
+        if (changeStamp == 0) {
+            changeStamp = ChangeStamp.next();
+        }
+        return changeStamp;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see megamek.common.IBoard#getDeltaVersion()
+     */
+    public long getDeltaVersion() {
+        return deltaVersion;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see megamek.common.IBoard#nextDeltaVersion()
+     */
+    public long nextDeltaVersion() {
+        return ++deltaVersion;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see megamek.common.IBoard#applyDelta(megamek.common.BoardDelta)
+     */
+    public boolean applyDelta(BoardDelta delta) {
+        if (delta.getVersion() <= deltaVersion) {
+            return false;
+        }
+        deltaVersion = delta.getVersion();
+        Set<Coords> changed = new LinkedHashSet<Coords>();
+        changedHexes = changed;
+        try {
+            for (Map.Entry<Coords, IHex> entry : delta.getHexes().entrySet()) {
+                setHex(entry.getKey(), entry.getValue());
+            }
+            // the hexes of collapsed buildings are set to rubble after their
+            // last construction factors are in
+            updateBuildings(delta.getBuildings());
+            collapseBuilding(delta.getCollapsedBuildings());
+        } finally {
+            changedHexes = null;
+        }
+        if (!changed.isEmpty()) {
+            processBoardEvent(new BoardEvent(this, changed));
+        }
+        return true;
+    }
+
     protected void processBoardEvent(BoardEvent event) {
+        changeStamp = ChangeStamp.next();
         if (boardListeners == null) {
             return;
         }
@@ -1454,6 +1551,9 @@ public class Board implements Serializable, IBoard {
             case BoardEvent.BOARD_CHANGED_ALL_HEXES:
                 l.boardChangedAllHexes(event);
                 break;
+            case BoardEvent.BOARD_CHANGED_HEXES:
+                l.boardChangedHexes(event);
+                break;
             }
         }
     }
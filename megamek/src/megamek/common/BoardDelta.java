@@ -0,0 +1,99 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * The changes the server has made to its board since it last told the
+ * clients: hexes that changed, buildings with new construction factors and
+ * building hexes that collapsed. The server sends them in one packet instead
+ * of one packet per change, and {@link IBoard#applyDelta(BoardDelta)} applies
+ * them with one board event.
+ * <p>
+ * Every delta of a board has a higher version than the one before it, so a
+ * board can tell a delta it already has from a new one.
+ *
+ * @author The MegaMek Team
+ */
+public class BoardDelta implements Serializable {
+
+    private static final long serialVersionUID = -3147650843262096271L;
+
+    private final long version;
+    private final Map<Coords, IHex> hexes = new LinkedHashMap<Coords, IHex>();
+    private final Vector<Building> buildings = new Vector<Building>();
+    private final Vector<Coords> collapsedBuildings = new Vector<Coords>();
+
+    /**
+     * @param version the version of the delta, see
+     *                {@link IBoard#nextDeltaVersion()}
+     */
+    public BoardDelta(long version) {
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the hex the coords have after all changes. The hexes are set in the
+     * order they were first added.
+     */
+    public void addHex(Coords coords, IHex hex) {
+        hexes.put(coords, hex);
+    }
+
+    /**
+     * Adds a building whose construction factors have changed, see
+     * {@link IBoard#updateBuildings(Vector)}
+     */
+    public void addBuilding(Building building) {
+        if (!buildings.contains(building)) {
+            buildings.add(building);
+        }
+    }
+
+    /**
+     * Adds a building hex that has collapsed, see
+     * {@link IBoard#collapseBuilding(Coords)}
+     */
+    public void addCollapsedBuilding(Coords coords) {
+        if (!collapsedBuildings.contains(coords)) {
+            collapsedBuildings.add(coords);
+        }
+    }
+
+    public Map<Coords, IHex> getHexes() {
+        return Collections.unmodifiableMap(hexes);
+    }
+
+    public Vector<Building> getBuildings() {
+        return buildings;
+    }
+
+    public Vector<Coords> getCollapsedBuildings() {
+        return collapsedBuildings;
+    }
+
+    public boolean isEmpty() {
+        return hexes.isEmpty() && buildings.isEmpty()
+                && collapsedBuildings.isEmpty();
+    }
+}
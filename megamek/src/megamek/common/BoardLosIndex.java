@@ -0,0 +1,189 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+/**
+ * Per board summary of the static terrain that can interfere with line of
+ * sight, used by {@link LosEffects#calculateLos(IGame, LosEffects.AttackInfo)}
+ * to skip the full rules for lines that clearly pass over everything.
+ * <p>
+ * For every hex the index keeps the highest level anything in the hex reaches
+ * for LOS purposes: the surface plus buildings, fuel tanks, woods, jungle,
+ * smoke, fields and industrial zones. An entry is recomputed whenever the hex
+ * has been replaced through {@link Board#setHex(int, int, IHex)} (which is also
+ * how collapsed buildings turn into rubble) or its terrain has been changed in
+ * place, as told by {@link IHex#getChangeStamp()}.
+ * <p>
+ * A line is only reported as clear when no intermediate hex reaches as high as
+ * the lower of the attacker and the target. Such a line can't be blocked, give
+ * partial cover or pass through woods, smoke or other LOS modifying terrain
+ * under either the normal or the diagramming rules, so the full rules would
+ * return empty LOS effects for it. Every other line, including clearly blocked
+ * ones whose individual effects are still reported to the players, is left to
+ * the full rules.
+ */
+final class BoardLosIndex {
+
+    /** The hex always has to go through the full rules */
+    private static final int OPAQUE = Integer.MAX_VALUE;
+
+    private static volatile boolean enabled = true;
+
+    private final Board board;
+    private final int width;
+    /**
+     * Entries are replaced rather than changed, so that attacks that are
+     * worked out on several threads at once always see a complete entry
+     */
+    private final Entry[] entries;
+
+    BoardLosIndex(Board board) {
+        this.board = board;
+        width = board.getWidth();
+        entries = new Entry[width * board.getHeight()];
+    }
+
+    /**
+     * Turns the shortcut on or off for all boards, e.g. to compare results.
+     */
+    static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * @return true if LOS between the attacker and the target described by
+     *         the AttackInfo is certain to be completely clear, without any
+     *         LOS effects at all
+     */
+    static boolean isClear(IGame game, LosEffects.AttackInfo ai) {
+        if (!enabled || !(game.getBoard() instanceof Board)) {
+            return false;
+        }
+        // underwater combat and torpedo depth tracking need the full rules
+        if (ai.underWaterCombat || (ai.minimumWaterDepth != 0)) {
+            return false;
+        }
+        Board board = (Board) game.getBoard();
+        if (!board.contains(ai.attackPos) || !board.contains(ai.targetPos)) {
+            return false;
+        }
+        // units in buildings shoot through or are protected by them
+        if ((board.getBuildingAt(ai.attackPos) != null)
+                || (board.getBuildingAt(ai.targetPos) != null)) {
+            return false;
+        }
+
+        int below = Math.min(ai.attackAbsHeight, ai.targetAbsHeight);
+        // lines along hex sides are traced through the hexes on both sides
+        boolean divided = (ai.attackPos.degree(ai.targetPos) % 60) == 30;
+        HexLine line = HexLine.get(ai.attackPos, ai.targetPos, divided);
+        if (!board.getLosIndex().isClear(line, below)) {
+            return false;
+        }
+
+        // grounded dropships block like 10 level buildings wherever they are
+        for (Entity entity : game.getEntitiesVector()) {
+            if ((entity instanceof Dropship) && !entity.isAirborne()
+                    && !entity.isSpaceborne()
+                    && (entity.getId() != ai.attackerId)
+                    && (entity.getId() != ai.targetId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if no hex of the line between its end points reaches the
+     *         given level
+     */
+    boolean isClear(HexLine line, int below) {
+        for (int i = 1; i < line.size() - 1; i++) {
+            if (!isClear(line.getX(i), line.getY(i), below)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isClear(int x, int y, int below) {
+        if (!board.contains(x, y)) {
+            // the rules ignore hexes off the board
+            return true;
+        }
+        return getHeight(x, y) < below;
+    }
+
+    /**
+     * @return the highest level anything in the hex reaches for LOS purposes
+     */
+    int getHeight(int x, int y) {
+        int index = (y * width) + x;
+        IHex hex = board.getHex(x, y);
+        Entry entry = entries[index];
+        if ((entry == null) || (hex != entry.hex)
+                || ((hex != null) && (hex.getChangeStamp() != entry.stamp))) {
+            entry = new Entry(hex);
+            entries[index] = entry;
+        }
+        return entry.height;
+    }
+
+    /**
+     * Mirrors the terrain checks of the full LOS rules for a hex that isn't
+     * part of the building the line is traced through.
+     */
+    private static int computeHeight(IHex hex) {
+        if ((hex == null) || hex.containsTerrain(Terrains.SCREEN)) {
+            return OPAQUE;
+        }
+        int height = 0;
+        if (hex.containsTerrain(Terrains.BLDG_ELEV)) {
+            height = Math.max(height, hex.terrainLevel(Terrains.BLDG_ELEV));
+        }
+        if (hex.containsTerrain(Terrains.FUEL_TANK_ELEV)) {
+            height = Math.max(height,
+                    hex.terrainLevel(Terrains.FUEL_TANK_ELEV));
+        }
+        if (hex.containsTerrain(Terrains.INDUSTRIAL)) {
+            height = Math.max(height, hex.terrainLevel(Terrains.INDUSTRIAL));
+        }
+        // planted fields and regular woods, jungle and smoke rise 2 levels
+        if (hex.containsTerrain(Terrains.FIELDS)
+                || hex.containsTerrain(Terrains.SMOKE)
+                || hex.containsTerrain(Terrains.WOODS)
+                || hex.containsTerrain(Terrains.JUNGLE)) {
+            height = Math.max(height, 2);
+        }
+        // ultra woods and jungle rise 3 levels
+        if ((hex.terrainLevel(Terrains.WOODS) == 3)
+                || (hex.terrainLevel(Terrains.JUNGLE) == 3)) {
+            height = Math.max(height, 3);
+        }
+        return hex.surface() + height;
+    }
+
+    private static final class Entry {
+        final IHex hex;
+        final long stamp;
+        final int height;
+
+        Entry(IHex hex) {
+            this.hex = hex;
+            stamp = (hex == null) ? 0 : hex.getChangeStamp();
+            height = computeHeight(hex);
+        }
+    }
+}
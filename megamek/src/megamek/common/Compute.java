@@ -96,7 +96,29 @@ public class Compute {
     public static final int ARC_HEXSIDE_4 = 36;
     public static final int ARC_HEXSIDE_5 = 37;
 
-    private static MMRandom random = MMRandom.generate(MMRandom.R_DEFAULT);
+    /**
+     * The purposes random numbers are drawn for. Each purpose has a stream of
+     * its own, so that for example generating a map does not change the dice
+     * of the next attack when a game is played again. Computer players draw
+     * from streams of their own, see {@link #getBotSeed(int, int)}.
+     */
+    public enum RandomStream {
+        /** dice rolled for attacks, damage, piloting and the like */
+        COMBAT,
+        /** initiative rolls */
+        INITIATIVE,
+        /** random map generation */
+        MAP,
+        /**
+         * numbers drawn by the client, such as random names, skills and
+         * units; these are not part of the game, so they are neither recorded
+         * nor seeded
+         */
+        CLIENT
+    }
+
+    private static volatile MMRandom[] streams = createStreams(
+            MMRandom.R_DEFAULT, null, null);
 
     private static final int[][] clusterHitsTable = new int[][]{
             {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1},
@@ -135,35 +157,31 @@ public class Compute {
      * Wrapper to random#d6(n)
      */
     public static int d6(int dice) {
-        Roll roll = random.d6(dice);
-        if (Server.getServerInstance() != null) {
-            if (Server.getServerInstance().getGame().getOptions()
-                      .booleanOption(OptionsConstants.BASE_RNG_LOG)) {
-                Server.getServerInstance().reportRoll(roll);
-            }
-        }
-        return roll.getIntValue();
+        return d6(RandomStream.COMBAT, dice);
+    }
+
+    /**
+     * Rolls dice from the stream of the given purpose.
+     */
+    public static int d6(RandomStream stream, int dice) {
+        return report(streams[stream.ordinal()].d6(dice));
     }
 
     /**
      * Wrapper to random#d6(n)
      */
     public static int d6(int dice, int keep) {
-        Roll roll = random.d6(dice, keep);
-        if (Server.getServerInstance() != null) {
-            if (Server.getServerInstance().getGame().getOptions()
-                      .booleanOption(OptionsConstants.BASE_RNG_LOG)) {
-                Server.getServerInstance().reportRoll(roll);
-            }
-        }
-        return roll.getIntValue();
+        return report(streams[RandomStream.COMBAT.ordinal()].d6(dice, keep));
     }
 
     /**
      * Wrapper to random#d6()
      */
     public static int d6() {
-        Roll roll = random.d6();
+        return report(streams[RandomStream.COMBAT.ordinal()].d6());
+    }
+
+    private static int report(Roll roll) {
         if (Server.getServerInstance() != null) {
             if (Server.getServerInstance().getGame().getOptions()
                       .booleanOption(OptionsConstants.BASE_RNG_LOG)) {
@@ -177,7 +195,15 @@ public class Compute {
      * Wrapper to random#randomInt(n)
      */
     public static int randomInt(int maxValue) {
-        Roll roll = new MMRoll(random, maxValue);
+        return randomInt(RandomStream.COMBAT, maxValue);
+    }
+
+    /**
+     * Returns a random number from 0 to one less than the max value, drawn
+     * from the stream of the given purpose.
+     */
+    public static int randomInt(RandomStream stream, int maxValue) {
+        Roll roll = new MMRoll(streams[stream.ordinal()], maxValue);
         return roll.getIntValue();
     }
 
@@ -185,7 +211,75 @@ public class Compute {
      * Sets the RNG to the desired type
      */
     public static void setRNG(int type) {
-        random = MMRandom.generate(type);
+        setRNG(type, null, null);
+    }
+
+    /**
+     * Sets the RNG of every stream to the desired type. If the log has a seed,
+     * each stream is seeded from it and from the number of rolls the stream
+     * already has in the log, so a game loaded from a save carries on with the
+     * same rolls as the original.
+     *
+     * @param type   the RNG type
+     * @param log    the log to record all rolls to, or null
+     * @param replay the rolls of an earlier game to play back, or null
+     */
+    public static void setRNG(int type, RollLog log, RollLog.Replay replay) {
+        streams = createStreams(type, log, replay);
+    }
+
+    private static MMRandom[] createStreams(int type, RollLog log,
+            RollLog.Replay replay) {
+        RandomStream[] purposes = RandomStream.values();
+        MMRandom[] result = new MMRandom[purposes.length];
+        for (int i = 0; i < purposes.length; i++) {
+            if (purposes[i] == RandomStream.CLIENT) {
+                result[i] = MMRandom.generate(type, 0);
+                continue;
+            }
+            long seed = 0;
+            if ((log != null) && (log.getSeed() != 0)) {
+                seed = mixSeed(mixSeed(log.getSeed() + i) + log.getCount(i));
+            }
+            result[i] = MMRandom.generate(type, seed);
+            result[i].setLog(i, log, replay);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the seed of the random numbers a computer player draws in a
+     * round. Each bot has a stream of its own that is not recorded, so the
+     * order in which the bots of a game think does not change what each of
+     * them draws. When the server of a seeded game runs in this JVM, as with
+     * bots that are hosted locally, the stream is seeded from the game's
+     * seed, the player and the round, so the game played again, or loaded
+     * from a save from the next round on, gives every bot the same numbers.
+     * Otherwise bot decisions are not repeated when a game is replayed.
+     *
+     * @param playerId the id of the bot's player
+     * @param round    the current round
+     * @return the seed, or 0 if the game is not seeded
+     */
+    public static long getBotSeed(int playerId, int round) {
+        Server server = Server.getServerInstance();
+        RollLog log = (server == null) ? null : server.getGame().getRollLog();
+        if ((log == null) || (log.getSeed() == 0)) {
+            return 0;
+        }
+        return mixSeed(mixSeed(mixSeed(log.getSeed()) + playerId) + round);
+    }
+
+    /**
+     * Scrambles the bits of a seed, so that seeds that are close together
+     * give unrelated random numbers.
+     */
+    static long mixSeed(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        // 0 stands for no seed
+        return (z == 0) ? 1 : z;
     }
 
     /**
@@ -808,7 +902,7 @@ public class Compute {
                         target, true);
                 ToHitData mods = los.losModifiers(game);
                 // If the target isn't spotted, can't target
-                if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_DOUBLE_BLIND)
+                if (game.getOptions().getSnapshot().isDoubleBlind()
                     && !Compute.inVisualRange(game, los, other, target)
                     && !Compute.inSensorRange(game, los, other, target, null)) {
                     mods.addModifier(TargetRoll.IMPOSSIBLE,
@@ -878,10 +972,8 @@ public class Compute {
                                || (wtype.getAmmoType() == AmmoType.T_MEK_MORTAR)
                                || (wtype instanceof ArtilleryCannonWeapon)) 
                                && weapon.curMode().equals("Indirect");
-        boolean useExtremeRange = game.getOptions().booleanOption(
-                OptionsConstants.ADVCOMBAT_TACOPS_RANGE);
-        boolean useLOSRange = game.getOptions().booleanOption(
-                OptionsConstants.ADVCOMBAT_TACOPS_LOS_RANGE);
+        boolean useExtremeRange = game.getOptions().getSnapshot().isExtremeRange();
+        boolean useLOSRange = game.getOptions().getSnapshot().isLosRange();
 
         if (ae.isAirborne()) {
             useExtremeRange = true;
@@ -1109,10 +1201,10 @@ public class Compute {
             c3spotter = ae; // no c3 when using indirect fire
         }
         if (isIndirect
-            && game.getOptions().booleanOption(OptionsConstants.BASE_INDIRECT_FIRE)
-            && !game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_INDIRECT_ALWAYS_POSSIBLE)
+            && game.getOptions().getSnapshot().isIndirectFire()
+            && !game.getOptions().getSnapshot().isIndirectAlwaysPossible()
             && LosEffects.calculateLos(game, ae.getId(), target).canSee()
-            && (!game.getOptions().booleanOption(OptionsConstants.ADVANCED_DOUBLE_BLIND) || Compute
+            && (!game.getOptions().getSnapshot().isDoubleBlind() || Compute
                 .canSee(game, ae, target))
             && !(wtype instanceof MekMortarWeapon)) {
             return new ToHitData(TargetRoll.IMPOSSIBLE,
@@ -2402,7 +2494,7 @@ public class Compute {
             woodsText = "target in ultra heavy " + woodsText;
         }
 
-        if (!game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_WOODS_COVER)
+        if (!game.getOptions().getSnapshot().isWoodsCover()
             && !isAboveWoodsAndSmoke
             && !((t.getTargetType() == Targetable.TYPE_HEX_CLEAR)
                  || (t.getTargetType() == Targetable.TYPE_HEX_IGNITE)
@@ -2490,7 +2582,7 @@ public class Compute {
             woodsText = "heavy " + woodsText;
         }
 
-        if (!game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_WOODS_COVER)) {
+        if (!game.getOptions().getSnapshot().isWoodsCover()) {
             if ((woodsLevel == 1) && (eistatus != 2)) {
                 toHit.addModifier(1, woodsText);
             } else if (woodsLevel > 1) {
@@ -4176,12 +4268,12 @@ public class Compute {
         }
 
         // get intervening Coords.
-        ArrayList<Coords> coords = Coords.intervening(a, b);
+        HexLine line = HexLine.get(a, b, false);
         // loop through all intervening coords, check each if they are ECM
         // affected
         int metalContent = 0;
-        for (Coords c : coords) {
-            IHex hex = board.getHex(c);
+        for (int i = 0; i < line.size(); i++) {
+            IHex hex = board.getHex(line.getX(i), line.getY(i));
             if (hex != null && hex.containsTerrain(Terrains.METAL_CONTENT)) {
                 metalContent += hex.terrainLevel(Terrains.METAL_CONTENT);
             }
@@ -4272,13 +4364,14 @@ public class Compute {
         }
 
         // get intervening Coords.
-        ArrayList<Coords> coords = Coords.intervening(a, b);
+        HexLine line = HexLine.get(a, b, false);
         // loop through all intervening coords, if they are not ecm'ed by
         // friendlys then add any Ghost Targets
         // to the hashlist
         // According to the rules clarification below ECM cancels Ghost Targets
         // http://www.classicbattletech.com/forums/index.php/topic,66035.new.html#new
-        for (Coords c : coords) {
+        for (int i = 0; i < line.size(); i++) {
+            Coords c = line.getCoords(i);
             // >0: in friendly ECM
             // <=0: not in friendly ECM
             int ecmStatus = 0;
@@ -4663,7 +4756,7 @@ public class Compute {
         // .php?Cat=&Board=ask&Number=632321&page=0&view=collapsed&sb=5&o=0&fpart=
         else if (!attacker.isEnemyOf(defender)
                  && !attacker.getGame().getOptions()
-                             .booleanOption(OptionsConstants.BASE_FRIENDLY_FIRE)) {
+                             .getSnapshot().isFriendlyFire()) {
             reason = "Can only swarm an enemy.";
         }
         // target is already swarmed
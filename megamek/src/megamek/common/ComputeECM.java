@@ -24,7 +24,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Vector;
 
-import megamek.common.options.OptionsConstants;
 import megamek.server.SmokeCloud;
 
 
@@ -167,7 +166,7 @@ public class ComputeECM {
         }
     
         // get intervening Coords.
-        ArrayList<Coords> coords = Coords.intervening(a, b);
+        HexLine line = HexLine.get(a, b, false);
         // loop through all intervening coords, check each if they are ECM
         // affected
         int totalECM = 0;
@@ -176,7 +175,8 @@ public class ComputeECM {
         int x = 0;
         int prevEcmStatus = 0;
         boolean prevEccmPresent = false;
-        for (Coords c : coords) {
+        for (int i = 0; i < line.size(); i++) {
+            Coords c = line.getCoords(i);
             int ecmStatus = 0;
             boolean eccmPresent = false;
             // first, subtract 1 for each enemy ECM that affects us
@@ -290,14 +290,15 @@ public class ComputeECM {
         }
     
         // get intervening Coords.
-        ArrayList<Coords> coords = Coords.intervening(a, b);
+        HexLine line = HexLine.get(a, b, false);
         // loop through all intervening coords, check each if they are ECM
         // affected
         int totalECM = 0;
         boolean bDivided = ((a.degree(b) % 60) == 30);
         int x = 0;
         int prevEcmStatus = 0;
-        for (Coords c : coords) {
+        for (int i = 0; i < line.size(); i++) {
+            Coords c = line.getCoords(i);
             // > 0: in friendly ECCM
             // 0: unaffected by enemy ECM
             // <0: affected by enemy ECM
@@ -412,7 +413,7 @@ public class ComputeECM {
         
         
         // If ECCM is on, we may have to remove some ECM that is negated
-        if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_ECCM) 
+        if (game.getOptions().getSnapshot().isEccm() 
                 && allEccmInfo.size() > 0) {
             Iterator<ECMInfo> ecmIterator = allEcmInfo.iterator();
             Iterator<ECMInfo> eccmIterator;
@@ -498,10 +499,11 @@ public class ComputeECM {
         }
         
         // Get intervening Coords
-        ArrayList<Coords> coords = Coords.intervening(a, b);
+        HexLine line = HexLine.get(a, b, false);
         ECMInfo worstECMEffects = null;
         // Loop through intervening coords, and find the worst effects        
-        for (Coords c : coords) {
+        for (int i = 0; i < line.size(); i++) {
+            Coords c = line.getCoords(i);
             ECMInfo affectedInfo = null;
             if (c.equals(ae.getPosition()) && ae.isINarcedWith(INarcPod.ECM)) {
                 affectedInfo = new ECMInfo(0, 1, ae.getOwner(), c);
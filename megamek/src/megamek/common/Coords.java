@@ -223,17 +223,26 @@ public class Coords implements Serializable {
      * @param d the destination coordinate.
      */
     public final double radian(Coords d) {
-        final IdealHex src = IdealHex.get(this);
-        final IdealHex dst = IdealHex.get(d);
+        return radian(getX(), getY(), d.getX(), d.getY());
+    }
+
+    /**
+     * Returns the radian direction from (srcX, srcY) to (destX, destY).
+     */
+    public static double radian(int srcX, int srcY, int destX, int destY) {
+        final double srcCx = IdealHex.centerX(srcX);
+        final double srcCy = IdealHex.centerY(srcX, srcY);
+        final double dstCx = IdealHex.centerX(destX);
+        final double dstCy = IdealHex.centerY(destX, destY);
 
         // don't divide by 0
-        if (src.cy == dst.cy) {
-            return (src.cx < dst.cx) ? Math.PI / 2 : Math.PI * 1.5;
+        if (srcCy == dstCy) {
+            return (srcCx < dstCx) ? Math.PI / 2 : Math.PI * 1.5;
         }
 
-        double r = Math.atan((dst.cx - src.cx) / (src.cy - dst.cy));
+        double r = Math.atan((dstCx - srcCx) / (srcCy - dstCy));
         // flip if we're upside down
-        if (src.cy < dst.cy) {
+        if (srcCy < dstCy) {
             r = (r + Math.PI) % (Math.PI * 2);
         }
         // account for negative angles
@@ -257,28 +266,35 @@ public class Coords implements Serializable {
      * Returns the distance to another coordinate.
      */
     public final int distance(Coords c) {
+        return distance(getX(), getY(), c.getX(), c.getY());
+    }
+
+    public final int distance(int distx, int disty) {
+        return distance(getX(), getY(), distx, disty);
+    }
+
+    /**
+     * Returns the distance between (x1, y1) and (x2, y2).
+     */
+    public static int distance(int x1, int y1, int x2, int y2) {
         // based off of
         // http://www.rossmack.com/ab/RPG/traveller/AstroHexDistance.asp
         // since I'm too dumb to make my own
         int xd, ym, ymin, ymax, yo;
-        xd = Math.abs(this.getX() - c.getX());
-        yo = (xd / 2) + (!isXOdd() && c.isXOdd() ? 1 : 0);
-        ymin = this.getY() - yo;
+        xd = Math.abs(x1 - x2);
+        yo = (xd / 2) + (((x1 & 1) == 0) && ((x2 & 1) == 1) ? 1 : 0);
+        ymin = y1 - yo;
         ymax = ymin + xd;
         ym = 0;
-        if (c.getY() < ymin) {
-            ym = ymin - c.getY();
+        if (y2 < ymin) {
+            ym = ymin - y2;
         }
-        if (c.getY() > ymax) {
-            ym = c.getY() - ymax;
+        if (y2 > ymax) {
+            ym = y2 - ymax;
         }
         return xd + ym;
     }
 
-    public final int distance(int distx, int disty) {
-        return distance(new Coords(distx, disty));
-    }
-
     /**
      * Returns a string representing a coordinate in "board number" format.
      */
@@ -358,29 +374,11 @@ public class Coords implements Serializable {
      * @return The list of intervening coordinates.
      */
     public static ArrayList<Coords> intervening(Coords src, Coords dest, boolean split) {
-        IdealHex iSrc = IdealHex.get(src);
-        IdealHex iDest = IdealHex.get(dest);
-
-        int[] directions = new int[3];
-        int centerDirection = src.direction(dest);
-        if (split) {
-            // HACK to make left appear before right in the sequence reliably
-            centerDirection = (int) Math.round(src.radian(dest) + 0.0001
-                    / HEXSIDE) % 6;
+        HexLine line = HexLine.get(src, dest, split);
+        ArrayList<Coords> hexes = new ArrayList<>(line.size());
+        for (int i = 0; i < line.size(); i++) {
+            hexes.add(line.getCoords(i));
         }
-        directions[2] = centerDirection; // center last
-        directions[1] = (centerDirection + 5) % 6;
-        directions[0] = (centerDirection + 1) % 6;
-
-        ArrayList<Coords> hexes = new ArrayList<>();
-        Coords current = src;
-
-        hexes.add(current);
-        while (!dest.equals(current)) {
-            current = Coords.nextHex(current, iSrc, iDest, directions);
-            hexes.add(current);
-        }
-
         return hexes;
     }
 
@@ -23,6 +23,7 @@ import megamek.common.options.IOption;
 import megamek.common.options.IOptionGroup;
 import megamek.common.options.OptionsConstants;
 import megamek.common.options.PilotOptions;
+import megamek.common.util.ChangeStamp;
 
 public class Crew implements Serializable {
     /**
@@ -78,6 +79,9 @@ public class Crew implements Serializable {
 
     private PilotOptions options = new PilotOptions();
 
+    // stamp of the last change to a skill that feeds into BV
+    private transient long changeStamp;
+
     // pathway to pilot portrait
     public static final String ROOT_PORTRAIT = "-- General --";
     public static final String PORTRAIT_NONE = "None";
@@ -249,30 +253,37 @@ public class Crew implements Serializable {
      */
     public void setSize(int newSize) {
         size = newSize;
+        changeStamp = ChangeStamp.next();
     }
 
     public void setGunnery(int gunnery) {
         this.gunnery = gunnery;
+        changeStamp = ChangeStamp.next();
     }
 
     public void setGunneryL(int gunnery) {
         gunneryL = gunnery;
+        changeStamp = ChangeStamp.next();
     }
 
     public void setGunneryM(int gunnery) {
         gunneryM = gunnery;
+        changeStamp = ChangeStamp.next();
     }
 
     public void setGunneryB(int gunnery) {
         gunneryB = gunnery;
+        changeStamp = ChangeStamp.next();
     }
 
     public void setArtillery(int artillery) {
         this.artillery = artillery;
+        changeStamp = ChangeStamp.next();
     }
 
     public void setPiloting(int piloting) {
         this.piloting = piloting;
+        changeStamp = ChangeStamp.next();
     }
 
     public void setHits(int hits) {
@@ -340,12 +351,24 @@ public class Crew implements Serializable {
 
     public void setOptions(PilotOptions options) {
         this.options = options;
+        changeStamp = ChangeStamp.next();
     }
 
     public PilotOptions getOptions() {
         return options;
     }
 
+    /**
+     * @return the {@link ChangeStamp} of the last change to this crew's
+     *         skills or options
+     */
+    public long getChangeStamp() {
+        if (changeStamp == 0) {
+            changeStamp = ChangeStamp.next();
+        }
+        return Math.max(changeStamp, options.getChangeStamp());
+    }
+
     public void clearOptions() {
         for (Enumeration<IOptionGroup> i = options.getGroups(); i.hasMoreElements(); ) {
             IOptionGroup group = i.nextElement();
@@ -1476,7 +1476,7 @@ public class Dropship extends SmallCraft {
      */
     @Override
     public boolean hasActiveECM() {
-        if (!game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)
+        if (!game.getOptions().getSnapshot().isStratOpsEcm()
                 || !game.getBoard().inSpace()) {
             return super.hasActiveECM();
         }
@@ -1491,7 +1491,7 @@ public class Dropship extends SmallCraft {
      */
     @Override
     public int getECMRange() {
-        if (!game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)
+        if (!game.getOptions().getSnapshot().isStratOpsEcm()
                 || !game.getBoard().inSpace()) {
             return super.getECMRange();
         }
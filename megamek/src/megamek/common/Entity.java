@@ -56,6 +56,7 @@ import megamek.common.options.OptionsConstants;
 import megamek.common.options.PartialRepairs;
 import megamek.common.options.Quirks;
 import megamek.common.preference.PreferenceManager;
+import megamek.common.util.ChangeStamp;
 import megamek.common.util.StringUtil;
 import megamek.common.weapons.ACWeapon;
 import megamek.common.weapons.ASEWMissileWeapon;
@@ -216,6 +217,23 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     protected boolean useManualBV = false;
     protected int manualBV = -1;
 
+    /**
+     * Values derived from this unit's configuration that are expensive to
+     * calculate, see {@link #getCachedBattleValue()}. They were computed from
+     * inputs none of which had a {@link ChangeStamp} newer than
+     * <code>cachedValuesStamp</code>.
+     */
+    private transient long changeStamp;
+    private transient long cachedValuesStamp;
+    private transient int cachedValuesForceSize;
+    private transient int cachedValuesTeam;
+    private transient boolean cachedValuesDependOnForce;
+    private transient Integer cachedBV;
+    private transient Double cachedCost;
+    private transient Double cachedUnloadedCost;
+    private transient AlphaStrikeElement cachedAlphaStrikeElement;
+    private transient BattleForceElement cachedBattleForceElement;
+
     protected String displayName = null;
     protected String shortName = null;
     public int duplicateMarker = 1;
@@ -939,6 +957,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     @Override
     public void setGame(IGame game) {
         this.game = game;
+        invalidateCachedValues();
         restore();
         // Make sure the owner is set.
         if (null == owner) {
@@ -1117,6 +1136,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public void setWeight(double weight) {
         this.weight = weight;
+        invalidateCachedValues();
         // Any time the weight is reset we need to reset the crew size
         crew.setSize(Compute.getFullCrewSize(this));
     }
@@ -1144,6 +1164,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public void setOwner(IPlayer player) {
         owner = player;
         ownerId = player.getId();
+        invalidateCachedValues();
 
         generateDisplayName();
     }
@@ -1174,6 +1195,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public void setCrew(Crew crew) {
         this.crew = crew;
+        invalidateCachedValues();
     }
 
     public boolean isShutDown() {
@@ -2120,6 +2142,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     public void setOriginalWalkMP(int walkMP) {
         this.walkMP = walkMP;
+        invalidateCachedValues();
     }
 
     /**
@@ -2330,6 +2353,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     public void setOriginalJumpMP(int jumpMP) {
         this.jumpMP = jumpMP;
+        invalidateCachedValues();
     }
 
     /**
@@ -2665,6 +2689,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     public void setArmor(int val, int loc, boolean rear) {
         armor[loc] = val;
+        invalidateCachedValues();
     }
 
     public void refreshLocations() {
@@ -2779,6 +2804,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     public void setInternal(int val, int loc) {
         internal[loc] = val;
+        invalidateCachedValues();
     }
 
     /**
@@ -3087,6 +3113,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             throws LocationFullException {
         mounted.setLocation(loc, rearMounted);
         equipmentList.add(mounted);
+        invalidateCachedValues();
 
         // add it to the proper sub-list
         if (mounted.getType() instanceof WeaponType) {
@@ -3483,6 +3510,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             if (mounted.getName().equals(toRemove)) {
                 miscList.remove(mounted);
                 equipmentList.remove(mounted);
+                invalidateCachedValues();
                 break;
             }
         }
@@ -3493,6 +3521,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             if (mounted.getName().equals(toRemove)) {
                 weaponList.remove(mounted);
                 equipmentList.remove(mounted);
+                invalidateCachedValues();
                 break;
             }
         }
@@ -4376,7 +4405,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public boolean hasActiveECM(boolean stealth) {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+            && !game.getOptions().getSnapshot().isStratOpsEcm()) {
             return false;
         }
         if (!isShutDown()) {
@@ -4406,7 +4435,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public boolean hasActiveAngelECM() {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+            && !game.getOptions().getSnapshot().isStratOpsEcm()) {
             return false;
         }
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_ANGEL_ECM)
@@ -4431,7 +4460,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public boolean hasActiveNovaECM() {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+            && !game.getOptions().getSnapshot().isStratOpsEcm()) {
             return false;
         }
         if (!isShutDown()) {
@@ -4500,11 +4529,11 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public boolean hasActiveECCM() {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+            && !game.getOptions().getSnapshot().isStratOpsEcm()) {
             return false;
         }
-        if ((game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_ECCM) || game
-                .getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) && !isShutDown()) {
+        if ((game.getOptions().getSnapshot().isEccm() || game
+                .getOptions().getSnapshot().isStratOpsEcm()) && !isShutDown()) {
             for (Mounted m : getMisc()) {
                 EquipmentType type = m.getType();
                 // TacOps p. 100 Angle ECM can have 1 ECM and 1 ECCM at the same
@@ -4533,7 +4562,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     public boolean hasActiveAngelECCM() {
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_ANGEL_ECM)
-            && game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_ECCM)
+            && game.getOptions().getSnapshot().isEccm()
             && !isShutDown()) {
             for (Mounted m : getMisc()) {
                 EquipmentType type = m.getType();
@@ -4559,7 +4588,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     public int getECMRange() {
         // no ECM in space unless strat op option enabled
         if (game.getBoard().inSpace()
-            && !game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+            && !game.getOptions().getSnapshot().isStratOpsEcm()) {
             return Entity.NONE;
         }
         // If we have stealth up and running, there's no bubble.
@@ -5040,6 +5069,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             return;
         }
         c3NetIdString = e.c3NetIdString;
+        invalidateCachedValues();
     }
 
     public void setC3NetIdSelf() {
@@ -5048,6 +5078,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         } else {
             c3NetIdString = "C3i." + getId();
         }
+        invalidateCachedValues();
     }
 
     /**
@@ -5317,6 +5348,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      * @param entityId
      */
     public void setC3Master(int entityId, boolean reset) {
+        invalidateCachedValues();
         if (reset && ((id == entityId) != (id == c3Master))) {
             // this just changed from a company-level to lance-level (or vice
             // versa); have to disconnect all slaved units to maintain
@@ -5937,6 +5969,153 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         return calculateBattleValue();
     }
 
+    /**
+     * Returns the battle value of this entity as calculated by
+     * {@link #calculateBattleValue()}, reusing the result of an earlier call as
+     * long as none of its inputs have changed. Changes to equipment, armor,
+     * internal structure, crew, quirks, C3 setup and game options are tracked.
+     * Units in a C3 network or with semi-guided ammo are also recalculated
+     * when any unit in the game changes, as their BV depends on other units.
+     * <p>
+     * Note that this doesn't update the breakdown returned by
+     * {@link #getBVText()}; use {@link #calculateBattleValue()} for that.
+     */
+    public int getCachedBattleValue() {
+        validateCachedValues();
+        if (cachedBV == null) {
+            cachedBV = calculateBattleValue();
+        }
+        return cachedBV;
+    }
+
+    /**
+     * Returns the cost of this entity as calculated by
+     * {@link #getCost(boolean)}, reusing earlier results as long as none of the
+     * inputs tracked by {@link #getCachedBattleValue()} have changed.
+     */
+    public double getCachedCost(boolean ignoreAmmo) {
+        validateCachedValues();
+        if (ignoreAmmo) {
+            if (cachedUnloadedCost == null) {
+                cachedUnloadedCost = getCost(true);
+            }
+            return cachedUnloadedCost;
+        }
+        if (cachedCost == null) {
+            cachedCost = getCost(false);
+        }
+        return cachedCost;
+    }
+
+    /**
+     * @return the Alpha Strike conversion of this entity, shared between calls
+     *         as long as none of the inputs tracked by
+     *         {@link #getCachedBattleValue()} have changed. Callers must not
+     *         modify the returned element.
+     */
+    public AlphaStrikeElement getAlphaStrikeElement() {
+        validateCachedValues();
+        if (cachedAlphaStrikeElement == null) {
+            cachedAlphaStrikeElement = new AlphaStrikeElement(this);
+        }
+        return cachedAlphaStrikeElement;
+    }
+
+    /**
+     * @return the BattleForce conversion of this entity, shared between calls
+     *         as long as none of the inputs tracked by
+     *         {@link #getCachedBattleValue()} have changed. Callers must not
+     *         modify the returned element.
+     */
+    public BattleForceElement getBattleForceElement() {
+        validateCachedValues();
+        if (cachedBattleForceElement == null) {
+            cachedBattleForceElement = new BattleForceElement(this);
+        }
+        return cachedBattleForceElement;
+    }
+
+    /**
+     * Marks the battle value, cost and other values derived from this unit's
+     * configuration as out of date. This is called by everything that changes
+     * equipment, armor, crew or C3 setup.
+     */
+    public void invalidateCachedValues() {
+        changeStamp = ChangeStamp.next();
+    }
+
+    /**
+     * @return the {@link ChangeStamp} of the last call to
+     *         {@link #invalidateCachedValues()}
+     */
+    public long getChangeStamp() {
+        if (changeStamp == 0) {
+            changeStamp = ChangeStamp.next();
+        }
+        return changeStamp;
+    }
+
+    /**
+     * Drops the cached values if any of their inputs has changed since they
+     * were calculated.
+     */
+    private void validateCachedValues() {
+        long stamp = getCachedValueInputsStamp();
+        int forceSize = (cachedValuesDependOnForce && (null != game))
+                ? game.getNoOfEntities() : 0;
+        int team = (null == owner) ? IPlayer.TEAM_NONE : owner.getTeam();
+        if ((stamp > cachedValuesStamp) || (forceSize != cachedValuesForceSize)
+                || (team != cachedValuesTeam)) {
+            cachedBV = null;
+            cachedCost = null;
+            cachedUnloadedCost = null;
+            cachedAlphaStrikeElement = null;
+            cachedBattleForceElement = null;
+            cachedValuesDependOnForce = (null != game) && dependsOnForceForBV();
+            cachedValuesStamp = getCachedValueInputsStamp();
+            cachedValuesForceSize = cachedValuesDependOnForce ? game.getNoOfEntities() : 0;
+            cachedValuesTeam = team;
+        }
+    }
+
+    /**
+     * @return the newest {@link ChangeStamp} of all inputs to the cached values
+     */
+    private long getCachedValueInputsStamp() {
+        long stamp = getChangeStamp();
+        if (null != crew) {
+            stamp = Math.max(stamp, crew.getChangeStamp());
+        }
+        stamp = Math.max(stamp, quirks.getChangeStamp());
+        if (null != game) {
+            stamp = Math.max(stamp, game.getOptions().getChangeStamp());
+            if (cachedValuesDependOnForce) {
+                for (Entity e : game.getEntitiesVector()) {
+                    stamp = Math.max(stamp, e.getChangeStamp());
+                }
+            }
+        }
+        return stamp;
+    }
+
+    /**
+     * @return true if the BV of this unit depends on other units in the game,
+     *         through a C3 network or friendly TAG for semi-guided ammo
+     */
+    private boolean dependsOnForceForBV() {
+        if (hasC3() || hasC3i()) {
+            return true;
+        }
+        for (Mounted mounted : getAmmo()) {
+            long munition = ((AmmoType) mounted.getType()).getMunitionType();
+            if ((munition == AmmoType.M_SEMIGUIDED)
+                    || (munition == AmmoType.M_HOMING)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Generates a vector containing reports on all useful information about
      * this entity.
@@ -8394,7 +8573,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public boolean isVisibleToEnemy() {
         // If double blind isn't on, the unit is always visible
-        if ((game != null) && !game.getOptions().booleanOption(OptionsConstants.ADVANCED_DOUBLE_BLIND)) {
+        if ((game != null) && !game.getOptions().getSnapshot().isDoubleBlind()) {
             return true;
         }
         return visibleToEnemy;
@@ -8406,7 +8585,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public boolean isDetectedByEnemy() {
         // If double blind isn't on, the unit is always detected
-        if ((game != null) && !game.getOptions().booleanOption(OptionsConstants.ADVANCED_DOUBLE_BLIND)) {
+        if ((game != null) && !game.getOptions().getSnapshot().isDoubleBlind()) {
             return true;
         }
         return detectedByEnemy;
@@ -8437,7 +8616,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     public boolean hasSeenEntity(IPlayer p) {
         // No double blind - everyone sees everything
-        if ((game == null) || !game.getOptions().booleanOption(OptionsConstants.ADVANCED_DOUBLE_BLIND)) {
+        if ((game == null) || !game.getOptions().getSnapshot().isDoubleBlind()) {
             return true;
         }
         // Null players see nothing
@@ -8570,8 +8749,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
                 OptionsConstants.ADVANCED_TACOPS_SENSORS);
         boolean sensorsDetectAll = game.getOptions().booleanOption(
                 OptionsConstants.ADVANCED_SENSORS_DETECT_ALL);
-        boolean doubleBlind = game.getOptions().booleanOption(
-                OptionsConstants.ADVANCED_DOUBLE_BLIND);
+        boolean doubleBlind = game.getOptions().getSnapshot().isDoubleBlind();
         
         return sensors && doubleBlind && !alliedUnit && !sensorsDetectAll 
                 && !hasSeenEntity(spotter) && hasDetectedEntity(spotter);
@@ -8826,7 +9004,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
      */
     public boolean isEligibleForPhysical() {
         boolean canHit = false;
-        boolean friendlyFire = game.getOptions().booleanOption(OptionsConstants.BASE_FRIENDLY_FIRE);
+        boolean friendlyFire = game.getOptions().getSnapshot().isFriendlyFire();
 
         if ((this instanceof Infantry)
                 && hasWorkingMisc(MiscType.F_TOOLS,
@@ -9447,15 +9625,18 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         for (int i = 0; i < locations(); i++) {
             armorType[i] = armType;
         }
+        invalidateCachedValues();
     }
 
     public void setArmorType(int armType, int loc) {
         armorType[loc] = armType;
+        invalidateCachedValues();
     }
 
     public void setStructureType(int strucType) {
         structureType = strucType;
         structureTechLevel = getTechLevel();
+        invalidateCachedValues();
     }
 
     public void setStructureTechLevel(int level) {
@@ -10026,6 +10207,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
     
     public void setEngine(Engine e) {
         engine = e;
+        invalidateCachedValues();
     }
 
     public boolean itemOppositeTech(String s) {
@@ -11156,7 +11338,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         // E(C)CM operates differently in space (SO pg 110)
         if (game.getBoard().inSpace()) {
             // No ECM in space unless SO rule is on
-            if (!game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+            if (!game.getOptions().getSnapshot().isStratOpsEcm()) {
                 return null;
             }
             int range = getECMRange();
@@ -11237,7 +11419,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
         // E(C)CM operates differently in space (SO pg 110)
         if (game.getBoard().inSpace()) {
             // No ECCM in space unless SO rule is on
-            if (!game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+            if (!game.getOptions().getSnapshot().isStratOpsEcm()) {
                 return null;
             }
             int bapRange = getBAPRange();
@@ -11770,6 +11952,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public synchronized void setQuirks(Quirks quirks) {
         this.quirks = quirks;
+        invalidateCachedValues();
     }
 
     /**
@@ -12030,6 +12213,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public void setUseManualBV(boolean bv) {
         useManualBV = bv;
+        invalidateCachedValues();
     }
 
     public int getManualBV() {
@@ -12038,6 +12222,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
 
     public void setManualBV(int bv) {
         manualBV = bv;
+        invalidateCachedValues();
     }
 
     /**
@@ -13780,8 +13965,7 @@ public abstract class Entity extends TurnOrdered implements Transporter,
             }
 
             WeaponType type = (WeaponType) weapon.getType();
-            int range = (game.getOptions().booleanOption(
-                    OptionsConstants.ADVCOMBAT_TACOPS_RANGE) ? type.getExtremeRange()
+            int range = (game.getOptions().getSnapshot().isExtremeRange() ? type.getExtremeRange()
                     : type.getLongRange());
             if (range > maxRange) {
                 maxRange = range;
@@ -0,0 +1,241 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import megamek.common.util.ChangeStamp;
+
+/**
+ * The entities of a game, in the order they were added to it, and by id.
+ * <p>
+ * Reading never locks. Every entity id has a slot that holds its current
+ * entity, and the order of the slots is kept in an array that is never
+ * changed where readers can see it: adding an entity writes it past the end
+ * readers know of, and only removing one copies the array. So adding and
+ * replacing an entity takes constant time, instead of a copy of the whole
+ * list, and an iterator goes over the entities that were in the game when it
+ * was created, like one of a {@link CopyOnWriteArrayList}. It returns the
+ * entity each id has when it gets there, though, not the one it had then.
+ * <p>
+ * Changes are made one at a time. The list itself is read only; use
+ * {@link #append(Entity)}, {@link #replace(int, Entity)} and
+ * {@link #removeById(int)}.
+ *
+ * @author The MegaMek Team
+ */
+final class EntityRegistry extends AbstractList<Entity> implements
+        RandomAccess, Serializable {
+
+    private static final long serialVersionUID = -6208541262497716147L;
+
+    private static final Slot[] NO_SLOTS = new Slot[0];
+
+    /**
+     * Holds the entity with an id as long as it is in the game
+     */
+    private static final class Slot {
+        final int id;
+        volatile Entity entity;
+
+        Slot(Entity entity) {
+            id = entity.getId();
+            this.entity = entity;
+        }
+    }
+
+    /**
+     * The slots a reader sees. Only the first <code>size</code> elements of
+     * the array belong to it.
+     */
+    private static final class Order {
+        final Slot[] slots;
+        final int size;
+
+        Order(Slot[] slots, int size) {
+            this.slots = slots;
+            this.size = size;
+        }
+    }
+
+    private transient volatile Order order = new Order(NO_SLOTS, 0);
+    private transient Map<Integer, Slot> slotsById = new ConcurrentHashMap<Integer, Slot>();
+    private transient volatile long changeStamp = ChangeStamp.next();
+
+    EntityRegistry() {
+    }
+
+    /**
+     * @param entities the entities to start with, which must have different
+     *                 ids
+     */
+    EntityRegistry(Collection<Entity> entities) {
+        for (Entity entity : entities) {
+            append(entity);
+        }
+    }
+
+    /**
+     * @return the entity with the id, or <code>null</code> if there is none
+     */
+    Entity getById(int id) {
+        Slot slot = slotsById.get(id);
+        return (slot == null) ? null : slot.entity;
+    }
+
+    boolean containsId(int id) {
+        return slotsById.containsKey(id);
+    }
+
+    /**
+     * @return the {@link ChangeStamp} of the last time an entity was added,
+     *         replaced or removed
+     */
+    long getChangeStamp() {
+        return changeStamp;
+    }
+
+    /**
+     * Adds an entity after all others. There must be no entity with its id.
+     */
+    synchronized void append(Entity entity) {
+        Slot slot = new Slot(entity);
+        if (slotsById.putIfAbsent(slot.id, slot) != null) {
+            throw new IllegalArgumentException("There is an entity with id " //$NON-NLS-1$
+                    + slot.id);
+        }
+        Order current = order;
+        Slot[] slots = current.slots;
+        if (current.size == slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(8, slots.length * 2));
+        }
+        // no reader looks this far yet
+        slots[current.size] = slot;
+        order = new Order(slots, current.size + 1);
+        changeStamp = ChangeStamp.next();
+    }
+
+    /**
+     * Puts an entity in the place of the one with the id.
+     *
+     * @return the entity it replaced, or <code>null</code> if there is no
+     *         entity with the id
+     */
+    synchronized Entity replace(int id, Entity entity) {
+        Slot slot = slotsById.get(id);
+        if (slot == null) {
+            return null;
+        }
+        Entity old = slot.entity;
+        slot.entity = entity;
+        changeStamp = ChangeStamp.next();
+        return old;
+    }
+
+    /**
+     * @return the entity that had the id, or <code>null</code> if there was
+     *         none
+     */
+    synchronized Entity removeById(int id) {
+        Slot slot = slotsById.remove(id);
+        if (slot == null) {
+            return null;
+        }
+        Order current = order;
+        Slot[] slots = new Slot[current.slots.length];
+        int size = 0;
+        for (int i = 0; i < current.size; i++) {
+            if (current.slots[i] != slot) {
+                slots[size++] = current.slots[i];
+            }
+        }
+        order = new Order(slots, size);
+        changeStamp = ChangeStamp.next();
+        return slot.entity;
+    }
+
+    @Override
+    public synchronized void clear() {
+        slotsById.clear();
+        order = new Order(NO_SLOTS, 0);
+        changeStamp = ChangeStamp.next();
+    }
+
+    @Override
+    public Entity get(int index) {
+        Order current = order;
+        if ((index < 0) || (index >= current.size)) {
+            throw new IndexOutOfBoundsException("Index: " + index //$NON-NLS-1$
+                    + ", Size: " + current.size); //$NON-NLS-1$
+        }
+        return current.slots[index].entity;
+    }
+
+    @Override
+    public int size() {
+        return order.size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Entity)) {
+            return false;
+        }
+        Entity entity = getById(((Entity) o).getId());
+        return (entity != null) && entity.equals(o);
+    }
+
+    @Override
+    public Iterator<Entity> iterator() {
+        final Order current = order;
+        return new Iterator<Entity>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < current.size;
+            }
+
+            @Override
+            public Entity next() {
+                if (next >= current.size) {
+                    throw new NoSuchElementException();
+                }
+                return current.slots[next++].entity;
+            }
+        };
+    }
+
+    /**
+     * Saved games and serialized games keep a plain list, the way they did
+     * before there was a registry.
+     */
+    private Object writeReplace() {
+        List<Entity> result = new CopyOnWriteArrayList<Entity>();
+        for (Entity entity : this) {
+            result.add(entity);
+        }
+        return result;
+    }
+}
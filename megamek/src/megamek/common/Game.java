@@ -80,8 +80,17 @@ public class Game implements Serializable, IGame {
 
     public IBoard board = new Board();
 
-    private final List<Entity> entities = new CopyOnWriteArrayList<>();
-    private Hashtable<Integer, Entity> entityIds = new Hashtable<Integer, Entity>();
+    /**
+     * Always an {@link EntityRegistry}, which is saved as a plain list and
+     * restored in {@link #readResolve()}
+     */
+    private List<Entity> entities = new EntityRegistry();
+
+    /**
+     * Games saved before the entities had a registry kept a table of them by
+     * id too; it is only read, and ignored, when such a game is loaded
+     */
+    private transient Hashtable<Integer, Entity> entityIds;
 
     /**
      * Track entities removed from the game (probably by death)
@@ -170,6 +179,9 @@ public class Game implements Serializable, IGame {
     // smoke clouds
     private List<SmokeCloud> smokeCloudList = new CopyOnWriteArrayList<>();
 
+    // every random number drawn, saved with the game to replay it
+    private RollLog rollLog = null;
+
     transient private Vector<GameListener> gameListeners = new Vector<GameListener>();
 
     /**
@@ -945,8 +957,10 @@ public class Game implements Serializable, IGame {
 
     public synchronized void setEntitiesVector(List<Entity> entities) {
         //checkPositionCacheConsistency();
-        this.entities.clear();
-        this.entities.addAll(entities);
+        registry().clear();
+        for (Entity entity : entities) {
+            registry().append(entity);
+        }
         reindexEntities();
         resetEntityPositionLookup();
         processGameEvent(new GameEntityNewEvent(this, entities));
@@ -1243,12 +1257,20 @@ public class Game implements Serializable, IGame {
         }
     }
 
+    private EntityRegistry registry() {
+        return (EntityRegistry) entities;
+    }
+
+    public long getEntitiesChangeStamp() {
+        return registry().getChangeStamp();
+    }
+
     /**
      * Returns the entity with the given id number, if any.
      */
 
     public Entity getEntity(int id) {
-        return entityIds.get(new Integer(id));
+        return registry().getById(id);
     }
 
     /**
@@ -1309,14 +1331,11 @@ public class Game implements Serializable, IGame {
         }
         // Add this Entity, ensuring that it's id is unique
         int id = entity.getId();
-        if (!entityIds.containsKey(id)) {
-            entityIds.put(new Integer(id), entity);
-        } else {
+        if (registry().containsId(id)) {
             id = getNextEntityId();
             entity.setId(id);
-            entityIds.put(id, entity);
         }
-        entities.add(entity);
+        registry().append(entity);
         updateEntityPositionLookup(entity, null);
 
         if (id > lastEntityId) {
@@ -1338,7 +1357,6 @@ public class Game implements Serializable, IGame {
             ((Mech) entity).setCondEjectHeadshot(true);
         }
 
-        assert (entities.size() == entityIds.size()) : "Add Entity failed";
         if (genEvent) {
             processGameEvent(new GameEntityNewEvent(this, entity));
         }
@@ -1354,8 +1372,7 @@ public class Game implements Serializable, IGame {
             addEntity(entity);
         } else {
             entity.setGame(this);
-            entities.set(entities.indexOf(oldEntity), entity);
-            entityIds.put(id, entity);
+            registry().replace(id, entity);
             // Get the collection of positions
             HashSet<Coords> oldPositions = oldEntity.getOccupiedCoords();
             // Update position lookup table
@@ -1369,7 +1386,6 @@ public class Game implements Serializable, IGame {
             processGameEvent(
                     new GameEntityChangeEvent(this, entity, movePath, oldEntity));
         }
-        assert (entities.size() == entityIds.size()) : "Set Entity Failed";
     }
 
     /**
@@ -1384,7 +1400,7 @@ public class Game implements Serializable, IGame {
      * game.
      */
     public boolean hasEntity(int entityId) {
-        return entityIds.containsKey(new Integer(entityId));
+        return registry().containsId(entityId);
     }
 
     /**
@@ -1402,8 +1418,7 @@ public class Game implements Serializable, IGame {
             return;
         }
 
-        entities.remove(toRemove);
-        entityIds.remove(new Integer(id));
+        registry().removeById(id);
         removeEntityPositionLookup(toRemove);
 
         toRemove.setRemovalCondition(condition);
@@ -1447,7 +1462,6 @@ public class Game implements Serializable, IGame {
         roundCount = 0;
 
         entities.clear();
-        entityIds.clear();
         entityPosLookup.clear();
 
         vOutOfGame.removeAllElements();
@@ -1496,25 +1510,22 @@ public class Game implements Serializable, IGame {
 //    }
 
     /**
-     * Regenerates the entities by id hashtable by going thru all entities in
-     * the Vector
+     * Finds the largest entity id and sets the game of all entities, after
+     * they have all been put in the registry
      */
     private void reindexEntities() {
-        entityIds.clear();
         lastEntityId = 0;
 
         if (entities != null) {
-            // Add these entities to the game.
             for (Entity entity : entities) {
                 final int id = entity.getId();
-                entityIds.put(new Integer(id), entity);
 
                 if (id > lastEntityId) {
                     lastEntityId = id;
                 }
             }
             // We need to ensure that each entity has the propery Game reference
-            //  however, the entityIds Hashmap must be fully formed before this
+            //  however, the registry must be fully formed before this
             //  is called, since setGame also calls setGame for loaded Entities
             for (Entity entity : entities) {
                 entity.setGame(this);
@@ -1832,7 +1843,7 @@ public class Game implements Serializable, IGame {
      */
     public int getNextEntityNum(GameTurn turn, int start) {
         boolean hasLooped = false;
-        int i = (entities.indexOf(entityIds.get(start)) + 1) % entities.size();
+        int i = (entities.indexOf(getEntity(start)) + 1) % entities.size();
         if (i == -1) {
             //This means we were given an invalid entity ID, punt
             return -1;
@@ -1862,7 +1873,7 @@ public class Game implements Serializable, IGame {
      */
     public int getPrevEntityNum(GameTurn turn, int start) {
         boolean hasLooped = false;
-        int i = (entities.indexOf(entityIds.get(start)) - 1) % entities.size();
+        int i = (entities.indexOf(getEntity(start)) - 1) % entities.size();
         if (i == -2) {
             //This means we were given an invalid entity ID, punt
             return -1;
@@ -3470,6 +3481,14 @@ public class Game implements Serializable, IGame {
         }
     }
 
+    public RollLog getRollLog() {
+        return rollLog;
+    }
+
+    public void setRollLog(RollLog log) {
+        rollLog = log;
+    }
+
     public void addSmokeCloud(SmokeCloud cloud) {
         smokeCloudList.add(cloud);
     }
@@ -3613,4 +3632,13 @@ public class Game implements Serializable, IGame {
         }
     }
 
+    /**
+     * Saved and serialized games have their entities in a plain list.
+     */
+    private Object readResolve() {
+        if (!(entities instanceof EntityRegistry)) {
+            entities = new EntityRegistry(entities);
+        }
+        return this;
+    }
 }
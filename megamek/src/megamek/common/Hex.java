@@ -19,6 +19,7 @@ import java.util.HashMap;
 import java.util.StringTokenizer;
 
 import megamek.common.Building.BasementType;
+import megamek.common.util.ChangeStamp;
 
 /**
  * Hex represents a single hex on the board.
@@ -42,6 +43,7 @@ public class Hex implements IHex, Serializable {
     private String originalTheme;
     private int fireTurn;
     private Coords coords;
+    private transient long changeStamp;
 
     /** Constructs clear, plain hex at level 0. */
     public Hex() {
@@ -111,6 +113,7 @@ public class Hex implements IHex, Serializable {
      */
     public void setLevel(int level) {
         this.level = level;
+        terrainChanged();
     }
 
     /*
@@ -398,6 +401,7 @@ public class Hex implements IHex, Serializable {
      */
     public void addTerrain(ITerrain terrain) {
         terrains.put(terrain.getType(), terrain);
+        terrainChanged();
     }
 
     /*
@@ -407,6 +411,7 @@ public class Hex implements IHex, Serializable {
      */
     public void removeTerrain(int type) {
         terrains.remove(type);
+        terrainChanged();
     }
 
     /*
@@ -416,6 +421,7 @@ public class Hex implements IHex, Serializable {
      */
     public void removeAllTerrains() {
         terrains.clear();
+        terrainChanged();
     }
 
     /*
@@ -755,4 +761,20 @@ public class Hex implements IHex, Serializable {
         return rv;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see megamek.common.IHex#getChangeStamp()
+     */
+    public long getChangeStamp() {
+        if (changeStamp == 0) {
+            changeStamp = ChangeStamp.next();
+        }
+        return changeStamp;
+    }
+
+    private void terrainChanged() {
+        changeStamp = ChangeStamp.next();
+    }
+
 }
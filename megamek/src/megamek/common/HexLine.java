@@ -0,0 +1,323 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+/**
+ * The hexes crossed by a straight line from the center of one hex to the
+ * center of another, in the same order and with the same split hex handling as
+ * {@link Coords#intervening(Coords, Coords, boolean)}.
+ * <p>
+ * Lines are either obtained through {@link #get(Coords, Coords, boolean)},
+ * which keeps a small per thread LRU cache of recently walked lines so the
+ * same LOS or ECM check done again costs nothing, or walked without any
+ * allocation through {@link #walk(int, int, int, int, boolean, HexVisitor)}.
+ * HexLines are immutable.
+ */
+public final class HexLine {
+
+    /** The hex is not one of a pair of hexes the line passes between */
+    public static final int SIDE_NONE = 0;
+    /** The hex is the left one of a pair of hexes the line passes between */
+    public static final int SIDE_LEFT = 1;
+    /** The hex is the right one of a pair of hexes the line passes between */
+    public static final int SIDE_RIGHT = 2;
+
+    /**
+     * Receives the hexes of a line one by one, see
+     * {@link HexLine#walk(int, int, int, int, boolean, HexVisitor)}.
+     */
+    public interface HexVisitor {
+        /**
+         * @param x         the x coordinate of the hex
+         * @param y         the y coordinate of the hex
+         * @param splitSide one of the SIDE_ constants
+         * @return false to stop the walk at this hex
+         */
+        boolean visit(int x, int y, int splitSide);
+    }
+
+    private static final int CACHE_SIZE = 64;
+
+    /** Coordinates in the cache key are limited to 15 bits each */
+    private static final int KEY_BITS = 15;
+    private static final int KEY_MASK = (1 << KEY_BITS) - 1;
+
+    private static final ThreadLocal<Walker> WALKER = new ThreadLocal<Walker>() {
+        @Override
+        protected Walker initialValue() {
+            return new Walker();
+        }
+    };
+
+    private final int[] xs;
+    private final int[] ys;
+    private final boolean divided;
+    private final Coords[] coords;
+
+    private HexLine(int[] xs, int[] ys, boolean divided) {
+        this.xs = xs;
+        this.ys = ys;
+        this.divided = divided;
+        coords = new Coords[xs.length];
+    }
+
+    /**
+     * Returns the line from src to dest, from the calling thread's cache if it
+     * has been walked recently.
+     *
+     * @param src   Starting point.
+     * @param dest  Ending Point.
+     * @param split Set TRUE to make left appear before right in the sequence
+     *              reliably, and to have {@link #getSplitSide(int)} report
+     *              the sides of split hexes.
+     * @return the line, including src and dest
+     */
+    public static HexLine get(Coords src, Coords dest, boolean split) {
+        return WALKER.get().get(src.getX(), src.getY(), dest.getX(),
+                dest.getY(), split);
+    }
+
+    /**
+     * Passes the hexes of the line from (srcX, srcY) to (destX, destY) to the
+     * visitor, in line order, without allocating anything and without
+     * touching the cache.
+     *
+     * @return false if the visitor stopped the walk early
+     */
+    public static boolean walk(int srcX, int srcY, int destX, int destY,
+            boolean split, HexVisitor visitor) {
+        final boolean divided = split && isDivided(srcX, srcY, destX, destY);
+        final double srcCx = IdealHex.centerX(srcX);
+        final double srcCy = IdealHex.centerY(srcX, srcY);
+        final double destCx = IdealHex.centerX(destX);
+        final double destCy = IdealHex.centerY(destX, destY);
+        final int centerDirection = centerDirection(srcX, srcY, destX, destY,
+                split);
+        // the sides first, center last; see Coords.nextHex()
+        final int dir0 = (centerDirection + 1) % 6;
+        final int dir1 = (centerDirection + 5) % 6;
+        final int dir2 = centerDirection;
+
+        int x = srcX;
+        int y = srcY;
+        int index = 0;
+        if (!visitor.visit(x, y, sideOf(index, divided))) {
+            return false;
+        }
+        while ((x != destX) || (y != destY)) {
+            int dir;
+            if (IdealHex.isIntersectedBy(Coords.xInDir(x, y, dir0),
+                    Coords.yInDir(x, y, dir0), srcCx, srcCy, destCx, destCy)) {
+                dir = dir0;
+            } else if (IdealHex.isIntersectedBy(Coords.xInDir(x, y, dir1),
+                    Coords.yInDir(x, y, dir1), srcCx, srcCy, destCx, destCy)) {
+                dir = dir1;
+            } else if (IdealHex.isIntersectedBy(Coords.xInDir(x, y, dir2),
+                    Coords.yInDir(x, y, dir2), srcCx, srcCy, destCx, destCy)) {
+                dir = dir2;
+            } else {
+                // if we're here then something's fishy!
+                throw new RuntimeException("Couldn't find the next hex!");
+            }
+            int nextX = Coords.xInDir(x, y, dir);
+            y = Coords.yInDir(x, y, dir);
+            x = nextX;
+            index++;
+            if (!visitor.visit(x, y, sideOf(index, divided))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the line from (srcX, srcY) to (destX, destY) runs along
+     *         hex sides, passing between pairs of hexes
+     */
+    public static boolean isDivided(int srcX, int srcY, int destX, int destY) {
+        return (((int) Math.round((180 / Math.PI)
+                * Coords.radian(srcX, srcY, destX, destY))) % 60) == 30;
+    }
+
+    /**
+     * The direction of the center hex to try, as chosen by
+     * {@link Coords#intervening(Coords, Coords, boolean)}.
+     */
+    private static int centerDirection(int srcX, int srcY, int destX,
+            int destY, boolean split) {
+        if (split) {
+            // HACK to make left appear before right in the sequence reliably
+            return (int) Math.round(Coords.radian(srcX, srcY, destX, destY)
+                    + 0.0001 / Coords.HEXSIDE) % 6;
+        }
+        return (int) Math.round(Coords.radian(srcX, srcY, destX, destY)
+                / Coords.HEXSIDE) % 6;
+    }
+
+    /**
+     * In a divided line the hexes come as src, left, right, middle, left,
+     * right, ..., dest.
+     */
+    private static int sideOf(int index, boolean divided) {
+        if (!divided) {
+            return SIDE_NONE;
+        }
+        switch (index % 3) {
+            case 1:
+                return SIDE_LEFT;
+            case 2:
+                return SIDE_RIGHT;
+            default:
+                return SIDE_NONE;
+        }
+    }
+
+    /**
+     * @return the number of hexes in the line, including both end points
+     */
+    public int size() {
+        return xs.length;
+    }
+
+    public int getX(int index) {
+        return xs[index];
+    }
+
+    public int getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * @return one of the SIDE_ constants; always SIDE_NONE unless the line was
+     *         requested with split set and actually runs along hex sides
+     */
+    public int getSplitSide(int index) {
+        return sideOf(index, divided);
+    }
+
+    /**
+     * @return true if the line was requested with split set and runs along
+     *         hex sides
+     */
+    public boolean isDivided() {
+        return divided;
+    }
+
+    /**
+     * @return the Coords of the hex at the index; the same instance is
+     *         returned every time
+     */
+    public Coords getCoords(int index) {
+        Coords c = coords[index];
+        if (c == null) {
+            c = new Coords(xs[index], ys[index]);
+            coords[index] = c;
+        }
+        return c;
+    }
+
+    /**
+     * Passes the hexes of this line to the visitor, in line order.
+     *
+     * @return false if the visitor stopped early
+     */
+    public boolean forEach(HexVisitor visitor) {
+        for (int i = 0; i < xs.length; i++) {
+            if (!visitor.visit(xs[i], ys[i], sideOf(i, divided))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Per thread walk buffers and LRU cache of recent lines keyed by their
+     * packed end points.
+     */
+    private static final class Walker implements HexVisitor {
+        private int[] xs = new int[64];
+        private int[] ys = new int[64];
+        private int size;
+
+        private final long[] keys = new long[CACHE_SIZE];
+        private final long[] lastUsed = new long[CACHE_SIZE];
+        private final HexLine[] lines = new HexLine[CACHE_SIZE];
+        private long tick;
+
+        HexLine get(int srcX, int srcY, int destX, int destY, boolean split) {
+            final long key = key(srcX, srcY, destX, destY, split);
+            tick++;
+            int slot = 0;
+            if (key != -1) {
+                for (int i = 0; i < CACHE_SIZE; i++) {
+                    if ((keys[i] == key) && (lines[i] != null)) {
+                        lastUsed[i] = tick;
+                        return lines[i];
+                    }
+                    if (lastUsed[i] < lastUsed[slot]) {
+                        slot = i;
+                    }
+                }
+            }
+
+            size = 0;
+            walk(srcX, srcY, destX, destY, split, this);
+            int[] lineXs = new int[size];
+            int[] lineYs = new int[size];
+            System.arraycopy(xs, 0, lineXs, 0, size);
+            System.arraycopy(ys, 0, lineYs, 0, size);
+            HexLine line = new HexLine(lineXs, lineYs, split
+                    && isDivided(srcX, srcY, destX, destY));
+            if (key != -1) {
+                keys[slot] = key;
+                lines[slot] = line;
+                lastUsed[slot] = tick;
+            }
+            return line;
+        }
+
+        @Override
+        public boolean visit(int x, int y, int splitSide) {
+            if (size == xs.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(xs, 0, grown, 0, size);
+                xs = grown;
+                grown = new int[size * 2];
+                System.arraycopy(ys, 0, grown, 0, size);
+                ys = grown;
+            }
+            xs[size] = x;
+            ys[size] = y;
+            size++;
+            return true;
+        }
+
+        /**
+         * @return the end points packed into a long, or -1 if they are out of
+         *         the range that can be packed
+         */
+        private static long key(int srcX, int srcY, int destX, int destY,
+                boolean split) {
+            if (((srcX | srcY | destX | destY) & ~KEY_MASK) != 0) {
+                return -1;
+            }
+            long key = srcX;
+            key = (key << KEY_BITS) | srcY;
+            key = (key << KEY_BITS) | destX;
+            key = (key << KEY_BITS) | destY;
+            return (key << 1) | (split ? 1 : 0);
+        }
+    }
+}
@@ -529,4 +529,34 @@ public interface IBoard {
     public abstract boolean hasBoardBackground();
 
     public abstract boolean isValid();
-}
\ No newline at end of file
+
+    /**
+     * @return the {@link megamek.common.util.ChangeStamp} of the last time the
+     *         board was replaced or any of its hexes was set
+     */
+    public abstract long getChangeStamp();
+
+    /**
+     * @return the version of the last {@link BoardDelta} this board has made
+     *         or applied, 0 if there has been none
+     */
+    public abstract long getDeltaVersion();
+
+    /**
+     * Used by the server, whose board the changes were made to; clients take
+     * the version of the deltas they apply.
+     *
+     * @return the version for a new {@link BoardDelta} of the changes that
+     *         have been made to this board
+     */
+    public abstract long nextDeltaVersion();
+
+    /**
+     * Applies the changes of a delta from the server, and then sends one
+     * event for all hexes that changed.
+     *
+     * @return <code>false</code> if the board already has this delta or a
+     *         later one, and nothing was changed
+     */
+    public abstract boolean applyDelta(BoardDelta delta);
+}
@@ -635,6 +635,12 @@ public interface IGame {
      */
     public abstract int getNoOfEntities();
 
+    /**
+     * @return the {@link megamek.common.util.ChangeStamp} of the last time an
+     *         entity was added, replaced or removed
+     */
+    public abstract long getEntitiesChangeStamp();
+
     /**
      * Returns the appropriate target for this game given a type and id
      */
@@ -1474,6 +1480,17 @@ public interface IGame {
     public abstract PlanetaryConditions getPlanetaryConditions();
 
     public abstract void setPlanetaryConditions(PlanetaryConditions conditions);
+
+    /**
+     * @return the log of all random numbers drawn in this game, or null if
+     *         none are recorded
+     */
+    public abstract RollLog getRollLog();
+
+    /**
+     * Sets the log that the random numbers of this game are recorded in.
+     */
+    public abstract void setRollLog(RollLog log);
     
     /**
      * Get a set of Coords illuminated by searchlights.
@@ -320,4 +320,10 @@ public interface IHex extends Cloneable {
     public abstract void setCoords(Coords c);
 
     public abstract boolean isValid(StringBuffer errBuff);
+
+    /**
+     * @return the {@link megamek.common.util.ChangeStamp} of the last change
+     *         to the level or terrains of this hex
+     */
+    public abstract long getChangeStamp();
 }
@@ -28,10 +28,10 @@ public class IdealHex {
 
     private static final double XCONST = Math.tan(Math.PI / 6.0);
 
-    public double[] x = new double[6];
-    public double[] y = new double[6];
-    public double cx;
-    public double cy;
+    public final double[] x = new double[6];
+    public final double[] y = new double[6];
+    public final double cx;
+    public final double cy;
 
     // cache for hexes
     private static IdealHex[] cache = null;
@@ -40,8 +40,8 @@ public class IdealHex {
 
     public IdealHex(Coords c) {
         // determine origin
-        double ox = c.getX() * XCONST * 3;
-        double oy = c.getY() * 2 + (c.isXOdd() ? 1 : 0);
+        double ox = originX(c.getX());
+        double oy = originY(c.getX(), c.getY());
 
         // center
         cx = ox + (XCONST * 2);
@@ -79,6 +79,64 @@ public class IdealHex {
         return false;
     }
 
+    /**
+     * Returns true if the hex at (hexX, hexY) is intersected by the line. Same
+     * as creating the IdealHex and calling
+     * {@link #isIntersectedBy(double, double, double, double)}, without the
+     * allocation.
+     */
+    public static boolean isIntersectedBy(int hexX, int hexY, double x0,
+            double y0, double x1, double y1) {
+        final double ox = originX(hexX);
+        final double oy = originY(hexX, hexY);
+        final double cy = oy + 1;
+        int side1 = turns(x0, y0, x1, y1, ox + XCONST, oy);
+        if (side1 == STRAIGHT) {
+            return true;
+        }
+        // remaining corners in the same order as the x[] and y[] arrays
+        int j = turns(x0, y0, x1, y1, ox + (XCONST * 3), oy);
+        if (j == STRAIGHT || j != side1) {
+            return true;
+        }
+        j = turns(x0, y0, x1, y1, ox + (XCONST * 4), cy);
+        if (j == STRAIGHT || j != side1) {
+            return true;
+        }
+        j = turns(x0, y0, x1, y1, ox + (XCONST * 3), oy + 2);
+        if (j == STRAIGHT || j != side1) {
+            return true;
+        }
+        j = turns(x0, y0, x1, y1, ox + XCONST, oy + 2);
+        if (j == STRAIGHT || j != side1) {
+            return true;
+        }
+        j = turns(x0, y0, x1, y1, ox, cy);
+        return j == STRAIGHT || j != side1;
+    }
+
+    /**
+     * @return the x coordinate of the center of the hex in column x
+     */
+    public static double centerX(int x) {
+        return originX(x) + (XCONST * 2);
+    }
+
+    /**
+     * @return the y coordinate of the center of the hex at (x, y)
+     */
+    public static double centerY(int x, int y) {
+        return originY(x, y) + 1;
+    }
+
+    private static double originX(int x) {
+        return x * XCONST * 3;
+    }
+
+    private static double originY(int x, int y) {
+        return y * 2 + ((x & 1) == 1 ? 1 : 0);
+    }
+
     /**
      * Tests whether a line intersects a point or the point passes to the left
      * or right of the line. Deals with floating point imprecision. Thx
@@ -109,19 +167,23 @@ public class IdealHex {
      * cached yet, creates it. If the cache is too small, does not resize it.
      */
     public static IdealHex get(Coords coords) {
-        if (cache == null || coords.getX() >= cacheWidth || coords.getY() >= cacheHeight
-            || coords.getX() < 0 || coords.getY() < 0) {
+        // hexes are immutable, so threads may share the cache without locking
+        IdealHex[] hexes = cache;
+        int width = cacheWidth;
+        if (hexes == null || coords.getX() >= width || coords.getY() >= cacheHeight
+            || coords.getX() < 0 || coords.getY() < 0
+            || (coords.getY() * width) + coords.getX() >= hexes.length) {
             // System.err.println("IdealHex cache miss on " + coords);
             return new IdealHex(coords);
         }
         // okay, check cache
-        int index = (coords.getY() * cacheWidth) + coords.getX();
-        IdealHex hex = cache[index];
+        int index = (coords.getY() * width) + coords.getX();
+        IdealHex hex = hexes[index];
         if (hex != null) {
             return hex;
         }
         hex = new IdealHex(coords);
-        cache[index] = hex;
+        hexes[index] = hex;
         return hex;
     }
 }
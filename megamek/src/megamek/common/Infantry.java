@@ -2015,6 +2015,7 @@ public class Infantry extends Entity {
 
     public void setSquadSize(int size) {
         squadsize = size;
+        invalidateCachedValues();
     }
 
     public int getSquadSize() {
@@ -2023,6 +2024,7 @@ public class Infantry extends Entity {
 
     public void setSquadN(int n) {
         squadn = n;
+        invalidateCachedValues();
     }
 
     public int getSquadN() {
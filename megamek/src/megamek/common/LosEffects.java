@@ -24,7 +24,6 @@ import java.util.ArrayList;
 import java.util.Vector;
 
 import megamek.client.ui.Messages;
-import megamek.common.options.OptionsConstants;
 import megamek.server.SmokeCloud;
 
 /**
@@ -530,7 +529,7 @@ public class LosEffects {
             return los;
         }
 
-        if(game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_DEAD_ZONES) && isDeadZone(game, ai)) {
+        if(game.getOptions().getSnapshot().isDeadZones() && isDeadZone(game, ai)) {
             LosEffects los = new LosEffects();
             los.blocked = true;
             los.blockedByHill = true;
@@ -539,9 +538,17 @@ public class LosEffects {
             los.targetLoc = ai.targetPos;
             return los;
         }
+
+        // lines that pass high over all terrain have no LOS effects at all
+        if (BoardLosIndex.isClear(game, ai)) {
+            LosEffects los = new LosEffects();
+            los.hasLoS = true;
+            los.targetLoc = ai.targetPos;
+            return los;
+        }
         
-        boolean diagramLos = game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_LOS1);
-        boolean partialCover = game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER);
+        boolean diagramLos = game.getOptions().getSnapshot().isDiagramLos();
+        boolean partialCover = game.getOptions().getSnapshot().isPartialCover();
         double degree = ai.attackPos.degree(ai.targetPos);
         LosEffects finalLoS;
         if (degree % 60 == 30) {
@@ -685,7 +692,7 @@ public class LosEffects {
         }
 
         if (targetCover != COVER_NONE) {
-            if (game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER)) {
+            if (game.getOptions().getSnapshot().isPartialCover()) {
                 if ((targetCover == COVER_75LEFT) || (targetCover == COVER_75RIGHT)) {
                     modifiers.addModifier(1, "target has 75% cover");
                 } else if (targetCover >= COVER_HORIZONTAL) {
@@ -705,12 +712,12 @@ public class LosEffects {
 
     /**
      * Returns LosEffects for a line that never passes exactly between two
-     * hexes. Since intervening() returns all the coordinates, we just add the
+     * hexes. Since the HexLine has all the coordinates, we just add the
      * effects of all those hexes.
      */
     private static LosEffects losStraight(IGame game, AttackInfo ai, 
             boolean diagramLoS, boolean partialCover) {
-        ArrayList<Coords> in = Coords.intervening(ai.attackPos, ai.targetPos);
+        HexLine in = HexLine.get(ai.attackPos, ai.targetPos, false);
         LosEffects los = new LosEffects();
         boolean targetInBuilding = false;
         if (ai.targetEntity) {
@@ -725,14 +732,14 @@ public class LosEffects {
                 && Compute.isInBuilding(game, ai.attackAbsHeight
                         - game.getBoard().getHex(ai.attackPos).surface(),
                         ai.attackPos)) {
-            los.setThruBldg(game.getBoard().getBuildingAt(in.get(0)));
+            los.setThruBldg(game.getBoard().getBuildingAt(in.getCoords(0)));
             //elevation differences count as building hexes passed through
             los.buildingLevelsOrHexes += (Math.abs((ai.attackAbsHeight-ai.attackHeight) - (ai.targetAbsHeight-ai.targetHeight)));
         }
 
-        for (Coords c : in) {
-            los.add(LosEffects.losForCoords(game, ai, c, los.getThruBldg(),
-                    diagramLoS, partialCover));
+        for (int i = 0; i < in.size(); i++) {
+            los.add(LosEffects.losForCoords(game, ai, in.getCoords(i),
+                    los.getThruBldg(), diagramLoS, partialCover));
         }      
 
         if ((ai.minimumWaterDepth < 1) && ai.underWaterCombat) {
@@ -753,7 +760,7 @@ public class LosEffects {
      * once. The rules say that this situation is resolved in favor of the
      * defender.
      *
-     * The intervening() function returns both hexes in these
+     * The HexLine returns both hexes in these
      * circumstances, and, when they are in line order, it's not hard to figure
      * out which hexes are split and which are not.
      *
@@ -775,8 +782,7 @@ public class LosEffects {
      */
     private static LosEffects losDivided(IGame game, AttackInfo ai,
             boolean diagramLoS, boolean partialCover) {
-        ArrayList<Coords> in = Coords.intervening(ai.attackPos, ai.targetPos,
-                true);
+        HexLine in = HexLine.get(ai.attackPos, ai.targetPos, true);
         LosEffects los = new LosEffects();
         boolean targetInBuilding = false;
         if (ai.targetEntity) {
@@ -791,7 +797,7 @@ public class LosEffects {
                 && Compute.isInBuilding(game, ai.attackAbsHeight
                         - game.getBoard().getHex(ai.attackPos).surface(),
                         ai.attackPos)) {
-            los.setThruBldg(game.getBoard().getBuildingAt(in.get(0)));
+            los.setThruBldg(game.getBoard().getBuildingAt(in.getCoords(0)));
             //elevation differences count as building hexes passed through
             los.buildingLevelsOrHexes += (Math
                     .abs((ai.attackAbsHeight - ai.attackHeight)
@@ -800,7 +806,7 @@ public class LosEffects {
 
         // add non-divided line segments
         for (int i = 3; i < in.size() - 2; i += 3) {
-            los.add(losForCoords(game, ai, in.get(i), los.getThruBldg(),
+            los.add(losForCoords(game, ai, in.getCoords(i), los.getThruBldg(),
                     diagramLoS, partialCover));
         }
 
@@ -822,9 +828,9 @@ public class LosEffects {
         LosEffects totalLeftLos = new LosEffects();
         LosEffects totalRightLos = new LosEffects();
         for (int i = 1; i < in.size() - 2; i += 3) {
-            LosEffects leftLos = losForCoords(game, ai, in.get(i), los
+            LosEffects leftLos = losForCoords(game, ai, in.getCoords(i), los
                     .getThruBldg(), diagramLoS, partialCover);
-            LosEffects rightLos = losForCoords(game, ai, in.get(i + 1), los
+            LosEffects rightLos = losForCoords(game, ai, in.getCoords(i + 1), los
                     .getThruBldg(), diagramLoS, partialCover);
 
             // Infantry inside a building can only be
@@ -838,7 +844,7 @@ public class LosEffects {
             }
        
             // Check for advanced cover, only 'mechs can get partial cover
-            if (game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER) && 
+            if (game.getOptions().getSnapshot().isPartialCover() && 
                     ai.targetIsMech) {
                 // 75% and vertical cover will have blocked LoS
                 boolean losBlockedByCover = false;
@@ -910,7 +916,7 @@ public class LosEffects {
                 }                
             }
             
-            if (game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER) && 
+            if (game.getOptions().getSnapshot().isPartialCover() && 
                     ai.attackerIsMech) {
                 // 75% and vertical cover will have blocked LoS
                 boolean losBlockedByCover = false;
@@ -1342,8 +1348,8 @@ public class LosEffects {
      */
     public static int dividedLeftBetter(ArrayList<Coords> in, IGame game,
             AttackInfo ai, boolean targetInBuilding, LosEffects los) {
-        boolean diagramLos = game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_LOS1);
-        boolean partialCover = game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER);
+        boolean diagramLos = game.getOptions().getSnapshot().isDiagramLos();
+        boolean partialCover = game.getOptions().getSnapshot().isPartialCover();
         LosEffects leftTotal = new LosEffects();
         LosEffects rightTotal = new LosEffects();
         for (int i = 1; i < in.size() - 2; i += 3) {
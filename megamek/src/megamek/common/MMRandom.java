@@ -37,6 +37,29 @@ public abstract class MMRandom {
     public static final int R_CRYPTO = 1;
     public static final int R_POOL36 = 2;
 
+    /** The stream this generator draws for, as recorded in the log. */
+    private int stream;
+    /** Records every number drawn, or null. */
+    private RollLog log;
+    /** Hands out recorded numbers instead of new ones, or null. */
+    private RollLog.Replay replay;
+
+    /**
+     * Gives you the type asked for, seeded with the given seed. Cryptographic
+     * numbers can't be repeated, so a seed turns them into SunRandom.
+     *
+     * @param seed the seed, or 0 for a generator that is not seeded
+     */
+    static MMRandom generate(int type, long seed) {
+        if (seed == 0) {
+            return generate(type);
+        }
+        if (type == R_POOL36) {
+            return new MMRandom.Pool36Random(seed);
+        }
+        return new MMRandom.SunRandom(seed);
+    }
+
     /**
      * Gives you the type asked for, defaulting to SunRandom if there are any
      * errors.
@@ -110,24 +133,61 @@ public abstract class MMRandom {
         return d6(1);
     }
 
+    /**
+     * Records the numbers drawn by this generator in a log, and/or draws them
+     * from the recording of an earlier game.
+     *
+     * @param stream the stream this generator draws for
+     * @param log    the log to record to, or null
+     * @param replay the recording to play back, or null
+     */
+    void setLog(int stream, RollLog log, RollLog.Replay replay) {
+        this.stream = stream;
+        this.log = log;
+        this.replay = replay;
+    }
+
     /**
      * Returns a random <code>int</code> in the range from 0 to one less than
-     * the supplied max value.
+     * the supplied max value. Every number, including the ones used to roll
+     * dice, comes through here to be recorded or played back.
      * 
      * @param maxValue - the smallest <code>int</code> value which will exceed
      *            any random number returned by this method.
      * @return a random <code>int</code> from the value set [0, maxValue).
      */
-    abstract int randomInt(int maxValue);
+    int randomInt(int maxValue) {
+        int result = (replay == null) ? -1 : replay.next(stream, maxValue);
+        if (result < 0) {
+            result = nextInt(maxValue);
+        }
+        if (log != null) {
+            log.record(stream, maxValue, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return a new random <code>int</code> from the value set [0, maxValue).
+     */
+    abstract int nextInt(int maxValue);
 
     /**
      * Uses com.sun.java.util.collections.Random
      */
     static class SunRandom extends MMRandom {
-        Random random = new Random();
+        Random random;
+
+        public SunRandom() {
+            random = new Random();
+        }
+
+        public SunRandom(long seed) {
+            random = new Random(seed);
+        }
 
         @Override
-        public int randomInt(int maxValue) {
+        int nextInt(int maxValue) {
             return random.nextInt(maxValue);
         }
     }
@@ -158,7 +218,7 @@ public abstract class MMRandom {
         }
 
         @Override
-        public int randomInt(int maxValue) {
+        int nextInt(int maxValue) {
             return random.nextInt(maxValue);
         }
     }
@@ -174,8 +234,13 @@ public abstract class MMRandom {
         int index = 0;
 
         public Pool36Random() {
+            // the pool is shuffled on the first roll, once the log is set
+            initPool();
+        }
+
+        public Pool36Random(long seed) {
+            super(seed);
             initPool();
-            shufflePool();
         }
 
         /** Watches for 2 as nDice and then does its special thing. */
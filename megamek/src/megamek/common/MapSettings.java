@@ -262,6 +262,10 @@ public class MapSettings implements Serializable {
     @XmlElement(name = "ALGORITHM")
     private int algorithmToUse = 0;
 
+    /** the seed of the map generator; 0 picks a new one for every map */
+    @XmlElement(name = "SEED")
+    private long randomSeed = 0;
+
     /** a tileset theme to apply */
     @XmlElement(name = "THEME")
     private String theme = "";
@@ -451,6 +455,7 @@ public class MapSettings implements Serializable {
         minCraters = other.getMinCraters();
         maxCraters = other.getMaxCraters();
         algorithmToUse = other.getAlgorithmToUse();
+        randomSeed = other.getRandomSeed();
         theme = other.getTheme();
         probFlood = other.getProbFlood();
         probForestFire = other.getProbForestFire();
@@ -919,7 +924,8 @@ public class MapSettings implements Serializable {
                 || (cityMaxFloors != other.getCityMaxFloors()) || (cityDensity != other.getCityDensity())
                 || (probFlood != other.getProbFlood()) || (probForestFire != other.getProbForestFire())
                 || (probFreeze != other.getProbFreeze()) || (probDrought != other.getProbDrought())
-                || (algorithmToUse != other.getAlgorithmToUse()) || (mountainHeightMin != other.getMountainHeightMin())
+                || (algorithmToUse != other.getAlgorithmToUse()) || (randomSeed != other.getRandomSeed())
+                || (mountainHeightMin != other.getMountainHeightMin())
                 || (mountainHeightMax != other.getMountainHeightMax()) || (mountainPeaks != other.getMountainPeaks())
                 || (mountainStyle != other.getMountainStyle()) || (mountainWidthMin != other.getMountainWidthMin())
                 || (mountainWidthMax != other.getMountainWidthMax()) || (boardBuildings != other.getBoardBuildings())) {
@@ -1180,6 +1186,10 @@ public class MapSettings implements Serializable {
         return algorithmToUse;
     }
 
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
     public int getProbFlood() {
         return probFlood;
     }
@@ -1422,6 +1432,14 @@ public class MapSettings implements Serializable {
         algorithmToUse = alg;
     }
 
+    /**
+     * Sets the seed of the map generator. The same settings and the same seed
+     * always give the same map; 0 picks a new seed for every map.
+     */
+    public void setRandomSeed(long seed) {
+        randomSeed = seed;
+    }
+
     public void setCityParams(int cityBlocks, String cityType, int cityMinCF, int cityMaxCF, int cityMinFloors,
             int cityMaxFloors, int cityDensity, int townSize) {
         this.cityBlocks = cityBlocks;
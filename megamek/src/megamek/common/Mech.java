@@ -1879,6 +1879,7 @@ public abstract class Mech extends Entity {
     public void setArmor(int val, int loc, boolean rear) {
         if (rear && hasRearArmor(loc)) {
             rearArmor[loc] = val;
+            invalidateCachedValues();
         } else {
             super.setArmor(val, loc, rear);
         }
@@ -249,6 +249,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
             // Regular launcher
             shotsLeft = at.getShots();
         }
+        equipmentStateChanged();
     }
 
     /**
@@ -593,6 +594,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
      */
     public void setDestroyed(boolean destroyed) {
         this.destroyed = destroyed;
+        equipmentStateChanged();
         if ((destroyed == true)
                 && getType().hasFlag(MiscType.F_RADICAL_HEATSINK)){
             if (entity != null){
@@ -619,6 +621,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
      */
     public void setHit(boolean hit) {
         this.hit = hit;
+        equipmentStateChanged();
         if ((hit == true)
                 && getType().hasFlag(MiscType.F_RADICAL_HEATSINK)){
             if (entity != null){
@@ -633,6 +636,17 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
 
     public void setMissing(boolean missing) {
         this.missing = missing;
+        equipmentStateChanged();
+    }
+
+    /**
+     * Lets the carrying entity know that values derived from its equipment,
+     * like BV, need to be recalculated.
+     */
+    private void equipmentStateChanged() {
+        if (entity != null) {
+            entity.invalidateCachedValues();
+        }
     }
 
     public boolean isJammed() {
@@ -711,6 +725,7 @@ public class Mounted implements Serializable, RoundUpdated, PhaseUpdated {
             shotsLeft = 0;
         }
         this.shotsLeft = shotsLeft;
+        equipmentStateChanged();
     }
 
     /**
@@ -1426,7 +1426,7 @@ public class MoveStep implements Serializable {
         // If this step isn't the end step anymore, we might not be in danger
         // after all
         IHex pos = getGame().getBoard().getHex(position);
-        if (getGame().getOptions().booleanOption(OptionsConstants.ADVGRNDMOV_PSR_JUMP_HEAVY_WOODS)) {
+        if (getGame().getOptions().getSnapshot().isPsrJumpHeavyWoods()) {
             if (!isEnd
                     && isJumping()
                     && (pos.containsTerrain(Terrains.WOODS, 2) 
@@ -1787,7 +1787,7 @@ public class MoveStep implements Serializable {
             }
 
             // check the fuel requirements
-            if (game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_FUEL_CONSUMPTION)) {
+            if (game.getOptions().getSnapshot().isFuelConsumption()) {
                 int fuelUsed = mpUsed + Math.max(mpUsed - a.getWalkMP(), 0);
                 if (fuelUsed > a.getFuel()) {
                     return;
@@ -2187,7 +2187,7 @@ public class MoveStep implements Serializable {
                 // store if we got the pavement Bonus for end of phase
                 // gravity psr
                 entity.gotPavementBonus = true;
-            } else if (game.getOptions().booleanOption(OptionsConstants.ADVGRNDMOV_TACOPS_SPRINT)
+            } else if (game.getOptions().getSnapshot().isSprint()
                     && (entity instanceof Mech)
                     && ((getMpUsed() <= sprintMPnoMASC)
                             || ((getMpUsed() <= sprintMP) && isMASCUsed))
@@ -2195,7 +2195,7 @@ public class MoveStep implements Serializable {
                 movementType = EntityMovementType.MOVE_SPRINT;
             } else if ((getMpUsed() <= sprintMP)
                     && !isRunProhibited() && !isEvading()
-                    && game.getOptions().booleanOption(OptionsConstants.ADVGRNDMOV_TACOPS_SPRINT)) {
+                    && game.getOptions().getSnapshot().isSprint()) {
                 setUsingMASC(true);
                 setTargetNumberMASC(entity.getMASCTarget());
                 movementType = EntityMovementType.MOVE_SPRINT;
@@ -2583,7 +2583,7 @@ public class MoveStep implements Serializable {
 
 
         boolean applyNightPen =
-                !game.getOptions().booleanOption(OptionsConstants.ADVGRNDMOV_NO_NIGHT_MOVE_PEN);
+                !game.getOptions().getSnapshot().isNoNightMovePenalty();
         boolean carefulExempt =
                 (moveMode == EntityMovementMode.VTOL) || isJumping();
 
@@ -2666,7 +2666,7 @@ public class MoveStep implements Serializable {
         // non-WIGEs pay for elevation differences
         if ((nSrcEl != nDestEl) && (moveMode != EntityMovementMode.WIGE)) {
             int delta_e = Math.abs(nSrcEl - nDestEl);
-            if (game.getOptions().booleanOption(OptionsConstants.ADVGRNDMOV_TACOPS_LEAPING) && isMech
+            if (game.getOptions().getSnapshot().isLeaping() && isMech
                     && (delta_e > 2) && (nDestEl < nSrcEl)) {
                 // leaping (moving down more than 2 hexes) always costs 4 mp
                 // regardless of anything else
@@ -2851,9 +2851,8 @@ public class MoveStep implements Serializable {
         if (!(entity instanceof VTOL)
                 && isThisStepBackwards()
                 && !(isJumping() && (entity.getJumpType() == Mech.JUMP_BOOSTER))
-                && (((destAlt != srcAlt) && !game.getOptions().booleanOption(
-                OptionsConstants.ADVGRNDMOV_TACOPS_WALK_BACKWARDS)) || (game.getOptions()
-                .booleanOption(OptionsConstants.ADVGRNDMOV_TACOPS_WALK_BACKWARDS) && (Math
+                && (((destAlt != srcAlt) && !game.getOptions().getSnapshot().isWalkBackwards()) || (game.getOptions()
+                .getSnapshot().isWalkBackwards() && (Math
                 .abs(destAlt - srcAlt) > 1)))) {
             // System.err.println("Can't back up across an elevation change.");
             return false;
@@ -2962,11 +2961,11 @@ public class MoveStep implements Serializable {
                 && (destAlt != srcAlt)
                 && !(entity instanceof VTOL)
                 && !(isJumping() && (entity.getJumpType() == Mech.JUMP_BOOSTER))) {
-            if (game.getOptions().booleanOption(OptionsConstants.ADVGRNDMOV_TACOPS_WALK_BACKWARDS)
+            if (game.getOptions().getSnapshot().isWalkBackwards()
                     && (Math.abs(destAlt - srcAlt) > 1)) {
                 return false;
             }
-            if (!game.getOptions().booleanOption(OptionsConstants.ADVGRNDMOV_TACOPS_WALK_BACKWARDS)
+            if (!game.getOptions().getSnapshot().isWalkBackwards()
                     && (destAlt != srcAlt)) {
                 return false;
             }
@@ -0,0 +1,243 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Records every random number drawn during a game, so the game can be played
+ * again with the same rolls. The log is saved with the game; each roll takes
+ * three bytes for the usual dice: its stream, the range it was drawn from and
+ * the result, the latter two as variable length integers.
+ * <p>
+ * A log also carries the seed of the game's random number streams. With a seed
+ * of 0 the streams are not seeded, and the log is the only way to repeat the
+ * rolls.
+ *
+ * @author The MegaMek Team
+ */
+public class RollLog implements Serializable {
+
+    private static final long serialVersionUID = -3218842165338913270L;
+
+    private final long seed;
+    private byte[] data = new byte[1024];
+    private int size;
+    private final int[] counts = new int[Compute.RandomStream.values().length];
+
+    public RollLog(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return the seed of the random number streams, or 0 if they are not
+     *         seeded
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return a log for the game after this one; seeded logs give the next
+     *         game a seed of its own, so it does not repeat this game's rolls
+     */
+    public RollLog nextGame() {
+        return new RollLog((seed == 0) ? 0 : Compute.mixSeed(seed + 1));
+    }
+
+    /**
+     * Adds a random number to the log.
+     *
+     * @param stream   the stream the number was drawn from
+     * @param maxValue the number was drawn from 0 to one less than this
+     * @param result   the number drawn
+     */
+    public synchronized void record(int stream, int maxValue, int result) {
+        if (data.length - size < 11) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[size++] = (byte) stream;
+        writeVarInt(maxValue);
+        writeVarInt(result);
+        counts[stream]++;
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[size++] = (byte) value;
+    }
+
+    /**
+     * @return the number of rolls drawn from the given stream
+     */
+    public synchronized int getCount(int stream) {
+        return counts[stream];
+    }
+
+    /**
+     * @return the number of rolls in the log
+     */
+    public synchronized int getCount() {
+        int count = 0;
+        for (int c : counts) {
+            count += c;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of bytes the log takes
+     */
+    public synchronized int getBytes() {
+        return size;
+    }
+
+    /**
+     * Plays back the rolls of this log that come after those of an earlier
+     * log of the same game, such as the log of an earlier save.
+     *
+     * @param start the log of the game as it is now, or <code>null</code> to
+     *              play back from the start
+     */
+    public synchronized Replay replay(RollLog start) {
+        return new Replay(Arrays.copyOf(data, size), (start == null) ? null
+                : start.countsCopy());
+    }
+
+    private synchronized int[] countsCopy() {
+        return counts.clone();
+    }
+
+    private synchronized void writeObject(ObjectOutputStream out)
+            throws IOException {
+        // don't save the unused part of the buffer
+        data = Arrays.copyOf(data, Math.max(size, 16));
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Hands out the recorded rolls again. Each stream goes through its own
+     * rolls in order, so streams used by different threads don't need to draw
+     * in the same order they did the first time. When the game asks for a roll
+     * that does not match the log, the game has taken another course; the
+     * replay stops and all streams go back to drawing new numbers.
+     */
+    public static class Replay {
+        private final byte[] data;
+        private final int[] positions;
+        private boolean diverged;
+        private int replayed;
+
+        Replay(byte[] data, int[] skip) {
+            this.data = data;
+            positions = new int[Compute.RandomStream.values().length];
+            if (skip != null) {
+                for (int stream = 0; stream < positions.length; stream++) {
+                    for (int i = 0; i < skip[stream]; i++) {
+                        positions[stream] = find(stream, positions[stream]);
+                        positions[stream] = skipRecord(positions[stream]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the next recorded roll of the stream, or -1 if there is none
+         *         that matches the range asked for
+         */
+        public synchronized int next(int stream, int maxValue) {
+            if (diverged) {
+                return -1;
+            }
+            int pos = find(stream, positions[stream]);
+            if (pos >= data.length) {
+                return stop("the log has no more rolls"); //$NON-NLS-1$
+            }
+            pos++;
+            int recordedMax = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = data[pos++];
+                recordedMax |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            if (recordedMax != maxValue) {
+                return stop("roll " + replayed + " asks for 0-" //$NON-NLS-1$ //$NON-NLS-2$
+                        + (maxValue - 1) + ", the log has 0-" //$NON-NLS-1$
+                        + (recordedMax - 1));
+            }
+            int result = 0;
+            shift = 0;
+            do {
+                b = data[pos++];
+                result |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            positions[stream] = pos;
+            replayed++;
+            return result;
+        }
+
+        private int stop(String reason) {
+            diverged = true;
+            System.err.println("RollLog: replay stopped after " + replayed //$NON-NLS-1$
+                    + " rolls, " + reason); //$NON-NLS-1$
+            return -1;
+        }
+
+        /**
+         * @return the first record of the stream at or after the position
+         */
+        private int find(int stream, int pos) {
+            while ((pos < data.length) && (data[pos] != stream)) {
+                pos = skipRecord(pos);
+            }
+            return pos;
+        }
+
+        private int skipRecord(int pos) {
+            if (pos >= data.length) {
+                return pos;
+            }
+            pos++;
+            for (int i = 0; i < 2; i++) {
+                while ((data[pos++] & 0x80) != 0) {
+                    // skip the rest of the number
+                }
+            }
+            return pos;
+        }
+
+        /**
+         * @return true if the game no longer matches the log
+         */
+        public synchronized boolean isDiverged() {
+            return diverged;
+        }
+
+        /**
+         * @return the number of rolls played back so far
+         */
+        public synchronized int getReplayed() {
+            return replayed;
+        }
+    }
+}
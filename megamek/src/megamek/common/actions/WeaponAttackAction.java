@@ -131,6 +131,15 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
     // only used server-side
     private transient ArrayList<Mounted> vCounterEquipment;
 
+    /**
+     * To-hit data worked out ahead of time by
+     * {@link #precomputeToHit(IGame, List)}, the state of the attacker it was
+     * worked out from and the ECM of the phase; only used server-side
+     */
+    private transient ToHitData precomputedToHit;
+    private transient List<Object> precomputedInputs;
+    private transient List<ECMInfo> precomputedECMInfo;
+
     /**
      * Boolean flag that determines whether or not this attack is part of a
      * strafing run.
@@ -261,6 +270,112 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
                 allECMInfo);
     }
 
+    /**
+     * Returns true if the to-hit data of this attack can be worked out on
+     * another thread while other attacks are worked out as well. Attacks
+     * that change the attacker while working it out (multi-purpose missiles
+     * fired from under water surface the attacker, dumping ammo is swapped
+     * for other ammo) must be worked out on their own.
+     */
+    public boolean canPrecomputeToHit(IGame game) {
+        Entity ae = game.getEntity(getEntityId());
+        if ((ae == null) || (ae.getElevation() < 0)) {
+            return false;
+        }
+        Mounted weapon = ae.getEquipment(getWeaponId());
+        if ((weapon == null) || !(weapon.getType() instanceof WeaponType)) {
+            return false;
+        }
+        if ((weapon.getLinked() != null) && weapon.getLinked().isDumping()) {
+            return false;
+        }
+        for (int wId : weapon.getBayWeapons()) {
+            Mounted bayWeapon = ae.getEquipment(wId);
+            if ((bayWeapon.getLinked() != null) && bayWeapon.getLinked().isDumping()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Works out the to-hit data of this attack ahead of the weapon being
+     * fired, from the state of the game at the start of the phase. Weapons
+     * fire simultaneously, so only firing other weapons of the same attacker
+     * before this one can change the result; {@link #getPrecomputedToHit(IGame)}
+     * works it out again if they did.
+     *
+     * @param allECMInfo the ECM of all units, which doesn't change while the
+     *                   attacks of a phase are resolved
+     */
+    public void precomputeToHit(IGame game, List<ECMInfo> allECMInfo) {
+        List<Object> inputs = getToHitInputs(game);
+        ToHitData toHit = toHit(game, allECMInfo);
+        precomputedInputs = inputs;
+        precomputedECMInfo = allECMInfo;
+        precomputedToHit = toHit;
+    }
+
+    /**
+     * @return the to-hit data worked out by
+     *         {@link #precomputeToHit(IGame, List)}, worked out again if the
+     *         attacker has changed since, or <code>null</code> if nothing has
+     *         been worked out ahead of time. Either way, the data is only
+     *         returned once.
+     */
+    public ToHitData getPrecomputedToHit(IGame game) {
+        ToHitData toHit = precomputedToHit;
+        List<ECMInfo> allECMInfo = precomputedECMInfo;
+        List<Object> inputs = precomputedInputs;
+        precomputedToHit = null;
+        precomputedECMInfo = null;
+        precomputedInputs = null;
+        if ((toHit != null) && !getToHitInputs(game).equals(inputs)) {
+            return toHit(game, allECMInfo);
+        }
+        return toHit;
+    }
+
+    /**
+     * @return the state of the attacker that firing other weapons can change
+     *         and the to-hit data depends on: the weapon (and the weapons of
+     *         its bay) being ready, their ammo and whether it has run out,
+     *         the total ammo of fighters, and TAG being used
+     */
+    private List<Object> getToHitInputs(IGame game) {
+        List<Object> inputs = new ArrayList<Object>();
+        Entity ae = game.getEntity(getEntityId());
+        if (ae == null) {
+            return inputs;
+        }
+        inputs.add(ae.usedTag());
+        Mounted weapon = ae.getEquipment(getWeaponId());
+        addToHitInputs(inputs, ae, weapon);
+        if (weapon != null) {
+            for (int wId : weapon.getBayWeapons()) {
+                addToHitInputs(inputs, ae, ae.getEquipment(wId));
+            }
+        }
+        return inputs;
+    }
+
+    private static void addToHitInputs(List<Object> inputs, Entity ae, Mounted weapon) {
+        if (weapon == null) {
+            return;
+        }
+        inputs.add(weapon.canFire(true));
+        inputs.add(weapon.isUsedThisRound());
+        Mounted ammo = weapon.getLinked();
+        inputs.add(ammo);
+        if (ammo != null) {
+            inputs.add(ammo.getUsableShotsLeft() == 0);
+            inputs.add(ammo.isDumping());
+            if ((ae instanceof Aero) && (ammo.getType() instanceof AmmoType)) {
+                inputs.add(ae.getTotalAmmoOfType(ammo.getType()));
+            }
+        }
+    }
+
     public static ToHitData toHit(IGame game, int attackerId, Targetable target, int weaponId, boolean isStrafing) {
         return WeaponAttackAction.toHit(game, attackerId, target, weaponId, Entity.LOC_NONE, IAimingModes.AIM_MODE_NONE,
                 false, false, null, null, isStrafing, false);
@@ -740,7 +855,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
         }
 
         // Space ECM
-        if (game.getBoard().inSpace() && game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+        if (game.getBoard().inSpace() && game.getOptions().getSnapshot().isStratOpsEcm()) {
             int ecm = ComputeECM.getLargeCraftECM(ae, ae.getPosition(), target.getPosition());
             if (!ae.isLargeCraft()) {
                 ecm += ComputeECM.getSmallCraftECM(ae, ae.getPosition(), target.getPosition());
@@ -1778,7 +1893,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
                 toHit.setHitTable(ToHitData.HIT_PARTIAL_COVER);
                 toHit.setCover(LosEffects.COVER_UPPER);
             } else {
-                if (game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER)) {
+                if (game.getOptions().getSnapshot().isPartialCover()) {
                     toHit.setHitTable(ToHitData.HIT_PARTIAL_COVER);
                     toHit.setCover(los.getTargetCover());
                 } else {
@@ -1977,7 +2092,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
 
             // reset cover
             if (swarmlos.getTargetCover() != LosEffects.COVER_NONE) {
-                if (game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER)) {
+                if (game.getOptions().getSnapshot().isPartialCover()) {
                     toHit.setHitTable(ToHitData.HIT_PARTIAL_COVER);
                     toHit.setCover(swarmlos.getTargetCover());
                 } else {
@@ -2127,7 +2242,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
             toHit.addModifier(te.getEvasionBonus(), "target is evading");
         }
         // Space ECM
-        if (game.getBoard().inSpace() && game.getOptions().booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM)) {
+        if (game.getBoard().inSpace() && game.getOptions().getSnapshot().isStratOpsEcm()) {
             int ecm = ComputeECM.getLargeCraftECM(ae, ae.getPosition(), target.getPosition());
             if (!ae.isLargeCraft()) {
                 ecm += ComputeECM.getSmallCraftECM(ae, ae.getPosition(), target.getPosition());
@@ -2558,7 +2673,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
                 toHit.setHitTable(ToHitData.HIT_PARTIAL_COVER);
                 toHit.setCover(LosEffects.COVER_UPPER);
             } else {
-                if (game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER)) {
+                if (game.getOptions().getSnapshot().isPartialCover()) {
                     toHit.setHitTable(ToHitData.HIT_PARTIAL_COVER);
                     toHit.setCover(los.getTargetCover());
                 } else {
@@ -2757,10 +2872,10 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
         }
 
         // can't fire Indirect LRM with direct LOS
-        if (isIndirect && game.getOptions().booleanOption(OptionsConstants.BASE_INDIRECT_FIRE)
-                && !game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_INDIRECT_ALWAYS_POSSIBLE)
+        if (isIndirect && game.getOptions().getSnapshot().isIndirectFire()
+                && !game.getOptions().getSnapshot().isIndirectAlwaysPossible()
                 && LosEffects.calculateLos(game, ae.getId(), target).canSee()
-                && (!game.getOptions().booleanOption(OptionsConstants.ADVANCED_DOUBLE_BLIND)
+                && (!game.getOptions().getSnapshot().isDoubleBlind()
                         || Compute.canSee(game, ae, target))
                 && !(wtype instanceof ArtilleryCannonWeapon) && !(wtype instanceof MekMortarWeapon)) {
             return "Indirect-fire LRM cannot be fired with direct LOS from attacker to target.";
@@ -2872,7 +2987,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
         // missiles
         if (!exchangeSwarmTarget) {
 
-            if (!game.getOptions().booleanOption(OptionsConstants.BASE_FRIENDLY_FIRE) && !isStrafing) {
+            if (!game.getOptions().getSnapshot().isFriendlyFire() && !isStrafing) {
                 // a friendly unit can never be the target of a direct attack.
                 // but we do allow vehicle flamers to cool
                 if ((target.getTargetType() == Targetable.TYPE_ENTITY) && ((te.getOwnerId() == ae.getOwnerId())
@@ -3355,14 +3470,14 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
         }
 
         // check if indirect fire is valid
-        if (isIndirect && !game.getOptions().booleanOption(OptionsConstants.BASE_INDIRECT_FIRE)) {
+        if (isIndirect && !game.getOptions().getSnapshot().isIndirectFire()) {
             return "Indirect fire option not enabled";
         }
 
-        if (isIndirect && game.getOptions().booleanOption(OptionsConstants.BASE_INDIRECT_FIRE)
-                && !game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_INDIRECT_ALWAYS_POSSIBLE)
+        if (isIndirect && game.getOptions().getSnapshot().isIndirectFire()
+                && !game.getOptions().getSnapshot().isIndirectAlwaysPossible()
                 && LosEffects.calculateLos(game, attackerId, target).canSee()
-                && (!game.getOptions().booleanOption(OptionsConstants.ADVANCED_DOUBLE_BLIND)
+                && (!game.getOptions().getSnapshot().isDoubleBlind()
                         || Compute.canSee(game, ae, target))
                 && !(wtype instanceof ArtilleryCannonWeapon) && !(wtype instanceof MekMortarWeapon)) {
             return "Indirect fire impossible with direct LOS";
@@ -3548,7 +3663,7 @@ public class WeaponAttackAction extends AbstractAttackAction implements Serializ
         // http://www.classicbattletech.com/forums/index.php/topic,47618.0.html
         // anything outside of visual range requires a "sensor lock" in order to
         // direct fire
-        if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_DOUBLE_BLIND)
+        if (game.getOptions().getSnapshot().isDoubleBlind()
                 && !Compute.inVisualRange(game, ae, target)
                 && !(Compute.inSensorRange(game, ae, target, null) // Can shoot
                                                                    // at
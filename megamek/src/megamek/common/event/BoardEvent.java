@@ -14,6 +14,9 @@
 
 package megamek.common.event;
 
+import java.util.Collections;
+import java.util.Set;
+
 import megamek.common.Coords;
 
 /**
@@ -29,8 +32,10 @@ public class BoardEvent extends java.util.EventObject {
     public static final int BOARD_NEW_BOARD = 0;
     public static final int BOARD_CHANGED_HEX = 1;
     public static final int BOARD_CHANGED_ALL_HEXES = 2;
+    public static final int BOARD_CHANGED_HEXES = 3;
 
     private Coords coords;
+    private Set<Coords> changedCoords;
     private int type;
 
     public BoardEvent(Object source, Coords coords, int type) {
@@ -39,6 +44,17 @@ public class BoardEvent extends java.util.EventObject {
         this.type = type;
     }
 
+    /**
+     * Creates a {@link #BOARD_CHANGED_HEXES} event.
+     *
+     * @param changedCoords the coordinates of all hexes that changed
+     */
+    public BoardEvent(Object source, Set<Coords> changedCoords) {
+        super(source);
+        this.changedCoords = changedCoords;
+        type = BOARD_CHANGED_HEXES;
+    }
+
     /**
      * @return the type of event that this is
      */
@@ -53,4 +69,15 @@ public class BoardEvent extends java.util.EventObject {
     public Coords getCoords() {
         return coords;
     }
+
+    /**
+     * @return the coordinates of all hexes that changed, if applicable; an
+     *         empty set otherwise.
+     */
+    public Set<Coords> getChangedCoords() {
+        if (changedCoords == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(changedCoords);
+    }
 }
@@ -49,4 +49,11 @@ public interface BoardListener extends java.util.EventListener {
      */
     public void boardChangedAllHexes(BoardEvent b);
 
+    /**
+     * Sent when several hexes on the Board changed at once
+     *
+     * @param b an event containing information about the change
+     */
+    public void boardChangedHexes(BoardEvent b);
+
 }
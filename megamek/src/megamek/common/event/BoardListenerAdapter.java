@@ -14,6 +14,8 @@
 
 package megamek.common.event;
 
+import megamek.common.Coords;
+
 /**
  * This adapter class provides default implementations for the methods described
  * by the <code>BoardListener</code> interface.
@@ -51,4 +53,17 @@ public class BoardListenerAdapter implements BoardListener {
     public void boardChangedAllHexes(BoardEvent b) {
     }
 
+    /**
+     * Sent when several hexes on the Board changed at once. The default
+     * behavior is to handle each of them as if it had changed on its own.
+     *
+     * @param b an event containing information about the change
+     */
+    public void boardChangedHexes(BoardEvent b) {
+        for (Coords coords : b.getChangedCoords()) {
+            boardChangedHex(new BoardEvent(b.getSource(), coords,
+                    BoardEvent.BOARD_CHANGED_HEX));
+        }
+    }
+
 }
@@ -14,23 +14,33 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Hands events to the {@link Subscribe} methods of the registered handlers.
+ * <p>
+ * For every concrete event class the listeners that get its events, those of
+ * the class itself and of each of its superclasses, are put in a chain when
+ * the first such event is triggered, and the chain is reused until a handler
+ * is registered or unregistered. Chains are never changed once built, so
+ * handlers can be unregistered, even from within a handler, without locking
+ * out the events being triggered.
+ */
 public final class EventBus {
     private static final Object INSTANCE_LOCK = new Object[0];
     
     private static EventBus instance;
     private static final EventSorter EVENT_SORTER = new EventSorter();
+    private static final EventListener[] NO_LISTENERS = new EventListener[0];
     
     private final Object REGISTER_LOCK = new Object[0];
     
     private ConcurrentHashMap<Object, List<EventListener>> handlerMap = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Class<? extends MMEvent>, List<EventListener>> eventMap = new ConcurrentHashMap<>();
-    // There is no Java-supplied IdentityHashSet ...
-    private Map<Object, Object> unregisterQueue = new IdentityHashMap<>();
+    // Replaced, not cleared, whenever the listeners change
+    private volatile Map<Class<?>, EventListener[]> chainMap = new ConcurrentHashMap<>();
     
     public static EventBus getInstance() {
         synchronized(INSTANCE_LOCK) {
@@ -111,52 +121,63 @@ public final class EventBus {
                 eventMap.put(eventType, eventListeners);
             }
             eventListeners.add(listener);
+            // Keep them in the order they are called in
+            Collections.sort(eventListeners, EVENT_SORTER);
+            chainMap = new ConcurrentHashMap<>();
         }
     }
     
+    /**
+     * Stops handing events to the handler. An event that is being triggered
+     * while this happens still reaches it.
+     */
     public void unregister(Object handler) {
         synchronized(REGISTER_LOCK) {
-            unregisterQueue.put(handler, handler);
-        }
-    }
-    
-    private void internalUnregister() {
-        synchronized(REGISTER_LOCK) {
-            for(Object handler : unregisterQueue.keySet()) {
-                List<EventListener> listenerList = handlerMap.remove(handler);
-                if(null != listenerList) {
-                    for(EventListener listener : listenerList) {
-                        List<EventListener> eventListeners = eventMap.get(listener.getEventType());
-                        if(null != eventListeners) {
-                            eventListeners.remove(listener);
-                        }
+            List<EventListener> listenerList = handlerMap.remove(handler);
+            if(null != listenerList) {
+                for(EventListener listener : listenerList) {
+                    List<EventListener> eventListeners = eventMap.get(listener.getEventType());
+                    if(null != eventListeners) {
+                        eventListeners.remove(listener);
                     }
                 }
+                chainMap = new ConcurrentHashMap<>();
             }
-            unregisterQueue.clear();
         }
     }
     
     /** @return true if the event was cancelled along the way */
-    @SuppressWarnings("unchecked")
     public boolean trigger(MMEvent event) {
-        internalUnregister(); // Clean up unregister queue
-        for(Class<?> cls : getClasses(event.getClass())) {
-            if(MMEvent.class.isAssignableFrom(cls)) {
-                // Run through the triggers for each superclass up to MMEvent itself
-                internalTrigger((Class<? extends MMEvent>) cls, event);
-            }
+        for(EventListener listener : getChain(event.getClass())) {
+            listener.trigger(event);
         }
         return event.isCancellable() ? event.isCancelled() : false;
     }
     
-    private void internalTrigger(Class<? extends MMEvent> eventClass, MMEvent event) {
-        List<EventListener> eventListeners = eventMap.get(eventClass);
-        if(null != eventListeners) {
-            Collections.sort(eventListeners, EVENT_SORTER);
-            for(EventListener listener : eventListeners) {
-                listener.trigger(event);
+    private EventListener[] getChain(Class<?> eventClass) {
+        Map<Class<?>, EventListener[]> chains = chainMap;
+        EventListener[] chain = chains.get(eventClass);
+        if(null == chain) {
+            chain = buildChain(eventClass);
+            // If the listeners changed meanwhile, this goes to a map that
+            // is no longer used
+            chains.put(eventClass, chain);
+        }
+        return chain;
+    }
+    
+    private EventListener[] buildChain(Class<?> eventClass) {
+        synchronized(REGISTER_LOCK) {
+            List<EventListener> result = new ArrayList<>();
+            // The listeners of the class itself first, then those of each
+            // superclass up to MMEvent itself
+            for(Class<?> cls : getClasses(eventClass)) {
+                List<EventListener> eventListeners = eventMap.get(cls);
+                if(null != eventListeners) {
+                    result.addAll(eventListeners);
+                }
             }
+            return result.isEmpty() ? NO_LISTENERS : result.toArray(new EventListener[result.size()]);
         }
     }
     
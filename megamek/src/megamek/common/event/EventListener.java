@@ -10,32 +10,45 @@
 
 package megamek.common.event;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Objects;
 
 class EventListener {
+    private static final MethodType TRIGGER_TYPE = MethodType.methodType(void.class, MMEvent.class);
+
     private final Object handler;
     private final Method method;
     private final Class<? extends MMEvent> eventType;
     private final Subscribe info;
+    // The method bound to the handler, taking any event
+    private final MethodHandle callback;
 
     public EventListener(Object handler, Method method, Class<? extends MMEvent> eventType) {
         this.handler = Objects.requireNonNull(handler);
         this.method = Objects.requireNonNull(method);
         this.eventType = Objects.requireNonNull(eventType);
         this.info = method.getAnnotation(Subscribe.class);
+        try {
+            method.setAccessible(true);
+            MethodHandle target = MethodHandles.lookup().unreflect(method);
+            if(!Modifier.isStatic(method.getModifiers())) {
+                target = target.bindTo(handler);
+            }
+            this.callback = target.asType(TRIGGER_TYPE);
+        } catch(IllegalAccessException | SecurityException e) {
+            throw new IllegalArgumentException("Can't call " + method, e); //$NON-NLS-1$
+        }
     }
     
     public void trigger(MMEvent event) {
         if(!event.isCancellable() || !event.isCancelled()) {
             try {
-                method.invoke(handler, event);
-            } catch(IllegalAccessException e) {
-                e.printStackTrace();
-            } catch(IllegalArgumentException e) {
-                e.printStackTrace();
-            } catch(InvocationTargetException e) {
+                callback.invokeExact(event);
+            } catch(Throwable e) {
                 e.printStackTrace();
             }
         }
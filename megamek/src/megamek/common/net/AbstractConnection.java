@@ -17,20 +17,25 @@ package megamek.common.net;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketException;
+import java.util.Collection;
 import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Vector;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
+import megamek.common.Entity;
 import megamek.common.net.marshall.PacketMarshaller;
 import megamek.common.net.marshall.PacketMarshallerFactory;
 import megamek.common.util.CircularIntegerBuffer;
+import megamek.common.util.Metrics;
 
 /**
  * Generic bidirectional connection between client and server
@@ -42,6 +47,38 @@ public abstract class AbstractConnection implements IConnection {
 
     private static final int DEFAULT_MARSHALLING = PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING;
 
+    private static final Metrics.Counter COALESCED = Metrics.getInstance()
+            .counter("net.coalescedUpdates");
+
+    private static final Metrics.Timer MARSHALL_TIMER = Metrics.getInstance()
+            .timer("net.marshall");
+
+    /**
+     * Bytes of marshalled packets a server connection may have waiting to be
+     * sent. A client that stays further behind is dropped; it can reconnect
+     * and will be sent the whole game again.
+     */
+    private static final long SEND_BUDGET = 32 * 1024 * 1024;
+
+    /**
+     * How long a server connection may stay over its send budget, in
+     * milliseconds, so a burst like the whole game sent on a reconnect
+     * doesn't cost a client its connection
+     */
+    private static final long SEND_GRACE = 30000;
+
+    /**
+     * How long a server connection that is over its send budget may go
+     * without sending a packet before it is dropped, in milliseconds
+     */
+    private static final long SEND_STALL = 10000;
+
+    /**
+     * How long closing a server connection waits for queued packets to be
+     * sent, in milliseconds
+     */
+    private static final long CLOSE_TIMEOUT = 1000;
+
     /**
      * Peer Host Non null in case if it's a client connection
      */
@@ -82,6 +119,34 @@ public abstract class AbstractConnection implements IConnection {
      */
     private SendQueue sendQueue = new SendQueue();
 
+    /**
+     * Thread that sends the queued packets of a server connection
+     */
+    private Thread sender;
+
+    /**
+     * Set while the sender thread writes a packet it took from the queue
+     */
+    private boolean sending;
+
+    /**
+     * The limits of a server connection's send queue; see
+     * {@link #SEND_BUDGET}, {@link #SEND_GRACE} and {@link #SEND_STALL}
+     */
+    long sendBudget = SEND_BUDGET;
+    long sendGrace = SEND_GRACE;
+    long sendStall = SEND_STALL;
+
+    /**
+     * When the send queue went over budget, or 0 while it is within it
+     */
+    private long overBudgetSince;
+
+    /**
+     * When the sender thread last finished writing a packet
+     */
+    private long lastSent;
+
     /**
      * Connection listeners list
      */
@@ -194,9 +259,11 @@ public abstract class AbstractConnection implements IConnection {
      */
     public void close() {
         synchronized (this) {
+            waitForSender();
             System.err.print(getConnectionTypeAbbrevation());
             sendQueue.reportContents();
             sendQueue.finish();
+            notifyAll();
             try {
                 if (socket != null) {
                     socket.close();
@@ -263,12 +330,164 @@ public abstract class AbstractConnection implements IConnection {
     }
 
     /**
-     * Adds a packet to the send queue to be send on a seperate thread.
+     * Adds a packet to the send queue. Client connections send it right away,
+     * server connections leave that to a separate thread, so a slow client
+     * can't hold up the server.
      */
     public synchronized void send(Packet packet) {
-        sendQueue.addPacket(new SendPacket(packet));
-        // Send right now
-        flush();
+        if (!isServer()) {
+            sendQueue.addPacket(new SendPacket(packet));
+            // Send right now
+            flush();
+            return;
+        }
+        if (sendQueue.isFinished()) {
+            return;
+        }
+        SendPacket sendPacket = new SendPacket(packet);
+        sendQueue.coalesce(sendPacket);
+        sendQueue.addPacket(sendPacket);
+        if (isOverBudget()) {
+            drop();
+            return;
+        }
+        if (sender == null) {
+            sender = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runSender();
+                }
+            }, "Connection Sender " + getId()); //$NON-NLS-1$
+            sender.setDaemon(true);
+            sender.start();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Returns <code>true</code> if the client has stayed over the send budget
+     * for longer than the grace period, or hasn't been sent anything for a
+     * while since it went over. Must be called while synchronized on this
+     * connection.
+     */
+    private boolean isOverBudget() {
+        if (sendQueue.getBytes() <= sendBudget) {
+            overBudgetSince = 0;
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (overBudgetSince == 0) {
+            overBudgetSince = now;
+        }
+        return (now - overBudgetSince > sendGrace)
+                || (now - Math.max(overBudgetSince, lastSent) > sendStall);
+    }
+
+    /**
+     * @return <code>true</code> once a server connection stopped sending,
+     *         because it was closed or dropped
+     */
+    synchronized boolean isSendFinished() {
+        return sendQueue.isFinished();
+    }
+
+    /**
+     * @return the bytes of the packets waiting to be sent
+     */
+    synchronized long getSendQueueBytes() {
+        return sendQueue.getBytes();
+    }
+
+    /**
+     * Sends the queued packets of a server connection until it is closed,
+     * flushing the output whenever the queue runs empty.
+     */
+    private void runSender() {
+        while (true) {
+            SendPacket packet;
+            synchronized (this) {
+                while (!sendQueue.hasPending() && !sendQueue.isFinished()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                packet = sendQueue.getPacket();
+                if (packet == null) {
+                    return;
+                }
+                sending = true;
+            }
+            try {
+                processPacket(packet);
+            } catch (Exception e) {
+                reportSendException(e, packet);
+                close();
+                return;
+            }
+            boolean idle;
+            synchronized (this) {
+                idle = !sendQueue.hasPending();
+            }
+            if (idle) {
+                flushNetworkStreamOrClose();
+            }
+            synchronized (this) {
+                sending = false;
+                lastSent = System.currentTimeMillis();
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Gives the sender thread of a server connection some time to send what
+     * has been queued, e.g. a close connection packet. Must be called while
+     * synchronized on this connection.
+     */
+    private void waitForSender() {
+        if ((sender == null) || (Thread.currentThread() == sender)) {
+            return;
+        }
+        long end = System.currentTimeMillis() + CLOSE_TIMEOUT;
+        while ((sendQueue.hasPending() || sending) && !sendQueue.isFinished()) {
+            long left = end - System.currentTimeMillis();
+            if (left <= 0) {
+                return;
+            }
+            try {
+                wait(left);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops a server connection whose client can't keep up. Only the socket
+     * is closed here; the thread reading from it notices and closes the
+     * connection, so the server isn't told about it in the middle of sending.
+     * Must be called while synchronized on this connection.
+     */
+    private void drop() {
+        System.err.print(getConnectionTypeAbbrevation());
+        System.err.print(" dropping connection #"); //$NON-NLS-1$
+        System.err.print(getId());
+        System.err.print(", more than "); //$NON-NLS-1$
+        System.err.print(sendBudget);
+        System.err.print(" bytes have been waiting to be sent for "); //$NON-NLS-1$
+        System.err.print(System.currentTimeMillis() - overBudgetSince);
+        System.err.println(" ms"); //$NON-NLS-1$
+        sendQueue.finish();
+        notifyAll();
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            // we are dropping the connection anyway
+        }
     }
 
     /**
@@ -472,9 +691,14 @@ public abstract class AbstractConnection implements IConnection {
 
     /**
      * Send all queued packets.  This method is synchronized since it deals with
-     * the non-thread-safe send queue.
+     * the non-thread-safe send queue. Server connections only wake up their
+     * sender thread.
      */
     public synchronized void flush() {
+        if (isServer()) {
+            notifyAll();
+            return;
+        }
         SendPacket packet = null;
         try {
             while ((packet = sendQueue.getPacket()) != null) {
@@ -483,6 +707,25 @@ public abstract class AbstractConnection implements IConnection {
         } catch (Exception e) {
             reportSendException(e, packet);
             close();
+            return;
+        }
+        flushNetworkStreamOrClose();
+    }
+
+    private void flushNetworkStreamOrClose() {
+        try {
+            flushNetworkStream();
+        } catch (SocketException se) {
+            // close this connection, because it's broken
+            // This can happen if the connection is closed while being written
+            // to, and it's not a big deal, since the connection is being broken
+            // anyways
+            close();
+        } catch (IOException ioe) {
+            // Log non-SocketException IOExceptions
+            ioe.printStackTrace();
+            // close this connection, because it's broken
+            close();
         }
     }
 
@@ -536,6 +779,14 @@ public abstract class AbstractConnection implements IConnection {
     protected abstract void sendNetworkPacket(byte[] data, boolean zipped)
             throws Exception;
 
+    /**
+     * Pushes the data of the packets sent so far out of any output buffers.
+     * 
+     * @throws IOException
+     */
+    protected void flushNetworkStream() throws IOException {
+    }
+
     /**
      * Wrapper around a <code>LinkedList</code> for keeping a queue of packets
      * to send.  Note that this implementation is not synchronized.
@@ -545,16 +796,59 @@ public abstract class AbstractConnection implements IConnection {
         private LinkedList<SendPacket> queue = 
                 new LinkedList<SendPacket>();
         private boolean finished = false;
+        private long bytes;
 
         public void addPacket(SendPacket packet) {
             queue.add(packet);
+            bytes += packet.size();
         }
 
         public void finish() {
             queue.clear();
+            bytes = 0;
             finished = true;
         }
 
+        public boolean isFinished() {
+            return finished;
+        }
+
+        /**
+         * Returns the number of bytes waiting to be sent
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Removes an update of the same entity that the given packet makes
+         * obsolete, as long as only updates of other entities have been queued
+         * after it, so the client sees no other change out of order. An update
+         * that carries the path the entity moved along is never removed, as
+         * the client needs it to show the move.
+         */
+        public void coalesce(SendPacket packet) {
+            if (packet.entityId == Entity.NONE) {
+                return;
+            }
+            Iterator<SendPacket> iter = queue.descendingIterator();
+            while (iter.hasNext()) {
+                SendPacket queued = iter.next();
+                if (queued.entityId == Entity.NONE) {
+                    return;
+                }
+                if (queued.entityId == packet.entityId) {
+                    if (queued.hasMovePath) {
+                        return;
+                    }
+                    iter.remove();
+                    bytes -= queued.size();
+                    COALESCED.increment();
+                    return;
+                }
+            }
+        }
+
         /**
          * Waits for a packet to appear in the queue and then returns it.
          * 
@@ -562,7 +856,11 @@ public abstract class AbstractConnection implements IConnection {
          */
         public SendPacket getPacket() {
             if (!finished) {
-                return queue.poll();
+                SendPacket packet = queue.poll();
+                if (packet != null) {
+                    bytes -= packet.size();
+                }
+                return packet;
             } 
             return null;
         }
@@ -607,13 +905,31 @@ public abstract class AbstractConnection implements IConnection {
         }
     }
 
-    private class SendPacket implements INetworkPacket {
+    class SendPacket implements INetworkPacket {
         byte[] data;
         boolean zipped = false;
         int command;
 
+        /**
+         * The entity an entity update is about, so later updates can replace
+         * it while it is still queued
+         */
+        int entityId = Entity.NONE;
+
+        /**
+         * Whether an entity update carries the path the entity moved along
+         */
+        boolean hasMovePath;
+
         public SendPacket(Packet packet) {
             command = packet.getCommand();
+            if ((command == Packet.COMMAND_ENTITY_UPDATE)
+                    && (packet.getObject(0) instanceof Integer)) {
+                entityId = packet.getIntValue(0);
+                Object movePath = packet.getObject(2);
+                hasMovePath = (movePath instanceof Collection<?>)
+                        && !((Collection<?>) movePath).isEmpty();
+            }
             ByteArrayOutputStream bos = new ByteArrayOutputStream();
             OutputStream out;
             try {
@@ -623,10 +939,21 @@ public abstract class AbstractConnection implements IConnection {
                 } else {
                     out = bos;
                 }
-                marshaller.marshall(packet, out);
+                long start = MARSHALL_TIMER.start();
+                CountingOutputStream counted = new CountingOutputStream(out);
+                marshaller.marshall(packet, counted);
                 out.close();
                 data = bos.toByteArray();
                 bytesSent += data.length;
+                MARSHALL_TIMER.stop(start);
+                // sizes per command, before and after compression
+                Metrics metrics = Metrics.getInstance();
+                metrics.histogram("net.packet." + command + ".marshalled")
+                        .record(counted.count);
+                if (zipped) {
+                    metrics.histogram("net.packet." + command + ".compressed")
+                            .record(data.length);
+                }
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -647,6 +974,33 @@ public abstract class AbstractConnection implements IConnection {
         public int getCommand() {
             return command;
         }
+
+        int size() {
+            return (data == null) ? 0 : data.length;
+        }
+    }
+
+    /**
+     * Counts the bytes written through it.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
     }
 
     /**
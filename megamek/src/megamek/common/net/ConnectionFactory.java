@@ -13,7 +13,13 @@
  */
 package megamek.common.net;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
 import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Connections factory. Creates the Client/Server connections
@@ -22,6 +28,11 @@ public class ConnectionFactory {
 
     private static ConnectionFactory instance = new ConnectionFactory();
 
+    /**
+     * Servers running in this JVM, by port
+     */
+    private final Map<Integer, Consumer<IConnection>> localServers = new ConcurrentHashMap<Integer, Consumer<IConnection>>();
+
     private ConnectionFactory() {
     }
 
@@ -35,7 +46,8 @@ public class ConnectionFactory {
     }
 
     /**
-     * Creates new Client (Client-Server) connection
+     * Creates new Client (Client-Server) connection. Clients of a server
+     * running in this JVM get a <code>LocalConnection</code> to it.
      * 
      * @param host server host
      * @param port server port
@@ -43,9 +55,44 @@ public class ConnectionFactory {
      * @return new client (client-server) connection
      */
     public IConnection createClientConnection(String host, int port, int id) {
+        Consumer<IConnection> acceptor = localServers.get(port);
+        if ((acceptor != null) && isLocalHost(host)) {
+            return new LocalConnection(id, acceptor);
+        }
         return new DataStreamConnection(host, port, id);
     }
 
+    /**
+     * Lets clients in this JVM connect to a server without going through its
+     * socket.
+     * 
+     * @param port the port the server listens on
+     * @param acceptor takes the server end of each new connection
+     */
+    public void registerLocalServer(int port, Consumer<IConnection> acceptor) {
+        localServers.put(port, acceptor);
+    }
+
+    /**
+     * @param port the port of a server that is shutting down
+     */
+    public void unregisterLocalServer(int port) {
+        localServers.remove(port);
+    }
+
+    /**
+     * @return true if the host is this machine
+     */
+    private static boolean isLocalHost(String host) {
+        try {
+            InetAddress address = InetAddress.getByName(host);
+            return address.isLoopbackAddress() || address.isAnyLocalAddress()
+                    || (NetworkInterface.getByInetAddress(address) != null);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     /**
      * Creates new Server coinnection
      * 
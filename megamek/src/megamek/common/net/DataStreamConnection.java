@@ -20,7 +20,6 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.Socket;
-import java.net.SocketException;
 
 /**
  * Implementation of the <code>Connection</code> that uses the
@@ -116,29 +115,15 @@ class DataStreamConnection extends AbstractConnection {
     }
 
     /**
-     * override flush to flush the datastream after flushing packetqueue
+     * flush the datastream after sending the queued packets
      */
     @Override
-    public void flush() {
-        // Sends all queued packets
-        super.flush();
-        try {
-            // Flush the output stream, to ensure all packets are sent
-            if (out != null)
-                synchronized (out) {
-                    out.flush();
-                }
-        } catch (SocketException se) {
-            // close this connection, because it's broken
-            // This can happen if the connection is closed while being written
-            // to, and it's not a big deal, since the connection is being broken
-            // anyways
-            close();
-        } catch (IOException ioe) {
-            // Log non-SocketException IOExceptions
-            ioe.printStackTrace();
-            // close this connection, because it's broken
-            close();
+    protected void flushNetworkStream() throws IOException {
+        // Flush the output stream, to ensure all packets are sent
+        if (out != null) {
+            synchronized (out) {
+                out.flush();
+            }
         }
     }
 
@@ -0,0 +1,325 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Enumeration;
+import java.util.Vector;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+import megamek.common.util.Metrics;
+
+/**
+ * A connection between a client and a server running in the same JVM, such as
+ * a bot or the hosting player's own client. Packets go through a bounded queue
+ * to the other end instead of being compressed and written to a socket.
+ * <p>
+ * The two ends must not share the objects of a packet, or the client would
+ * see the server's game change under it. Packets that hold only immutable
+ * values, like chat messages, are handed over as they are; all others are
+ * serialized when they are sent, without compression, and read back by the
+ * thread that receives them.
+ *
+ * @author The MegaMek Team
+ */
+public class LocalConnection implements IConnection {
+
+    /**
+     * Packets an end may have waiting. A server does not wait for a client
+     * that falls this far behind, it drops it; a client sending to a busy
+     * server waits.
+     */
+    static final int QUEUE_SIZE = 16384;
+
+    private static final Metrics.Counter SHARED = Metrics.getInstance()
+            .counter("net.local.shared");
+
+    private static final Metrics.Timer COPY_TIMER = Metrics.getInstance()
+            .timer("net.local.copy");
+
+    /**
+     * Put in the queue of an end to tell it the other end has closed
+     */
+    private static final Object CLOSED = new Object();
+
+    private final boolean server;
+    private final Consumer<IConnection> acceptor;
+    private final BlockingQueue<Object> incoming = new ArrayBlockingQueue<Object>(
+            QUEUE_SIZE);
+    private LocalConnection peer;
+    private volatile boolean open;
+    private volatile boolean closed;
+    private int id;
+    private long bytesSent;
+    private long bytesReceived;
+    private Vector<ConnectionListener> connectionListeners = new Vector<ConnectionListener>();
+
+    /**
+     * Creates the client end of a connection. Opening it hands the server end
+     * to the server.
+     *
+     * @param id       the connection ID
+     * @param acceptor takes the server end of the connection
+     */
+    public LocalConnection(int id, Consumer<IConnection> acceptor) {
+        this.id = id;
+        this.acceptor = acceptor;
+        server = false;
+    }
+
+    private LocalConnection(LocalConnection client) {
+        acceptor = null;
+        server = true;
+        peer = client;
+        open = true;
+    }
+
+    public boolean open() {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (open) {
+                return true;
+            }
+            if (!server) {
+                peer = new LocalConnection(this);
+            }
+            open = true;
+        }
+        if (!server) {
+            acceptor.accept(peer);
+        }
+        return true;
+    }
+
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        // wake up our own reader, then tell the other end
+        incoming.clear();
+        incoming.offer(CLOSED);
+        if (peer != null) {
+            peer.incoming.offer(CLOSED);
+        }
+        processConnectionEvent(new DisconnectedEvent(this));
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getInetAddress() {
+        return "local"; //$NON-NLS-1$
+    }
+
+    /**
+     * @return <code>true</code> for the end held by the server
+     */
+    public boolean isServer() {
+        return server;
+    }
+
+    /**
+     * Hands a packet to the other end.
+     */
+    public void send(Packet packet) {
+        LocalConnection to = peer;
+        if (!open || closed || (to == null) || to.closed) {
+            return;
+        }
+        Object item = copy(packet);
+        if (item == null) {
+            return;
+        }
+        if (server) {
+            if (!to.incoming.offer(item)) {
+                drop(to);
+            }
+            return;
+        }
+        try {
+            to.incoming.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Drops a client that can't keep up. Like a closed socket, this is only
+     * noticed by the threads reading from the two ends, so the server isn't
+     * told about it in the middle of sending.
+     */
+    private void drop(LocalConnection to) {
+        System.err.println("LocalConnection: dropping connection #" + id //$NON-NLS-1$
+                + ", more than " + QUEUE_SIZE + " packets are waiting"); //$NON-NLS-1$ //$NON-NLS-2$
+        open = false;
+        to.incoming.clear();
+        to.incoming.offer(CLOSED);
+        incoming.clear();
+        incoming.offer(CLOSED);
+    }
+
+    /**
+     * @return the packet itself if the other end can share it, otherwise its
+     *         serialized data
+     */
+    private Object copy(Packet packet) {
+        if (isImmutable(packet.getData())) {
+            SHARED.increment();
+            return packet;
+        }
+        long start = COPY_TIMER.start();
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bos);
+            out.writeInt(packet.getCommand());
+            out.writeObject(packet.getData());
+            out.close();
+            byte[] data = bos.toByteArray();
+            synchronized (this) {
+                bytesSent += data.length;
+            }
+            // the same sizes socket connections record
+            Metrics.getInstance().histogram("net.packet." + packet.getCommand()
+                    + ".marshalled").record(data.length);
+            return data;
+        } catch (IOException e) {
+            System.err.println("LocalConnection: can't send packet " //$NON-NLS-1$
+                    + packet.getCommand() + ": " + e); //$NON-NLS-1$
+            return null;
+        } finally {
+            COPY_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * @return true if none of the objects can be changed
+     */
+    static boolean isImmutable(Object[] data) {
+        if (data == null) {
+            return true;
+        }
+        for (Object o : data) {
+            if ((o != null) && !(o instanceof String) && !(o instanceof Integer)
+                    && !(o instanceof Long) && !(o instanceof Boolean)
+                    && !(o instanceof Double) && !(o instanceof Float)
+                    && !(o instanceof Short) && !(o instanceof Byte)
+                    && !(o instanceof Character) && !(o instanceof Enum)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Packet read(byte[] data) throws IOException, ClassNotFoundException {
+        synchronized (this) {
+            bytesReceived += data.length;
+        }
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(
+                data));
+        int command = in.readInt();
+        return new Packet(command, (Object[]) in.readObject());
+    }
+
+    /**
+     * Processes incoming packets, blocking until the connection is closed.
+     */
+    public void update() {
+        while (!closed) {
+            Object item;
+            try {
+                item = incoming.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (item == CLOSED) {
+                close();
+                return;
+            }
+            Packet packet;
+            try {
+                packet = (item instanceof Packet) ? (Packet) item
+                        : read((byte[]) item);
+            } catch (Exception e) {
+                e.printStackTrace();
+                close();
+                return;
+            }
+            processConnectionEvent(new PacketReceivedEvent(this, packet));
+        }
+    }
+
+    /**
+     * Packets are handed over as they are sent, there is nothing to flush.
+     */
+    public void flush() {
+    }
+
+    public boolean hasPending() {
+        return false;
+    }
+
+    public synchronized long bytesSent() {
+        return bytesSent;
+    }
+
+    public synchronized long bytesReceived() {
+        return bytesReceived;
+    }
+
+    public void addConnectionListener(ConnectionListener listener) {
+        connectionListeners.addElement(listener);
+    }
+
+    public void removeConnectionListener(ConnectionListener listener) {
+        connectionListeners.removeElement(listener);
+    }
+
+    private void processConnectionEvent(ConnectionEvent event) {
+        for (Enumeration<ConnectionListener> e = connectionListeners.elements(); e
+                .hasMoreElements();) {
+            ConnectionListener l = e.nextElement();
+            switch (event.getType()) {
+                case ConnectionEvent.CONNECTED:
+                    l.connected((ConnectedEvent) event);
+                    break;
+                case ConnectionEvent.DISCONNECTED:
+                    l.disconnected((DisconnectedEvent) event);
+                    break;
+                case ConnectionEvent.PACKET_RECEIVED:
+                    l.packetReceived((PacketReceivedEvent) event);
+                    break;
+            }
+        }
+    }
+}
@@ -53,6 +53,7 @@ public class Packet {
     public static final int COMMAND_ADD_SMOKE_CLOUD = 185;
     public static final int COMMAND_CHANGE_HEX = 190;
     public static final int COMMAND_CHANGE_HEXES= 195;
+    public static final int COMMAND_BOARD_DELTA = 197;
 
     public static final int COMMAND_BLDG_ADD = 200;
     public static final int COMMAND_BLDG_REMOVE = 210;
@@ -21,6 +21,8 @@ import java.util.Hashtable;
 import java.util.List;
 import java.util.Vector;
 
+import megamek.common.util.ChangeStamp;
+
 /**
  * Parent class for options settings
  */
@@ -31,6 +33,7 @@ public abstract class AbstractOptions implements IOptions, Serializable {
      */
     private static final long serialVersionUID = 6406883135074654379L;
     private Hashtable<String, IOption> optionsHash = new Hashtable<String, IOption>();
+    private transient volatile long changeStamp;
 
     protected AbstractOptions() {
         initialize();
@@ -65,6 +68,25 @@ public abstract class AbstractOptions implements IOptions, Serializable {
         return optionsHash.get(name);
     }
 
+    /**
+     * @return the {@link ChangeStamp} of the last change to any of these
+     *         options, or of their creation if none has been changed since
+     */
+    public long getChangeStamp() {
+        if (changeStamp == 0) {
+            changeStamp = ChangeStamp.next();
+        }
+        return changeStamp;
+    }
+
+    /**
+     * Called by the contained options whenever one of their values changes,
+     * and whenever an option is added or replaced.
+     */
+    void optionChanged() {
+        changeStamp = ChangeStamp.next();
+    }
+
     public boolean booleanOption(String name) {
         IOption opt = getOption(name);
         if (opt == null){
@@ -128,6 +150,7 @@ public abstract class AbstractOptions implements IOptions, Serializable {
             Object defaultValue) {
         optionsHash.put(name, new Option(this, name, type, defaultValue));
         getOptionsInfoImp().addOptionInfo(group, name);
+        optionChanged();
     }
 
     protected class GroupsEnumeration implements Enumeration<IOptionGroup> {
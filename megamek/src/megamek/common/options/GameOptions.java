@@ -39,10 +39,26 @@ public class GameOptions extends AbstractOptions {
     private static final long serialVersionUID = 4916321960852747706L;
     private static final String GAME_OPTIONS_FILE_NAME = "mmconf/gameoptions.xml"; //$NON-NLS-1$
 
+    private transient volatile GameOptionsSnapshot snapshot;
+
     public GameOptions() {
         super();
     }
 
+    /**
+     * @return the current values of the options the hot paths check, taken
+     *         again only after the options have been changed
+     */
+    public GameOptionsSnapshot getSnapshot() {
+        GameOptionsSnapshot result = snapshot;
+        if ((result == null)
+                || (result.getChangeStamp() != getChangeStamp())) {
+            result = new GameOptionsSnapshot(this);
+            snapshot = result;
+        }
+        return result;
+    }
+
     @Override
     public synchronized void initialize() {
         IBasicOptionGroup base = addGroup("basic"); //$NON-NLS-1$
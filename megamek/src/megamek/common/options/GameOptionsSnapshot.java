@@ -0,0 +1,229 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.options;
+
+/**
+ * The values of the game options that are looked at over and over while
+ * working out line of sight, ranges, ECM, movement and weapon fire, read once
+ * from the options so those loops don't look each of them up by name. A
+ * snapshot never changes; {@link GameOptions#getSnapshot()} takes a new one
+ * after any of the options has been changed.
+ * <p>
+ * Everything else, and everything outside the hot paths, keeps asking the
+ * options by name.
+ *
+ * @author The MegaMek Team
+ */
+public final class GameOptionsSnapshot {
+
+    private final long changeStamp;
+
+    private final boolean friendlyFire;
+    private final boolean indirectFire;
+    private final boolean indirectAlwaysPossible;
+    private final boolean doubleBlind;
+    private final boolean eccm;
+    private final boolean extremeRange;
+    private final boolean losRange;
+    private final boolean woodsCover;
+    private final boolean diagramLos;
+    private final boolean partialCover;
+    private final boolean deadZones;
+    private final boolean stratOpsEcm;
+    private final boolean aeroSanity;
+    private final boolean uacTwoRolls;
+    private final boolean walkBackwards;
+    private final boolean sprint;
+    private final boolean leaping;
+    private final boolean psrJumpHeavyWoods;
+    private final boolean noNightMovePenalty;
+    private final boolean fuelConsumption;
+
+    GameOptionsSnapshot(GameOptions options) {
+        changeStamp = options.getChangeStamp();
+        friendlyFire = options.booleanOption(OptionsConstants.BASE_FRIENDLY_FIRE);
+        indirectFire = options.booleanOption(OptionsConstants.BASE_INDIRECT_FIRE);
+        indirectAlwaysPossible = options
+                .booleanOption(OptionsConstants.ADVCOMBAT_INDIRECT_ALWAYS_POSSIBLE);
+        doubleBlind = options.booleanOption(OptionsConstants.ADVANCED_DOUBLE_BLIND);
+        eccm = options.booleanOption(OptionsConstants.ADVANCED_TACOPS_ECCM);
+        extremeRange = options.booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_RANGE);
+        losRange = options.booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_LOS_RANGE);
+        woodsCover = options.booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_WOODS_COVER);
+        diagramLos = options.booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_LOS1);
+        partialCover = options
+                .booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER);
+        deadZones = options.booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_DEAD_ZONES);
+        stratOpsEcm = options.booleanOption(OptionsConstants.ADVAERORULES_STRATOPS_ECM);
+        aeroSanity = options.booleanOption(OptionsConstants.ADVAERORULES_AERO_SANITY);
+        uacTwoRolls = options.booleanOption(OptionsConstants.ADVCOMBAT_UAC_TWOROLLS);
+        walkBackwards = options
+                .booleanOption(OptionsConstants.ADVGRNDMOV_TACOPS_WALK_BACKWARDS);
+        sprint = options.booleanOption(OptionsConstants.ADVGRNDMOV_TACOPS_SPRINT);
+        leaping = options.booleanOption(OptionsConstants.ADVGRNDMOV_TACOPS_LEAPING);
+        psrJumpHeavyWoods = options
+                .booleanOption(OptionsConstants.ADVGRNDMOV_PSR_JUMP_HEAVY_WOODS);
+        noNightMovePenalty = options
+                .booleanOption(OptionsConstants.ADVGRNDMOV_NO_NIGHT_MOVE_PEN);
+        fuelConsumption = options
+                .booleanOption(OptionsConstants.ADVAERORULES_FUEL_CONSUMPTION);
+    }
+
+    /**
+     * @return the change stamp of the options this was taken from
+     */
+    long getChangeStamp() {
+        return changeStamp;
+    }
+
+    /**
+     * @see OptionsConstants#BASE_FRIENDLY_FIRE
+     */
+    public boolean isFriendlyFire() {
+        return friendlyFire;
+    }
+
+    /**
+     * @see OptionsConstants#BASE_INDIRECT_FIRE
+     */
+    public boolean isIndirectFire() {
+        return indirectFire;
+    }
+
+    /**
+     * @see OptionsConstants#ADVCOMBAT_INDIRECT_ALWAYS_POSSIBLE
+     */
+    public boolean isIndirectAlwaysPossible() {
+        return indirectAlwaysPossible;
+    }
+
+    /**
+     * @see OptionsConstants#ADVANCED_DOUBLE_BLIND
+     */
+    public boolean isDoubleBlind() {
+        return doubleBlind;
+    }
+
+    /**
+     * @see OptionsConstants#ADVANCED_TACOPS_ECCM
+     */
+    public boolean isEccm() {
+        return eccm;
+    }
+
+    /**
+     * @see OptionsConstants#ADVCOMBAT_TACOPS_RANGE
+     */
+    public boolean isExtremeRange() {
+        return extremeRange;
+    }
+
+    /**
+     * @see OptionsConstants#ADVCOMBAT_TACOPS_LOS_RANGE
+     */
+    public boolean isLosRange() {
+        return losRange;
+    }
+
+    /**
+     * @see OptionsConstants#ADVCOMBAT_TACOPS_WOODS_COVER
+     */
+    public boolean isWoodsCover() {
+        return woodsCover;
+    }
+
+    /**
+     * @see OptionsConstants#ADVCOMBAT_TACOPS_LOS1
+     */
+    public boolean isDiagramLos() {
+        return diagramLos;
+    }
+
+    /**
+     * @see OptionsConstants#ADVCOMBAT_TACOPS_PARTIAL_COVER
+     */
+    public boolean isPartialCover() {
+        return partialCover;
+    }
+
+    /**
+     * @see OptionsConstants#ADVCOMBAT_TACOPS_DEAD_ZONES
+     */
+    public boolean isDeadZones() {
+        return deadZones;
+    }
+
+    /**
+     * @see OptionsConstants#ADVAERORULES_STRATOPS_ECM
+     */
+    public boolean isStratOpsEcm() {
+        return stratOpsEcm;
+    }
+
+    /**
+     * @see OptionsConstants#ADVAERORULES_AERO_SANITY
+     */
+    public boolean isAeroSanity() {
+        return aeroSanity;
+    }
+
+    /**
+     * @see OptionsConstants#ADVCOMBAT_UAC_TWOROLLS
+     */
+    public boolean isUacTwoRolls() {
+        return uacTwoRolls;
+    }
+
+    /**
+     * @see OptionsConstants#ADVGRNDMOV_TACOPS_WALK_BACKWARDS
+     */
+    public boolean isWalkBackwards() {
+        return walkBackwards;
+    }
+
+    /**
+     * @see OptionsConstants#ADVGRNDMOV_TACOPS_SPRINT
+     */
+    public boolean isSprint() {
+        return sprint;
+    }
+
+    /**
+     * @see OptionsConstants#ADVGRNDMOV_TACOPS_LEAPING
+     */
+    public boolean isLeaping() {
+        return leaping;
+    }
+
+    /**
+     * @see OptionsConstants#ADVGRNDMOV_PSR_JUMP_HEAVY_WOODS
+     */
+    public boolean isPsrJumpHeavyWoods() {
+        return psrJumpHeavyWoods;
+    }
+
+    /**
+     * @see OptionsConstants#ADVGRNDMOV_NO_NIGHT_MOVE_PEN
+     */
+    public boolean isNoNightMovePenalty() {
+        return noNightMovePenalty;
+    }
+
+    /**
+     * @see OptionsConstants#ADVAERORULES_FUEL_CONSUMPTION
+     */
+    public boolean isFuelConsumption() {
+        return fuelConsumption;
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.pathfinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import megamek.common.Aero;
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.EntityMovementMode;
+import megamek.common.IBoard;
+import megamek.common.IHex;
+import megamek.common.VTOL;
+import megamek.common.util.Metrics;
+
+/**
+ * The movement points it takes to get from every hex of a board to the
+ * nearest of a set of target hexes, such as the centre of the board, one of
+ * its edges or some objectives. A field is filled by a single Dijkstra search
+ * going backwards from all the targets at once, so asking for the distance of
+ * any hex afterwards is an array lookup instead of a path search.
+ * <p>
+ * The costs are an estimate for planning, not the movement rules: every hex
+ * entered costs one MP plus the MP its terrain adds for the unit and one MP
+ * per level of elevation change. Hexes the unit is prohibited from entering
+ * and elevation changes larger than it can make are impassable. Units that
+ * jump or fly pay one MP per hex and pass over everything.
+ * <p>
+ * Fields are shared by all units that move the same way, that is with the
+ * same movement mode and the same largest elevation change, and are kept
+ * until any hex of the board is set again. The first unit that asks for a
+ * field stands in for all the others when it comes to prohibited terrain.
+ *
+ * @author The MegaMek Team
+ */
+public class DistanceField {
+
+    /**
+     * The cost of hexes from which no target can be reached
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * The elevation class of units that jump or fly
+     */
+    private static final int AIRBORNE = Integer.MAX_VALUE;
+
+    private static final String CENTER = "center"; //$NON-NLS-1$
+
+    private static final Metrics.Timer BUILD_TIMER = Metrics.getInstance()
+            .timer("pathfinder.distanceField");
+
+    private static final Map<IBoard, BoardFields> fieldsByBoard = Collections
+            .synchronizedMap(new WeakHashMap<IBoard, BoardFields>());
+
+    private final int width;
+    private final int height;
+    private final int[] costs;
+
+    private DistanceField(int width, int height, int[] costs) {
+        this.width = width;
+        this.height = height;
+        this.costs = costs;
+    }
+
+    /**
+     * @param entity  the unit, on the board it moves on
+     * @param jumping <code>true</code> to plan jumps instead of ground movement
+     * @return the field of the centre hex of the board
+     */
+    public static DistanceField toCenter(Entity entity, boolean jumping) {
+        return get(entity, jumping, CENTER);
+    }
+
+    /**
+     * @param entity the unit, on the board it moves on
+     * @param edge   one of {@link Board#START_N}, {@link Board#START_S},
+     *               {@link Board#START_E} or {@link Board#START_W}
+     * @return the field of all hexes along the edge of the board
+     */
+    public static DistanceField toEdge(Entity entity, int edge) {
+        if ((edge != Board.START_N) && (edge != Board.START_S)
+                && (edge != Board.START_E) && (edge != Board.START_W)) {
+            throw new IllegalArgumentException("Not a board edge: " + edge); //$NON-NLS-1$
+        }
+        return get(entity, false, edge);
+    }
+
+    /**
+     * @param entity the unit, on the board it moves on
+     * @param hexes  the objectives
+     * @return the field of the nearest of the objectives
+     */
+    public static DistanceField toHexes(Entity entity,
+            Collection<Coords> hexes) {
+        return get(entity, false,
+                Collections.unmodifiableSet(new HashSet<Coords>(hexes)));
+    }
+
+    /**
+     * @return the MP it takes to get from the hex to the nearest target, or
+     *         {@link #UNREACHABLE} for hexes from which no target can be
+     *         reached and hexes off the board
+     */
+    public int getCost(Coords c) {
+        if ((c == null) || (c.getX() < 0) || (c.getY() < 0)
+                || (c.getX() >= width) || (c.getY() >= height)) {
+            return UNREACHABLE;
+        }
+        return costs[(c.getY() * width) + c.getX()];
+    }
+
+    /**
+     * @return true if a target can be reached from the hex
+     */
+    public boolean isReachable(Coords c) {
+        return getCost(c) != UNREACHABLE;
+    }
+
+    private static DistanceField get(final Entity entity, boolean jumping,
+            final Object target) {
+        final IBoard board = entity.getGame().getBoard();
+        final int elevationClass = (jumping || (entity instanceof Aero)
+                || (entity instanceof VTOL)
+                || (entity.getMovementMode() == EntityMovementMode.WIGE))
+                ? AIRBORNE : entity.getMaxElevationChange();
+        // everything that flies moves the same way
+        EntityMovementMode mode = (elevationClass == AIRBORNE) ? null
+                : entity.getMovementMode();
+        BoardFields fields;
+        synchronized (fieldsByBoard) {
+            fields = fieldsByBoard.get(board);
+            if ((fields == null) || (fields.stamp != board.getChangeStamp())) {
+                fields = new BoardFields(board.getChangeStamp());
+                fieldsByBoard.put(board, fields);
+            }
+        }
+        Key key = new Key(mode, elevationClass, target);
+        DistanceField field = fields.fields.get(key);
+        if (field == null) {
+            field = build(board, entity, elevationClass,
+                    targets(board, target));
+            DistanceField other = fields.fields.putIfAbsent(key, field);
+            if (other != null) {
+                field = other;
+            }
+        }
+        return field;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Coords> targets(IBoard board, Object target) {
+        if (target instanceof Set) {
+            return new ArrayList<Coords>((Set<Coords>) target);
+        }
+        List<Coords> result = new ArrayList<Coords>();
+        if (CENTER.equals(target)) {
+            result.add(board.getCenter());
+            return result;
+        }
+        int edge = (Integer) target;
+        if ((edge == Board.START_N) || (edge == Board.START_S)) {
+            int y = (edge == Board.START_N) ? 0 : board.getHeight() - 1;
+            for (int x = 0; x < board.getWidth(); x++) {
+                result.add(new Coords(x, y));
+            }
+        } else {
+            int x = (edge == Board.START_W) ? 0 : board.getWidth() - 1;
+            for (int y = 0; y < board.getHeight(); y++) {
+                result.add(new Coords(x, y));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs the search from the targets.
+     */
+    static DistanceField build(IBoard board, Entity entity,
+            int elevationClass, Collection<Coords> targets) {
+        long start = BUILD_TIMER.start();
+        try {
+            int width = board.getWidth();
+            int height = board.getHeight();
+            int size = width * height;
+            int[] costs = new int[size];
+            Arrays.fill(costs, UNREACHABLE);
+            boolean airborne = elevationClass == AIRBORNE;
+            boolean[] passable = new boolean[size];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    Coords c = new Coords(x, y);
+                    passable[(y * width) + x] = (board.getHex(x, y) != null)
+                            && (airborne || !entity.isLocationProhibited(c));
+                }
+            }
+
+            // queue entries are the cost in the high and the hex in the low
+            // bits, so stale entries for hexes that got cheaper sort after
+            PriorityQueue<Long> queue = new PriorityQueue<Long>();
+            for (Coords c : targets) {
+                if (!board.contains(c)) {
+                    continue;
+                }
+                int index = (c.getY() * width) + c.getX();
+                if (passable[index] && (costs[index] != 0)) {
+                    costs[index] = 0;
+                    queue.add((long) index);
+                }
+            }
+            while (!queue.isEmpty()) {
+                long entry = queue.poll();
+                int index = (int) entry;
+                int cost = (int) (entry >>> 32);
+                if (cost > costs[index]) {
+                    continue;
+                }
+                int x = index % width;
+                int y = index / width;
+                IHex hex = board.getHex(x, y);
+                for (int dir = 0; dir < 6; dir++) {
+                    int fromX = Coords.xInDir(x, y, dir);
+                    int fromY = Coords.yInDir(x, y, dir);
+                    if (!board.contains(fromX, fromY)) {
+                        continue;
+                    }
+                    int from = (fromY * width) + fromX;
+                    if (!passable[from]) {
+                        continue;
+                    }
+                    int step = stepCost(board.getHex(fromX, fromY), hex,
+                            entity, elevationClass);
+                    if ((step >= 0) && (cost + step < costs[from])) {
+                        costs[from] = cost + step;
+                        queue.add(((long) costs[from] << 32) | from);
+                    }
+                }
+            }
+            return new DistanceField(width, height, costs);
+        } finally {
+            BUILD_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * @return the MP it takes to move from one hex into its neighbour, or -1
+     *         if the unit can't make the elevation change
+     */
+    private static int stepCost(IHex from, IHex to, Entity entity,
+            int elevationClass) {
+        if (elevationClass == AIRBORNE) {
+            return 1;
+        }
+        int change = Math.abs(to.getLevel() - from.getLevel());
+        if (change > elevationClass) {
+            return -1;
+        }
+        return 1 + change + Math.max(0, to.movementCost(entity));
+    }
+
+    /**
+     * The fields of one board, as long as none of its hexes has been set
+     */
+    private static class BoardFields {
+        final long stamp;
+        final Map<Key, DistanceField> fields = new ConcurrentHashMap<Key, DistanceField>();
+
+        BoardFields(long stamp) {
+            this.stamp = stamp;
+        }
+    }
+
+    private static class Key {
+        private final EntityMovementMode mode;
+        private final int elevationClass;
+        private final Object target;
+
+        Key(EntityMovementMode mode, int elevationClass, Object target) {
+            this.mode = mode;
+            this.elevationClass = elevationClass;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return (mode == other.mode)
+                    && (elevationClass == other.elevationClass)
+                    && target.equals(other.target);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (mode == null) ? 0 : mode.hashCode();
+            result = (31 * result) + elevationClass;
+            return (31 * result) + target.hashCode();
+        }
+    }
+}
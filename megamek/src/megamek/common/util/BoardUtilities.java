@@ -18,9 +18,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 import megamek.common.Board;
 import megamek.common.Compute;
@@ -43,6 +46,20 @@ public class BoardUtilities {
         elevationGenerators.add(new SimplexGenerator());
     }
 
+    /*
+     * The stages of random map generation. Each stage gets its own random
+     * number generator, seeded from the map seed and the stage, so a change in
+     * one stage does not shift the random numbers of the stages after it.
+     */
+    private static final int STAGE_ELEVATION = 1;
+    private static final int STAGE_MOUNTAINS = 2;
+    private static final int STAGE_CLIFFS = 3;
+    private static final int STAGE_TERRAIN = 4;
+    private static final int STAGE_CRATERS = 5;
+    private static final int STAGE_RIVER = 6;
+    private static final int STAGE_EFFECTS = 7;
+    private static final int STAGE_CITY = 8;
+
     /** @return how many elevation generator algorithms there are; three built-in */
     public static int getAmountElevationGenerators() {
         return 3 + elevationGenerators.size();
@@ -125,28 +142,34 @@ public class BoardUtilities {
     }
 
     /**
-     * Generates a Random Board
+     * Generates a Random Board. The board only depends on the map settings and
+     * their random seed; if the seed is 0, a new one is picked every time.
+     * Stages that work on each hex on its own run in parallel, with random
+     * numbers that depend on the hex rather than on the order the hexes are
+     * worked on, so the result does not depend on the number of threads.
      *
      * @param mapSettings The parameters for random board creation.
      */
     public static IBoard generateRandom(MapSettings mapSettings) {
-        int elevationMap[][] = new int[mapSettings.getBoardWidth()][mapSettings
-                .getBoardHeight()];
-        double sizeScale = (double) (mapSettings.getBoardWidth() * mapSettings
-                .getBoardHeight())
-                / ((double) (16 * 17));
-
-        generateElevation(mapSettings.getHilliness(), mapSettings
-                .getBoardWidth(), mapSettings.getBoardHeight(), mapSettings
-                .getRange() + 1, mapSettings.getProbInvert(), mapSettings
-                .getInvertNegativeTerrain(), elevationMap, mapSettings
-                .getAlgorithmToUse());
-
-        IHex[] nb = new IHex[mapSettings.getBoardWidth()
-                * mapSettings.getBoardHeight()];
+        long seed = mapSettings.getRandomSeed();
+        if (seed == 0) {
+            seed = newSeed();
+        }
+        final int width = mapSettings.getBoardWidth();
+        final int height = mapSettings.getBoardHeight();
+        int elevationMap[][] = new int[width][height];
+        double sizeScale = (double) (width * height) / ((double) (16 * 17));
+
+        generateElevation(mapSettings.getHilliness(), width, height,
+                mapSettings.getRange() + 1, mapSettings.getProbInvert(),
+                mapSettings.getInvertNegativeTerrain(), elevationMap,
+                mapSettings.getAlgorithmToUse(),
+                stageRandom(seed, STAGE_ELEVATION));
+
+        IHex[] nb = new IHex[width * height];
         int index = 0;
-        for (int h = 0; h < mapSettings.getBoardHeight(); h++) {
-            for (int w = 0; w < mapSettings.getBoardWidth(); w++) {
+        for (int h = 0; h < height; h++) {
+            for (int w = 0; w < width; w++) {
                 if(mapSettings.getMedium() == MapSettings.MEDIUM_SPACE) {
                     nb[index++] = new Hex(0,"space:1",mapSettings.getTheme(), new Coords(w,h));
                 } else {
@@ -156,8 +179,7 @@ public class BoardUtilities {
             }
         }
 
-        IBoard result = new Board(mapSettings.getBoardWidth(), mapSettings
-                .getBoardHeight(), nb);
+        IBoard result = new Board(width, height, nb);
 
         if(mapSettings.getMedium() == MapSettings.MEDIUM_SPACE) {
             result.setType(Board.T_SPACE);
@@ -166,195 +188,241 @@ public class BoardUtilities {
 
         /* initalize reverseHex */
         HashMap<IHex, Point> reverseHex = new HashMap<IHex, Point>(2
-                * mapSettings.getBoardWidth() * mapSettings.getBoardHeight());
-        for (int y = 0; y < mapSettings.getBoardHeight(); y++) {
-            for (int x = 0; x < mapSettings.getBoardWidth(); x++) {
+                * width * height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
                 reverseHex.put(result.getHex(x, y), new Point(x, y));
             }
         }
 
+        addMountains(result, mapSettings, stageRandom(seed, STAGE_MOUNTAINS));
+
+        if (mapSettings.getCliffs() > 0) {
+            addCliffs(result, mapSettings.getCliffs(),
+                    stageRandom(seed, STAGE_CLIFFS));
+        }
+
+        addTerrain(result, mapSettings, sizeScale, reverseHex,
+                stageRandom(seed, STAGE_TERRAIN));
+
+        /* Add the craters */
+        Random rnd = stageRandom(seed, STAGE_CRATERS);
+        if (rnd.nextInt(100) < mapSettings.getProbCrater()) {
+            addCraters(result, mapSettings.getMinRadius(), mapSettings.getMaxRadius(),
+                    (int) (mapSettings.getMinCraters() * sizeScale),
+                    (int) (mapSettings.getMaxCraters() * sizeScale), rnd);
+        }
+
+        /* Add the river */
+        rnd = stageRandom(seed, STAGE_RIVER);
+        if (rnd.nextInt(100) < mapSettings.getProbRiver()) {
+            addRiver(result, reverseHex, rnd);
+        }
+
+        /* Add special effects */
+        rnd = stageRandom(seed, STAGE_EFFECTS);
+        if (rnd.nextInt(100) < mapSettings.getProbFlood()) {
+            postProcessFlood(nb, mapSettings.getFxMod());
+        }
+        if (rnd.nextInt(100) < mapSettings.getProbDrought()) {
+            postProcessDrought(nb, mapSettings.getFxMod(), rnd);
+        }
+        if (rnd.nextInt(100) < mapSettings.getProbFreeze()) {
+            postProcessDeepFreeze(nb, mapSettings.getFxMod(), rnd.nextLong());
+        }
+        if (rnd.nextInt(100) < mapSettings.getProbForestFire()) {
+            postProcessForestFire(nb, mapSettings.getFxMod(), rnd.nextLong());
+        }
+
+        /* Add the road */
+        rnd = stageRandom(seed, STAGE_CITY);
+        boolean roadNeeded = false;
+        if (rnd.nextInt(100) < mapSettings.getProbRoad()) {
+            roadNeeded = true;
+        }
+
+        // add buildings
+        ArrayList<BuildingTemplate> buildings = mapSettings.getBoardBuildings();
+        CityBuilder cityBuilder = new CityBuilder(mapSettings, result, rnd);
+        if (buildings.size() == 0) {
+            buildings = cityBuilder.generateCity(roadNeeded);
+        }
+        for (int i = 0; i < buildings.size(); i++) {
+            placeBuilding(result, (buildings.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * @return the random number generator of a stage of map generation
+     */
+    private static Random stageRandom(long seed, int stage) {
+        return new Random(mix(seed + (stage * 0x9E3779B97F4A7C15L)));
+    }
+
+    /**
+     * @return the random number generator for a single hex in a stage that
+     *         works on each hex on its own
+     */
+    private static Random hexRandom(long stageSeed, int index) {
+        return new Random(mix(stageSeed + (index * 0x9E3779B97F4A7C15L)));
+    }
+
+    /**
+     * Scrambles the bits of a seed, so that seeds that are close together
+     * give unrelated random numbers.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void addMountains(IBoard result, MapSettings mapSettings,
+            Random rnd) {
         int peaks = mapSettings.getMountainPeaks();
         while (peaks > 0) {
             peaks--;
             int mountainHeight = mapSettings.getMountainHeightMin()
-                    + Compute.randomInt(1 + mapSettings.getMountainHeightMax()
+                    + rnd.nextInt(1 + mapSettings.getMountainHeightMax()
                             - mapSettings.getMountainHeightMin());
             int mountainWidth = mapSettings.getMountainWidthMin()
-                    + Compute.randomInt(1 + mapSettings.getMountainWidthMax()
+                    + rnd.nextInt(1 + mapSettings.getMountainWidthMax()
                             - mapSettings.getMountainWidthMin());
             int mapWidth = result.getWidth();
             int mapHeight = result.getHeight();
 
             // put the peak somewhere in the middle of the map...
             Coords peak = new Coords(mapWidth / 4
-                    + Compute.randomInt((mapWidth + 1) / 2), mapHeight / 4
-                    + Compute.randomInt((mapHeight + 1) / 2));
+                    + rnd.nextInt((mapWidth + 1) / 2), mapHeight / 4
+                    + rnd.nextInt((mapHeight + 1) / 2));
 
             generateMountain(result, mountainWidth, peak, mountainHeight,
-                    mapSettings.getMountainStyle());
-        }
-
-        if (mapSettings.getCliffs() > 0) {
-            addCliffs(result, mapSettings.getCliffs());
+                    mapSettings.getMountainStyle(), rnd.nextLong());
         }
+    }
 
+    /**
+     * Scatters woods, rough, sand, fields, swamps, fortifications, rubble,
+     * water, pavement and ice over the board. The spots grow hex by hex into
+     * the terrain placed before them, so this runs in order.
+     */
+    private static void addTerrain(IBoard result, MapSettings mapSettings,
+            double sizeScale, HashMap<IHex, Point> reverseHex, Random rnd) {
         /* Add the woods */
         int count = mapSettings.getMinForestSpots();
         if (mapSettings.getMaxForestSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxForestSpots());
+            count += rnd.nextInt(mapSettings.getMaxForestSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.WOODS,
                     mapSettings.getProbHeavy(), mapSettings.getMinForestSize(),
-                    mapSettings.getMaxForestSize(), reverseHex, true);
+                    mapSettings.getMaxForestSize(), reverseHex, true, rnd);
         }
         /* Add the rough */
         count = mapSettings.getMinRoughSpots();
         if (mapSettings.getMaxRoughSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxRoughSpots());
+            count += rnd.nextInt(mapSettings.getMaxRoughSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.ROUGH, 0, mapSettings
                     .getMinRoughSize(), mapSettings.getMaxRoughSize(),
-                    reverseHex, true);
+                    reverseHex, true, rnd);
         }
         /* Add the sand */
         count = mapSettings.getMinSandSpots();
         if (mapSettings.getMaxSandSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxSandSpots());
+            count += rnd.nextInt(mapSettings.getMaxSandSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.SAND, 0, mapSettings
                     .getMinSandSize(), mapSettings.getMaxSandSize(),
-                    reverseHex, true);
+                    reverseHex, true, rnd);
         }
         /* Add the planted field */
         count = mapSettings.getMinPlantedFieldSpots();
         if (mapSettings.getMaxPlantedFieldSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxPlantedFieldSpots());
+            count += rnd.nextInt(mapSettings.getMaxPlantedFieldSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.FIELDS, 0, mapSettings
                     .getMinPlantedFieldSize(), mapSettings.getMaxPlantedFieldSize(),
-                    reverseHex, true);
+                    reverseHex, true, rnd);
         }
         /* Add the swamp */
         count = mapSettings.getMinSwampSpots();
         if (mapSettings.getMaxSwampSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxSwampSpots());
+            count += rnd.nextInt(mapSettings.getMaxSwampSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.SWAMP, 0, mapSettings
                     .getMinSwampSize(), mapSettings.getMaxSwampSize(),
-                    reverseHex, false); // can stack with woods or roughs
+                    reverseHex, false, rnd); // can stack with woods or roughs
         }
 
         // Add the Fortified hexes
         count = mapSettings.getMinFortifiedSpots();
         if (mapSettings.getMaxFortifiedSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxFortifiedSpots());
+            count += rnd.nextInt(mapSettings.getMaxFortifiedSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.FORTIFIED, 0, mapSettings
                     .getMinFortifiedSize(), mapSettings.getMaxFortifiedSize(),
-                    reverseHex, false);
+                    reverseHex, false, rnd);
         }
 
         // Add the rubble
         count = mapSettings.getMinRubbleSpots();
         if (mapSettings.getMaxRubbleSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxRubbleSpots());
+            count += rnd.nextInt(mapSettings.getMaxRubbleSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.RUBBLE, 0, mapSettings
                     .getMinRubbleSize(), mapSettings.getMaxRubbleSize(),
-                    reverseHex, true);
+                    reverseHex, true, rnd);
         }
 
         /* Add the water */
         count = mapSettings.getMinWaterSpots();
         if (mapSettings.getMaxWaterSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxWaterSpots());
+            count += rnd.nextInt(mapSettings.getMaxWaterSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.WATER, mapSettings.getProbDeep(),
                     mapSettings.getMinWaterSize(), mapSettings
-                            .getMaxWaterSize(), reverseHex, true);
+                            .getMaxWaterSize(), reverseHex, true, rnd);
         }
         /* Add the pavements */
         count = mapSettings.getMinPavementSpots();
         if (mapSettings.getMaxPavementSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxPavementSpots());
+            count += rnd.nextInt(mapSettings.getMaxPavementSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.PAVEMENT, 0, mapSettings
                     .getMinPavementSize(), mapSettings.getMaxPavementSize(),
-                    reverseHex, true);
+                    reverseHex, true, rnd);
         }
 
         /* Add the ice */
         count = mapSettings.getMinIceSpots();
         if (mapSettings.getMaxIceSpots() > 0) {
-            count += Compute.randomInt(mapSettings.getMaxIceSpots());
+            count += rnd.nextInt(mapSettings.getMaxIceSpots());
         }
         count *= sizeScale;
         for (int i = 0; i < count; i++) {
             placeSomeTerrain(result, Terrains.ICE, 0, mapSettings
                     .getMinIceSize(), mapSettings.getMaxIceSize(), reverseHex,
-                    true);
-        }
-
-        /* Add the craters */
-        if (Compute.randomInt(100) < mapSettings.getProbCrater()) {
-            addCraters(result, mapSettings.getMinRadius(), mapSettings.getMaxRadius(),
-                    (int) (mapSettings.getMinCraters() * sizeScale),
-                    (int) (mapSettings.getMaxCraters() * sizeScale));
-        }
-
-        /* Add the river */
-        if (Compute.randomInt(100) < mapSettings.getProbRiver()) {
-            addRiver(result, reverseHex);
-        }
-
-        /* Add special effects */
-        if (Compute.randomInt(100) < mapSettings.getProbFlood()) {
-            postProcessFlood(nb, mapSettings.getFxMod());
-        }
-        if (Compute.randomInt(100) < mapSettings.getProbDrought()) {
-            postProcessDrought(nb, mapSettings.getFxMod());
-        }
-        if (Compute.randomInt(100) < mapSettings.getProbFreeze()) {
-            postProcessDeepFreeze(nb, mapSettings.getFxMod());
-        }
-        if (Compute.randomInt(100) < mapSettings.getProbForestFire()) {
-            postProcessForestFire(nb, mapSettings.getFxMod());
-        }
-
-        /* Add the road */
-        boolean roadNeeded = false;
-        if (Compute.randomInt(100) < mapSettings.getProbRoad()) {
-            roadNeeded = true;
-        }
-
-        // add buildings
-        ArrayList<BuildingTemplate> buildings = mapSettings.getBoardBuildings();
-        CityBuilder cityBuilder = new CityBuilder(mapSettings, result);
-        if (buildings.size() == 0) {
-            buildings = cityBuilder.generateCity(roadNeeded);
+                    true, rnd);
         }
-        for (int i = 0; i < buildings.size(); i++) {
-            placeBuilding(result, (buildings.get(i)));
-        }
-        return result;
     }
 
     private static void placeBuilding(IBoard board, BuildingTemplate building) {
@@ -402,19 +470,22 @@ public class BoardUtilities {
      * @param maxHexes Maximum number of hexes this terrain can cover.
      * @param reverseHex
      * @param exclusive Set TRUE if this terrain cannot be combined with any other terrain types.
+     * @param rnd The random number generator of this stage.
      */
     protected static void placeSomeTerrain(IBoard board, int terrainType, int probMore, int minHexes, int maxHexes,
-            HashMap<IHex, Point> reverseHex, boolean exclusive) {
-        Point p = new Point(Compute.randomInt(board.getWidth()), Compute
-                .randomInt(board.getHeight()));
+            HashMap<IHex, Point> reverseHex, boolean exclusive, Random rnd) {
+        Point p = new Point(rnd.nextInt(board.getWidth()),
+                rnd.nextInt(board.getHeight()));
         int count = minHexes;
         if ((maxHexes - minHexes) > 0) {
-            count += Compute.randomInt(maxHexes - minHexes);
+            count += rnd.nextInt(maxHexes - minHexes);
         }
         IHex field;
 
-        HashSet<IHex> alreadyUsed = new HashSet<IHex>();
-        HashSet<IHex> unUsed = new HashSet<IHex>();
+        // hexes hash by identity, so keep them in insertion order to get the
+        // same terrain from the same seed
+        LinkedHashSet<IHex> alreadyUsed = new LinkedHashSet<IHex>();
+        LinkedHashSet<IHex> unUsed = new LinkedHashSet<IHex>();
         field = board.getHex(p.x, p.y);
         if (!field.containsTerrain(terrainType)) {
             unUsed.add(field);
@@ -427,7 +498,7 @@ public class BoardUtilities {
             if (unUsed.isEmpty()) {
                 return;
             }
-            int which = Compute.randomInt(unUsed.size());
+            int which = rnd.nextInt(unUsed.size());
             Iterator<IHex> iter = unUsed.iterator();
             for (int n = 0; n < (which - 1); n++) {
                 iter.next();
@@ -436,7 +507,7 @@ public class BoardUtilities {
             if (exclusive) {
                 field.removeAllTerrains();
             }
-            int tempInt = (Compute.randomInt(100) < probMore) ? 2 : 1;
+            int tempInt = (rnd.nextInt(100) < probMore) ? 2 : 1;
             ITerrain tempTerrain = f.createTerrain(terrainType, tempInt);
             field.addTerrain(tempTerrain);
             unUsed.remove(field);
@@ -482,7 +553,7 @@ public class BoardUtilities {
             HashSet<IHex> alreadyUsed, HashSet<IHex> unUsed, IHex searchFrom,
             HashMap<IHex, Point> reverseHex) {
         IHex field;
-        HashSet<IHex> notYetUsed = new HashSet<IHex>();
+        HashSet<IHex> notYetUsed = new LinkedHashSet<IHex>();
 
         notYetUsed.add(searchFrom);
         do {
@@ -506,16 +577,35 @@ public class BoardUtilities {
         } while (!notYetUsed.isEmpty());
     }
 
+    /**
+     * @return a new seed from the map stream
+     */
+    private static long newSeed() {
+        return ((long) Compute.randomInt(Compute.RandomStream.MAP,
+                Integer.MAX_VALUE) << 32)
+                ^ Compute.randomInt(Compute.RandomStream.MAP,
+                        Integer.MAX_VALUE);
+    }
+
     /**
      * add a crater to the board
      */
     public static void addCraters(IBoard board, int minRadius, int maxRadius,
             int minCraters, int maxCraters) {
+        addCraters(board, minRadius, maxRadius, minCraters, maxCraters,
+                new Random(newSeed()));
+    }
+
+    /**
+     * add a crater to the board
+     */
+    public static void addCraters(IBoard board, int minRadius, int maxRadius,
+            int minCraters, int maxCraters, Random rnd) {
 
         // Calculate number of craters to generate.
         int numberCraters = minCraters;
         if (maxCraters > minCraters) {
-            numberCraters += Compute.randomInt(maxCraters - minCraters);
+            numberCraters += rnd.nextInt(maxCraters - minCraters);
         }
 
         // Stay within the board boundaries.
@@ -528,16 +618,16 @@ public class BoardUtilities {
         for (int i = 0; i < numberCraters; i++) {
 
             // Locate the center of the crater.
-            Point center = new Point(Compute.randomInt(width), Compute.randomInt(height));
+            Point center = new Point(rnd.nextInt(width), rnd.nextInt(height));
 
             // What is the diameter of this crater?
-            int radius = Compute.randomInt(maxRadius - minRadius) + minRadius;
+            int radius = rnd.nextInt(maxRadius - minRadius) + minRadius;
 
             // Terrestrial crater depth to radius ratio is typically 1:5 to 1:7.
             // Hexes are 30m across and levels are 6m high.
             // This ends up with rather deep craters (a 6-diameter crater can have a depth of 4-6).  For gamability
             // and verisimilitude, we're making crater's more shallow than is typical (1:8 to 1:10 ratio).
-            int divisor = Compute.randomInt(2) + 8;
+            int divisor = rnd.nextInt(2) + 8;
             int radiusM = radius * 30;
             int maxDepthM = Math.max(6, radiusM / divisor);
             int maxDepth = maxDepthM / 6;
@@ -638,8 +728,20 @@ public class BoardUtilities {
      * river goes from one border to another. Nor Params, no results.
      */
     public static void addRiver(IBoard board, HashMap<IHex, Point> reverseHex) {
+        addRiver(board, reverseHex, new Random(newSeed()));
+    }
+
+    /**
+     * Adds an River to the map (if the map is at least 5x5 hexes big). The
+     * river has an width of 1-3 hexes (everything else is no more a river). The
+     * river goes from one border to another.
+     *
+     * @param rnd The random number generator of this stage.
+     */
+    public static void addRiver(IBoard board, HashMap<IHex, Point> reverseHex,
+            Random rnd) {
         int minElevation = Integer.MAX_VALUE;
-        HashSet<IHex> riverHexes = new HashSet<IHex>();
+        HashSet<IHex> riverHexes = new LinkedHashSet<IHex>();
         IHex field;
         Point p = null;
         int direction = 0;
@@ -654,22 +756,22 @@ public class BoardUtilities {
             return;
         }
         /* First select start and the direction */
-        switch (Compute.randomInt(4)) {
+        switch (rnd.nextInt(4)) {
             case 0:
-                p = new Point(0, Compute.randomInt(5) - 2 + height / 2);
-                direction = Compute.randomInt(2) + 1;
+                p = new Point(0, rnd.nextInt(5) - 2 + height / 2);
+                direction = rnd.nextInt(2) + 1;
                 nextLeft = direction - 1;
                 nextRight = direction + 1;
                 break;
             case 1:
-                p = new Point(width - 1, Compute.randomInt(5) - 2 + height / 2);
-                direction = Compute.randomInt(2) + 4;
+                p = new Point(width - 1, rnd.nextInt(5) - 2 + height / 2);
+                direction = rnd.nextInt(2) + 4;
                 nextLeft = direction - 1;
                 nextRight = (direction + 1) % 6;
                 break;
             case 2:
             case 3:
-                p = new Point(Compute.randomInt(5) - 2 + width / 2, 0);
+                p = new Point(rnd.nextInt(5) - 2 + width / 2, 0);
                 direction = 2;
                 nextRight = 3;
                 nextLeft = 4;
@@ -685,11 +787,11 @@ public class BoardUtilities {
             riverHexes.add(field);
             p = reverseHex.get(field);
             /* then maybe the left and right neighbours */
-            riverHexes.addAll(extendRiverToSide(board, p, Compute.randomInt(3),
+            riverHexes.addAll(extendRiverToSide(board, p, rnd.nextInt(3),
                     nextLeft, reverseHex));
-            riverHexes.addAll(extendRiverToSide(board, p, Compute.randomInt(3),
+            riverHexes.addAll(extendRiverToSide(board, p, rnd.nextInt(3),
                     nextRight, reverseHex));
-            switch (Compute.randomInt(4)) {
+            switch (rnd.nextInt(4)) {
                 case 0:
                     field = board.getHexInDir(p.x, p.y, (direction + 5) % 6);
                     break;
@@ -704,7 +806,7 @@ public class BoardUtilities {
         } while (field != null);
 
         /* search the elevation for the river */
-        HashSet<IHex> tmpRiverHexes = new HashSet<IHex>(riverHexes);
+        HashSet<IHex> tmpRiverHexes = new LinkedHashSet<IHex>(riverHexes);
         while (!tmpRiverHexes.isEmpty()) {
             Iterator<IHex> iter = tmpRiverHexes.iterator();
             field = iter.next();
@@ -746,7 +848,7 @@ public class BoardUtilities {
     private static HashSet<IHex> extendRiverToSide(IBoard board, Point hexloc,
             int width, int direction, HashMap<IHex, Point> reverseHex) {
         Point current = new Point(hexloc);
-        HashSet<IHex> result = new HashSet<IHex>();
+        HashSet<IHex> result = new LinkedHashSet<IHex>();
         IHex hex;
 
         hex = board.getHexInDir(current.x, current.y, direction);
@@ -766,11 +868,9 @@ public class BoardUtilities {
      * more elevation
      */
     protected static void postProcessFlood(IHex[] hexSet, int modifier) {
-        int n;
-        IHex field;
         ITerrainFactory f = Terrains.getTerrainFactory();
-        for (n = 0; n < hexSet.length; n++) {
-            field = hexSet[n];
+        IntStream.range(0, hexSet.length).parallel().forEach(n -> {
+            IHex field = hexSet[n];
             int elev = field.getLevel() - modifier;
             if ((elev == 0) && !(field.containsTerrain(Terrains.WATER))
                     && !(field.containsTerrain(Terrains.PAVEMENT))) {
@@ -783,18 +883,19 @@ public class BoardUtilities {
                 field.addTerrain(f.createTerrain(Terrains.WATER, -elev));
                 field.setLevel(modifier);
             }
-        }
+        });
     }
 
     /**
      * Converts water hexes to ice hexes. Works best with snow&ice theme.
+     *
+     * @param seed the seed of the random numbers of each hex
      */
-    protected static void postProcessDeepFreeze(IHex[] hexSet, int modifier) {
-        int n;
-        IHex field;
+    protected static void postProcessDeepFreeze(IHex[] hexSet, int modifier,
+            long seed) {
         ITerrainFactory f = Terrains.getTerrainFactory();
-        for (n = 0; n < hexSet.length; n++) {
-            field = hexSet[n];
+        IntStream.range(0, hexSet.length).parallel().forEach(n -> {
+            IHex field = hexSet[n];
             if (field.containsTerrain(Terrains.WATER)) {
                 int level = field.terrainLevel(Terrains.WATER);
                 if (modifier != 0) {
@@ -809,7 +910,7 @@ public class BoardUtilities {
             } else if (field.containsTerrain(Terrains.SWAMP)) {
                 field.removeTerrain(Terrains.SWAMP);
                 if (field.terrainsPresent() == 0) {
-                    if (Compute.randomInt(100) < 30) {
+                    if (hexRandom(seed, n).nextInt(100) < 30) {
                         // if no other terrains present, 30% chance to change to
                         // rough
                         field.addTerrain(f.createTerrain(Terrains.ROUGH, 1));
@@ -818,24 +919,23 @@ public class BoardUtilities {
                     }
                 }
             }
-        }
+        });
     }
 
     /**
      * Burning woods, with chance to be burnt down already
+     *
+     * @param seed the seed of the random numbers of each hex
      */
-    protected static void postProcessForestFire(IHex[] hexSet, int modifier) {
-        int n;
-        IHex field;
-        int level, newlevel;
-        int severity;
+    protected static void postProcessForestFire(IHex[] hexSet, int modifier,
+            long seed) {
         ITerrainFactory f = Terrains.getTerrainFactory();
-        for (n = 0; n < hexSet.length; n++) {
-            field = hexSet[n];
-            level = field.terrainLevel(Terrains.WOODS);
+        IntStream.range(0, hexSet.length).parallel().forEach(n -> {
+            IHex field = hexSet[n];
+            int level = field.terrainLevel(Terrains.WOODS);
             if (level != ITerrain.LEVEL_NONE) {
-                severity = Compute.randomInt(5) - 2 + modifier;
-                newlevel = level - severity;
+                int severity = hexRandom(seed, n).nextInt(5) - 2 + modifier;
+                int newlevel = level - severity;
 
                 if (newlevel <= level) {
                     field.removeTerrain(Terrains.WOODS);
@@ -848,36 +948,36 @@ public class BoardUtilities {
                     }
                 }
             }
-        }
+        });
     }
 
     /**
      * Dries up all bodies of water by 1-3 levels. dried up water becomes swamp
      * then rough
      */
-    protected static void postProcessDrought(IHex[] hexSet, int modifier) {
-        int n;
-        IHex field;
-        int level, newlevel;
-        int severity = 1 + Compute.randomInt(3) + modifier;
+    protected static void postProcessDrought(IHex[] hexSet, int modifier,
+            Random rnd) {
+        int severity = 1 + rnd.nextInt(3) + modifier;
         if (severity < 0) {
             return;
         }
+        long seed = rnd.nextLong();
         ITerrainFactory f = Terrains.getTerrainFactory();
-        for (n = 0; n < hexSet.length; n++) {
-            field = hexSet[n];
+        IntStream.range(0, hexSet.length).parallel().forEach(n -> {
+            IHex field = hexSet[n];
             if (field.containsTerrain(Terrains.SWAMP)) {
                 field.removeTerrain(Terrains.SWAMP); // any swamps are dried
                                                         // up to hardened mud
-                if ((field.terrainsPresent() == 0) && (Compute.randomInt(100) < 30)) {
+                if ((field.terrainsPresent() == 0)
+                        && (hexRandom(seed, n).nextInt(100) < 30)) {
                     // if no other terrains present, 30% chance to change to
                     // rough
                     field.addTerrain(f.createTerrain(Terrains.ROUGH, 1));
                 }
             }
-            level = field.terrainLevel(Terrains.WATER);
+            int level = field.terrainLevel(Terrains.WATER);
             if (level != ITerrain.LEVEL_NONE) {
-                newlevel = level - severity;
+                int newlevel = level - severity;
                 field.removeTerrain(Terrains.WATER);
                 if (newlevel == 0) {
                     field.addTerrain(f.createTerrain(Terrains.SWAMP, 1));
@@ -894,7 +994,7 @@ public class BoardUtilities {
 
                 field.setLevel(field.getLevel() - newlevel);
             }
-        }
+        });
     }
 
     private static boolean hexCouldBeCliff(IBoard board, Coords c) {
@@ -940,7 +1040,7 @@ public class BoardUtilities {
         }
     }
 
-    protected static void addCliffs(IBoard board, int modifier) {
+    protected static void addCliffs(IBoard board, int modifier, Random rnd) {
         HashSet<Coords> ignore = new HashSet<Coords>(); // previously considered
                                                         // hexes
         ArrayList<Coords> candidate = new ArrayList<Coords>();
@@ -958,7 +1058,7 @@ public class BoardUtilities {
 
                 findCliffNeighbours(board, c, candidate, ignore);
                 // is the candidate interesting (at least 3 hexes)?
-                if ((candidate.size() >= 3) && (Compute.randomInt(100) < modifier)) {
+                if ((candidate.size() >= 3) && (rnd.nextInt(100) < modifier)) {
                     if (elevation > 0) {
                         elevation--;
                     } else {
@@ -1045,7 +1145,7 @@ public class BoardUtilities {
     }
 
     /**
-     * Generates the elevations
+     * Generates the elevations, with random numbers from the map stream
      *
      * @param hilliness The Hilliness
      * @param width The Width of the map.
@@ -1058,9 +1158,28 @@ public class BoardUtilities {
     public static void generateElevation(int hilliness, int width, int height,
             int range, int invertProb, int invertNegative,
             int elevationMap[][], int algorithm) {
+        generateElevation(hilliness, width, height, range, invertProb,
+                invertNegative, elevationMap, algorithm, new Random(newSeed()));
+    }
+
+    /**
+     * Generates the elevations
+     *
+     * @param hilliness The Hilliness
+     * @param width The Width of the map.
+     * @param height The Height of the map.
+     * @param range Max difference betweenn highest and lowest level.
+     * @param invertProb Probability for the invertion of the map (0..100)
+     * @param invertNegative If 1, invert negative hexes, else do nothing
+     * @param elevationMap here is the result stored
+     * @param rnd The random number generator of this stage.
+     */
+    public static void generateElevation(int hilliness, int width, int height,
+            int range, int invertProb, int invertNegative,
+            int elevationMap[][], int algorithm, Random rnd) {
         int minLevel = 0;
         int maxLevel = range;
-        boolean invert = (Compute.randomInt(100) < invertProb);
+        boolean invert = (rnd.nextInt(100) < invertProb);
 
         /* init elevation map with 0 */
         for (int w = 0; w < width; w++) {
@@ -1071,19 +1190,20 @@ public class BoardUtilities {
         /* generate landscape */
         switch (algorithm) {
             case 0:
-                cutSteps(hilliness, width, height, elevationMap);
+                cutSteps(hilliness, width, height, elevationMap, rnd);
                 break;
             case 1:
-                midPoint(hilliness, width, height, elevationMap);
+                midPoint(hilliness, width, height, elevationMap, rnd);
                 break;
             case 2:
-                cutSteps(hilliness, width, height, elevationMap);
-                midPoint(hilliness, width, height, elevationMap);
+                cutSteps(hilliness, width, height, elevationMap, rnd);
+                midPoint(hilliness, width, height, elevationMap, rnd);
                 break;
             default:
                 // Non-hardcoded generators, if we have any
                 if((algorithm > 2) && (algorithm - 3 < elevationGenerators.size())) {
-                    elevationGenerators.get(algorithm - 3).generate(hilliness, width, height, elevationMap);
+                    elevationGenerators.get(algorithm - 3).generate(hilliness,
+                            width, height, elevationMap, rnd);
                 }
         }
 
@@ -1137,70 +1257,84 @@ public class BoardUtilities {
         }
     }
 
+    /**
+     * Raises a mountain around the centre, with random numbers from the map
+     * stream.
+     */
     public static void generateMountain(IBoard board, int width, Coords centre,
             int height, int capStyle) {
+        generateMountain(board, width, centre, height, capStyle, newSeed());
+    }
+
+    /**
+     * Raises a mountain around the centre. Each hex is worked on its own, so
+     * this runs in parallel.
+     *
+     * @param seed the seed of the random numbers of each hex
+     */
+    public static void generateMountain(IBoard board, int width, Coords centre,
+            int height, int capStyle, long seed) {
         final int mapW = board.getWidth();
         final int mapH = board.getHeight();
 
         ITerrainFactory tf = Terrains.getTerrainFactory();
 
-        for (int x = 0; x < mapW; x++) {
-            for (int y = 0; y < mapH; y++) {
-                Coords c = new Coords(x, y);
-                int distance = c.distance(centre);
-                int elev = (100 * height * (width - distance)) / width;
-                elev = (elev / 100)
-                        + (Compute.randomInt(100) < (elev % 100) ? 1 : 0);
+        IntStream.range(0, mapW * mapH).parallel().forEach(index -> {
+            int x = index % mapW;
+            int y = index / mapW;
+            Coords c = new Coords(x, y);
+            int distance = c.distance(centre);
+            int elev = (100 * height * (width - distance)) / width;
+            elev = (elev / 100)
+                    + (hexRandom(seed, index).nextInt(100) < (elev % 100) ? 1 : 0);
 
-                IHex hex = board.getHex(c);
+            IHex hex = board.getHex(c);
 
-                if (elev >= height - 2) {
-                    switch (capStyle) {
-                        case MapSettings.MOUNTAIN_SNOWCAPPED:
-                            hex.setTheme("snow");
-                            break;
-                        case MapSettings.MOUNTAIN_VOLCANO_ACTIVE:
-                        case MapSettings.MOUNTAIN_VOLCANO_DORMANT:
-                            hex.setTheme("lunar");
-                            break;
-                        case MapSettings.MOUNTAIN_LAKE:
-                            int lake = (width / 4);
-                            int depth = ((lake - distance) + 1);
-                            if (depth < 1) { // eliminates depth 0 water
-                                depth = 1;
-                            }
-                            hex.addTerrain(tf.createTerrain(Terrains.WATER,
-                                    (depth)));
-                            elev -= (Math.abs(lake - elev) - 1);
-                            break;
-                    }
-                }
-                if (elev == height) {
-                    // for volcanoes, invert the peak
-                    switch (capStyle) {
-                        case MapSettings.MOUNTAIN_VOLCANO_ACTIVE:
-                            hex.removeAllTerrains();
-                            hex.addTerrain(tf.createTerrain(Terrains.MAGMA, 2));
-                            elev -= 2;
-                            break;
-                        case MapSettings.MOUNTAIN_VOLCANO_DORMANT:
-                            hex.removeAllTerrains();
-                            hex.addTerrain(tf.createTerrain(Terrains.MAGMA, 1));
-                            elev -= 2;
-                            break;
-                        case MapSettings.MOUNTAIN_VOLCANO_EXTINCT:
-                            hex.setTheme("lunar");
-                            elev -= 2;
-                            break;
-                    }
+            if (elev >= height - 2) {
+                switch (capStyle) {
+                    case MapSettings.MOUNTAIN_SNOWCAPPED:
+                        hex.setTheme("snow");
+                        break;
+                    case MapSettings.MOUNTAIN_VOLCANO_ACTIVE:
+                    case MapSettings.MOUNTAIN_VOLCANO_DORMANT:
+                        hex.setTheme("lunar");
+                        break;
+                    case MapSettings.MOUNTAIN_LAKE:
+                        int lake = (width / 4);
+                        int depth = ((lake - distance) + 1);
+                        if (depth < 1) { // eliminates depth 0 water
+                            depth = 1;
+                        }
+                        hex.addTerrain(tf.createTerrain(Terrains.WATER,
+                                (depth)));
+                        elev -= (Math.abs(lake - elev) - 1);
+                        break;
                 }
-
-                if (hex.getLevel() < elev) {
-                    hex.setLevel(elev);
+            }
+            if (elev == height) {
+                // for volcanoes, invert the peak
+                switch (capStyle) {
+                    case MapSettings.MOUNTAIN_VOLCANO_ACTIVE:
+                        hex.removeAllTerrains();
+                        hex.addTerrain(tf.createTerrain(Terrains.MAGMA, 2));
+                        elev -= 2;
+                        break;
+                    case MapSettings.MOUNTAIN_VOLCANO_DORMANT:
+                        hex.removeAllTerrains();
+                        hex.addTerrain(tf.createTerrain(Terrains.MAGMA, 1));
+                        elev -= 2;
+                        break;
+                    case MapSettings.MOUNTAIN_VOLCANO_EXTINCT:
+                        hex.setTheme("lunar");
+                        elev -= 2;
+                        break;
                 }
             }
-        }
 
+            if (hex.getLevel() < elev) {
+                hex.setLevel(elev);
+            }
+        });
     }
 
     /**
@@ -1310,7 +1444,7 @@ public class BoardUtilities {
      * one of the landscape generation algorithms
      */
     protected static void cutSteps(int hilliness, int width, int height,
-            int elevationMap[][]) {
+            int elevationMap[][], Random rnd) {
         Point p1, p2;
         int sideA, sideB;
         int type;
@@ -1321,23 +1455,23 @@ public class BoardUtilities {
             /*
              * select which side should be decremented, and which increemented
              */
-            sideA = (Compute.randomInt(2) == 0) ? -1 : 1;
+            sideA = (rnd.nextInt(2) == 0) ? -1 : 1;
             sideB = -sideA;
-            type = Compute.randomInt(6);
+            type = rnd.nextInt(6);
             /*
              * 6 different lines in rectangular area from border to border
              * possible
              */
             switch (type) {
                 case 0: /* left to upper border */
-                    p1.setLocation(0, Compute.randomInt(height));
-                    p2.setLocation(Compute.randomInt(width), height - 1);
+                    p1.setLocation(0, rnd.nextInt(height));
+                    p2.setLocation(rnd.nextInt(width), height - 1);
                     markSides(p1, p2, sideB, sideA, elevationMap, height);
                     markRect(p2.x, width, sideA, elevationMap, height);
                     break;
                 case 1: /* upper to lower border */
-                    p1.setLocation(Compute.randomInt(width), 0);
-                    p2.setLocation(Compute.randomInt(width), height - 1);
+                    p1.setLocation(rnd.nextInt(width), 0);
+                    p2.setLocation(rnd.nextInt(width), height - 1);
                     if (p1.x < p2.x) {
                         markSides(p1, p2, sideA, sideB, elevationMap, height);
                     } else {
@@ -1347,25 +1481,25 @@ public class BoardUtilities {
                     markRect(p2.x, width, sideB, elevationMap, height);
                     break;
                 case 2: /* upper to right border */
-                    p1.setLocation(Compute.randomInt(width), height - 1);
-                    p2.setLocation(width, Compute.randomInt(height));
+                    p1.setLocation(rnd.nextInt(width), height - 1);
+                    p2.setLocation(width, rnd.nextInt(height));
                     markSides(p1, p2, sideB, sideA, elevationMap, height);
                     markRect(0, p1.x, sideA, elevationMap, height);
                     break;
                 case 3: /* left to right border */
-                    p1.setLocation(0, Compute.randomInt(height));
-                    p2.setLocation(width, Compute.randomInt(height));
+                    p1.setLocation(0, rnd.nextInt(height));
+                    p2.setLocation(width, rnd.nextInt(height));
                     markSides(p1, p2, sideA, sideB, elevationMap, height);
                     break;
                 case 4: /* left to lower border */
-                    p1.setLocation(0, Compute.randomInt(height));
-                    p2.setLocation(Compute.randomInt(width), 0);
+                    p1.setLocation(0, rnd.nextInt(height));
+                    p2.setLocation(rnd.nextInt(width), 0);
                     markSides(p1, p2, sideB, sideA, elevationMap, height);
                     markRect(p2.x, width, sideB, elevationMap, height);
                     break;
                 case 5: /* lower to right border */
-                    p1.setLocation(Compute.randomInt(width), 0);
-                    p2.setLocation(width, Compute.randomInt(height));
+                    p1.setLocation(rnd.nextInt(width), 0);
+                    p2.setLocation(width, rnd.nextInt(height));
                     markSides(p1, p2, sideB, sideA, elevationMap, height);
                     markRect(0, p1.x, sideB, elevationMap, height);
                     break;
@@ -1409,7 +1543,7 @@ public class BoardUtilities {
      * midpoint algorithm for landscape generartion
      */
     protected static void midPoint(int hilliness, int width, int height,
-            int elevationMap[][]) {
+            int elevationMap[][], Random rnd) {
         int size;
         int steps = 1;
         int tmpElevation[][];
@@ -1433,7 +1567,7 @@ public class BoardUtilities {
         }
         for (int i = steps; i > 0; i--) {
             midPointStep((double) hilliness / 100, size, 100, tmpElevation, i,
-                    true);
+                    true, rnd);
         }
         for (int w = 0; w < width; w++) {
             for (int h = 0; h < height; h++) {
@@ -1446,7 +1580,7 @@ public class BoardUtilities {
      * Helper function for landscape generation
      */
     protected static void midPointStep(double fracdim, int size, int delta,
-            int elevationMap[][], int step, boolean newBorder) {
+            int elevationMap[][], int step, boolean newBorder, Random rnd) {
         int d1, d2;
         int delta5;
         int x, y;
@@ -1462,7 +1596,7 @@ public class BoardUtilities {
             do {
                 elevationMap[x][y] = middleValue(elevationMap[x + d2][y + d2],
                         elevationMap[x + d2][y - d2], elevationMap[x - d2][y
-                                + d2], elevationMap[x - d2][y - d2], delta5);
+                                + d2], elevationMap[x - d2][y - d2], delta5, rnd);
                 y += d1;
             } while (y < size - d2);
             x += d1;
@@ -1475,22 +1609,22 @@ public class BoardUtilities {
             do {
                 y = x;
                 elevationMap[0][x] = middleValue(elevationMap[0][x + d2],
-                        elevationMap[0][x - d2], elevationMap[d2][x], delta5);
+                        elevationMap[0][x - d2], elevationMap[d2][x], delta5, rnd);
                 elevationMap[size][x] = middleValue(elevationMap[size - 1][x
                         + d2], elevationMap[size - 1][x - d2],
-                        elevationMap[size - d2 - 1][x], delta5);
+                        elevationMap[size - d2 - 1][x], delta5, rnd);
                 y = 0;
                 elevationMap[x][0] = middleValue(elevationMap[x + d2][0],
-                        elevationMap[x - d2][0], elevationMap[x][d2], delta5);
+                        elevationMap[x - d2][0], elevationMap[x][d2], delta5, rnd);
                 elevationMap[x][size] = middleValue(
                         elevationMap[x + d2][size - 1],
                         elevationMap[x - d2][size - 1], elevationMap[x][size
-                                - d2 - 1], delta5);
+                                - d2 - 1], delta5, rnd);
                 x += d1;
             } while (x < size - d2);
         }
-        diagMid(new Point(d2, d1), d1, d2, delta5, size, elevationMap);
-        diagMid(new Point(d1, d2), d1, d2, delta5, size, elevationMap);
+        diagMid(new Point(d2, d1), d1, d2, delta5, size, elevationMap, rnd);
+        diagMid(new Point(d1, d2), d1, d2, delta5, size, elevationMap, rnd);
     }
 
     /**
@@ -1499,7 +1633,7 @@ public class BoardUtilities {
      * @param p Starting point.
      */
     protected static void diagMid(Point p, int d1, int d2, int delta, int size,
-            int elevationMap[][]) {
+            int elevationMap[][], Random rnd) {
         int x = p.x;
         int y;
         int hx = x + d2;
@@ -1511,7 +1645,7 @@ public class BoardUtilities {
             while ((y < size - d2) && (hy < size)) {
                 elevationMap[x][y] = middleValue(elevationMap[x][hy],
                         elevationMap[x][y - d2], elevationMap[hx][y],
-                        elevationMap[x - d2][y], delta);
+                        elevationMap[x - d2][y], delta, rnd);
                 y += d1;
                 hy = y + d2;
             }
@@ -1524,8 +1658,9 @@ public class BoardUtilities {
      * calculates the arithmetic medium of 3 values and add random value in
      * range of delta.
      */
-    protected static int middleValue(int a, int b, int c, int delta) {
-        int result = (((a + b + c) / 3) + normRNG(delta));
+    protected static int middleValue(int a, int b, int c, int delta,
+            Random rnd) {
+        int result = (((a + b + c) / 3) + normRNG(delta, rnd));
         return result;
     }
 
@@ -1533,8 +1668,9 @@ public class BoardUtilities {
      * calculates the arithmetic medium of 4 values and add random value in
      * range of delta.
      */
-    protected static int middleValue(int a, int b, int c, int d, int delta) {
-        int result = (((a + b + c + d) / 4) + normRNG(delta));
+    protected static int middleValue(int a, int b, int c, int d, int delta,
+            Random rnd) {
+        int result = (((a + b + c + d) / 4) + normRNG(delta, rnd));
         return result;
     }
 
@@ -1546,10 +1682,10 @@ public class BoardUtilities {
      * @return Random number, most times in the range -factor .. +factor, at
      *         most in the range of -3*factor .. +3*factor.
      */
-    private static int normRNG(int factor) {
+    private static int normRNG(int factor, Random rnd) {
         factor++;
-        return (2 * (Compute.randomInt(factor) + Compute.randomInt(factor) + Compute
-                .randomInt(factor)) - 3 * (factor - 1)) / 32;
+        return (2 * (rnd.nextInt(factor) + rnd.nextInt(factor) + rnd
+                .nextInt(factor)) - 3 * (factor - 1)) / 32;
     }
 
     protected static class Point {
@@ -0,0 +1,44 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A process wide, strictly increasing counter used to stamp changes to objects
+ * that other objects derive cached values from.
+ * <p>
+ * Every tracked object records the stamp of its last change (and takes a fresh
+ * one when it is created or deserialized). A cache that remembers the largest
+ * stamp of all its inputs at the time it was filled is still current as long as
+ * none of those inputs reports a newer stamp, even if an input has been replaced
+ * by a different object in the meantime.
+ *
+ * @author The MegaMek Team
+ */
+public final class ChangeStamp {
+
+    private static final AtomicLong CLOCK = new AtomicLong();
+
+    private ChangeStamp() {
+    }
+
+    /**
+     * @return a stamp that is larger than any stamp handed out before
+     */
+    public static long next() {
+        return CLOCK.incrementAndGet();
+    }
+}
@@ -17,6 +17,7 @@ package megamek.common.util;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Vector;
 
 import megamek.common.Building;
@@ -47,13 +48,23 @@ public class CityBuilder {
     private MapSettings mapSettings;
     private IBoard board;
     private HashSet<Coords> cityPlan;
+    private Random rnd;
 
     public CityBuilder(MapSettings mapSettings, IBoard board) {
+        this(mapSettings, board, new Random(Compute.randomInt(
+                Compute.RandomStream.MAP, Integer.MAX_VALUE)));
+    }
+
+    /**
+     * @param rnd the random number generator the city is laid out with, so the
+     *            same seed gives the same city
+     */
+    public CityBuilder(MapSettings mapSettings, IBoard board, Random rnd) {
         super();
-        // Auto-generated constructor stub
 
         this.mapSettings = mapSettings;
         this.board = board;
+        this.rnd = rnd;
     }
 
     /**
@@ -119,15 +130,15 @@ public class CityBuilder {
                             * distance * distance));
                 }
 
-                if (Compute.randomInt(100) > localdensity) {
+                if (rnd.nextInt(100) > localdensity) {
                     continue; // empty lot
                 }
                 coordList = new ArrayList<Coords>();
                 coordList.add(coord);
                 buildingUsed.add(coord);
-                while (Compute.randomInt(100) < localdensity) {
+                while (rnd.nextInt(100) < localdensity) {
                     // try to make a bigger building!
-                    int dir = Compute.randomInt(6);
+                    int dir = rnd.nextInt(6);
                     Coords next = coord.translated(dir);
                     if (cityPlan.contains(next) || buildingUsed.contains(next)
                             || !board.contains(next)
@@ -144,7 +155,7 @@ public class CityBuilder {
                 if (floors <= 0)
                     floors = mapSettings.getCityMinFloors();
                 else
-                    floors = Compute.randomInt(floors + 1)
+                    floors = rnd.nextInt(floors + 1)
                             + mapSettings.getCityMinFloors();
 
                 int totalCF = mapSettings.getCityMaxCF()
@@ -153,7 +164,7 @@ public class CityBuilder {
                 if (totalCF <= 0)
                     totalCF = mapSettings.getCityMinCF();
                 else
-                    totalCF = Compute.randomInt(totalCF + 1)
+                    totalCF = rnd.nextInt(totalCF + 1)
                             + mapSettings.getCityMinCF();
 
                 int type = getBuildingTypeByCF(totalCF);
@@ -168,22 +179,22 @@ public class CityBuilder {
 
     private void buildGridCity(int maxX, int maxY, int roads) {
         for (int y = 0; y < roads; y++) {
-            int startY = Compute.randomInt(maxY / roads) + ((y * maxY) / roads);
-            // int start = Compute.randomInt(2);
+            int startY = rnd.nextInt(maxY / roads) + ((y * maxY) / roads);
+            // int start = rnd.nextInt(2);
             Coords coords = new Coords(-1, startY);
-            int roadStyle = Compute.randomInt(2) + 1;
-            int dir = Compute.randomInt(2) + NE;
+            int roadStyle = rnd.nextInt(2) + 1;
+            int dir = rnd.nextInt(2) + NE;
             buildStraightRoad(coords, dir, roadStyle);
-            startY = Compute.randomInt(maxY / roads) + ((y * maxY) / roads);
+            startY = rnd.nextInt(maxY / roads) + ((y * maxY) / roads);
             coords = new Coords(maxX, startY);
-            dir = Compute.randomInt(2) + SW;
+            dir = rnd.nextInt(2) + SW;
             buildStraightRoad(coords, dir, roadStyle);
         }
 
         for (int x = 0; x < roads; x++) {
-            int startX = Compute.randomInt(maxX / roads) + (x * (maxX / roads));
+            int startX = rnd.nextInt(maxX / roads) + (x * (maxX / roads));
             Coords coords = new Coords(startX, -1);
-            int roadStyle = Compute.randomInt(2) + 1;
+            int roadStyle = rnd.nextInt(2) + 1;
             buildStraightRoad(coords, S, roadStyle);
         }
     }
@@ -216,34 +227,34 @@ public class CityBuilder {
         int y = 0;
         for (int dir = 0; dir < roads; dir++) {
             int baseDirection = -1;
-            int roadStyle = Compute.randomInt(2) + 1;
+            int roadStyle = rnd.nextInt(2) + 1;
 
             if (dir < 8) {
                 x = midX;
                 y = midY;
-                baseDirection = directions.remove(Compute.randomInt(directions
+                baseDirection = directions.remove(rnd.nextInt(directions
                         .size()));
             } else {
-                switch (Compute.randomInt(4)) {
+                switch (rnd.nextInt(4)) {
                     case 1:
-                        x = Compute.randomInt(maxX);
+                        x = rnd.nextInt(maxX);
                         y = -1;
                         baseDirection = S;
                         break;
                     case 2:
-                        x = Compute.randomInt(maxX);
+                        x = rnd.nextInt(maxX);
                         y = maxY;
                         baseDirection = N;
                         break;
                     case 3:
                         x = -1;
-                        y = Compute.randomInt(maxY);
-                        baseDirection = NE + Compute.randomInt(2);
+                        y = rnd.nextInt(maxY);
+                        baseDirection = NE + rnd.nextInt(2);
                         break;
                     default:
                         x = maxX;
-                        y = Compute.randomInt(maxY);
-                        baseDirection = SW + Compute.randomInt(2);
+                        y = rnd.nextInt(maxY);
+                        baseDirection = SW + rnd.nextInt(2);
                         break;
                 }
             }
@@ -252,7 +263,7 @@ public class CityBuilder {
             int nextDirection = baseDirection;
             while (coords.getX() >= -1 && coords.getX() <= maxX && coords.getY() >= -1
                    && coords.getY() <= maxY) {
-                int choice = Compute.randomInt(10);
+                int choice = rnd.nextInt(10);
 
                 if (board.contains(coords)) {
                     // don't change direction offboard
@@ -446,7 +457,7 @@ public class CityBuilder {
             // build the bridge
             int exits = (1 << direction) | (1 << ((direction + 3) % 6));
             int cf = mapSettings.getCityMinCF()
-                    + Compute.randomInt(1 + mapSettings.getCityMaxCF()
+                    + rnd.nextInt(1 + mapSettings.getCityMaxCF()
                             - mapSettings.getCityMinCF());
 
             for (Enumeration<Coords> e = hexes.elements(); e.hasMoreElements();) {
@@ -517,10 +528,10 @@ public class CityBuilder {
      * turn in it. Map must be at least 3x3.
      */
     private void addGenericRoad() {
-        Coords c = new Coords(Compute.randomInt(board.getWidth()), Compute
-                .randomInt(board.getHeight()));
-        int side0 = Compute.randomInt(6);
-        int side1 = Compute.randomInt(5);
+        Coords c = new Coords(rnd.nextInt(board.getWidth()),
+                rnd.nextInt(board.getHeight()));
+        int side0 = rnd.nextInt(6);
+        int side1 = rnd.nextInt(5);
         if (side1 >= side0) {
             side1++;
         }
@@ -0,0 +1,445 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.util;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A process wide registry of named performance metrics: counters, histograms
+ * and timers. Recording a value costs a few atomic operations, so metrics can
+ * stay in place on hot paths like packet marshalling.
+ * <p>
+ * The current values can be listed with {@link #report()}, and appended as
+ * CSV or JSON lines to a log file that is rolled over once it grows too large,
+ * see {@link #setLogFile(File, boolean)} and {@link #logSnapshot()}.
+ *
+ * @author The MegaMek Team
+ */
+public final class Metrics {
+
+    /** A log file is rolled over to a .1 file when it grows beyond this */
+    private static final long MAX_LOG_SIZE = 1024 * 1024;
+
+    private static final String CSV_HEADER = "time,name,type,count,sum,min,max,mean,p50,p90,p99";
+
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    private File logFile;
+    private boolean logJson;
+
+    private Metrics() {
+    }
+
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the counter with the given name, created if necessary
+     */
+    public Counter counter(String name) {
+        Metric metric = metrics.computeIfAbsent(name, Counter::new);
+        return cast(metric, Counter.class);
+    }
+
+    /**
+     * @return the histogram with the given name, created if necessary
+     */
+    public Histogram histogram(String name) {
+        Metric metric = metrics.computeIfAbsent(name, Histogram::new);
+        return cast(metric, Histogram.class);
+    }
+
+    /**
+     * @return the timer with the given name, created if necessary
+     */
+    public Timer timer(String name) {
+        Metric metric = metrics.computeIfAbsent(name, Timer::new);
+        return cast(metric, Timer.class);
+    }
+
+    private static <T extends Metric> T cast(Metric metric, Class<T> type) {
+        if (metric.getClass() != type) {
+            throw new IllegalArgumentException("Metric " + metric.name
+                    + " is a " + metric.getType() + ", not a "
+                    + type.getSimpleName().toLowerCase());
+        }
+        return type.cast(metric);
+    }
+
+    /**
+     * Sets all metrics back to zero.
+     */
+    public void reset() {
+        for (Metric metric : metrics.values()) {
+            metric.reset();
+        }
+    }
+
+    /**
+     * @return one human readable line per metric, sorted by name
+     */
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (Metric metric : sorted().values()) {
+            lines.add(metric.name + ": " + metric.summary());
+        }
+        return lines;
+    }
+
+    private Map<String, Metric> sorted() {
+        return new TreeMap<>(metrics);
+    }
+
+    /**
+     * Appends a snapshot of all metrics to the given file every time
+     * {@link #logSnapshot()} is called, or stops doing so if the file is
+     * <code>null</code>.
+     *
+     * @param file the file to log to
+     * @param json true to log one JSON object per snapshot, false to log one
+     *             CSV row per metric
+     */
+    public synchronized void setLogFile(File file, boolean json) {
+        logFile = file;
+        logJson = json;
+    }
+
+    /**
+     * @return the file snapshots are logged to, or <code>null</code>
+     */
+    public synchronized File getLogFile() {
+        return logFile;
+    }
+
+    /**
+     * Appends a snapshot of all metrics to the log file, if one is set.
+     */
+    public synchronized void logSnapshot() {
+        if (logFile == null) {
+            return;
+        }
+        if (logFile.length() > MAX_LOG_SIZE) {
+            File rolled = new File(logFile.getPath() + ".1");
+            if (rolled.exists() && !rolled.delete()) {
+                System.err.println("Could not delete old metrics log "
+                        + rolled);
+            }
+            if (!logFile.renameTo(rolled)) {
+                System.err.println("Could not roll over metrics log "
+                        + logFile);
+            }
+        }
+        File directory = logFile.getAbsoluteFile().getParentFile();
+        if ((directory != null) && !directory.exists()) {
+            directory.mkdirs();
+        }
+        boolean newFile = !logFile.exists() || (logFile.length() == 0);
+        try (Writer out = new FileWriter(logFile, true)) {
+            long time = System.currentTimeMillis();
+            if (logJson) {
+                writeJson(out, time);
+            } else {
+                writeCsv(out, time, newFile);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write metrics log " + logFile
+                    + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one CSV row per metric.
+     */
+    public void writeCsv(Writer out, long time, boolean header)
+            throws IOException {
+        if (header) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+        for (Metric metric : sorted().values()) {
+            out.write(Long.toString(time));
+            out.write(',');
+            out.write(metric.name);
+            out.write(',');
+            out.write(metric.getType());
+            for (long value : metric.values()) {
+                out.write(',');
+                out.write(Long.toString(value));
+            }
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Writes all metrics as a single line JSON object.
+     */
+    public void writeJson(Writer out, long time) throws IOException {
+        out.write("{\"time\":");
+        out.write(Long.toString(time));
+        out.write(",\"metrics\":{");
+        boolean first = true;
+        for (Metric metric : sorted().values()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.write('"');
+            out.write(metric.name.replace("\\", "\\\\").replace("\"", "\\\""));
+            out.write("\":{\"type\":\"");
+            out.write(metric.getType());
+            out.write('"');
+            String[] columns = CSV_HEADER.split(",");
+            long[] values = metric.values();
+            for (int i = 0; i < values.length; i++) {
+                out.write(",\"");
+                out.write(columns[i + 3]);
+                out.write("\":");
+                out.write(Long.toString(values[i]));
+            }
+            out.write('}');
+        }
+        out.write("}}\n");
+    }
+
+    /**
+     * Base class of all metrics.
+     */
+    public abstract static class Metric {
+        private final String name;
+
+        Metric(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        abstract String getType();
+
+        abstract void reset();
+
+        abstract String summary();
+
+        /**
+         * @return the values for the CSV columns after the type
+         */
+        abstract long[] values();
+    }
+
+    /**
+     * Counts events, or adds up amounts.
+     */
+    public static final class Counter extends Metric {
+        private final LongAdder count = new LongAdder();
+
+        Counter(String name) {
+            super(name);
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        String getType() {
+            return "counter";
+        }
+
+        @Override
+        void reset() {
+            count.reset();
+        }
+
+        @Override
+        String summary() {
+            return Long.toString(getCount());
+        }
+
+        @Override
+        long[] values() {
+            return new long[] { getCount() };
+        }
+    }
+
+    /**
+     * Records the distribution of non-negative values in power of two
+     * buckets, so percentiles are accurate to within a factor of two.
+     */
+    public static class Histogram extends Metric {
+        private static final int BUCKETS = 64;
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        Histogram(String name) {
+            super(name);
+        }
+
+        public void record(long value) {
+            value = Math.max(value, 0);
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            long current;
+            while (value < (current = min.get())) {
+                if (min.compareAndSet(current, value)) {
+                    break;
+                }
+            }
+            while (value > (current = max.get())) {
+                if (max.compareAndSet(current, value)) {
+                    break;
+                }
+            }
+            buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value));
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getSum() {
+            return sum.get();
+        }
+
+        public long getMin() {
+            return getCount() == 0 ? 0 : min.get();
+        }
+
+        public long getMax() {
+            return getCount() == 0 ? 0 : max.get();
+        }
+
+        public long getMean() {
+            long n = getCount();
+            return n == 0 ? 0 : getSum() / n;
+        }
+
+        /**
+         * @param fraction the percentile as a fraction, e.g. 0.9
+         * @return an upper bound of the value at that percentile
+         */
+        public long getPercentile(double fraction) {
+            long n = getCount();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * n);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    long upper = (i == 0) ? 0 : (1L << i) - 1;
+                    return Math.min(upper, getMax());
+                }
+            }
+            return getMax();
+        }
+
+        @Override
+        String getType() {
+            return "histogram";
+        }
+
+        @Override
+        void reset() {
+            count.set(0);
+            sum.set(0);
+            min.set(Long.MAX_VALUE);
+            max.set(Long.MIN_VALUE);
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+        }
+
+        @Override
+        String summary() {
+            return String.format("count %d, mean %d, min %d, p50 %d, p90 %d, max %d",
+                    getCount(), getMean(), getMin(), getPercentile(0.5),
+                    getPercentile(0.9), getMax());
+        }
+
+        @Override
+        long[] values() {
+            return new long[] { getCount(), getSum(), getMin(), getMax(),
+                    getMean(), getPercentile(0.5), getPercentile(0.9),
+                    getPercentile(0.99) };
+        }
+    }
+
+    /**
+     * A histogram of durations in nanoseconds.
+     * <p>
+     * Usage: <code>long start = timer.start(); ...; timer.stop(start);</code>
+     */
+    public static final class Timer extends Histogram {
+
+        Timer(String name) {
+            super(name);
+        }
+
+        /**
+         * @return the start time to pass to {@link #stop(long)}
+         */
+        public long start() {
+            return System.nanoTime();
+        }
+
+        /**
+         * Records the time since start.
+         */
+        public void stop(long start) {
+            record(System.nanoTime() - start);
+        }
+
+        @Override
+        String getType() {
+            return "timer";
+        }
+
+        @Override
+        String summary() {
+            return String.format("count %d, total %.1f ms, mean %.3f ms, p50 %.3f ms, p90 %.3f ms, max %.3f ms",
+                    getCount(), getSum() / 1e6, getMean() / 1e6,
+                    getPercentile(0.5) / 1e6, getPercentile(0.9) / 1e6,
+                    getMax() / 1e6);
+        }
+    }
+}
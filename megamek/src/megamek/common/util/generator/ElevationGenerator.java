@@ -13,6 +13,8 @@
  */
 package megamek.common.util.generator;
 
+import java.util.Random;
+
 public interface ElevationGenerator {
     /** @return translatable string for the generator name */
     String getName();
@@ -29,4 +31,18 @@ public interface ElevationGenerator {
      * @param elevationMap the target elevation map, indexed as <tt>elevationMap[width][height]</tt>
      */
     void generate(int hilliness, int width, int height, int elevationMap[][]);
+
+    /**
+     * Generate a map from the given random number generator, so the same seed gives the same map.
+     * Generators that do not take their randomness from outside ignore it.
+     * 
+     * @param hilliness 1-100
+     * @param width width of the map, in hexes
+     * @param height height of the map, in hexes
+     * @param elevationMap the target elevation map, indexed as <tt>elevationMap[width][height]</tt>
+     * @param rnd the random number generator to use
+     */
+    default void generate(int hilliness, int width, int height, int elevationMap[][], Random rnd) {
+        generate(hilliness, width, height, elevationMap);
+    }
 }
@@ -14,6 +14,7 @@
 package megamek.common.util.generator;
 
 import java.util.Random;
+import java.util.stream.IntStream;
 
 import megamek.common.util.SimplexNoise;
 
@@ -44,12 +45,17 @@ public class SimplexGenerator implements ElevationGenerator {
     }
 
     @Override public void generate(int hilliness, int width, int height, int[][] elevationMap) {
-        double noiseStartX = rnd.nextDouble() * 1000000;
-        double noiseStartY = rnd.nextDouble() * 1000000;
-        double noiseScale = (200.0 + rnd.nextDouble() * 30.0) / (4.0 + hilliness / 5.0);
-        hilliness = Math.max(hilliness, 1);
+        generate(hilliness, width, height, elevationMap, rnd);
+    }
+
+    @Override public void generate(int hilliness, int width, int height, int[][] elevationMap, Random rnd) {
+        final double noiseStartX = rnd.nextDouble() * 1000000;
+        final double noiseStartY = rnd.nextDouble() * 1000000;
+        final double noiseScale = (200.0 + rnd.nextDouble() * 30.0) / (4.0 + hilliness / 5.0);
+        final int hills = Math.max(hilliness, 1);
         
-        for(int w = 0; w < width; ++ w) {
+        // Every hex only depends on its position, so the columns can be worked on in parallel
+        IntStream.range(0, width).parallel().forEach(w -> {
             for(int h = 0; h < height; ++ h) {
                 double x = DIST_H * w;
                 double y = DIST_V * (2 * h + (w & 1)) / 2.0;
@@ -63,11 +69,11 @@ public class SimplexGenerator implements ElevationGenerator {
                     val = 0;
                 } else {
                     // Hilliness - make the hilltops more extreme thus the lower values more common
-                    val = Math.pow(val / 7.0, 10.0 / hilliness + 1.0) * 7.0; 
+                    val = Math.pow(val / 7.0, 10.0 / hills + 1.0) * 7.0; 
                 }
                 // Give the map scaler enough value range to work with
                 elevationMap[w][h] = (int) (val * 1000);
             }
-        }
+        });
     }
 }
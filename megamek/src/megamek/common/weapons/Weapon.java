@@ -43,7 +43,10 @@ public abstract class Weapon extends WeaponType implements Serializable {
     }
 
     public AttackHandler fire(WeaponAttackAction waa, IGame game, Server server) {
-        ToHitData toHit = waa.toHit(game);
+        ToHitData toHit = waa.getPrecomputedToHit(game);
+        if (toHit == null) {
+            toHit = waa.toHit(game);
+        }
         // FIXME: SUPER DUPER EVIL HACK: swarm missile handlers must be returned
         // even
         // if the have an impossible to hit, because there might be other
@@ -24,7 +24,7 @@ public class DedicatedServer {
 
     private static final String INCORRECT_ARGUMENTS_MESSAGE = "Incorrect arguments:";
 
-    private static final String ARGUMENTS_DESCRIPTION_MESSAGE = "Arguments syntax:\n\t [-password <pass>] [-port <port>] [<saved game>]";
+    private static final String ARGUMENTS_DESCRIPTION_MESSAGE = "Arguments syntax:\n\t [-password <pass>] [-port <port>] [-seed <seed>] [<saved game> [-replay <later saved game>]]";
 
     public static void start(String[] args) {
         CommandLineParser cp = new CommandLineParser(args);
@@ -60,8 +60,14 @@ public class DedicatedServer {
                 System.err.println(error.toString());
                 return;
             }
+            if (cp.getSeed() != 0) {
+                dedicated.setRandomSeed(cp.getSeed());
+            }
             if (null != savegameFileName) {
                 dedicated.loadGame(new File(savegameFileName));
+                if (null != cp.getReplayFilename()) {
+                    dedicated.replayRolls(new File(cp.getReplayFilename()));
+                }
             }
             return;
         } catch (AbstractCommandLineParser.ParseException e) {
@@ -87,11 +93,15 @@ public class DedicatedServer {
         private int port;
         private String password;
         private String announceUrl = "";
+        private long seed;
+        private String replayFilename;
 
         // Options
         private static final String OPTION_PORT = "port"; //$NON-NLS-1$
         private static final String OPTION_PASSWORD = "password"; //$NON-NLS-1$
         private static final String OPTION_ANNOUNCE = "announce"; //$NON-NLS-1$
+        private static final String OPTION_SEED = "seed"; //$NON-NLS-1$
+        private static final String OPTION_REPLAY = "replay"; //$NON-NLS-1$
 
         public CommandLineParser(String[] args) {
             super(args);
@@ -119,6 +129,21 @@ public class DedicatedServer {
             return announceUrl;
         }
 
+        /**
+         * @return the seed of the random numbers, or 0 if it wasn't set
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * @return the saved game to replay the rolls of, or <code>null</code>
+         *         if it wasn't set
+         */
+        public String getReplayFilename() {
+            return replayFilename;
+        }
+
         /**
          * Returns the game file name option value or <code>null</code> if it
          * wasn't set
@@ -145,6 +170,12 @@ public class DedicatedServer {
                     } else if (getTokenValue().equals(OPTION_PASSWORD)) {
                         nextToken();
                         parsePassword();
+                    } else if (getTokenValue().equals(OPTION_SEED)) {
+                        nextToken();
+                        parseSeed();
+                    } else if (getTokenValue().equals(OPTION_REPLAY)) {
+                        nextToken();
+                        parseReplay();
                     }
                     break;
                 case TOK_LITERAL:
@@ -186,6 +217,26 @@ public class DedicatedServer {
             }
         }
         
+        private void parseSeed() throws ParseException {
+            if (getToken() == TOK_LITERAL) {
+                try {
+                    seed = Long.decode(getTokenValue()).longValue();
+                } catch (NumberFormatException e) {
+                    error("invalid seed"); //$NON-NLS-1$
+                }
+            } else {
+                error("seed expected"); //$NON-NLS-1$
+            }
+        }
+
+        private void parseReplay() throws ParseException {
+            if (getToken() == TOK_LITERAL) {
+                replayFilename = getTokenValue();
+            } else {
+                error("saved game to replay expected"); //$NON-NLS-1$
+            }
+        }
+
         private void parsePassword() throws ParseException {
             if (getToken() == TOK_LITERAL) {
                 password = getTokenValue();
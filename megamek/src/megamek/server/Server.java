@@ -77,6 +77,7 @@ import megamek.common.BattleArmor;
 import megamek.common.Bay;
 import megamek.common.BipedMech;
 import megamek.common.Board;
+import megamek.common.BoardDelta;
 import megamek.common.BoardDimensions;
 import megamek.common.BombType;
 import megamek.common.Building;
@@ -145,6 +146,7 @@ import megamek.common.Protomech;
 import megamek.common.QuadMech;
 import megamek.common.Report;
 import megamek.common.Roll;
+import megamek.common.RollLog;
 import megamek.common.SmallCraft;
 import megamek.common.SpaceStation;
 import megamek.common.SpecialHexDisplay;
@@ -219,6 +221,7 @@ import megamek.common.options.OptionsConstants;
 import megamek.common.preference.PreferenceManager;
 import megamek.common.util.BoardUtilities;
 import megamek.common.util.MegaMekFile;
+import megamek.common.util.Metrics;
 import megamek.common.util.StringUtil;
 import megamek.common.verifier.EntityVerifier;
 import megamek.common.verifier.TestAero;
@@ -253,6 +256,7 @@ import megamek.server.commands.ListSavesCommand;
 import megamek.server.commands.LoadGameCommand;
 import megamek.server.commands.LocalLoadGameCommand;
 import megamek.server.commands.LocalSaveGameCommand;
+import megamek.server.commands.MetricsCommand;
 import megamek.server.commands.NukeCommand;
 import megamek.server.commands.ResetCommand;
 import megamek.server.commands.RollCommand;
@@ -388,14 +392,37 @@ public class Server implements Runnable {
 
     IGame game = new Game();
 
+    /**
+     * The rolls of a later save of the game that are played back, or null
+     */
+    private RollLog.Replay replay;
+
     private Vector<Report> vPhaseReport = new Vector<Report>();
 
+    /**
+     * Whether to-hit numbers of weapon attacks are worked out in parallel
+     */
+    private static volatile boolean precomputeToHit = true;
+
     public Vector<Report> getvPhaseReport() {
         return vPhaseReport;
     }
 
     private MapSettings mapSettings = MapSettings.getInstance();
 
+    // performance metrics, see MetricsCommand
+    private final Metrics metrics = Metrics.getInstance();
+    private final Metrics.Timer movementTimer = metrics
+            .timer("server.processMovement");
+    private final Metrics.Timer weaponAttacksTimer = metrics
+            .timer("server.resolveOnlyWeaponAttacks");
+    private final Metrics.Timer handleAttacksTimer = metrics
+            .timer("server.handleAttacks");
+    private final Metrics.Timer precomputeToHitTimer = metrics
+            .timer("server.precomputeToHit");
+    private final Metrics.Timer whoCanSeeTimer = metrics
+            .timer("server.whoCanSee");
+
     // commands
     private Hashtable<String, ServerCommand> commandsHash = new Hashtable<String, ServerCommand>();
 
@@ -446,6 +473,14 @@ public class Server implements Runnable {
      * Stores a set of <code>Coords</code> that have changed during this phase.
      */
     private Set<Coords> hexUpdateSet = new LinkedHashSet<Coords>();
+
+    /**
+     * The changes to the board that haven't been sent yet, see
+     * {@link #sendBoardChanges()}.
+     */
+    private final Set<Coords> changedHexes = new LinkedHashSet<Coords>();
+    private final Set<Building> changedBuildings = new LinkedHashSet<Building>();
+    private final Set<Coords> collapsedBuildings = new LinkedHashSet<Coords>();
     
     private List<DemolitionCharge> explodingCharges = new ArrayList<>();
 
@@ -537,6 +572,7 @@ public class Server implements Runnable {
 
         game.getOptions().initialize();
         game.getOptions().loadOptions();
+        resetRNG();
 
         changePhase(IGame.Phase.PHASE_LOUNGE);
 
@@ -591,6 +627,7 @@ public class Server implements Runnable {
         registerCommand(new AssignNovaNetServerCommand(this));
         registerCommand(new AllowTeamChangeCommand(this));
         registerCommand(new JoinTeamCommand(this));
+        registerCommand(new MetricsCommand(this));
 
         // register terrain processors
         terrainProcessors.add(new FireProcessor(this));
@@ -623,6 +660,10 @@ public class Server implements Runnable {
         connector = new Thread(this, "Connection Listener");
         connector.start();
 
+        // clients in this JVM, like bots, don't need to go through the socket
+        ConnectionFactory.getInstance().registerLocalServer(
+                serverSocket.getLocalPort(), this::acceptLocalConnection);
+
         serverInstance = this;
     }
 
@@ -670,7 +711,9 @@ public class Server implements Runnable {
                 ((WeaponHandler) handler).restore();
             }
         }
-
+        // carry on with the rolls of the loaded game
+        replay = null;
+        resetRNG();
     }
 
     /**
@@ -740,6 +783,8 @@ public class Server implements Runnable {
         packetPumpThread = null;
 
         // close socket
+        ConnectionFactory.getInstance().unregisterLocalServer(
+                serverSocket.getLocalPort());
         try {
             serverSocket.close();
         } catch (IOException ex) {
@@ -1243,6 +1288,10 @@ public class Server implements Runnable {
     public void resetGame() {
         // remove all entities
         game.reset();
+        // the next game gets rolls of its own
+        game.setRollLog(game.getRollLog().nextGame());
+        replay = null;
+        resetRNG();
         send(createEntitiesPacket());
         send(new Packet(Packet.COMMAND_SENDING_MINEFIELDS, new Vector<Object>()));
 
@@ -1419,6 +1468,80 @@ public class Server implements Runnable {
      */
     public boolean loadGame(File f, boolean sendInfo) {
         System.out.println("s: loading saved game file '" + f + '\''); //$NON-NLS-1$
+        IGame newGame = readGame(f);
+        if (newGame == null) {
+            return false;
+        }
+
+        setGame(newGame);
+
+        if (!sendInfo) {
+            return true;
+        }
+
+        // update all the clients with the new game info
+        for (IConnection conn : connections) {
+            sendCurrentInfo(conn.getId());
+        }
+        return true;
+    }
+
+    /**
+     * Plays the rest of the current game with the rolls recorded in a later
+     * save of the same game, for example to profile the same game again. The
+     * replay stops once the game asks for a roll the recording doesn't have.
+     *
+     * @param f the later save of the game that is loaded now
+     * @return <code>true</code> if the save has recorded rolls
+     */
+    public boolean replayRolls(File f) {
+        IGame recorded = readGame(f);
+        if (recorded == null) {
+            return false;
+        }
+        if (recorded.getRollLog() == null) {
+            System.err.println("No rolls recorded in " + f); //$NON-NLS-1$
+            return false;
+        }
+        replay = recorded.getRollLog().replay(game.getRollLog());
+        resetRNG();
+        System.out.println("s: replaying " //$NON-NLS-1$
+                + (recorded.getRollLog().getCount() - game.getRollLog().getCount())
+                + " rolls from '" + f + '\''); //$NON-NLS-1$
+        return true;
+    }
+
+    /**
+     * Seeds the random numbers of the game with the given seed, so the same
+     * seed gives the same rolls. This should only be called before the game
+     * has started.
+     *
+     * @param seed the seed, or 0 to not seed the random numbers
+     */
+    public void setRandomSeed(long seed) {
+        game.setRollLog(new RollLog(seed));
+        resetRNG();
+    }
+
+    /**
+     * Sets up the random number streams of the current game: they are seeded
+     * from the game's roll log, if it has a seed, and every roll is recorded
+     * in it.
+     */
+    private void resetRNG() {
+        if (game.getRollLog() == null) {
+            game.setRollLog(new RollLog(0));
+        }
+        Compute.setRNG(game.getOptions().intOption(OptionsConstants.BASE_RNG_TYPE),
+                game.getRollLog(), replay);
+    }
+
+    /**
+     * Reads a saved game.
+     *
+     * @return the game, or <code>null</code> if it could not be read
+     */
+    private IGame readGame(File f) {
         IGame newGame;
         try(InputStream is = new GZIPInputStream(new FileInputStream(f))) {
             XStream xstream = new XStream();
@@ -1462,20 +1585,9 @@ public class Server implements Runnable {
         } catch (Exception e) {
             System.err.println("Unable to load file: " + f); //$NON-NLS-1$
             e.printStackTrace();
-            return false;
-        }
-
-        setGame(newGame);
-
-        if (!sendInfo) {
-            return true;
-        }
-
-        // update all the clients with the new game info
-        for (IConnection conn : connections) {
-            sendCurrentInfo(conn.getId());
+            return null;
         }
-        return true;
+        return newGame;
     }
 
     /**
@@ -2325,7 +2437,10 @@ public class Server implements Runnable {
         game.setPhase(phase);
 
         // prepare for the phase
+        Metrics.Timer timer = metrics.timer("server.prepareForPhase." + phase);
+        long start = timer.start();
         prepareForPhase(phase);
+        timer.stop(start);
 
         if (isPhasePlayable(phase)) {
             // tell the players about the new phase
@@ -2831,9 +2946,26 @@ public class Server implements Runnable {
     }
 
     /**
-     * Ends this phase and moves on to the next.
+     * Ends this phase and moves on to the next, recording how long that took.
+     * As following phases without turns are ended right away, their times are
+     * included in that of the phase that was ended first.
      */
     private void endCurrentPhase() {
+        IGame.Phase phase = game.getPhase();
+        Metrics.Timer timer = metrics.timer("server.endCurrentPhase." + phase);
+        long start = timer.start();
+        finishCurrentPhase();
+        timer.stop(start);
+        if (phase == IGame.Phase.PHASE_END) {
+            // one snapshot per round
+            metrics.logSnapshot();
+        }
+    }
+
+    /**
+     * Ends this phase and moves on to the next.
+     */
+    private void finishCurrentPhase() {
         switch (game.getPhase()) {
             case PHASE_LOUNGE:
                 game.addReports(vPhaseReport);
@@ -3117,6 +3249,7 @@ public class Server implements Runnable {
         if (connections == null) {
             return;
         }
+        sendBoardChanges();
         for (int i = 0; i < connections.size(); i++) {
             if (connections.get(i) != null) {
                 connections.get(i).send(createSpecialHexDisplayPacket(i));
@@ -3128,6 +3261,7 @@ public class Server implements Runnable {
         if (connections == null) {
             return;
         }
+        sendBoardChanges();
         for (int i = 0; i < connections.size(); i++) {
             if (connections.get(i) != null) {
                 connections.get(i).send(createTagInfoUpdatesPacket());
@@ -3139,6 +3273,7 @@ public class Server implements Runnable {
         if (connections == null) {
             return;
         }
+        sendBoardChanges();
         for (int i = 0; i < connections.size(); i++) {
             if (connections.get(i) != null) {
                 connections.get(i).send(
@@ -5033,7 +5168,9 @@ public class Server implements Runnable {
         }
 
         // looks like mostly everything's okay
+        long start = movementTimer.start();
         processMovement(entity, md, losCache);
+        movementTimer.stop(start);
 
         // The attacker may choose to break a chain whip grapple by expending MP
         if ((entity.getGrappled() != Entity.NONE)
@@ -13718,28 +13855,78 @@ public class Server implements Runnable {
      * Called during the fire phase to resolve all (and only) weapon attacks
      */
     private void resolveOnlyWeaponAttacks() {
-        // loop thru received attack actions, getting attack handlers
+        long start = weaponAttacksTimer.start();
+        // loop thru received attack actions
+        List<WeaponAttackAction> attacks = new ArrayList<WeaponAttackAction>();
         for (Enumeration<EntityAction> i = game.getActions(); i
                 .hasMoreElements(); ) {
             EntityAction ea = i.nextElement();
             if (ea instanceof WeaponAttackAction) {
                 WeaponAttackAction waa = (WeaponAttackAction) ea;
-                Entity ae = game.getEntity(waa.getEntityId());
-                Mounted m = ae.getEquipment(waa.getWeaponId());
-                Weapon w = (Weapon) m.getType();
                 // Track attacks original target, for things like swarm LRMs
                 waa.setOriginalTargetId(waa.getTargetId());
                 waa.setOriginalTargetType(waa.getTargetType());
-                AttackHandler ah = w.fire(waa, game, this);
-                if (ah != null) {
-                    ah.setStrafing(waa.isStrafing());
-                    ah.setStrafingFirstShot(waa.isStrafingFirstShot());
-                    game.addAttack(ah);
-                }
+                attacks.add(waa);
+            }
+        }
+        precomputeToHit(attacks);
+        // getting attack handlers, which roll dice and use ammo, in order
+        for (WeaponAttackAction waa : attacks) {
+            Entity ae = game.getEntity(waa.getEntityId());
+            Mounted m = ae.getEquipment(waa.getWeaponId());
+            Weapon w = (Weapon) m.getType();
+            AttackHandler ah = w.fire(waa, game, this);
+            if (ah != null) {
+                ah.setStrafing(waa.isStrafing());
+                ah.setStrafingFirstShot(waa.isStrafingFirstShot());
+                game.addAttack(ah);
             }
         }
         // and clear the attacks Vector
         game.resetActions();
+        weaponAttacksTimer.stop(start);
+    }
+
+    /**
+     * Turns working out to-hit numbers on several threads on or off, e.g. to
+     * compare results.
+     */
+    public static void setPrecomputeToHit(boolean enable) {
+        precomputeToHit = enable;
+    }
+
+    /**
+     * Works out the to-hit data of the attacks, with their LOS and ECM, on
+     * several threads before any weapon is fired. Weapons fire simultaneously,
+     * so this only reads the state of the game at the start of the phase; the
+     * handlers pick the results up as they are created in order, and only work
+     * them out again if firing earlier weapons of the same attacker has made a
+     * difference.
+     */
+    private void precomputeToHit(List<WeaponAttackAction> attacks) {
+        if (!precomputeToHit) {
+            return;
+        }
+        final List<WeaponAttackAction> precomputed = new ArrayList<WeaponAttackAction>();
+        for (WeaponAttackAction waa : attacks) {
+            if (waa.canPrecomputeToHit(game)) {
+                precomputed.add(waa);
+            }
+        }
+        if (precomputed.size() < 2) {
+            return;
+        }
+        long start = precomputeToHitTimer.start();
+        final List<ECMInfo> allECMInfo = ComputeECM
+                .computeAllEntitiesECMInfo(game.getEntitiesVector());
+        precomputed.parallelStream().forEach(waa -> {
+            try {
+                waa.precomputeToHit(game, allECMInfo);
+            } catch (RuntimeException e) {
+                // nothing is kept, the weapon works it out when it fires
+            }
+        });
+        precomputeToHitTimer.stop(start);
     }
 
     /**
@@ -28015,6 +28202,15 @@ public class Server implements Runnable {
      */
     private Vector<IPlayer> whoCanSee(Entity entity, boolean useSensors,
             Map<EntityTargetPair, LosEffects> losCache) {
+        long start = whoCanSeeTimer.start();
+        Vector<IPlayer> vCanSee = findPlayersWhoCanSee(entity, useSensors,
+                losCache);
+        whoCanSeeTimer.stop(start);
+        return vCanSee;
+    }
+
+    private Vector<IPlayer> findPlayersWhoCanSee(Entity entity,
+            boolean useSensors, Map<EntityTargetPair, LosEffects> losCache) {
         if (losCache == null) {
             losCache = new HashMap<>();
         }
@@ -29251,7 +29447,7 @@ public class Server implements Runnable {
         }
 
         // Set proper RNG
-        Compute.setRNG(game.getOptions().intOption(OptionsConstants.BASE_RNG_TYPE));
+        resetRNG();
 
         if (changed > 0) {
             for (Entity en : game.getEntitiesVector()) {
@@ -29626,16 +29822,6 @@ public class Server implements Runnable {
         sendChat(ORIGIN, message);
     }
 
-    /**
-     * Creates a packet containing a hex, and the coordinates it goes at.
-     */
-    private Packet createHexChangePacket(Coords coords, IHex hex) {
-        final Object[] data = new Object[2];
-        data[0] = coords;
-        data[1] = hex;
-        return new Packet(Packet.COMMAND_CHANGE_HEX, data);
-    }
-
     public void sendSmokeCloudAdded(SmokeCloud cloud) {
         final Object[] data = new Object[1];
         data[0] = cloud;
@@ -29643,31 +29829,57 @@ public class Server implements Runnable {
     }
 
     /**
-     * Sends notification to clients that the specified hex has changed.
+     * Sends notification to clients that the specified hex has changed. The
+     * hex goes out with the next board delta.
      */
     public void sendChangedHex(Coords coords) {
-        send(createHexChangePacket(coords, game.getBoard().getHex(coords)));
+        changedHexes.add(coords);
     }
 
     /**
-     * Creates a packet containing a hex, and the coordinates it goes at.
+     * Sends notification to clients that the specified hexes have changed.
+     * The hexes go out with the next board delta.
      */
-    private Packet createHexesChangePacket(Set<Coords> coords, Set<IHex> hex) {
-        final Object[] data = new Object[2];
-        data[0] = coords;
-        data[1] = hex;
-        return new Packet(Packet.COMMAND_CHANGE_HEXES, data);
+    public void sendChangedHexes(Set<Coords> coords) {
+        changedHexes.addAll(coords);
     }
 
     /**
-     * Sends notification to clients that the specified hex has changed.
+     * Sends the clients all changes to the board since the last time in one
+     * board delta, with the hexes and buildings as they are now. This is done
+     * before any other packet goes out, so clients always see the changes
+     * before anything that happened after them.
      */
-    public void sendChangedHexes(Set<Coords> coords) {
-        Set<IHex> hexes = new LinkedHashSet<IHex>();
-        for (Coords coord : coords) {
-            hexes.add(game.getBoard().getHex(coord));
+    private void sendBoardChanges() {
+        if (changedHexes.isEmpty() && changedBuildings.isEmpty()
+                && collapsedBuildings.isEmpty()) {
+            return;
+        }
+        final IBoard board = game.getBoard();
+        BoardDelta delta = new BoardDelta(board.nextDeltaVersion());
+        for (Coords coords : changedHexes) {
+            delta.addHex(coords, board.getHex(coords));
+        }
+        for (Building bldg : changedBuildings) {
+            // a building that has collapsed altogether has nothing to update
+            if (bldg.getCoords().hasMoreElements()) {
+                delta.addBuilding(bldg);
+            }
+        }
+        for (Coords coords : collapsedBuildings) {
+            delta.addCollapsedBuilding(coords);
+        }
+        changedHexes.clear();
+        changedBuildings.clear();
+        collapsedBuildings.clear();
+        if (connections == null) {
+            return;
+        }
+        Packet packet = new Packet(Packet.COMMAND_BOARD_DELTA, delta);
+        for (Enumeration<IConnection> connEnum = connections.elements(); connEnum
+                .hasMoreElements(); ) {
+            connEnum.nextElement().send(packet);
         }
-        send(createHexesChangePacket(coords, hexes));
     }
 
     /**
@@ -29790,6 +30002,7 @@ public class Server implements Runnable {
         if (connections == null) {
             return;
         }
+        sendBoardChanges();
         for (Enumeration<IConnection> connEnum = connections.elements(); connEnum
                 .hasMoreElements(); ) {
             IConnection conn = connEnum.nextElement();
@@ -29816,6 +30029,7 @@ public class Server implements Runnable {
         if (connections == null) {
             return;
         }
+        sendBoardChanges();
 
         for (Enumeration<IConnection> connEnum = connections.elements(); connEnum
                 .hasMoreElements(); ) {
@@ -29835,6 +30049,7 @@ public class Server implements Runnable {
      * Send a packet to a specific connection.
      */
     public void send(int connId, Packet packet) {
+        sendBoardChanges();
         if (getClient(connId) != null) {
             getClient(connId).send(packet);
         } else {
@@ -30201,17 +30416,7 @@ public class Server implements Runnable {
 
                     IConnection c = ConnectionFactory.getInstance()
                             .createServerConnection(s, id);
-                    c.addConnectionListener(connectionListener);
-                    c.open();
-                    connectionsPending.addElement(c);
-                    ConnectionHandler ch = new ConnectionHandler(c);
-                    Thread newConnThread = new Thread(ch, "Connection " + id);
-                    newConnThread.start();
-                    connectionHandlers.put(id, ch);
-
-                    greeting(id);
-                    ConnectionWatchdog w = new ConnectionWatchdog(this, id);
-                    watchdogTimer.schedule(w, 1000, 500);
+                    acceptConnection(c);
                 }
             } catch (InterruptedIOException iioe) {
                 // ignore , just SOTimeout blowing..
@@ -30236,6 +30441,38 @@ public class Server implements Runnable {
         }
     }
 
+    /**
+     * Takes the server end of a connection from a client running in this JVM.
+     */
+    private void acceptLocalConnection(IConnection c) {
+        synchronized (serverLock) {
+            int id = getFreeConnectionId();
+            System.out.println("s: accepting local player connection #" + id
+                    + " ...");
+            c.setId(id);
+            acceptConnection(c);
+        }
+    }
+
+    /**
+     * Opens a new connection and greets the client. Must be called while
+     * synchronized on the server lock.
+     */
+    private void acceptConnection(IConnection c) {
+        int id = c.getId();
+        c.addConnectionListener(connectionListener);
+        c.open();
+        connectionsPending.addElement(c);
+        ConnectionHandler ch = new ConnectionHandler(c);
+        Thread newConnThread = new Thread(ch, "Connection " + id);
+        newConnThread.start();
+        connectionHandlers.put(id, ch);
+
+        greeting(id);
+        ConnectionWatchdog w = new ConnectionWatchdog(this, id);
+        watchdogTimer.schedule(w, 1000, 500);
+    }
+
     /**
      * Makes one slot of inferno ammo, determined by certain rules, explode on a
      * mech.
@@ -31016,7 +31253,7 @@ public class Server implements Runnable {
             // the ground
             bldg.setCurrentCF(0, coords);
             bldg.setPhaseCF(0, coords);
-            send(createCollapseBuildingPacket(coords));
+            collapsedBuildings.add(coords);
             game.getBoard().collapseBuilding(coords);
 
             // Sort in elevation order
@@ -31132,7 +31369,7 @@ public class Server implements Runnable {
             // Update the building.
             bldg.setCurrentCF(0, coords);
             bldg.setPhaseCF(0, coords);
-            send(createCollapseBuildingPacket(coords));
+            collapsedBuildings.add(coords);
             game.getBoard().collapseBuilding(coords);
         }
         // if more than half of the hexes are gone, collapse all
@@ -31147,39 +31384,6 @@ public class Server implements Runnable {
 
     } // End private void collapseBuilding( Building )
 
-    /**
-     * Tell the clients to replace the given building with rubble hexes.
-     *
-     * @param coords - the <code>Coords</code> that has collapsed.
-     * @return a <code>Packet</code> for the command.
-     */
-    private Packet createCollapseBuildingPacket(Coords coords) {
-        Vector<Coords> coordsV = new Vector<Coords>();
-        coordsV.addElement(coords);
-        return createCollapseBuildingPacket(coordsV);
-    }
-
-    /**
-     * Tell the clients to replace the given building hexes with rubble hexes.
-     *
-     * @param coords - a <code>Vector</code> of <code>Coords</code>s that has
-     *               collapsed.
-     * @return a <code>Packet</code> for the command.
-     */
-    private Packet createCollapseBuildingPacket(Vector<Coords> coords) {
-        return new Packet(Packet.COMMAND_BLDG_COLLAPSE, coords);
-    }
-
-    /**
-     * Tell the clients to update the CFs of the given buildings.
-     *
-     * @param buildings - a <code>Vector</code> of <code>Building</code>s that need to
-     *                  be updated.
-     * @return a <code>Packet</code> for the command.
-     */
-    private Packet createUpdateBuildingPacket(Vector<Building> buildings) {
-        return new Packet(Packet.COMMAND_BLDG_UPDATE, buildings);
-    }
 
     /**
      * Apply this phase's damage to all buildings. Buildings may collapse due to
@@ -31574,8 +31778,12 @@ public class Server implements Runnable {
 
     }
 
+    /**
+     * Tell the clients to update the CFs of the given buildings. The buildings
+     * go out with the next board delta.
+     */
     public void sendChangedBuildings(Vector<Building> buildings) {
-        send(createUpdateBuildingPacket(buildings));
+        changedBuildings.addAll(buildings);
     }
 
     /**
@@ -34114,6 +34322,7 @@ public class Server implements Runnable {
     }
 
     private void handleAttacks(boolean pointblankShot) {
+        long start = handleAttacksTimer.start();
         Report r;
         int lastAttackerId = -1;
         Vector<AttackHandler> currentAttacks, keptAttacks;
@@ -34199,6 +34408,7 @@ public class Server implements Runnable {
         addReport(handleAttackReports);
         // HACK, but anything else seems to run into weird problems.
         game.setAttacksVector(keptAttacks);
+        handleAttacksTimer.stop(start);
     }
 
     /**
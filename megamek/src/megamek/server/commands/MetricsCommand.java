@@ -0,0 +1,85 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.server.commands;
+
+import java.io.File;
+
+import megamek.common.preference.PreferenceManager;
+import megamek.common.util.Metrics;
+import megamek.server.Server;
+
+/**
+ * Shows the performance metrics the server has collected, resets them, or
+ * logs a snapshot of them every round.
+ *
+ * @author The MegaMek Team
+ */
+public class MetricsCommand extends ServerCommand {
+
+    public MetricsCommand(Server server) {
+        super(server, "metrics",
+                "Shows how long the server takes for phases, attacks and "
+                + "visibility checks, and how large the packets it sends are. "
+                + "Usage: /metrics [filter] shows the metrics whose names "
+                + "contain the filter, /metrics reset sets them back to zero, "
+                + "/metrics log csv|json|off starts or stops logging them to "
+                + "the log directory at the end of every round.");
+    }
+
+    @Override
+    public void run(int connId, String[] args) {
+        Metrics metrics = Metrics.getInstance();
+        if ((args.length > 1) && args[1].equals("reset")) {
+            if (!canRunRestrictedCommand(connId)) {
+                server.sendServerChat(connId,
+                        "Observers are restricted from resetting metrics.");
+                return;
+            }
+            metrics.reset();
+            server.sendServerChat(connId, "Metrics reset.");
+            return;
+        }
+        if ((args.length > 1) && args[1].equals("log")) {
+            if (!canRunRestrictedCommand(connId)) {
+                server.sendServerChat(connId,
+                        "Observers are restricted from logging metrics.");
+                return;
+            }
+            String format = (args.length > 2) ? args[2] : "";
+            if (format.equals("off")) {
+                metrics.setLogFile(null, false);
+                server.sendServerChat(connId, "Metrics are no longer logged.");
+            } else if (format.equals("csv") || format.equals("json")) {
+                File file = new File(PreferenceManager.getClientPreferences()
+                        .getLogDirectory(), "metrics." + format);
+                metrics.setLogFile(file, format.equals("json"));
+                server.sendServerChat(connId, "Metrics are logged to "
+                        + file.getPath() + " every round.");
+            } else {
+                server.sendServerChat(connId,
+                        "Usage: /metrics log csv|json|off");
+            }
+            return;
+        }
+
+        String filter = (args.length > 1) ? args[1] : "";
+        server.sendServerChat(connId, "Server metrics:");
+        for (String line : metrics.report()) {
+            if (line.substring(0, line.indexOf(':')).contains(filter)) {
+                server.sendServerChat(connId, line);
+            }
+        }
+        server.sendServerChat(connId, "end list");
+    }
+}
@@ -393,6 +393,9 @@ public class PacketTool extends Frame implements Runnable {
                 case Packet.COMMAND_CHANGE_HEX:
                     System.out.print("COMMAND_CHANGE_HEX");
                     break;
+                case Packet.COMMAND_BOARD_DELTA:
+                    System.out.print("COMMAND_BOARD_DELTA");
+                    break;
                 case Packet.COMMAND_BLDG_ADD:
                     System.out.print("COMMAND_BLDG_ADD");
                     break;
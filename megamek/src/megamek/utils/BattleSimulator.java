@@ -0,0 +1,543 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import megamek.client.bot.princess.Princess;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.IPlayer;
+import megamek.common.MULParser;
+import megamek.common.MapSettings;
+import megamek.common.MechSummaryCache;
+import megamek.common.Player;
+import megamek.common.event.GameListenerAdapter;
+import megamek.common.event.GamePhaseChangeEvent;
+import megamek.common.logging.LogLevel;
+import megamek.common.util.BoardUtilities;
+import megamek.common.util.Metrics;
+import megamek.server.Server;
+
+/**
+ * Plays games between Princess bots without a user interface, to measure and
+ * compare how fast the server and the bots are. Each MUL file is the force of
+ * one bot, on a team of its own. For every game the simulator writes who won,
+ * how long it took and all metrics, including the time spent in each phase
+ * and the size of the packets sent, as CSV or, for an output file ending in
+ * .json, as one JSON object per line.
+ * <p>
+ * Without a board file each game is played on a random board generated from
+ * the game's seed. With a seed, game <i>n</i> is seeded with seed + <i>n</i>.
+ * <p>
+ * The server is a singleton, so games played in parallel each run in a JVM of
+ * their own. A game that is not over after the timeout, in minutes, is given
+ * up and reported as failed.
+ * <p>
+ * Usage: BattleSimulator [-board file] [-options gameoptions.xml] [-seed n]
+ * [-games n] [-parallel n] [-rounds n] [-timeout n] [-out file] force.mul
+ * force.mul ...
+ *
+ * @author The MegaMek Team
+ */
+public class BattleSimulator {
+
+    /**
+     * The metrics of each phase of the game, from the moment the server
+     * enters it until it leaves it, bots' thinking included
+     */
+    private static final String PHASE_TIMER = "sim.phase."; //$NON-NLS-1$
+
+    private File board;
+    private File options;
+    private long seed;
+    private int games = 1;
+    private int parallel = 1;
+    private int rounds = 50;
+    private int timeout = 30;
+    private File out;
+    private List<File> forces = new ArrayList<File>();
+
+    /**
+     * The game a forked JVM plays, or -1
+     */
+    private int game = -1;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true"); //$NON-NLS-1$ //$NON-NLS-2$
+        BattleSimulator simulator = new BattleSimulator();
+        if (!simulator.parseArgs(args)) {
+            System.err.println("Usage: BattleSimulator [-board file] [-options gameoptions.xml]" //$NON-NLS-1$
+                    + " [-seed n] [-games n] [-parallel n] [-rounds n] [-timeout n]" //$NON-NLS-1$
+                    + " [-out file.csv|file.json]" //$NON-NLS-1$
+                    + " force.mul force.mul ..."); //$NON-NLS-1$
+            System.exit(1);
+        }
+        simulator.run();
+        System.exit(0);
+    }
+
+    private boolean parseArgs(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("-")) { //$NON-NLS-1$
+                    forces.add(new File(arg));
+                } else if (i + 1 >= args.length) {
+                    return false;
+                } else if (arg.equals("-board")) { //$NON-NLS-1$
+                    board = new File(args[++i]);
+                } else if (arg.equals("-options")) { //$NON-NLS-1$
+                    options = new File(args[++i]);
+                } else if (arg.equals("-seed")) { //$NON-NLS-1$
+                    seed = Long.parseLong(args[++i]);
+                } else if (arg.equals("-games")) { //$NON-NLS-1$
+                    games = Integer.parseInt(args[++i]);
+                } else if (arg.equals("-parallel")) { //$NON-NLS-1$
+                    parallel = Integer.parseInt(args[++i]);
+                } else if (arg.equals("-rounds")) { //$NON-NLS-1$
+                    rounds = Integer.parseInt(args[++i]);
+                } else if (arg.equals("-timeout")) { //$NON-NLS-1$
+                    timeout = Integer.parseInt(args[++i]);
+                } else if (arg.equals("-out")) { //$NON-NLS-1$
+                    out = new File(args[++i]);
+                } else if (arg.equals("-game")) { //$NON-NLS-1$
+                    game = Integer.parseInt(args[++i]);
+                } else {
+                    return false;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return (forces.size() >= 2) && (games > 0) && (parallel > 0)
+                && (timeout > 0);
+    }
+
+    private void run() throws Exception {
+        // load the units before the clock starts; forked JVMs can then read
+        // them from the cache file the first load wrote
+        MechSummaryCache.getInstance().getAllMechs();
+        List<Result> results;
+        if (game >= 0) {
+            results = new ArrayList<Result>();
+            addIfPlayed(results, play(game));
+        } else if ((parallel > 1) && (games > 1)) {
+            results = fork();
+        } else {
+            results = new ArrayList<Result>();
+            for (int i = 0; i < games; i++) {
+                addIfPlayed(results, play(i));
+            }
+        }
+        if (game >= 0) {
+            // a forked JVM hands its results back as they are
+            try (ObjectOutputStream os = new ObjectOutputStream(
+                    new FileOutputStream(out))) {
+                os.writeObject(results);
+            }
+        } else if (out == null) {
+            Writer writer = new StringWriter();
+            write(results, writer);
+            System.out.print(writer);
+        } else {
+            try (Writer writer = new FileWriter(out)) {
+                write(results, writer);
+            }
+        }
+        if (game < 0) {
+            printSummary(results);
+        }
+    }
+
+    private static void addIfPlayed(List<Result> results, Result result) {
+        if (result != null) {
+            results.add(result);
+        }
+    }
+
+    /**
+     * Plays one game in this JVM.
+     *
+     * @return the result, or null if the game timed out
+     */
+    private Result play(int index) throws Exception {
+        long gameSeed = (seed == 0) ? 0 : seed + index;
+        Metrics metrics = Metrics.getInstance();
+        metrics.reset();
+        long start = System.currentTimeMillis();
+
+        Server server = new Server("", 0); //$NON-NLS-1$
+        server.setGame(createGame(gameSeed));
+        if (gameSeed != 0) {
+            server.setRandomSeed(gameSeed);
+        }
+        server.calculatePlayerBVs();
+        final IGame serverGame = server.getGame();
+        final CountDownLatch over = new CountDownLatch(1);
+        serverGame.addGameListener(new GameListenerAdapter() {
+            private long phaseStart = System.nanoTime();
+
+            @Override
+            public void gamePhaseChange(GamePhaseChangeEvent e) {
+                if (e.getOldPhase() != null) {
+                    Metrics.getInstance().timer(PHASE_TIMER + e.getOldPhase())
+                            .stop(phaseStart);
+                }
+                phaseStart = System.nanoTime();
+                if ((e.getNewPhase() == IGame.Phase.PHASE_VICTORY)
+                        || (serverGame.getRoundCount() > rounds)) {
+                    over.countDown();
+                }
+            }
+        });
+
+        List<Princess> bots = new ArrayList<Princess>();
+        Result result = new Result(index, gameSeed);
+        try {
+            for (IPlayer player : serverGame.getPlayersVector()) {
+                Princess bot = new Princess(player.getName(), "localhost", //$NON-NLS-1$
+                        server.getPort(), LogLevel.ERROR);
+                if (!bot.connect()) {
+                    throw new IOException("Bot " + player.getName() //$NON-NLS-1$
+                            + " could not connect"); //$NON-NLS-1$
+                }
+                bots.add(bot);
+            }
+            if (!over.await(timeout, TimeUnit.MINUTES)) {
+                System.err.println("Game " + index + " failed, it was not over after " //$NON-NLS-1$ //$NON-NLS-2$
+                        + timeout + " minutes"); //$NON-NLS-1$
+                return null;
+            }
+
+            result.rounds = Math.min(serverGame.getRoundCount(), rounds);
+            result.winner = getWinner(serverGame);
+            result.millis = System.currentTimeMillis() - start;
+            StringWriter csv = new StringWriter();
+            metrics.writeCsv(csv, start, false);
+            result.csv = csv.toString();
+            StringWriter json = new StringWriter();
+            metrics.writeJson(json, start);
+            result.json = json.toString();
+        } finally {
+            for (Princess bot : bots) {
+                bot.die();
+            }
+            server.die();
+        }
+        System.out.println("Game " + index + ": " + result.winner //$NON-NLS-1$ //$NON-NLS-2$
+                + " after " + result.rounds + " rounds, " + result.millis //$NON-NLS-1$ //$NON-NLS-2$
+                + " ms"); //$NON-NLS-1$
+        return result;
+    }
+
+    /**
+     * Sets the game up the way a scenario is: the bots log in as the players.
+     */
+    private IGame createGame(long gameSeed) throws IOException {
+        Game g = new Game();
+        g.getOptions().initialize();
+        if (options == null) {
+            g.getOptions().loadOptions();
+        } else {
+            g.getOptions().loadOptions(options, true);
+        }
+        g.board = createBoard(gameSeed);
+
+        int entityId = 0;
+        for (int i = 0; i < forces.size(); i++) {
+            File force = forces.get(i);
+            String name = force.getName().replaceFirst("\\.mul$", "") //$NON-NLS-1$ //$NON-NLS-2$
+                    + " " + (i + 1); //$NON-NLS-1$
+            Player player = new Player(i, name);
+            player.setGhost(true);
+            player.setTeam(Math.min(i + 1, IPlayer.MAX_TEAMS - 1));
+            // the first two face each other, the rest deploy anywhere
+            player.setStartingPos((i == 0) ? 2 : ((i == 1) ? 6 : 0));
+            g.addPlayer(i, player);
+
+            MULParser parser;
+            try (InputStream is = new FileInputStream(force)) {
+                parser = new MULParser(is);
+            }
+            if (parser.hasWarningMessage()) {
+                System.err.println(parser.getWarningMessage());
+            }
+            for (Entity entity : parser.getEntities()) {
+                entity.setOwner(player);
+                entity.setId(entityId++);
+                // scenarios only deploy units that come in after the start,
+                // so the forces arrive at the start of the first round
+                entity.setDeployRound(1);
+                g.addEntity(entity);
+            }
+        }
+
+        g.getPlanetaryConditions().determineWind();
+        g.setupTeams();
+        g.setPhase(IGame.Phase.PHASE_STARTING_SCENARIO);
+        g.setupRoundDeployment();
+        g.setVictoryContext(new HashMap<String, Object>());
+        g.createVictoryConditions();
+        return g;
+    }
+
+    private IBoard createBoard(long gameSeed) {
+        if (board != null) {
+            IBoard result = new megamek.common.Board();
+            result.load(board);
+            return result;
+        }
+        MapSettings mapSettings = MapSettings.getInstance();
+        mapSettings.setRandomSeed(gameSeed);
+        return BoardUtilities.generateRandom(mapSettings);
+    }
+
+    private static String getWinner(IGame game) {
+        if (game.getPhase() != IGame.Phase.PHASE_VICTORY) {
+            return "none"; //$NON-NLS-1$
+        }
+        if (game.getVictoryPlayerId() != IPlayer.PLAYER_NONE) {
+            return game.getPlayer(game.getVictoryPlayerId()).getName();
+        }
+        if (game.getVictoryTeam() != IPlayer.TEAM_NONE) {
+            StringBuilder names = new StringBuilder();
+            for (IPlayer player : game.getPlayersVector()) {
+                if (player.getTeam() == game.getVictoryTeam()) {
+                    if (names.length() > 0) {
+                        names.append('+');
+                    }
+                    names.append(player.getName());
+                }
+            }
+            return names.toString();
+        }
+        return "draw"; //$NON-NLS-1$
+    }
+
+    /**
+     * Plays the games in JVMs of their own, as many at a time as asked for.
+     */
+    private List<Result> fork() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(parallel);
+        List<Future<List<Result>>> futures = new ArrayList<Future<List<Result>>>();
+        for (int i = 0; i < games; i++) {
+            final int index = i;
+            futures.add(executor.submit(() -> playForked(index)));
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        List<Result> results = new ArrayList<Result>();
+        for (Future<List<Result>> future : futures) {
+            results.addAll(future.get());
+        }
+        return results;
+    }
+
+    private List<Result> playForked(int index) throws Exception {
+        File result = File.createTempFile("battle" + index + "-", ".ser"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        File log = File.createTempFile("battle" + index + "-", ".log"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        List<String> command = new ArrayList<String>();
+        command.add(new File(new File(System.getProperty("java.home"), "bin"), //$NON-NLS-1$ //$NON-NLS-2$
+                "java").getPath()); //$NON-NLS-1$
+        command.add("-cp"); //$NON-NLS-1$
+        command.add(System.getProperty("java.class.path")); //$NON-NLS-1$
+        command.add(BattleSimulator.class.getName());
+        if (board != null) {
+            command.add("-board"); //$NON-NLS-1$
+            command.add(board.getPath());
+        }
+        if (options != null) {
+            command.add("-options"); //$NON-NLS-1$
+            command.add(options.getPath());
+        }
+        command.add("-seed"); //$NON-NLS-1$
+        command.add(Long.toString(seed));
+        command.add("-rounds"); //$NON-NLS-1$
+        command.add(Integer.toString(rounds));
+        command.add("-timeout"); //$NON-NLS-1$
+        command.add(Integer.toString(timeout));
+        command.add("-game"); //$NON-NLS-1$
+        command.add(Integer.toString(index));
+        command.add("-out"); //$NON-NLS-1$
+        command.add(result.getPath());
+        for (File force : forces) {
+            command.add(force.getPath());
+        }
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(log).start();
+        try {
+            // the game gives itself up after the timeout; the extra minute is
+            // for starting the JVM and loading the units
+            if (!process.waitFor(timeout + 1, TimeUnit.MINUTES)) {
+                process.destroyForcibly().waitFor();
+                System.err.println("Game " + index + " failed, it did not end after " //$NON-NLS-1$ //$NON-NLS-2$
+                        + (timeout + 1) + " minutes, see " + log); //$NON-NLS-1$
+                return new ArrayList<Result>();
+            }
+            List<Result> results = read(result);
+            if ((process.exitValue() != 0) || results.isEmpty()) {
+                System.err.println("Game " + index + " failed, see " + log); //$NON-NLS-1$ //$NON-NLS-2$
+                return results;
+            }
+            System.out.println("Game " + index + ": " + results.get(0).winner //$NON-NLS-1$ //$NON-NLS-2$
+                    + " after " + results.get(0).rounds + " rounds, " //$NON-NLS-1$ //$NON-NLS-2$
+                    + results.get(0).millis + " ms"); //$NON-NLS-1$
+            log.delete();
+            return results;
+        } finally {
+            result.delete();
+        }
+    }
+
+    /**
+     * Writes the results as CSV, one row per metric of each game, or for an
+     * output file ending in .json, as one JSON object per game.
+     */
+    private void write(List<Result> results, Writer writer) throws IOException {
+        if (isJson()) {
+            for (Result result : results) {
+                writer.write(result.toJson());
+            }
+            return;
+        }
+        StringWriter header = new StringWriter();
+        Metrics.getInstance().writeCsv(header, 0, true);
+        writer.write("game,seed,rounds,winner,millis," //$NON-NLS-1$
+                + header.toString().split("\n")[0] + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        for (Result result : results) {
+            String prefix = result.index + "," + result.seed + "," //$NON-NLS-1$ //$NON-NLS-2$
+                    + result.rounds + "," + result.winner + "," //$NON-NLS-1$ //$NON-NLS-2$
+                    + result.millis + ","; //$NON-NLS-1$
+            for (String line : result.csv.split("\n")) { //$NON-NLS-1$
+                if (!line.isEmpty()) {
+                    writer.write(prefix + line + "\n"); //$NON-NLS-1$
+                }
+            }
+        }
+    }
+
+    private boolean isJson() {
+        return (out != null) && out.getName().endsWith(".json"); //$NON-NLS-1$
+    }
+
+    /**
+     * Reads the results a forked JVM wrote.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Result> read(File file) throws IOException {
+        if (file.length() == 0) {
+            return new ArrayList<Result>();
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(
+                file))) {
+            return (List<Result>) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void printSummary(List<Result> results) {
+        if (results.size() < games) {
+            System.out.println((games - results.size()) + " of " + games //$NON-NLS-1$
+                    + " games failed"); //$NON-NLS-1$
+        }
+        if (results.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> wins = new TreeMap<String, Integer>();
+        long totalRounds = 0;
+        long millis = 0;
+        for (Result result : results) {
+            Integer count = wins.get(result.winner);
+            wins.put(result.winner, (count == null) ? 1 : count + 1);
+            totalRounds += result.rounds;
+            millis += result.millis;
+        }
+        System.out.println(String.format("%d games, %.1f rounds and %.1f s per game, %.1f ms per round", //$NON-NLS-1$
+                results.size(), (double) totalRounds / results.size(),
+                millis / 1000d / results.size(),
+                (double) millis / Math.max(totalRounds, 1)));
+        for (Map.Entry<String, Integer> entry : wins.entrySet()) {
+            System.out.println("  " + entry.getKey() + ": " + entry.getValue()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * The outcome and metrics of one game.
+     */
+    private static class Result implements Serializable {
+        private static final long serialVersionUID = 3461592865377402375L;
+
+        final int index;
+        final long seed;
+        int rounds;
+        String winner;
+        long millis;
+
+        /**
+         * The metrics as CSV rows and as a JSON object
+         */
+        String csv;
+        String json;
+
+        Result(int index, long seed) {
+            this.index = index;
+            this.seed = seed;
+        }
+
+        /**
+         * @return a JSON object on a line of its own
+         */
+        String toJson() {
+            return "{\"game\":" + index + ",\"seed\":" + seed //$NON-NLS-1$ //$NON-NLS-2$
+                    + ",\"rounds\":" + rounds + ",\"winner\":\"" //$NON-NLS-1$ //$NON-NLS-2$
+                    + winner.replace("\\", "\\\\").replace("\"", "\\\"") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                    + "\",\"millis\":" + millis + metricsJson() + "}\n"; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        /**
+         * @return the members of the metrics object, after a comma, or an
+         *         empty string if there are none
+         */
+        private String metricsJson() {
+            String members = json.trim();
+            members = members.substring(1, members.length() - 1).trim();
+            return members.isEmpty() ? "" : "," + members; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+}
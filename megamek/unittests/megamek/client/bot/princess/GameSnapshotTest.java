@@ -0,0 +1,88 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.bot.princess;
+
+import megamek.common.BipedMech;
+import megamek.common.Coords;
+import megamek.common.Crew;
+import megamek.common.Entity;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.options.PilotOptions;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+@RunWith(JUnit4.class)
+public class GameSnapshotTest {
+
+    private IGame mockGame;
+    private Entity mockMech1;
+    private Entity mockMech2;
+
+    private static Entity mockMech(int id, Coords position) {
+        Entity mockMech = Mockito.mock(BipedMech.class);
+        Mockito.when(mockMech.getId()).thenReturn(id);
+        Mockito.when(mockMech.getPosition()).thenReturn(position);
+        Crew mockCrew = Mockito.mock(Crew.class);
+        Mockito.when(mockMech.getCrew()).thenReturn(mockCrew);
+        Mockito.when(mockCrew.getOptions()).thenReturn(Mockito.mock(PilotOptions.class));
+        return mockMech;
+    }
+
+    @Before
+    public void setUp() {
+        mockGame = Mockito.mock(IGame.class);
+        Mockito.when(mockGame.getBoard()).thenReturn(Mockito.mock(IBoard.class));
+        Mockito.when(mockGame.getEntitiesChangeStamp()).thenReturn(1L);
+        Mockito.when(mockGame.getPhase()).thenReturn(IGame.Phase.PHASE_MOVEMENT);
+        mockMech1 = mockMech(1, new Coords(1, 1));
+        mockMech2 = mockMech(2, new Coords(5, 5));
+    }
+
+    @Test
+    public void testForks() {
+        GameSnapshot snapshot = new GameSnapshot(mockGame);
+        EntityState current = snapshot.getState(mockMech1);
+        Assert.assertSame(current, snapshot.getState(mockMech1));
+        Assert.assertEquals(new Coords(1, 1), current.getPosition());
+
+        EntityState moved = Mockito.mock(EntityState.class);
+        Mockito.when(moved.getPosition()).thenReturn(new Coords(2, 2));
+        GameSnapshot fork = snapshot.withState(mockMech1, moved)
+                .withDamage(mockMech2, 5).withDamage(mockMech2, 2.5);
+
+        Assert.assertEquals(new Coords(2, 2), fork.getPosition(mockMech1));
+        Assert.assertEquals(new Coords(5, 5), fork.getPosition(mockMech2));
+        Assert.assertEquals(7.5, fork.getExpectedDamage(mockMech2), 0.0001);
+        Assert.assertEquals(0, fork.getExpectedDamage(mockMech1), 0.0001);
+        Assert.assertSame(snapshot, fork.getRoot());
+
+        // the snapshot the fork came from doesn't change
+        Assert.assertSame(current, snapshot.getState(mockMech1));
+        Assert.assertEquals(0, snapshot.getExpectedDamage(mockMech2), 0.0001);
+    }
+
+    @Test
+    public void testIsCurrent() {
+        GameSnapshot fork = new GameSnapshot(mockGame).withDamage(mockMech1, 1);
+        Assert.assertTrue(fork.isCurrent());
+
+        Mockito.when(mockGame.getEntitiesChangeStamp()).thenReturn(2L);
+        Assert.assertFalse(fork.isCurrent());
+    }
+}
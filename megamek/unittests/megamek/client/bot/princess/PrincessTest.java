@@ -419,7 +419,7 @@ public class PrincessTest {
         // Unit is on home edge.
         BasicPathRanker mockRanker = Mockito.mock(BasicPathRanker.class);
         Mockito.when(mockRanker.distanceToHomeEdge(Mockito.any(Coords.class), Mockito.any(HomeEdge.class),
-                                                   Mockito.any(IGame.class))).thenReturn(0);
+                                                   Mockito.any(Entity.class), Mockito.any(IGame.class))).thenReturn(0);
         Mockito.when(mockPrincess.getPathRanker()).thenReturn(mockRanker);
 
         // Mock objects so we don't have nulls.
@@ -460,7 +460,7 @@ public class PrincessTest {
         // The unit can flee, but is no longer on the board edge.
         Mockito.when(mockMech.canFlee()).thenReturn(true);
         Mockito.when(mockRanker.distanceToHomeEdge(Mockito.any(Coords.class), Mockito.any(HomeEdge.class),
-                                                   Mockito.any(IGame.class))).thenReturn(1);
+                                                   Mockito.any(Entity.class), Mockito.any(IGame.class))).thenReturn(1);
         Assert.assertFalse(mockPrincess.mustFleeBoard(mockMech));
     }
 
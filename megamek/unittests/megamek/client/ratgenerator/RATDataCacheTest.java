@@ -0,0 +1,91 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.ratgenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RATDataCacheTest {
+
+    private static RATDataCache roundTrip(RATDataCache data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        data.write(out);
+        return RATDataCache.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static void write(File file, String xml) throws Exception {
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8)) {
+            w.write(xml);
+        }
+    }
+
+    @Test
+    public void testCacheMatchesTheXml() throws Exception {
+        RATDataCache data = RATDataCache.compile(new File("data/forcegenerator"));
+        Assert.assertTrue(data.getEras().iterator().hasNext());
+        Assert.assertEquals(data, roundTrip(data));
+    }
+
+    @Test
+    public void testAllRolesAndLongStringsAreKept() throws Exception {
+        StringBuilder longText = new StringBuilder();
+        while (longText.length() < 70000) {
+            longText.append("Atlas AS7-D,");
+        }
+        File dir = Files.createTempDirectory("ratgen").toFile();
+        try {
+            write(new File(dir, "factions.xml"), "<factions/>");
+            write(new File(dir, "3050.xml"), "<ratgen><units>"
+                    + "<chassis name='Atlas' unitType='Mek'><model name='AS7-D'>"
+                    + "<roles>fire support</roles><roles>command</roles>"
+                    + "<deployedWith>" + longText + "</deployedWith>"
+                    + "</model></chassis></units></ratgen>");
+            RATDataCache data = roundTrip(RATDataCache.compile(dir));
+
+            RATDataCache.Reader in = data.readEra(3050);
+            Assert.assertEquals(0, in.nextInt());
+            Assert.assertEquals(1, in.nextInt());
+            Assert.assertEquals("Atlas", in.nextString());
+            Assert.assertEquals("Mek", in.nextString());
+            Assert.assertNull(in.nextString());
+            Assert.assertEquals(RATDataCache.NONE, in.nextInt());
+            Assert.assertEquals(1, in.nextInt());
+            Assert.assertEquals("AS7-D", in.nextString());
+            Assert.assertNull(in.nextString());
+            Assert.assertNull(in.nextString());
+            Assert.assertEquals(2, in.nextInt());
+            Assert.assertEquals("fire support", in.nextString());
+            Assert.assertEquals("command", in.nextString());
+            Assert.assertEquals(longText.toString(), in.nextString());
+        } finally {
+            for (File f : dir.listFiles()) {
+                f.delete();
+            }
+            dir.delete();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.ratgenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class UnitTableTest {
+
+    @Test
+    public void testSamplerOddsMatchWeights() {
+        int[] weights = { 1, 7, 0, 3, 12, 5 };
+        List<UnitTable.TableEntry> entries = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            entries.add(new UnitTable.TableEntry(weights[i], "entry " + i));
+        }
+        UnitTable.WeightedSampler sampler = new UnitTable.WeightedSampler(entries);
+        Assert.assertEquals(28, sampler.getTotal());
+
+        // Every column and roll together are equally likely, so each entry must be picked
+        // by exactly as many of them as its weight times the number of columns.
+        int[] picks = new int[weights.length];
+        for (int column = 0; column < weights.length; column++) {
+            for (int roll = 0; roll < sampler.getTotal(); roll++) {
+                picks[sampler.pick(column, roll)]++;
+            }
+        }
+        for (int i = 0; i < weights.length; i++) {
+            Assert.assertEquals(weights[i] * weights.length, picks[i]);
+        }
+    }
+
+    @Test
+    public void testEmptySampler() {
+        List<UnitTable.TableEntry> entries = new ArrayList<>();
+        Assert.assertNull(new UnitTable.WeightedSampler(entries).sample());
+        entries.add(new UnitTable.TableEntry(0, "entry"));
+        Assert.assertNull(new UnitTable.WeightedSampler(entries).sample());
+    }
+}
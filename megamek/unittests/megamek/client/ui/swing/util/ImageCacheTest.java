@@ -0,0 +1,62 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.client.ui.swing.util;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ImageCacheTest {
+
+    @Test
+    public void testEntryLimitGivesUsedEntriesSecondChance() {
+        ImageCache<Integer, String> cache = new ImageCache<Integer, String>(
+                "test", 3, ImageCache.NO_BYTE_LIMIT);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+        Assert.assertEquals("one", cache.get(1));
+        cache.put(4, "four");
+
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals("one", cache.get(1));
+        Assert.assertNull(cache.get(2));
+        Assert.assertEquals(1, cache.getEvictions());
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testByteLimit() {
+        // each 10x10 ARGB image takes 400 bytes
+        ImageCache<Integer, BufferedImage> cache =
+                new ImageCache<Integer, BufferedImage>("test", 100, 1000);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, new BufferedImage(10, 10,
+                    BufferedImage.TYPE_INT_ARGB));
+        }
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(800, cache.getBytes());
+        Assert.assertNotNull(cache.get(4));
+
+        cache.remove(4);
+        Assert.assertEquals(400, cache.getBytes());
+        cache.clear();
+        Assert.assertEquals(0, cache.getBytes());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import megamek.common.event.BoardEvent;
+import megamek.common.event.BoardListenerAdapter;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class BoardDeltaTest {
+
+    private static final int SIZE = 4;
+
+    private Board board;
+    private List<BoardEvent> events;
+
+    @Before
+    public void setUp() {
+        IHex[] hexes = new IHex[SIZE * SIZE];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex(0);
+        }
+        board = new Board(SIZE, SIZE, hexes);
+
+        events = new ArrayList<BoardEvent>();
+        board.addBoardListener(new BoardListenerAdapter() {
+            @Override
+            public void boardChangedHex(BoardEvent b) {
+                events.add(b);
+            }
+
+            @Override
+            public void boardChangedHexes(BoardEvent b) {
+                events.add(b);
+            }
+        });
+    }
+
+    @Test
+    public void testOneEventForAllChanges() {
+        ITerrainFactory f = Terrains.getTerrainFactory();
+        IHex smoke = new Hex(0);
+        smoke.addTerrain(f.createTerrain(Terrains.SMOKE, 1));
+        IHex crater = new Hex(-1);
+
+        BoardDelta delta = new BoardDelta(1);
+        delta.addHex(new Coords(0, 0), smoke);
+        delta.addHex(new Coords(3, 3), crater);
+        Assert.assertTrue(board.applyDelta(delta));
+
+        Assert.assertEquals(1, events.size());
+        BoardEvent event = events.get(0);
+        Assert.assertEquals(BoardEvent.BOARD_CHANGED_HEXES, event.getType());
+        Assert.assertTrue(event.getChangedCoords().contains(new Coords(0, 0)));
+        Assert.assertTrue(event.getChangedCoords().contains(new Coords(3, 3)));
+
+        Assert.assertTrue(board.getHex(0, 0).containsTerrain(Terrains.SMOKE));
+        Assert.assertEquals(-1, board.getHex(3, 3).getLevel());
+
+        // single changes still send their own events
+        board.setHex(new Coords(2, 2), new Hex(1));
+        Assert.assertEquals(BoardEvent.BOARD_CHANGED_HEX, events.get(1)
+                .getType());
+    }
+
+    @Test
+    public void testVersions() {
+        Assert.assertEquals(0, board.getDeltaVersion());
+        BoardDelta first = new BoardDelta(1);
+        first.addHex(new Coords(0, 0), new Hex(2));
+        BoardDelta second = new BoardDelta(2);
+        second.addHex(new Coords(0, 0), new Hex(3));
+
+        Assert.assertTrue(board.applyDelta(second));
+        Assert.assertEquals(2, board.getDeltaVersion());
+        // an older delta, or the same one again, is left out
+        Assert.assertFalse(board.applyDelta(first));
+        Assert.assertFalse(board.applyDelta(second));
+        Assert.assertEquals(3, board.getHex(0, 0).getLevel());
+        Assert.assertEquals(1, events.size());
+
+        // the next delta made on the board comes after the one it has
+        Assert.assertEquals(3, board.nextDeltaVersion());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.Random;
+
+import megamek.common.options.GameOptions;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+@RunWith(JUnit4.class)
+public class BoardLosIndexTest {
+
+    private static final int SIZE = 12;
+
+    @After
+    public void tearDown() {
+        BoardLosIndex.setEnabled(true);
+    }
+
+    private static IGame mockGame(IBoard board, boolean diagramLos) {
+        GameOptions mockOptions = Mockito.mock(GameOptions.class);
+        Mockito.when(mockOptions.booleanOption(Mockito.anyString()))
+                .thenReturn(false);
+        Mockito.when(mockOptions.booleanOption("tacops_LOS1")).thenReturn(
+                diagramLos);
+        Mockito.when(mockOptions.getSnapshot()).thenCallRealMethod();
+        IGame mockGame = Mockito.mock(IGame.class);
+        Mockito.when(mockGame.getBoard()).thenReturn(board);
+        Mockito.when(mockGame.getOptions()).thenReturn(mockOptions);
+        return mockGame;
+    }
+
+    private static Board randomBoard(Random random) {
+        ITerrainFactory f = Terrains.getTerrainFactory();
+        IHex[] hexes = new IHex[SIZE * SIZE];
+        for (int i = 0; i < hexes.length; i++) {
+            IHex hex = new Hex(random.nextInt(4));
+            switch (random.nextInt(10)) {
+                case 0:
+                    hex.addTerrain(f.createTerrain(Terrains.WOODS,
+                            1 + random.nextInt(3)));
+                    break;
+                case 1:
+                    hex.addTerrain(f.createTerrain(Terrains.SMOKE,
+                            1 + random.nextInt(2)));
+                    break;
+                case 2:
+                    hex.addTerrain(f.createTerrain(Terrains.FIELDS, 1));
+                    break;
+                case 3:
+                    hex.addTerrain(f.createTerrain(Terrains.BLDG_ELEV,
+                            1 + random.nextInt(3)));
+                    break;
+                case 4:
+                    hex.addTerrain(f.createTerrain(Terrains.INDUSTRIAL,
+                            1 + random.nextInt(4)));
+                    break;
+                default:
+                    break;
+            }
+            hexes[i] = hex;
+        }
+        return new Board(SIZE, SIZE, hexes);
+    }
+
+    private static LosEffects.AttackInfo attackInfo(IBoard board,
+            Coords attackPos, Coords targetPos, int attackHeight,
+            int targetHeight) {
+        LosEffects.AttackInfo ai = new LosEffects.AttackInfo();
+        ai.attackPos = attackPos;
+        ai.targetPos = targetPos;
+        ai.attackerId = 1;
+        ai.targetId = 2;
+        ai.attackerIsMech = true;
+        ai.targetIsMech = true;
+        ai.attackHeight = 1;
+        ai.targetHeight = 1;
+        ai.attackAbsHeight = board.getHex(attackPos).surface() + attackHeight;
+        ai.targetAbsHeight = board.getHex(targetPos).surface() + targetHeight;
+        ai.attOnLand = true;
+        ai.targetOnLand = true;
+        ai.minimumWaterDepth = 0;
+        return ai;
+    }
+
+    private static LosEffects calculate(IGame game, LosEffects.AttackInfo ai,
+            boolean indexed) {
+        BoardLosIndex.setEnabled(indexed);
+        return LosEffects.calculateLos(game, ai);
+    }
+
+    private static void assertSameEffects(String msg, LosEffects expected,
+            LosEffects actual) {
+        Assert.assertEquals(msg, expected.canSee(), actual.canSee());
+        Assert.assertEquals(msg, expected.isBlocked(), actual.isBlocked());
+        Assert.assertEquals(msg, expected.isBlockedByHill(),
+                actual.isBlockedByHill());
+        Assert.assertEquals(msg, expected.getLightWoods(),
+                actual.getLightWoods());
+        Assert.assertEquals(msg, expected.getHeavyWoods(),
+                actual.getHeavyWoods());
+        Assert.assertEquals(msg, expected.getUltraWoods(),
+                actual.getUltraWoods());
+        Assert.assertEquals(msg, expected.getLightSmoke(),
+                actual.getLightSmoke());
+        Assert.assertEquals(msg, expected.getHeavySmoke(),
+                actual.getHeavySmoke());
+        Assert.assertEquals(msg, expected.getPlantedFields(),
+                actual.getPlantedFields());
+        Assert.assertEquals(msg, expected.getHeavyIndustrial(),
+                actual.getHeavyIndustrial());
+        Assert.assertEquals(msg, expected.getSoftBuildings(),
+                actual.getSoftBuildings());
+        Assert.assertEquals(msg, expected.getTargetCover(),
+                actual.getTargetCover());
+        Assert.assertEquals(msg, expected.getAttackerCover(),
+                actual.getAttackerCover());
+        Assert.assertEquals(msg, expected.getTargetPosition(),
+                actual.getTargetPosition());
+    }
+
+    @Test
+    public void testSameEffectsAsFullRules() {
+        Random random = new Random(4711);
+        for (boolean diagramLos : new boolean[] { false, true }) {
+            Board board = randomBoard(random);
+            IGame game = mockGame(board, diagramLos);
+            for (int i = 0; i < 2000; i++) {
+                Coords attackPos = new Coords(random.nextInt(SIZE),
+                        random.nextInt(SIZE));
+                Coords targetPos = new Coords(random.nextInt(SIZE),
+                        random.nextInt(SIZE));
+                int attackHeight = random.nextInt(6);
+                int targetHeight = random.nextInt(6);
+                LosEffects full = calculate(game, attackInfo(board, attackPos,
+                        targetPos, attackHeight, targetHeight), false);
+                LosEffects indexed = calculate(game, attackInfo(board,
+                        attackPos, targetPos, attackHeight, targetHeight),
+                        true);
+                assertSameEffects(attackPos + " -> " + targetPos, full,
+                        indexed);
+            }
+        }
+    }
+
+    @Test
+    public void testHexChanges() {
+        ITerrainFactory f = Terrains.getTerrainFactory();
+        IHex[] hexes = new IHex[SIZE * SIZE];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex(0);
+        }
+        Board board = new Board(SIZE, SIZE, hexes);
+        IGame game = mockGame(board, false);
+        Coords attackPos = new Coords(2, 5);
+        Coords targetPos = new Coords(8, 5);
+        Assert.assertTrue(BoardLosIndex.isClear(game,
+                attackInfo(board, attackPos, targetPos, 1, 1)));
+
+        // terrain changed in place
+        board.getHex(5, 5).addTerrain(f.createTerrain(Terrains.WOODS, 1));
+        Assert.assertFalse(BoardLosIndex.isClear(game,
+                attackInfo(board, attackPos, targetPos, 1, 1)));
+        // still clear well above the woods
+        Assert.assertTrue(BoardLosIndex.isClear(game,
+                attackInfo(board, attackPos, targetPos, 3, 3)));
+
+        // hex replaced
+        board.setHex(5, 5, new Hex(0));
+        Assert.assertTrue(BoardLosIndex.isClear(game,
+                attackInfo(board, attackPos, targetPos, 1, 1)));
+        board.setHex(5, 5, new Hex(2));
+        Assert.assertFalse(BoardLosIndex.isClear(game,
+                attackInfo(board, attackPos, targetPos, 1, 1)));
+    }
+}
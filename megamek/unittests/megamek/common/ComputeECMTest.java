@@ -52,6 +52,7 @@ public class ComputeECMTest {
         Mockito.when(mockOptions.booleanOption(Mockito.anyString()))
                 .thenReturn(false);
         Mockito.when(mockOptions.booleanOption("tacops_eccm")).thenReturn(true);
+        Mockito.when(mockOptions.getSnapshot()).thenCallRealMethod();
         
         // Mock the game
         Game mockGame = Mockito.mock(Game.class);
@@ -210,6 +211,7 @@ public class ComputeECMTest {
         Mockito.when(mockOptions.booleanOption(Mockito.anyString()))
                 .thenReturn(false);
         Mockito.when(mockOptions.booleanOption("tacops_eccm")).thenReturn(true);
+        Mockito.when(mockOptions.getSnapshot()).thenCallRealMethod();
         
         // Mock the game
         Game mockGame = Mockito.mock(Game.class);
@@ -459,6 +461,7 @@ public class ComputeECMTest {
         Mockito.when(mockOptions.booleanOption(Mockito.anyString()))
                 .thenReturn(false);
         Mockito.when(mockOptions.booleanOption("tacops_eccm")).thenReturn(true);
+        Mockito.when(mockOptions.getSnapshot()).thenCallRealMethod();
         
         // Mock the game
         Game mockGame = Mockito.mock(Game.class);
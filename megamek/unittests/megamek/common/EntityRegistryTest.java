@@ -0,0 +1,91 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import com.thoughtworks.xstream.XStream;
+
+@RunWith(JUnit4.class)
+public class EntityRegistryTest {
+
+    private static Entity createEntity(int id) {
+        Entity entity = new BipedMech();
+        entity.setId(id);
+        return entity;
+    }
+
+    private static List<Integer> ids(Iterable<Entity> entities) {
+        List<Integer> result = new ArrayList<Integer>();
+        for (Entity entity : entities) {
+            result.add(entity.getId());
+        }
+        return result;
+    }
+
+    @Test
+    public void testOrderAndIteration() {
+        EntityRegistry registry = new EntityRegistry();
+        for (int id = 1; id <= 10; id++) {
+            registry.append(createEntity(id));
+        }
+        Iterator<Entity> before = registry.iterator();
+
+        Entity replacement = createEntity(3);
+        Assert.assertNotNull(registry.replace(3, replacement));
+        Assert.assertNotNull(registry.removeById(5));
+        registry.append(createEntity(11));
+
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 6, 7, 8, 9, 10, 11),
+                ids(registry));
+        Assert.assertSame(replacement, registry.get(2));
+        Assert.assertSame(replacement, registry.getById(3));
+        Assert.assertNull(registry.getById(5));
+        Assert.assertFalse(registry.containsId(5));
+
+        // an iterator keeps going over the entities it started with
+        List<Integer> seen = new ArrayList<Integer>();
+        while (before.hasNext()) {
+            seen.add(before.next().getId());
+        }
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+                seen);
+    }
+
+    @Test
+    public void testSavedGameKeepsEntities() {
+        Game game = new Game();
+        game.addEntity(createEntity(1));
+        game.addEntity(createEntity(2));
+
+        // games saved before the registry also had a table by id
+        String xml = new XStream().toXML(game).replaceFirst(
+                "<entities ", "<entityIds/><entities ");
+        Game loaded = (Game) new XStream().fromXML(xml);
+
+        Assert.assertEquals(Arrays.asList(1, 2),
+                ids(loaded.getEntitiesVector()));
+        Assert.assertEquals(2, loaded.getEntity(2).getId());
+        loaded.removeEntity(1, IEntityRemovalConditions.REMOVE_SALVAGEABLE);
+        Assert.assertEquals(Arrays.asList(2), ids(loaded.getEntitiesVector()));
+    }
+}
@@ -97,5 +97,70 @@ public class EntityTest {
             TestCase.fail(exc.getMessage());
         }
     }
-    
+
+    @Test
+    public void testCachedBattleValue() {
+        try {
+            File f = new File("data/mechfiles/mechs/3050U/Exterminator EXT-4A.mtf");
+            Entity e = new MechFileParser(f).getEntity();
+            int bv = e.calculateBattleValue();
+            TestCase.assertEquals(bv, e.getCachedBattleValue());
+            TestCase.assertEquals(e.getCost(false), e.getCachedCost(false));
+
+            // armor damage changes the BV
+            e.setArmor(0, Mech.LOC_CT);
+            int damagedBV = e.calculateBattleValue();
+            TestCase.assertTrue(damagedBV < bv);
+            TestCase.assertEquals(damagedBV, e.getCachedBattleValue());
+
+            // so does the pilot's skill, even when changed through the crew
+            e.getCrew().setGunnery(2);
+            TestCase.assertEquals(e.calculateBattleValue(), e.getCachedBattleValue());
+            TestCase.assertTrue(e.getCachedBattleValue() > damagedBV);
+
+            // and destroyed equipment
+            int beforeCrit = e.getCachedBattleValue();
+            e.getWeaponList().get(0).setDestroyed(true);
+            TestCase.assertEquals(e.calculateBattleValue(), e.getCachedBattleValue());
+            TestCase.assertTrue(e.getCachedBattleValue() < beforeCrit);
+        } catch (Exception exc) {
+            TestCase.fail(exc.getMessage());
+        }
+    }
+
+    @Test
+    public void testCachedValuesFollowAmmoChanges() {
+        try {
+            File f = new File("data/mechfiles/mechs/3050U/Exterminator EXT-4A.mtf");
+            Entity e = new MechFileParser(f).getEntity();
+            int bv = e.getCachedBattleValue();
+            double cost = e.getCachedCost(false);
+
+            Mounted bin = null;
+            for (Mounted ammo : e.getAmmo()) {
+                if (((AmmoType) ammo.getType()).getAmmoType() == AmmoType.T_LRM) {
+                    bin = ammo;
+                }
+            }
+            AmmoType current = (AmmoType) bin.getType();
+            AmmoType swarmI = null;
+            for (AmmoType at : AmmoType.getMunitionsFor(AmmoType.T_LRM)) {
+                if ((at.getRackSize() == current.getRackSize())
+                        && (TechConstants.isClan(at.getTechLevel(e.getTechLevelYear()))
+                                == TechConstants.isClan(current.getTechLevel(e.getTechLevelYear())))
+                        && (at.getMunitionType() == AmmoType.M_SWARM_I)) {
+                    swarmI = at;
+                }
+            }
+            bin.changeAmmoType(swarmI);
+
+            TestCase.assertEquals(e.calculateBattleValue(), e.getCachedBattleValue());
+            TestCase.assertTrue(e.getCachedBattleValue() < bv);
+            TestCase.assertEquals(e.getCost(false), e.getCachedCost(false));
+            TestCase.assertTrue(e.getCachedCost(false) > cost);
+        } catch (Exception exc) {
+            TestCase.fail(exc.getMessage());
+        }
+    }
+
 }
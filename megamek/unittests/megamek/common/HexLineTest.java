@@ -0,0 +1,116 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class HexLineTest {
+
+    /**
+     * The line walk as Coords.intervening() used to do it, through
+     * Coords.nextHex() and IdealHex objects.
+     */
+    private static List<Coords> legacyIntervening(Coords src, Coords dest,
+            boolean split) {
+        IdealHex iSrc = new IdealHex(src);
+        IdealHex iDest = new IdealHex(dest);
+
+        int[] directions = new int[3];
+        int centerDirection = src.direction(dest);
+        if (split) {
+            centerDirection = (int) Math.round(src.radian(dest) + 0.0001
+                    / Coords.HEXSIDE) % 6;
+        }
+        directions[2] = centerDirection;
+        directions[1] = (centerDirection + 5) % 6;
+        directions[0] = (centerDirection + 1) % 6;
+
+        List<Coords> hexes = new ArrayList<>();
+        Coords current = src;
+        hexes.add(current);
+        while (!dest.equals(current)) {
+            current = Coords.nextHex(current, iSrc, iDest, directions);
+            hexes.add(current);
+        }
+        return hexes;
+    }
+
+    @Test
+    public void testSameWalkAsBefore() {
+        for (int sx = 0; sx < 9; sx++) {
+            for (int sy = 0; sy < 9; sy++) {
+                for (int dx = 0; dx < 9; dx++) {
+                    for (int dy = 0; dy < 9; dy++) {
+                        Coords src = new Coords(sx, sy);
+                        Coords dest = new Coords(dx, dy);
+                        for (boolean split : new boolean[] { false, true }) {
+                            Assert.assertEquals(src + " -> " + dest,
+                                    legacyIntervening(src, dest, split),
+                                    Coords.intervening(src, dest, split));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitSides() {
+        // runs along hex sides at 30 degrees
+        Coords src = new Coords(0, 5);
+        Coords dest = new Coords(3, 0);
+        Assert.assertEquals(30, src.degree(dest) % 60);
+        HexLine line = HexLine.get(src, dest, true);
+        Assert.assertTrue(line.isDivided());
+        Assert.assertEquals(HexLine.SIDE_NONE, line.getSplitSide(0));
+        Assert.assertEquals(HexLine.SIDE_LEFT, line.getSplitSide(1));
+        Assert.assertEquals(HexLine.SIDE_RIGHT, line.getSplitSide(2));
+        Assert.assertEquals(HexLine.SIDE_NONE, line.getSplitSide(3));
+
+        line = HexLine.get(src, dest, false);
+        Assert.assertFalse(line.isDivided());
+        Assert.assertEquals(HexLine.SIDE_NONE, line.getSplitSide(1));
+    }
+
+    @Test
+    public void testCacheAndVisitor() {
+        Coords src = new Coords(3, 4);
+        Coords dest = new Coords(12, 9);
+        HexLine line = HexLine.get(src, dest, false);
+        Assert.assertSame(line, HexLine.get(src, dest, false));
+        Assert.assertSame(line.getCoords(2), line.getCoords(2));
+
+        final List<Coords> visited = new ArrayList<>();
+        boolean completed = HexLine.walk(3, 4, 12, 9, false,
+                new HexLine.HexVisitor() {
+                    @Override
+                    public boolean visit(int x, int y, int splitSide) {
+                        visited.add(new Coords(x, y));
+                        return visited.size() < 3;
+                    }
+                });
+        Assert.assertFalse(completed);
+        Assert.assertEquals(3, visited.size());
+        for (int i = 0; i < visited.size(); i++) {
+            Assert.assertEquals(line.getCoords(i), visited.get(i));
+        }
+    }
+}
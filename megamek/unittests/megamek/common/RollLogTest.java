@@ -0,0 +1,105 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RollLogTest {
+
+    @After
+    public void resetRNG() {
+        Compute.setRNG(MMRandom.R_DEFAULT);
+    }
+
+    @Test
+    public void testReplayGivesTheRecordedRolls() {
+        RollLog log = new RollLog(0);
+        Compute.setRNG(MMRandom.R_POOL36, log, null);
+        int[] rolls = new int[50];
+        for (int i = 0; i < rolls.length; i++) {
+            rolls[i] = (i % 2 == 0) ? Compute.d6(2)
+                    : Compute.randomInt(Compute.RandomStream.INITIATIVE, 1000);
+        }
+        Assert.assertEquals(rolls.length / 2,
+                log.getCount(Compute.RandomStream.INITIATIVE.ordinal()));
+
+        // the streams are played back on their own, whatever the order
+        RollLog.Replay replay = log.replay(null);
+        Compute.setRNG(MMRandom.R_POOL36, new RollLog(0), replay);
+        for (int i = 1; i < rolls.length; i += 2) {
+            Assert.assertEquals(rolls[i],
+                    Compute.randomInt(Compute.RandomStream.INITIATIVE, 1000));
+        }
+        for (int i = 0; i < rolls.length; i += 2) {
+            Assert.assertEquals(rolls[i], Compute.d6(2));
+        }
+        Assert.assertFalse(replay.isDiverged());
+
+        // asking for something else ends the replay
+        Compute.randomInt(Compute.RandomStream.INITIATIVE, 7);
+        Assert.assertTrue(replay.isDiverged());
+    }
+
+    @Test
+    public void testReplayStartsAfterAnEarlierLog() {
+        RollLog log = new RollLog(0);
+        Compute.setRNG(MMRandom.R_SUN, log, null);
+        Compute.d6(2);
+        Compute.d6(2);
+        int next = Compute.d6(2);
+
+        // a save made after the first two rolls of two dice each
+        RollLog earlier = new RollLog(0);
+        for (int i = 0; i < 4; i++) {
+            earlier.record(Compute.RandomStream.COMBAT.ordinal(), 6, 0);
+        }
+        Compute.setRNG(MMRandom.R_SUN, null, log.replay(earlier));
+        Assert.assertEquals(next, Compute.d6(2));
+    }
+
+    @Test
+    public void testClientRollsAreNotRecorded() {
+        RollLog log = new RollLog(12345);
+        Compute.setRNG(MMRandom.R_SUN, log, null);
+        Compute.d6(Compute.RandomStream.CLIENT, 2);
+        Compute.randomInt(Compute.RandomStream.CLIENT, 100);
+        Assert.assertEquals(0, log.getCount());
+        Compute.d6(2);
+        Assert.assertEquals(2, log.getCount());
+    }
+
+    @Test
+    public void testSeededStreams() {
+        int[] first = rollSeeded(new RollLog(12345));
+        Assert.assertArrayEquals(first, rollSeeded(new RollLog(12345)));
+        Assert.assertFalse(Arrays.equals(first,
+                rollSeeded(new RollLog(54321))));
+    }
+
+    private static int[] rollSeeded(RollLog log) {
+        Compute.setRNG(MMRandom.R_CRYPTO, log, null);
+        int[] result = new int[20];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Compute.randomInt(Compute.RandomStream.MAP, 1 << 20);
+        }
+        return result;
+    }
+}
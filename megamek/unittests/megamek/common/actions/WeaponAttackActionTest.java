@@ -0,0 +1,135 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.actions;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import megamek.common.Board;
+import megamek.common.ComputeECM;
+import megamek.common.Coords;
+import megamek.common.ECMInfo;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.IPlayer;
+import megamek.common.MechFileParser;
+import megamek.common.Mounted;
+import megamek.common.Player;
+import megamek.common.ToHitData;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class WeaponAttackActionTest {
+
+    private static final String[] UNITS = {
+            "data/mechfiles/mechs/3039u/Atlas AS7-D.mtf",
+            "data/mechfiles/mechs/3039u/Centurion CN9-A.mtf",
+            "data/mechfiles/mechs/3039u/Locust LCT-1V.mtf",
+            "data/mechfiles/mechs/3050U/Raven RVN-3L.mtf" };
+
+    private IGame game;
+    private List<WeaponAttackAction> attacks;
+
+    @Before
+    public void setUp() throws Exception {
+        game = new Game();
+        game.getOptions().initialize();
+        IBoard board = new Board();
+        board.load(new File("data/boards/heavyforest1.board"));
+        game.setBoard(board);
+        for (int side = 0; side < 2; side++) {
+            IPlayer player = new Player(side, "Side " + side);
+            player.setTeam(side + 1);
+            game.addPlayer(side, player);
+            for (int i = 0; i < UNITS.length; i++) {
+                Entity entity = new MechFileParser(new File(UNITS[i]))
+                        .getEntity();
+                entity.setId((side * UNITS.length) + i);
+                entity.setOwner(player);
+                entity.setPosition(new Coords(3 + (3 * i), (side == 0) ? 3
+                        : 12));
+                entity.setFacing((side == 0) ? 3 : 0);
+                entity.setDeployed(true);
+                game.addEntity(entity);
+            }
+        }
+        game.setPhase(IGame.Phase.PHASE_FIRING);
+
+        // every weapon of the first side at the unit across from it
+        attacks = new ArrayList<WeaponAttackAction>();
+        for (int i = 0; i < UNITS.length; i++) {
+            Entity attacker = game.getEntity(i);
+            for (Mounted weapon : attacker.getWeaponList()) {
+                attacks.add(new WeaponAttackAction(i, i + UNITS.length,
+                        attacker.getEquipmentNum(weapon)));
+            }
+        }
+    }
+
+    @Test
+    public void testPrecomputedToHitMatchesSerialToHit() {
+        List<ToHitData> serial = new ArrayList<ToHitData>();
+        for (WeaponAttackAction waa : attacks) {
+            serial.add(waa.toHit(game));
+        }
+
+        final List<ECMInfo> allECMInfo = ComputeECM
+                .computeAllEntitiesECMInfo(game.getEntitiesVector());
+        for (WeaponAttackAction waa : attacks) {
+            Assert.assertTrue(waa.canPrecomputeToHit(game));
+        }
+        attacks.parallelStream().forEach(
+                waa -> waa.precomputeToHit(game, allECMInfo));
+
+        for (int i = 0; i < attacks.size(); i++) {
+            ToHitData toHit = attacks.get(i).getPrecomputedToHit(game);
+            Assert.assertEquals(serial.get(i).getValue(), toHit.getValue());
+            Assert.assertEquals(serial.get(i).getDesc(), toHit.getDesc());
+            // only handed out once
+            Assert.assertNull(attacks.get(i).getPrecomputedToHit(game));
+        }
+    }
+
+    @Test
+    public void testPrecomputedToHitIsWorkedOutAgainAfterAmmoRanOut() {
+        WeaponAttackAction withAmmo = null;
+        for (WeaponAttackAction waa : attacks) {
+            Mounted weapon = waa.getEntity(game).getEquipment(
+                    waa.getWeaponId());
+            if (weapon.getLinked() != null) {
+                withAmmo = waa;
+                break;
+            }
+        }
+        Assert.assertNotNull(withAmmo);
+        withAmmo.precomputeToHit(game, ComputeECM
+                .computeAllEntitiesECMInfo(game.getEntitiesVector()));
+
+        // as if other weapons had fired first
+        for (Mounted ammo : withAmmo.getEntity(game).getAmmo()) {
+            ammo.setShotsLeft(0);
+        }
+        ToHitData toHit = withAmmo.getPrecomputedToHit(game);
+        Assert.assertEquals(withAmmo.toHit(game).getDesc(), toHit.getDesc());
+        Assert.assertEquals(ToHitData.IMPOSSIBLE, toHit.getValue());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class EventBusTest {
+
+    private static class BaseEvent extends MMEvent {
+    }
+
+    private static class CancellableEvent extends BaseEvent {
+        @Override
+        public boolean isCancellable() {
+            return true;
+        }
+    }
+
+    public static class Handler {
+        final List<String> calls;
+
+        Handler(List<String> calls) {
+            this.calls = calls;
+        }
+
+        @Subscribe
+        public void base(BaseEvent event) {
+            calls.add("base");
+        }
+
+        @Subscribe(priority = 10)
+        public void cancellableFirst(CancellableEvent event) {
+            calls.add("cancellableFirst");
+        }
+
+        @Subscribe
+        public void cancellable(CancellableEvent event) {
+            calls.add("cancellable");
+            event.cancel();
+        }
+    }
+
+    public static class UnregisteringHandler {
+        final List<String> calls;
+        final EventBus bus;
+
+        UnregisteringHandler(List<String> calls, EventBus bus) {
+            this.calls = calls;
+            this.bus = bus;
+        }
+
+        @Subscribe(priority = 20)
+        public void once(BaseEvent event) {
+            calls.add("once");
+            bus.unregister(this);
+        }
+    }
+
+    @Test
+    public void testOrderCancellationAndUnregistering() {
+        EventBus bus = new EventBus();
+        List<String> calls = new ArrayList<String>();
+        bus.register(new Handler(calls));
+        bus.register(new UnregisteringHandler(calls, bus));
+
+        // the handlers of the event's own class first, by priority, then
+        // those of its superclass, until the event is cancelled
+        Assert.assertTrue(bus.trigger(new CancellableEvent()));
+        Assert.assertEquals(Arrays.asList("cancellableFirst", "cancellable"),
+                calls);
+
+        calls.clear();
+        Assert.assertFalse(bus.trigger(new BaseEvent()));
+        Assert.assertEquals(Arrays.asList("once", "base"), calls);
+
+        calls.clear();
+        bus.trigger(new BaseEvent());
+        Assert.assertEquals(Arrays.asList("base"), calls);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.net;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class AbstractConnectionTest {
+
+    private static final int CHATS = 100;
+    private static final int ENTITIES = 5;
+
+    @Test
+    public void testQueuedSendKeepsOrderAndLatestUpdates() throws Exception {
+        final List<String> chats = new ArrayList<>();
+        final Map<Integer, Integer> versions = new HashMap<>();
+
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            final IConnection client = ConnectionFactory.getInstance()
+                    .createClientConnection("localhost",
+                            serverSocket.getLocalPort(), 1);
+            Assert.assertTrue(client.open());
+            Socket socket = serverSocket.accept();
+            IConnection server = ConnectionFactory.getInstance()
+                    .createServerConnection(socket, 1);
+            Assert.assertTrue(server.open());
+
+            client.addConnectionListener(new ConnectionListenerAdapter() {
+                @Override
+                public void packetReceived(PacketReceivedEvent e) {
+                    Packet packet = e.getPacket();
+                    synchronized (chats) {
+                        if (packet.getCommand() == Packet.COMMAND_CHAT) {
+                            chats.add((String) packet.getObject(0));
+                        } else {
+                            int id = packet.getIntValue(0);
+                            int version = packet.getIntValue(1);
+                            Integer last = versions.get(id);
+                            // updates may be skipped, but never reordered
+                            Assert.assertTrue((last == null)
+                                    || (last < version));
+                            versions.put(id, version);
+                        }
+                        chats.notifyAll();
+                    }
+                }
+            });
+            Thread reader = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    client.update();
+                }
+            });
+            reader.setDaemon(true);
+            reader.start();
+
+            for (int i = 0; i < CHATS; i++) {
+                server.send(new Packet(Packet.COMMAND_CHAT, "chat " + i));
+                for (int id = 0; id < ENTITIES; id++) {
+                    for (int version = 0; version < 3; version++) {
+                        server.send(new Packet(Packet.COMMAND_ENTITY_UPDATE,
+                                new Object[] { id, (i * 3) + version }));
+                    }
+                }
+            }
+            server.send(new Packet(Packet.COMMAND_CHAT, "done"));
+
+            long end = System.currentTimeMillis() + 10000;
+            synchronized (chats) {
+                while (!chats.contains("done")
+                        && (System.currentTimeMillis() < end)) {
+                    chats.wait(100);
+                }
+            }
+            server.close();
+            client.close();
+        }
+
+        synchronized (chats) {
+            Assert.assertEquals(CHATS + 1, chats.size());
+            for (int i = 0; i < CHATS; i++) {
+                Assert.assertEquals("chat " + i, chats.get(i));
+            }
+            for (int id = 0; id < ENTITIES; id++) {
+                Assert.assertEquals(Integer.valueOf((CHATS * 3) - 1),
+                        versions.get(id));
+            }
+        }
+    }
+
+    @Test
+    public void testQueuedUpdatesKeepTheirMovePaths() {
+        AbstractConnection connection = new AbstractConnection("localhost", 0, 1) { //$NON-NLS-1$
+            @Override
+            protected INetworkPacket readNetworkPacket() {
+                return null;
+            }
+
+            @Override
+            protected void sendNetworkPacket(byte[] data, boolean zipped) {
+            }
+        };
+        Vector<Integer> movePath = new Vector<Integer>();
+        movePath.add(7);
+        AbstractConnection.SendQueue queue = new AbstractConnection.SendQueue();
+
+        // an update with a path isn't replaced by a later one
+        AbstractConnection.SendPacket moved = connection.new SendPacket(
+                new Packet(Packet.COMMAND_ENTITY_UPDATE, new Object[] { 1, 0,
+                        movePath }));
+        queue.addPacket(moved);
+        AbstractConnection.SendPacket later = connection.new SendPacket(
+                new Packet(Packet.COMMAND_ENTITY_UPDATE, new Object[] { 1, 1,
+                        null }));
+        queue.coalesce(later);
+        queue.addPacket(later);
+        // but one without a path is
+        AbstractConnection.SendPacket last = connection.new SendPacket(
+                new Packet(Packet.COMMAND_ENTITY_UPDATE, new Object[] { 1, 2,
+                        null }));
+        queue.coalesce(last);
+        queue.addPacket(last);
+
+        Assert.assertSame(moved, queue.getPacket());
+        Assert.assertSame(last, queue.getPacket());
+        Assert.assertNull(queue.getPacket());
+    }
+
+    @Test
+    public void testBurstOverBudgetIsSent() throws Exception {
+        AbstractConnection connection = new TestServerConnection(null);
+        for (int i = 0; i < 50; i++) {
+            connection.send(new Packet(Packet.COMMAND_CHAT, chat(i)));
+        }
+        // the sender works its way through the burst
+        long end = System.currentTimeMillis() + 5000;
+        while ((connection.getSendQueueBytes() > 0)
+                && (System.currentTimeMillis() < end)) {
+            Thread.sleep(10);
+        }
+        connection.send(new Packet(Packet.COMMAND_CHAT, chat(50)));
+        Assert.assertFalse(connection.isSendFinished());
+        connection.close();
+    }
+
+    @Test
+    public void testStalledClientIsDropped() throws Exception {
+        CountDownLatch stall = new CountDownLatch(1);
+        AbstractConnection connection = new TestServerConnection(stall);
+        try {
+            for (int i = 0; i < 50; i++) {
+                connection.send(new Packet(Packet.COMMAND_CHAT, chat(i)));
+            }
+            Assert.assertFalse(connection.isSendFinished());
+            Thread.sleep(connection.sendStall + 100);
+            connection.send(new Packet(Packet.COMMAND_CHAT, chat(50)));
+            Assert.assertTrue(connection.isSendFinished());
+        } finally {
+            stall.countDown();
+        }
+    }
+
+    private static String chat(int i) {
+        StringBuilder result = new StringBuilder("chat ").append(i);
+        while (result.length() < 1000) {
+            result.append('.');
+        }
+        return result.toString();
+    }
+
+    /**
+     * A server connection with a small send budget that takes a while to
+     * send each packet, or doesn't send anything until the latch is opened
+     */
+    private static class TestServerConnection extends AbstractConnection {
+        private final CountDownLatch stall;
+
+        TestServerConnection(CountDownLatch stall) {
+            super(null, 1);
+            this.stall = stall;
+            // the padded chats would compress to next to nothing
+            setCompression(false);
+            sendBudget = 10000;
+            sendGrace = 5000;
+            sendStall = 300;
+        }
+
+        @Override
+        protected INetworkPacket readNetworkPacket() {
+            return null;
+        }
+
+        @Override
+        protected void sendNetworkPacket(byte[] data, boolean zipped)
+                throws Exception {
+            if (stall != null) {
+                stall.await();
+            } else {
+                Thread.sleep(5);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.net;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class LocalConnectionTest {
+
+    @Test
+    public void testClientsOfALocalServerConnectInProcess() throws Exception {
+        final BlockingQueue<IConnection> accepted = new LinkedBlockingQueue<IConnection>();
+        final BlockingQueue<Packet> received = new LinkedBlockingQueue<Packet>();
+        final BlockingQueue<IConnection> disconnected = new LinkedBlockingQueue<IConnection>();
+        ConnectionFactory factory = ConnectionFactory.getInstance();
+        factory.registerLocalServer(40000, new Consumer<IConnection>() {
+            @Override
+            public void accept(IConnection c) {
+                accepted.add(c);
+            }
+        });
+        try {
+            IConnection client = factory.createClientConnection("localhost",
+                    40000, 1);
+            Assert.assertTrue(client instanceof LocalConnection);
+            Assert.assertTrue(client.open());
+            final IConnection server = accepted.poll(5, TimeUnit.SECONDS);
+            Assert.assertNotNull(server);
+
+            client.addConnectionListener(new ConnectionListenerAdapter() {
+                @Override
+                public void packetReceived(PacketReceivedEvent e) {
+                    received.add(e.getPacket());
+                }
+
+                @Override
+                public void disconnected(DisconnectedEvent e) {
+                    disconnected.add(e.getConnection());
+                }
+            });
+            startReader(client);
+
+            List<String> list = new ArrayList<String>();
+            list.add("before");
+            server.send(new Packet(Packet.COMMAND_ENTITY_UPDATE, list));
+            String chat = "chat";
+            server.send(new Packet(Packet.COMMAND_CHAT, chat));
+            // what the client got must not change with the server's copy
+            list.add("after");
+
+            Packet update = received.poll(5, TimeUnit.SECONDS);
+            Assert.assertEquals(Packet.COMMAND_ENTITY_UPDATE,
+                    update.getCommand());
+            Assert.assertEquals(1, ((List<?>) update.getObject(0)).size());
+            Assert.assertSame(chat, received.poll(5, TimeUnit.SECONDS)
+                    .getObject(0));
+
+            // closing the server end disconnects the client
+            server.close();
+            Assert.assertSame(client, disconnected.poll(5, TimeUnit.SECONDS));
+            Assert.assertTrue(client.isClosed());
+        } finally {
+            factory.unregisterLocalServer(40000);
+        }
+        Assert.assertFalse(factory.createClientConnection("localhost", 40000,
+                1) instanceof LocalConnection);
+    }
+
+    private static void startReader(final IConnection connection) {
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                connection.update();
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+    }
+}
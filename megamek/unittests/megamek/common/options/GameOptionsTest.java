@@ -111,4 +111,21 @@ public class GameOptionsTest {
         }
     }
     
+    @Test
+    public void testSnapshotFollowsChanges() {
+        GameOptionsSnapshot snapshot = testMe.getSnapshot();
+        assertFalse(snapshot.isDoubleBlind());
+        assertSame(snapshot, testMe.getSnapshot());
+
+        testMe.getOption(OptionsConstants.ADVANCED_DOUBLE_BLIND).setValue(true);
+        assertFalse(snapshot.isDoubleBlind());
+        assertTrue(testMe.getSnapshot().isDoubleBlind());
+
+        // initializing again puts back the defaults
+        snapshot = testMe.getSnapshot();
+        testMe.initialize();
+        assertNotSame(snapshot, testMe.getSnapshot());
+        assertFalse(testMe.getSnapshot().isDoubleBlind());
+    }
+
 }
@@ -0,0 +1,103 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.pathfinder;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.EntityMovementMode;
+import megamek.common.Hex;
+import megamek.common.IGame;
+import megamek.common.IHex;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+@RunWith(JUnit4.class)
+public class DistanceFieldTest {
+
+    private static final int SIZE = 6;
+
+    /**
+     * @return a flat board, cut in two by a cliff with a gap at its east end
+     */
+    private static Board cliffBoard() {
+        IHex[] hexes = new IHex[SIZE * SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                hexes[(y * SIZE) + x] = new Hex(
+                        ((y == 3) && (x < SIZE - 1)) ? 3 : 0);
+            }
+        }
+        return new Board(SIZE, SIZE, hexes);
+    }
+
+    private static Entity mockMech(Board board, int maxElevationChange) {
+        IGame mockGame = Mockito.mock(IGame.class);
+        Mockito.when(mockGame.getBoard()).thenReturn(board);
+        Entity mockEntity = Mockito.mock(Entity.class);
+        Mockito.when(mockEntity.getGame()).thenReturn(mockGame);
+        Mockito.when(mockEntity.getMovementMode()).thenReturn(
+                EntityMovementMode.BIPED);
+        Mockito.when(mockEntity.getMaxElevationChange()).thenReturn(
+                maxElevationChange);
+        return mockEntity;
+    }
+
+    @Test
+    public void testCostToEdge() {
+        Board board = cliffBoard();
+        Entity mech = mockMech(board, 2);
+        DistanceField toNorth = DistanceField.toEdge(mech, Board.START_N);
+        Assert.assertEquals(0, toNorth.getCost(new Coords(0, 0)));
+        Assert.assertEquals(2, toNorth.getCost(new Coords(0, 2)));
+        // straight up through the gap
+        Assert.assertEquals(5, toNorth.getCost(new Coords(5, 5)));
+        // around the cliff
+        Assert.assertTrue(toNorth.getCost(new Coords(0, 4)) > 5);
+        Assert.assertFalse(toNorth.isReachable(new Coords(0, 3)));
+        Assert.assertFalse(toNorth.isReachable(new Coords(SIZE, 0)));
+
+        // units that move alike share the field
+        Assert.assertSame(toNorth,
+                DistanceField.toEdge(mockMech(board, 2), Board.START_N));
+
+        // a unit that can climb the cliff pays for it
+        DistanceField climbing = DistanceField.toEdge(mockMech(board, 3),
+                Board.START_N);
+        Assert.assertEquals(6, climbing.getCost(new Coords(0, 3)));
+
+        // units that jump only count hexes
+        Assert.assertEquals(2, DistanceField.toCenter(mech, true).getCost(
+                new Coords(3, 5)));
+    }
+
+    @Test
+    public void testSettingAHexReplacesTheFields() {
+        Board board = cliffBoard();
+        Entity mech = mockMech(board, 2);
+        DistanceField toNorth = DistanceField.toEdge(mech, Board.START_N);
+        Assert.assertTrue(toNorth.isReachable(new Coords(0, 5)));
+
+        // closing the gap
+        board.setHex(SIZE - 1, 3, new Hex(3));
+        DistanceField updated = DistanceField.toEdge(mech, Board.START_N);
+        Assert.assertNotSame(toNorth, updated);
+        Assert.assertFalse(updated.isReachable(new Coords(0, 5)));
+        Assert.assertEquals(1, updated.getCost(new Coords(0, 1)));
+    }
+}
@@ -1,5 +1,12 @@
 package megamek.common.util;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import megamek.common.IBoard;
+import megamek.common.IHex;
+import megamek.common.MapSettings;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -58,4 +65,60 @@ public class BoardUtilitiesTest {
         expected = 0;
         Assert.assertEquals(expected, BoardUtilities.craterProfile(distanceFromCenter, craterRadius, maxDepth));
     }
+
+    @Test
+    public void testGenerateRandomIsRepeatable() throws Exception {
+        for (int algorithm = 0; algorithm < BoardUtilities.getAmountElevationGenerators(); algorithm++) {
+            MapSettings settings = MapSettings.getInstance();
+            settings.setBoardSize(32, 34);
+            settings.setAlgorithmToUse(algorithm);
+            settings.setElevationParams(60, 5, 10);
+            settings.setForestParams(3, 6, 3, 8, 30);
+            settings.setWaterParams(2, 4, 2, 6, 30);
+            settings.setCliffParam(50);
+            settings.setRiverParam(100);
+            settings.setCraterParam(100, 1, 3, 2, 5);
+            settings.setSpecialFX(0, 100, 0, 100, 0);
+            settings.setMountainParams(1, 5, 8, 3, 5, MapSettings.MOUNTAIN_SNOWCAPPED);
+            settings.setCityParams(4, "GRID", 10, 100, 1, 4, 75, 60);
+            settings.setRandomSeed(1234567890123L);
+
+            // The same seed gives the same board, however many threads work
+            // on it.
+            String first = generateIn(new ForkJoinPool(1), settings);
+            Assert.assertEquals("algorithm " + algorithm, first,
+                    generateIn(new ForkJoinPool(4), settings));
+
+            settings.setRandomSeed(42);
+            Assert.assertNotEquals("algorithm " + algorithm, first,
+                    describe(BoardUtilities.generateRandom(settings)));
+        }
+    }
+
+    private static String generateIn(ForkJoinPool pool, MapSettings settings)
+            throws Exception {
+        try {
+            return describe(pool.submit(
+                    () -> BoardUtilities.generateRandom(settings)).get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String describe(IBoard board) {
+        StringBuilder result = new StringBuilder();
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                IHex hex = board.getHex(x, y);
+                result.append(hex.getLevel()).append(' ').append(hex.getTheme());
+                int[] types = hex.getTerrainTypes();
+                Arrays.sort(types);
+                for (int type : types) {
+                    result.append(' ').append(hex.getTerrain(type));
+                }
+                result.append('\n');
+            }
+        }
+        return result.toString();
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * MegaMek - Copyright (C) 2016 The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+package megamek.common.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MetricsTest {
+
+    @Test
+    public void testHistogram() {
+        Metrics.Histogram histogram = Metrics.getInstance().histogram(
+                "test.histogram");
+        Assert.assertSame(histogram, Metrics.getInstance().histogram(
+                "test.histogram"));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(5050, histogram.getSum());
+        Assert.assertEquals(1, histogram.getMin());
+        Assert.assertEquals(100, histogram.getMax());
+        Assert.assertEquals(50, histogram.getMean());
+        // the median 50 falls into the bucket 32..63
+        Assert.assertEquals(63, histogram.getPercentile(0.5));
+        Assert.assertEquals(100, histogram.getPercentile(0.99));
+
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeMismatch() {
+        Metrics.getInstance().counter("test.mismatch");
+        Metrics.getInstance().timer("test.mismatch");
+    }
+
+    @Test
+    public void testCsv() throws IOException {
+        Metrics.Counter counter = Metrics.getInstance().counter("test.counter");
+        counter.reset();
+        counter.add(3);
+        counter.increment();
+        StringWriter out = new StringWriter();
+        Metrics.getInstance().writeCsv(out, 42, true);
+        String csv = out.toString();
+        Assert.assertTrue(csv.startsWith("time,name,type,count"));
+        Assert.assertTrue(csv.contains("\n42,test.counter,counter,4\n"));
+    }
+}